@@ -289,6 +289,10 @@ export default {
     return apiClient.patch(`/notifications/${id}/read`)
   },
 
+  markAnnouncementAsRead(id, userId) {
+    return apiClient.patch(`/announcements/${id}/read?userId=${userId}`)
+  },
+
   // Study Groups
   getUserStudyGroups(userId) {
     return apiClient.get(`/study-groups/user/${userId}/groups`)
@@ -36,6 +36,9 @@ class WebSocketService {
 
     // queue subscriptions when not connected - handles timing issues
     this.pendingSubscriptions = []
+
+    // what each active subscription was made with, so they can be redone after a dropped connection
+    this.subscriptionArgs = new Map()
   }
 
   // add connection status listener - components can subscribe to connection changes
@@ -98,9 +101,10 @@ class WebSocketService {
             this.reconnectAttempts = 0
             this.reconnectDelay = 1000
             this.silentMode = false
-            this.notifyConnectionStatus()
-            // process any pending subscriptions that were queued
+            // process any pending subscriptions that were queued - before telling listeners,
+            // the notification store asks for a replay when it sees the connection come back
             this.processPendingSubscriptions()
+            this.notifyConnectionStatus()
             resolve(frame)
           },
           (error) => {
@@ -122,6 +126,10 @@ class WebSocketService {
           if (this.connected) {
             this.connected = false
             this.connecting = false
+            // subscriptions die with the connection - queue them again for the reconnect
+            this.subscriptionArgs.forEach((pending) => this.pendingSubscriptions.push(pending))
+            this.subscriptionArgs.clear()
+            this.subscriptions.clear()
             this.notifyConnectionStatus()
 
             // Attempt reconnection
@@ -170,6 +178,7 @@ class WebSocketService {
         }
       })
       this.subscriptions.clear()
+      this.subscriptionArgs.clear()
 
       if (this.connected) {
         try {
@@ -211,6 +220,9 @@ class WebSocketService {
         case 'conversation':
           this.subscribeToConversation(...args)
           break
+        case 'adminDashboard':
+          this.subscribeToAdminDashboard(...args)
+          break
       }
     })
   }
@@ -226,8 +238,9 @@ class WebSocketService {
       return null
     }
 
-    // subscribe to user-specific queue - backend sends messages here
-    const destination = `/user/${userId}/queue/notifications`
+    // spring maps /user/queue/... to this session's own queue, the user comes from the
+    // principal set on CONNECT (the user id from our jwt) - not from the path
+    const destination = '/user/queue/notifications'
     try {
       const subscription = this.stompClient.subscribe(destination, (message) => {
         try {
@@ -240,6 +253,7 @@ class WebSocketService {
 
       // save subscription for later unsubscribe
       this.subscriptions.set('notifications', subscription)
+      this.subscriptionArgs.set('notifications', { type: 'notifications', args: [userId, callback] })
       return subscription
     } catch (e) {
       console.error('Error subscribing to notifications:', e)
@@ -256,7 +270,7 @@ class WebSocketService {
       return null
     }
 
-    const destination = `/user/${userId}/queue/messages`
+    const destination = '/user/queue/messages'
     try {
       const subscription = this.stompClient.subscribe(destination, (message) => {
         try {
@@ -268,6 +282,7 @@ class WebSocketService {
       })
 
       this.subscriptions.set('messages', subscription)
+      this.subscriptionArgs.set('messages', { type: 'messages', args: [userId, callback] })
       return subscription
     } catch (e) {
       console.error('Error subscribing to messages:', e)
@@ -296,6 +311,7 @@ class WebSocketService {
       })
 
       this.subscriptions.set(`group-${groupId}`, subscription)
+      this.subscriptionArgs.set(`group-${groupId}`, { type: 'group', args: [groupId, callback] })
       return subscription
     } catch (e) {
       console.error('Error subscribing to group:', e)
@@ -325,6 +341,7 @@ class WebSocketService {
       })
 
       this.subscriptions.set('broadcast', subscription)
+      this.subscriptionArgs.set('broadcast', { type: 'broadcast', args: [callback] })
       return subscription
     } catch (e) {
       console.error('Error subscribing to broadcast:', e)
@@ -332,6 +349,36 @@ class WebSocketService {
     }
   }
 
+  // subscribe to the live admin dashboard feed - counters and new activities, about once a second at most
+  // the server only lets ADMIN / SUPER_ADMIN tokens subscribe
+  subscribeToAdminDashboard(callback) {
+    if (!this.connected || !this.stompClient) {
+      if (!this.silentMode) {
+        this.pendingSubscriptions.push({ type: 'adminDashboard', args: [callback] })
+      }
+      return null
+    }
+
+    const destination = '/topic/admin/dashboard'
+    try {
+      const subscription = this.stompClient.subscribe(destination, (message) => {
+        try {
+          const delta = JSON.parse(message.body)
+          callback(delta)
+        } catch (e) {
+          console.error('Error parsing dashboard update:', e)
+        }
+      })
+
+      this.subscriptions.set('adminDashboard', subscription)
+      this.subscriptionArgs.set('adminDashboard', { type: 'adminDashboard', args: [callback] })
+      return subscription
+    } catch (e) {
+      console.error('Error subscribing to admin dashboard:', e)
+      return null
+    }
+  }
+
   // send message to study group via websocket
   // fallback to http api if websocket not connected
   sendGroupMessage(groupId, message) {
@@ -394,6 +441,7 @@ class WebSocketService {
       })
 
       this.subscriptions.set(`conversation-${otherUserId}`, subscription)
+      this.subscriptionArgs.set(`conversation-${otherUserId}`, { type: 'conversation', args: [userId, otherUserId, callback] })
       return subscription
     } catch (e) {
       console.error('Error subscribing to conversation:', e)
@@ -428,6 +476,25 @@ class WebSocketService {
     }
   }
 
+  // ask the server for the notifications we missed while disconnected
+  // they come back on the notifications queue, followed by a replayDone event
+  // the server takes the user from the connection, so only lastSeenId is sent
+  requestNotificationReplay(lastSeenId) {
+    if (!this.connected || !this.stompClient) {
+      return false
+    }
+
+    try {
+      this.stompClient.send('/app/notifications/replay', {}, JSON.stringify({
+        lastSeenId
+      }))
+      return true
+    } catch (e) {
+      console.error('Error requesting notification replay:', e)
+      return false
+    }
+  }
+
   // send typing indicator to other user
   // lets them know we're typing a message
   sendTypingIndicator(senderId, recipientId, isTyping) {
@@ -460,6 +527,7 @@ class WebSocketService {
       }
       this.subscriptions.delete(key)
     }
+    this.subscriptionArgs.delete(key)
   }
 
   // check if websocket is currently connected
@@ -3,22 +3,39 @@
  *
  * manages all user notifications - loading, marking as read, deleting, etc
  * handles real-time notifications through websocket connection
+ * the server pushes every new notification and the unread count, after a reconnect we ask it
+ * to replay whatever came in since the highest id we have (lastSeenId) - no polling needed
+ * announcements (course / campus notices) are mixed into the same list, they keep thier own
+ * ids so we key them as "announcement-{id}" to not clash with notification ids
  * took forever to get the websocket stuff working properly lol
  */
 
 import { defineStore } from 'pinia'
 import api from '../services/api'
 import websocketService from '../services/websocket'
+import { useAuthStore } from './auth'
+
+// announcements have thier own id sequence - give them a key that cant clash with a notification id
+function normalize(item) {
+  if (item.source === 'ANNOUNCEMENT' && typeof item.id === 'number') {
+    return { ...item, announcementId: item.id, id: `announcement-${item.id}` }
+  }
+  return item
+}
 
 export const useNotificationStore = defineStore('notifications', {
   // state - stores notification data and preferences
   state: () => ({
     notifications: [], // all notifications for current user
-    unreadCount: 0, // count of unread notifications
+    unreadCount: 0, // count of unread notifications + announcements
+    announcementUnread: 0, // the announcement part of unreadCount (pushed counts are notifications only)
     loading: false, // loading state for ui
     error: null, // error message if something went wrong
     preferences: null, // user notification preferences
-    isConnected: false // websocket connection status
+    isConnected: false, // subscribed to real-time notifications
+    socketConnected: false, // websocket actually up right now - polling only happens while its down
+    lastSeenId: 0, // highest notification id we have, sent with the replay request
+    userId: null
   }),
 
   // getters - computed properties for filtering notifications
@@ -54,10 +71,11 @@ export const useNotificationStore = defineStore('notifications', {
         if (response.data) {
           // backend can return paginated or array response - handle both
           if (response.data.content) {
-            this.notifications = response.data.content
+            this.notifications = response.data.content.map(normalize)
           } else if (Array.isArray(response.data)) {
-            this.notifications = response.data
+            this.notifications = response.data.map(normalize)
           }
+          this.notifications.forEach(n => this.trackSeen(n.id))
         }
       } catch (error) {
         console.error('Failed to load notifications:', error)
@@ -78,6 +96,7 @@ export const useNotificationStore = defineStore('notifications', {
         // backend response format varies - handle both
         if (response.data?.count !== undefined) {
           this.unreadCount = response.data.count
+          this.announcementUnread = response.data.announcements || 0
         } else if (typeof response.data === 'number') {
           this.unreadCount = response.data
         }
@@ -95,7 +114,7 @@ export const useNotificationStore = defineStore('notifications', {
       try {
         const response = await api.getUnreadNotifications(userId)
         if (response.data) {
-          const unread = Array.isArray(response.data) ? response.data : []
+          const unread = Array.isArray(response.data) ? response.data.map(normalize) : []
           // merge with existing notifications - avoid duplicates
           const existingIds = this.notifications.map(n => n.id)
           unread.forEach(n => {
@@ -113,9 +132,15 @@ export const useNotificationStore = defineStore('notifications', {
     // markAsRead - marks single notification as read
     async markAsRead(notificationId) {
       try {
-        await api.markNotificationAsRead(notificationId)
-        // update local state immediately for better ux
         const notification = this.notifications.find(n => n.id === notificationId)
+        if (notification?.source === 'ANNOUNCEMENT') {
+          await api.markAnnouncementAsRead(notification.announcementId, this.userId)
+          if (notification.read) return
+          this.announcementUnread = Math.max(0, this.announcementUnread - 1)
+        } else {
+          await api.markNotificationAsRead(notificationId)
+        }
+        // update local state immediately for better ux
         if (notification) {
           notification.read = true
           notification.readAt = new Date().toISOString()
@@ -138,6 +163,7 @@ export const useNotificationStore = defineStore('notifications', {
           n.readAt = new Date().toISOString()
         })
         this.unreadCount = 0
+        this.announcementUnread = 0
       } catch (error) {
         console.error('Failed to mark all as read:', error)
         throw error
@@ -146,8 +172,14 @@ export const useNotificationStore = defineStore('notifications', {
 
     async deleteNotification(notificationId) {
       try {
-        await api.deleteNotification(notificationId)
         const index = this.notifications.findIndex(n => n.id === notificationId)
+        // announcements are shared, "deleting" one just marks it read and hides it here
+        if (this.notifications[index]?.source === 'ANNOUNCEMENT') {
+          await this.markAsRead(notificationId)
+          this.notifications.splice(index, 1)
+          return
+        }
+        await api.deleteNotification(notificationId)
         if (index > -1) {
           const notification = this.notifications[index]
           if (!notification.read) {
@@ -207,6 +239,62 @@ export const useNotificationStore = defineStore('notifications', {
       }
     },
 
+    // trackSeen - remember the highest notification id so a replay only sends newer ones
+    trackSeen(id) {
+      if (typeof id === 'number' && id > this.lastSeenId) {
+        this.lastSeenId = id
+      }
+    },
+
+    // handleRealTimeEvent - everything on the users notification queue comes through here
+    handleRealTimeEvent(event) {
+      switch (event.event) {
+        case 'unreadCount':
+          // the server keeps the count, just take it
+          this.unreadCount = event.count + this.announcementUnread
+          break
+        case 'replayDone':
+          this.unreadCount = event.unreadCount + this.announcementUnread
+          this.trackSeen(event.lastId)
+          // missed too many to replay one by one - reload the first page instead
+          if (event.truncated) {
+            this.loadNotifications(this.userId)
+          }
+          break
+        case 'announcement':
+          this.addAnnouncement(event)
+          break
+        default: {
+          // a new notification, or a merged one that got bumped ("3 new messages") - same id, replace it
+          const index = this.notifications.findIndex(n => n.id === event.id)
+          if (index > -1) {
+            this.notifications.splice(index, 1)
+          }
+          this.notifications.unshift(event)
+          this.trackSeen(event.id)
+          this.showBrowserNotification(event)
+        }
+      }
+    },
+
+    // addAnnouncement - a course / campus announcement pushed to us
+    addAnnouncement(event) {
+      const announcement = normalize(event)
+      if (this.notifications.some(n => n.id === announcement.id)) return
+      this.notifications.unshift(announcement)
+      this.announcementUnread++
+      this.unreadCount++
+      this.showBrowserNotification(announcement)
+    },
+
+    // onConnectionChange - after every (re)connect ask for what we missed while offline
+    onConnectionChange(connected) {
+      this.socketConnected = connected
+      if (connected && this.isConnected && this.userId) {
+        websocketService.requestNotificationReplay(this.lastSeenId)
+      }
+    },
+
     // subscribeToRealTime - connects to websocket for live notifications
     // this was really tricky to get working with teh reconnection logic
     async subscribeToRealTime(userId, token) {
@@ -218,24 +306,28 @@ export const useNotificationStore = defineStore('notifications', {
           await websocketService.connect(token)
         }
 
-        // subscribe to user-specific notifications
-        websocketService.subscribeToNotifications(userId, (notification) => {
-          // add new notification to beginning of list
-          this.notifications.unshift(notification)
-          this.unreadCount++
-
-          // show browser notification if user allowed it
-          this.showBrowserNotification(notification)
-        })
+        // subscribe to user-specific notifications (new ones, unread count, replays)
+        this.userId = userId
+        websocketService.subscribeToNotifications(userId, (event) => this.handleRealTimeEvent(event))
 
         // also subscribe to system-wide broadcast notifications
+        // announcements for a role come through here too - skip the ones for other roles
+        const authStore = useAuthStore()
         websocketService.subscribeToBroadcast((notification) => {
+          if (notification.event === 'announcement') {
+            if (notification.audienceType !== 'ROLE' || notification.audienceRole === authStore.userRole) {
+              this.addAnnouncement(notification)
+            }
+            return
+          }
           this.notifications.unshift(notification)
           this.unreadCount++
           this.showBrowserNotification(notification)
         })
 
         this.isConnected = true
+        // called right away with the current status too, so this also replays anything since the first load
+        websocketService.addConnectionListener(this.onConnectionChange)
       } catch (error) {
         console.error('Failed to subscribe to real-time notifications:', error)
         // app should still work without real-time updates - just slower
@@ -248,8 +340,10 @@ export const useNotificationStore = defineStore('notifications', {
       if (websocketService) {
         websocketService.unsubscribe('notifications')
         websocketService.unsubscribe('broadcast')
+        websocketService.removeConnectionListener(this.onConnectionChange)
       }
       this.isConnected = false
+      this.socketConnected = false
     },
 
     // showBrowserNotification - shows native browser notification
@@ -308,9 +402,12 @@ export const useNotificationStore = defineStore('notifications', {
     reset() {
       this.notifications = []
       this.unreadCount = 0
+      this.announcementUnread = 0
       this.loading = false
       this.error = null
       this.preferences = null
+      this.lastSeenId = 0
+      this.userId = null
       this.unsubscribeFromRealTime() // disconnect websocket
     },
 
@@ -0,0 +1,15 @@
+package com.sams.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * turns on @Scheduled support for the background jobs
+ * (seat counter reconciliation etc)
+ *
+ * kept in its own config so its easy to find what runs in the background
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
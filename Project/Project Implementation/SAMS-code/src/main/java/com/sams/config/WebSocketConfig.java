@@ -1,6 +1,8 @@
 package com.sams.config;
 
+import com.sams.security.WebSocketAuthInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -12,11 +14,19 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  *
  * this was tricky to get working with our JWT auth
  * make sure sockjs is working if you have issues in old browsers
+ *
+ * the JWT is checked on the stomp CONNECT frame and admin topics on SUBSCRIBE (WebSocketAuthInterceptor)
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+
+    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor) {
+        this.webSocketAuthInterceptor = webSocketAuthInterceptor;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // simple in-memory broker - works fine for our use case
@@ -39,4 +49,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*") // TODO: restrict this in production maybe?
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // frames from clients - token on connect, role check on subscribe
+        registration.interceptors(webSocketAuthInterceptor);
+    }
 }
@@ -5,6 +5,8 @@ import com.sams.dto.UserResponse;
 import com.sams.entity.User;
 import com.sams.repository.UserRepository;
 import com.sams.security.JwtUtil;
+import com.sams.service.DashboardCounterService;
+import com.sams.service.SearchIndexService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -30,15 +32,21 @@ public class AdminUserManagementController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final ObjectMapper objectMapper;
+    private final DashboardCounterService dashboardCounterService;
+    private final SearchIndexService searchIndexService;
 
     public AdminUserManagementController(UserRepository userRepository,
                                          PasswordEncoder passwordEncoder,
                                          JwtUtil jwtUtil,
-                                         ObjectMapper objectMapper) {
+                                         ObjectMapper objectMapper,
+                                         DashboardCounterService dashboardCounterService,
+                                         SearchIndexService searchIndexService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.objectMapper = objectMapper;
+        this.dashboardCounterService = dashboardCounterService;
+        this.searchIndexService = searchIndexService;
     }
 
     // GET all users - GET /api/admin/users
@@ -116,6 +124,8 @@ public class AdminUserManagementController {
 
         // Save user
         user = userRepository.save(user);
+        dashboardCounterService.userChanged(null, user);
+        searchIndexService.entitySaved(user);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(new UserResponse(user));
     }
@@ -140,6 +150,7 @@ public class AdminUserManagementController {
         }
 
         // Update fields
+        DashboardCounterService.UserSnapshot before = dashboardCounterService.snapshot(user);
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
@@ -166,6 +177,8 @@ public class AdminUserManagementController {
         }
 
         user = userRepository.save(user);
+        dashboardCounterService.userChanged(before, user);
+        searchIndexService.entitySaved(user);
 
         return ResponseEntity.ok(new UserResponse(user));
     }
@@ -205,8 +218,11 @@ public class AdminUserManagementController {
         }
 
         // Soft delete
+        DashboardCounterService.UserSnapshot before = dashboardCounterService.snapshot(user);
         user.softDelete(currentUser.getId());
         userRepository.save(user);
+        dashboardCounterService.userChanged(before, user);
+        searchIndexService.entitySaved(user);
 
         return ResponseEntity.ok().body("User deleted successfully");
     }
@@ -217,8 +233,11 @@ public class AdminUserManagementController {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
+        DashboardCounterService.UserSnapshot before = dashboardCounterService.snapshot(user);
         user.setActive(!user.getActive());
         user = userRepository.save(user);
+        dashboardCounterService.userChanged(before, user);
+        searchIndexService.entitySaved(user);
 
         return ResponseEntity.ok(new UserResponse(user));
     }
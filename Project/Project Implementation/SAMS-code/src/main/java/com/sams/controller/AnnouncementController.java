@@ -0,0 +1,148 @@
+package com.sams.controller;
+
+import com.sams.dto.AnnouncementRequest;
+import com.sams.dto.AnnouncementResponse;
+import com.sams.entity.Announcement;
+import com.sams.security.JwtUtil;
+import com.sams.service.AnnouncementService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * handles announcements - notices for everyone, a role, a course or a semester
+ * users mostly see them through the notification inbox, this is for posting them and marking them read
+ */
+@RestController
+@RequestMapping("/api/announcements")
+public class AnnouncementController {
+
+    private final AnnouncementService announcementService;
+    private final JwtUtil jwtUtil;
+
+    public AnnouncementController(AnnouncementService announcementService, JwtUtil jwtUtil) {
+        this.announcementService = announcementService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    // post an announcement - faculty only to thier own courses (checked in the service)
+    // the poster is whoever the token belongs to, not something the client sends
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'FACULTY')")
+    public ResponseEntity<AnnouncementResponse> createAnnouncement(@Valid @RequestBody AnnouncementRequest request,
+                                                                   @RequestHeader("Authorization") String authHeader) {
+        // Extract current user from token
+        String token = authHeader.substring(7);
+        String currentUsername = jwtUtil.getUsernameFromToken(token);
+
+        Announcement created = announcementService.createAnnouncement(convertToEntity(request), currentUsername);
+        return ResponseEntity.status(HttpStatus.CREATED).body(convertToResponse(created));
+    }
+
+    // announcements this user can see, with thier read flag
+    @GetMapping
+    public ResponseEntity<List<AnnouncementResponse>> getAnnouncements(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (size < 1) size = 1;
+        if (size > 100) size = 100;
+        if (page < 0) page = 0;
+
+        List<Announcement> announcements = announcementService.getAnnouncementsForUser(userId, page, size);
+        Set<Long> readIds = announcementService.getReadIds(userId, announcements);
+        List<AnnouncementResponse> responses = announcements.stream()
+                .map(announcement -> {
+                    AnnouncementResponse response = convertToResponse(announcement);
+                    response.setRead(readIds.contains(announcement.getId()));
+                    return response;
+                })
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(responses);
+    }
+
+    // everything posted, with how many people read each one
+    @GetMapping("/all")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<AnnouncementResponse>> getAllAnnouncements(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (size < 1) size = 1;
+        if (size > 100) size = 100;
+        if (page < 0) page = 0;
+
+        List<Announcement> announcements = announcementService.getAllAnnouncements(page, size);
+        Map<Long, Long> readCounts = announcementService.getReadCounts(announcements);
+        List<AnnouncementResponse> responses = announcements.stream()
+                .map(announcement -> {
+                    AnnouncementResponse response = convertToResponse(announcement);
+                    response.setReadCount(readCounts.getOrDefault(announcement.getId(), 0L));
+                    return response;
+                })
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(responses);
+    }
+
+    // mark an announcement as read for a user
+    @PatchMapping("/{id}/read")
+    public ResponseEntity<Map<String, Object>> markAsRead(@PathVariable Long id, @RequestParam Long userId) {
+        boolean marked = announcementService.markAsRead(id, userId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("marked", marked);
+        response.put("unreadCount", announcementService.getUnreadCount(userId));
+
+        return ResponseEntity.ok(response);
+    }
+
+    // take an announcement down
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<AnnouncementResponse> withdrawAnnouncement(@PathVariable Long id) {
+        Announcement withdrawn = announcementService.withdrawAnnouncement(id);
+        return ResponseEntity.ok(convertToResponse(withdrawn));
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private Announcement convertToEntity(AnnouncementRequest request) {
+        Announcement announcement = new Announcement();
+        announcement.setTitle(request.getTitle());
+        announcement.setMessage(request.getMessage());
+        announcement.setActionUrl(request.getActionUrl());
+        announcement.setAudienceType(request.getAudienceType());
+        announcement.setAudienceRole(request.getAudienceRole());
+        announcement.setAudienceId(request.getAudienceId());
+        announcement.setExpiresAt(request.getExpiresAt());
+
+        return announcement;
+    }
+
+    private AnnouncementResponse convertToResponse(Announcement announcement) {
+        AnnouncementResponse response = new AnnouncementResponse();
+        response.setId(announcement.getId());
+        response.setTitle(announcement.getTitle());
+        response.setMessage(announcement.getMessage());
+        response.setActionUrl(announcement.getActionUrl());
+        response.setAudienceType(announcement.getAudienceType());
+        response.setAudienceRole(announcement.getAudienceRole());
+        response.setAudienceId(announcement.getAudienceId());
+        response.setCreatedById(announcement.getCreatedBy() != null ? announcement.getCreatedBy().getId() : null);
+        response.setCreatedAt(announcement.getCreatedAt());
+        response.setExpiresAt(announcement.getExpiresAt());
+        response.setActive(announcement.getActive());
+
+        return response;
+    }
+}
@@ -14,7 +14,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -122,6 +124,11 @@ public class CourseController {
         }
 
         Course updatedCourse = courseService.updateCourse(id, courseDetails);
+
+        // more seats now - let waitlisted students in straight away
+        if (request.getCapacity() != null) {
+            enrollmentService.processWaitlist(updatedCourse);
+        }
         return convertToResponse(updatedCourse);
     }
 
@@ -222,6 +229,13 @@ public class CourseController {
                 .collect(Collectors.toList());
     }
 
+    // what is a student still missing for this course - GET /api/courses/{courseId}/prerequisites/missing?studentId=
+    // planner uses this to explain why enrollment would be blocked
+    @GetMapping("/{courseId}/prerequisites/missing")
+    public Map<String, Object> getMissingPrerequisites(@PathVariable Long courseId, @RequestParam Long studentId) {
+        return enrollmentService.getPrerequisiteStatus(studentId, courseId);
+    }
+
     // update course schedule - PUT /api/courses/{courseId}/schedule
     @PutMapping("/{courseId}/schedule")
     public CourseResponse updateSchedule(
@@ -238,15 +252,19 @@ public class CourseController {
     @GetMapping("/{courseId}/waitlist")
     public List<WaitlistInfo> getWaitlist(@PathVariable Long courseId) {
         List<Enrollment> waitlist = enrollmentService.getWaitlist(courseId);
-        return waitlist.stream()
-                .map(e -> new WaitlistInfo(
-                    e.getStudent().getId(),
-                    e.getStudent().getUsername(),
-                    e.getStudent().getEmail(),
-                    e.getWaitlistPosition(),
-                    e.getEnrollmentDate()
-                ))
-                .collect(Collectors.toList());
+        // list is already in ticket order so the rank is just the index
+        List<WaitlistInfo> result = new ArrayList<>();
+        for (int i = 0; i < waitlist.size(); i++) {
+            Enrollment e = waitlist.get(i);
+            result.add(new WaitlistInfo(
+                e.getStudent().getId(),
+                e.getStudent().getUsername(),
+                e.getStudent().getEmail(),
+                i + 1,
+                e.getEnrollmentDate()
+            ));
+        }
+        return result;
     }
 
     // nested class for waitlist info
@@ -2,11 +2,14 @@ package com.sams.controller;
 
 import com.sams.dto.dashboard.*;
 import com.sams.service.DashboardService;
+import com.sams.service.RollupService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +26,9 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private RollupService rollupService;
+
     /**
      * Get complete dashboard with all analytics
      * GET /api/dashboard/complete
@@ -57,6 +63,35 @@ public class DashboardController {
         return ResponseEntity.ok(trends);
     }
 
+    /**
+     * trend for any rollup metric over any date range
+     * GET /api/dashboard/trends?metric=USERS_STUDENT&granularity=WEEK&from=2024-01-01&to=2024-06-30
+     * metric: ENROLLMENTS or USERS_<ROLE>, granularity: DAY, WEEK, MONTH, QUARTER, YEAR
+     * defaults to monthly enrollments for the last 6 months
+     */
+    @GetMapping("/trends")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<TrendPoint>> getTrend(
+            @RequestParam(defaultValue = "ENROLLMENTS") String metric,
+            @RequestParam(defaultValue = "MONTH") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(5).withDayOfMonth(1);
+        return ResponseEntity.ok(dashboardService.getTrend(metric.toUpperCase(), granularity, start, end));
+    }
+
+    /**
+     * recompute the rollup tables from scratch (backfill)
+     * POST /api/dashboard/trends/rebuild
+     */
+    @PostMapping("/trends/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        int rows = rollupService.rebuild();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+
     /**
      * Get grade distribution
      * GET /api/dashboard/grade-distribution
@@ -79,6 +114,16 @@ public class DashboardController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Get financial summary per semester
+     * GET /api/dashboard/financial-summary/semesters
+     */
+    @GetMapping("/financial-summary/semesters")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<SemesterFinancialSummary>> getSemesterFinancialSummaries() {
+        return ResponseEntity.ok(dashboardService.getSemesterFinancialSummaries());
+    }
+
     /**
      * Get gender demographics
      * GET /api/dashboard/gender-demographics
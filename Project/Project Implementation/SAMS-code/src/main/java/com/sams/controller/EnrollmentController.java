@@ -1,14 +1,20 @@
 package com.sams.controller;
 
+import com.sams.dto.CartEnrollmentRequest;
+import com.sams.dto.CartEnrollmentResponse;
 import com.sams.dto.EnrollmentRequest;
 import com.sams.dto.EnrollmentResponse;
 import com.sams.entity.Enrollment;
+import com.sams.service.AdmissionQueueService;
 import com.sams.service.EnrollmentService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -21,30 +27,77 @@ import java.util.stream.Collectors;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final AdmissionQueueService admissionQueueService;
 
     // constructor injection
-    public EnrollmentController(EnrollmentService enrollmentService) {
+    public EnrollmentController(EnrollmentService enrollmentService, AdmissionQueueService admissionQueueService) {
         this.enrollmentService = enrollmentService;
+        this.admissionQueueService = admissionQueueService;
     }
 
     // create new enrollment - POST /api/enrollments
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public EnrollmentResponse createEnrollment(@Valid @RequestBody EnrollmentRequest request) {
-        Enrollment enrollment = enrollmentService.createEnrollment(
-            request.getStudentId(),
-            request.getCourseId()
+        // goes through the registration queue so a rush doesnt hit the database all at once
+        Enrollment enrollment = admissionQueueService.runAdmitted(request.getStudentId(), () ->
+            enrollmentService.createEnrollment(request.getStudentId(), request.getCourseId())
         );
         return convertToResponse(enrollment);
     }
 
+    // enroll in several courses at once - POST /api/enrollments/cart
+    // returns a result per course, with dryRun=true nothing is saved (used by the planner)
+    @PostMapping("/cart")
+    public CartEnrollmentResponse enrollCart(@Valid @RequestBody CartEnrollmentRequest request) {
+        // dry runs dont save anything so they skip the queue
+        if (request.isDryRun()) {
+            return enrollmentService.enrollCart(request.getStudentId(), request.getCourseIds(), true);
+        }
+        return admissionQueueService.runAdmitted(request.getStudentId(), () ->
+            enrollmentService.enrollCart(request.getStudentId(), request.getCourseIds(), false)
+        );
+    }
+
+    // queue an enrollment and return straight away - POST /api/enrollments/queue
+    // poll GET /api/enrollments/queue/{token} for the position and the result
+    @PostMapping("/queue")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, Object> queueEnrollment(@Valid @RequestBody EnrollmentRequest request) {
+        AdmissionQueueService.Ticket ticket = admissionQueueService.enqueue(request.getStudentId(), () ->
+            enrollmentService.createEnrollment(request.getStudentId(), request.getCourseId())
+        );
+        return convertToQueueStatus(ticket);
+    }
+
+    // queue a whole cart - POST /api/enrollments/cart/queue
+    @PostMapping("/cart/queue")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, Object> queueCart(@Valid @RequestBody CartEnrollmentRequest request) {
+        AdmissionQueueService.Ticket ticket = admissionQueueService.enqueue(request.getStudentId(), () ->
+            enrollmentService.enrollCart(request.getStudentId(), request.getCourseIds(), false)
+        );
+        return convertToQueueStatus(ticket);
+    }
+
+    // position / result of a queued request - GET /api/enrollments/queue/{token}
+    @GetMapping("/queue/{token}")
+    public Map<String, Object> getQueueStatus(@PathVariable String token) {
+        return convertToQueueStatus(admissionQueueService.getTicket(token));
+    }
+
+    // queue length, busy workers etc - GET /api/enrollments/queue/stats
+    @GetMapping("/queue/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public Map<String, Object> getQueueStats() {
+        return admissionQueueService.getQueueStats();
+    }
+
     // get all enrollments - GET /api/enrollments
     @GetMapping
     public List<EnrollmentResponse> getAllEnrollments() {
         List<Enrollment> enrollments = enrollmentService.getAllEnrollments();
-        return enrollments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(enrollments);
     }
 
     // get enrollment by id - GET /api/enrollments/{id}
@@ -58,27 +111,21 @@ public class EnrollmentController {
     @GetMapping("/student/{studentId}")
     public List<EnrollmentResponse> getEnrollmentsByStudent(@PathVariable Long studentId) {
         List<Enrollment> enrollments = enrollmentService.getEnrollmentsByStudent(studentId);
-        return enrollments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(enrollments);
     }
 
     // get enrollments by course - GET /api/enrollments/course/{courseId}
     @GetMapping("/course/{courseId}")
     public List<EnrollmentResponse> getEnrollmentsByCourse(@PathVariable Long courseId) {
         List<Enrollment> enrollments = enrollmentService.getEnrollmentsByCourse(courseId);
-        return enrollments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(enrollments);
     }
 
     // get enrollments by status - GET /api/enrollments/status/{status}
     @GetMapping("/status/{status}")
     public List<EnrollmentResponse> getEnrollmentsByStatus(@PathVariable String status) {
         List<Enrollment> enrollments = enrollmentService.getEnrollmentsByStatus(status);
-        return enrollments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(enrollments);
     }
 
     // update enrollment status - PATCH /api/enrollments/{id}/status
@@ -117,8 +164,49 @@ public class EnrollmentController {
         return ResponseEntity.ok(isEnrolled);
     }
 
+    // total credits a student holds in a semester - GET /api/enrollments/credits?studentId=&semesterId=
+    @GetMapping("/credits")
+    public ResponseEntity<Integer> getTotalCredits(@RequestParam Long studentId, @RequestParam Long semesterId) {
+        return ResponseEntity.ok(enrollmentService.getTotalCreditsForStudent(studentId, semesterId));
+    }
+
+    // recompute the credit load table from the enrollments - POST /api/enrollments/credit-loads/rebuild
+    // runs nightly anyway, this is for fixing things right away after manual db changes
+    @PostMapping("/credit-loads/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Integer> rebuildCreditLoads() {
+        return ResponseEntity.ok(enrollmentService.rebuildCreditLoads());
+    }
+
+    // helper method to convert a queue ticket to what the frontend polls
+    private Map<String, Object> convertToQueueStatus(AdmissionQueueService.Ticket ticket) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("token", ticket.getToken());
+        status.put("state", ticket.getState());
+        status.put("position", admissionQueueService.getPosition(ticket));
+        status.put("queuedAt", ticket.getQueuedAt());
+        status.put("finishedAt", ticket.getFinishedAt());
+        status.put("error", ticket.getError());
+
+        Object result = ticket.getResult();
+        status.put("result", result instanceof Enrollment ? convertToResponse((Enrollment) result) : result);
+        return status;
+    }
+
+    // helper method for lists - waitlist ranks for the whole list come from one query
+    private List<EnrollmentResponse> convertToResponses(List<Enrollment> enrollments) {
+        Map<Long, Integer> ranks = enrollmentService.getWaitlistRanks(enrollments);
+        return enrollments.stream()
+                .map(enrollment -> convertToResponse(enrollment, ranks.get(enrollment.getId())))
+                .collect(Collectors.toList());
+    }
+
     // helper method to convert Enrollment to EnrollmentResponse
     private EnrollmentResponse convertToResponse(Enrollment enrollment) {
+        return convertToResponse(enrollment, enrollmentService.getWaitlistRank(enrollment));
+    }
+
+    private EnrollmentResponse convertToResponse(Enrollment enrollment, Integer waitlistRank) {
         EnrollmentResponse.StudentInfo studentInfo = new EnrollmentResponse.StudentInfo(
             enrollment.getStudent().getId(),
             enrollment.getStudent().getUsername(),
@@ -162,7 +250,7 @@ public class EnrollmentController {
         response.setCourse(courseInfo);
         response.setStatus(enrollment.getStatus());
         response.setEnrollmentDate(enrollment.getEnrollmentDate());
-        response.setWaitlistPosition(enrollment.getWaitlistPosition());
+        response.setWaitlistPosition(waitlistRank);
 
         return response;
     }
@@ -1,101 +1,84 @@
 package com.sams.controller;
 
-import com.sams.entity.Course;
-import com.sams.entity.User;
-import com.sams.service.CourseService;
-import com.sams.service.UserService;
+import com.sams.service.SearchIndexService;
+import com.sams.service.SuggestService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
- * handles global search across users and courses
+ * handles global search across users, courses, teachers, study groups and assignments
  * frontend calls this for search bar functionality
- * limits results to avoid performance issues
+ * served from the in-memory SearchIndexService, nothing hits the database per keystroke
+ * the search box should call /search/suggest while typing and /search on enter
  */
 @RestController
 @RequestMapping("/api")
 public class GlobalSearchController {
 
-    private final UserService userService;
-    private final CourseService courseService;
+    private static final int MAX_LIMIT = 50;
 
-    public GlobalSearchController(UserService userService, CourseService courseService) {
-        this.userService = userService;
-        this.courseService = courseService;
+    private final SearchIndexService searchIndexService;
+    private final SuggestService suggestService;
+
+    public GlobalSearchController(SearchIndexService searchIndexService, SuggestService suggestService) {
+        this.searchIndexService = searchIndexService;
+        this.suggestService = suggestService;
     }
 
     /**
-     * Global search across all entities
-     * GET /api/search?query=...
+     * Global search across all entities, best matches first
+     * GET /api/search?query=...&types=user,course&limit=10
+     * types: user, course, teacher, studyGroup, assignment (default all), limit is per type
      */
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> globalSearch(@RequestParam String query) {
-        Map<String, Object> results = new HashMap<>();
-
-        // Search users
-        List<User> allUsers = userService.getAllUsers();
-        List<Map<String, Object>> users = allUsers.stream()
-                .filter(user ->
-                        user.getUsername().toLowerCase().contains(query.toLowerCase()) ||
-                        user.getEmail().toLowerCase().contains(query.toLowerCase()) ||
-                        (user.getFirstName() != null && user.getFirstName().toLowerCase().contains(query.toLowerCase())) ||
-                        (user.getLastName() != null && user.getLastName().toLowerCase().contains(query.toLowerCase()))
-                )
-                .limit(10) // Limit to 10 results
-                .map(user -> {
-                    Map<String, Object> userMap = new HashMap<>();
-                    userMap.put("id", user.getId());
-                    userMap.put("username", user.getUsername());
-                    userMap.put("email", user.getEmail());
-                    userMap.put("role", user.getRole());
-                    userMap.put("type", "user");
-                    return userMap;
-                })
-                .collect(Collectors.toList());
-
-        // Search courses
-        List<Course> coursesByName = courseService.searchCoursesByName(query);
-        List<Course> coursesByCode = courseService.searchCoursesByCode(query);
+    public ResponseEntity<Map<String, Object>> globalSearch(@RequestParam String query,
+                                                            @RequestParam(required = false) String types,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        Set<String> searchTypes = new LinkedHashSet<>();
+        if (types != null && !types.isBlank()) {
+            for (String type : types.split(",")) {
+                if (!SearchIndexService.GROUPS.containsKey(type.trim())) {
+                    throw new IllegalArgumentException("Unknown search type: " + type.trim()
+                        + " (use one of " + SearchIndexService.GROUPS.keySet() + ")");
+                }
+                searchTypes.add(type.trim());
+            }
+        }
 
-        List<Map<String, Object>> courses = new java.util.ArrayList<>();
-        courses.addAll(coursesByName.stream()
-                .limit(10)
-                .map(course -> {
-                    Map<String, Object> courseMap = new HashMap<>();
-                    courseMap.put("id", course.getId());
-                    courseMap.put("code", course.getCourseCode());
-                    courseMap.put("name", course.getCourseName());
-                    courseMap.put("credits", course.getCredits());
-                    courseMap.put("type", "course");
-                    return courseMap;
-                })
-                .collect(Collectors.toList()));
+        Map<String, List<Map<String, Object>>> found =
+            searchIndexService.search(query, searchTypes, Math.max(1, Math.min(limit, MAX_LIMIT)));
 
-        courses.addAll(coursesByCode.stream()
-                .filter(course -> coursesByName.stream()
-                        .noneMatch(c -> c.getId().equals(course.getId())))
-                .limit(10 - courses.size())
-                .map(course -> {
-                    Map<String, Object> courseMap = new HashMap<>();
-                    courseMap.put("id", course.getId());
-                    courseMap.put("code", course.getCourseCode());
-                    courseMap.put("name", course.getCourseName());
-                    courseMap.put("credits", course.getCredits());
-                    courseMap.put("type", "course");
-                    return courseMap;
-                })
-                .collect(Collectors.toList()));
-
-        results.put("users", users);
-        results.put("courses", courses);
+        Map<String, Object> results = new HashMap<>(found);
         results.put("query", query);
-        results.put("totalResults", users.size() + courses.size());
+        results.put("totalResults", found.values().stream().mapToInt(List::size).sum());
 
         return ResponseEntity.ok(results);
     }
+
+    /**
+     * typeahead completions - course codes/names, teacher names and usernames
+     * GET /api/search/suggest?prefix=lin -> [{text: "Linear Algebra", type: "course", id: 11}, ...]
+     */
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<Map<String, Object>>> suggest(@RequestParam String prefix,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestService.suggest(prefix, limit));
+    }
+
+    /**
+     * rebuild the completion index now instead of waiting for the next refresh
+     * POST /api/search/suggest/rebuild
+     */
+    @PostMapping("/search/suggest/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildSuggestions() {
+        return ResponseEntity.ok(suggestService.rebuild());
+    }
 }
@@ -3,22 +3,33 @@ package com.sams.controller;
 import com.sams.dto.NotificationPreferenceRequest;
 import com.sams.dto.NotificationPreferenceResponse;
 import com.sams.dto.NotificationResponse;
+import com.sams.entity.Announcement;
 import com.sams.entity.Notification;
 import com.sams.entity.NotificationPreference;
+import com.sams.service.AnnouncementService;
+import com.sams.service.NotificationPushService;
 import com.sams.service.NotificationService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * handles notification management - get, read, delete notifications
- * frontend polls this for unread count and notification list
+ * new notifications and the unread count are pushed over websocket (NotificationPushService),
+ * the frontend only loads the first page here and falls back to polling while the socket is down
+ * announcements the user can see are merged into the inbox (source = ANNOUNCEMENT) - they are stored once,
+ * not as a notification per user, see AnnouncementService
  * supports pagination to avoid loading too many at once
  */
 @RestController
@@ -26,9 +37,15 @@ import java.util.stream.Collectors;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
+    private final AnnouncementService announcementService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+                                  NotificationPushService notificationPushService,
+                                  AnnouncementService announcementService) {
         this.notificationService = notificationService;
+        this.notificationPushService = notificationPushService;
+        this.announcementService = announcementService;
     }
 
     // get all notifications for current user (paginated)
@@ -45,9 +62,19 @@ public class NotificationController {
 
         Pageable pageable = PageRequest.of(page, size);
         Page<Notification> notifications = notificationService.getNotificationsForUser(userId, pageable);
-        Page<NotificationResponse> responses = notifications.map(this::convertToResponse);
+        List<NotificationResponse> responses = new ArrayList<>(notifications.map(this::convertToResponse).getContent());
 
-        return ResponseEntity.ok(responses);
+        // announcements created between the last notification of the previous page and the last one of this page,
+        // so each one shows up on exactly one page (the last page takes everything older)
+        if (page == 0 || !notifications.isEmpty()) {
+            LocalDateTime upTo = page == 0 ? null : notificationService.getCreatedAtAt(userId, page * size - 1);
+            LocalDateTime after = notifications.isLast() ? null
+                    : notifications.getContent().get(notifications.getNumberOfElements() - 1).getCreatedAt();
+            responses.addAll(convertAnnouncements(userId, announcementService.getInboxSlice(userId, after, upTo)));
+            responses.sort(Comparator.comparing(NotificationResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        }
+
+        return ResponseEntity.ok(new PageImpl<>(responses, pageable, notifications.getTotalElements()));
     }
 
     // get unread notifications for current user
@@ -57,6 +84,19 @@ public class NotificationController {
         List<NotificationResponse> responses = notifications.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
+        responses.addAll(convertAnnouncements(userId, announcementService.getUnreadAnnouncements(userId)));
+        responses.sort(Comparator.comparing(NotificationResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        return ResponseEntity.ok(responses);
+    }
+
+    // what the client missed since lastSeenId - same as the websocket replay, for clients without a socket
+    @GetMapping("/since")
+    public ResponseEntity<List<NotificationResponse>> getNotificationsSince(@RequestParam Long userId,
+                                                                            @RequestParam(defaultValue = "0") Long lastSeenId) {
+        List<NotificationResponse> responses = notificationPushService.findMissed(userId, lastSeenId).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
 
         return ResponseEntity.ok(responses);
     }
@@ -64,9 +104,12 @@ public class NotificationController {
     // get count of unread notifications
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(@RequestParam Long userId) {
-        long count = notificationService.getUnreadCount(userId);
+        long notifications = notificationService.getUnreadCount(userId);
+        long announcements = announcementService.getUnreadCount(userId);
         Map<String, Long> response = new HashMap<>();
-        response.put("count", count);
+        response.put("count", notifications + announcements);
+        response.put("notifications", notifications);
+        response.put("announcements", announcements);
 
         return ResponseEntity.ok(response);
     }
@@ -78,12 +121,27 @@ public class NotificationController {
         return ResponseEntity.ok(convertToResponse(notification));
     }
 
+    // mark several notifications as read at once (?ids=1,2,3)
+    @PatchMapping("/read")
+    public ResponseEntity<Map<String, Object>> markSelectedAsRead(@RequestParam Long userId,
+                                                                  @RequestParam List<Long> ids) {
+        int updated = notificationService.markAsRead(userId, ids);
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", updated);
+        response.put("unreadCount", notificationService.getUnreadCount(userId));
+
+        return ResponseEntity.ok(response);
+    }
+
     // mark all notifications as read for current user
     @PatchMapping("/read-all")
-    public ResponseEntity<Map<String, String>> markAllAsRead(@RequestParam Long userId) {
-        notificationService.markAllAsRead(userId);
-        Map<String, String> response = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@RequestParam Long userId) {
+        int updated = notificationService.markAllAsRead(userId);
+        int announcements = announcementService.markAllAsRead(userId);
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "All notifications marked as read");
+        response.put("updated", updated);
+        response.put("announcementsRead", announcements);
 
         return ResponseEntity.ok(response);
     }
@@ -95,12 +153,25 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
+    // delete several notifications at once (?ids=1,2,3)
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteNotifications(@RequestParam Long userId,
+                                                                   @RequestParam List<Long> ids) {
+        int deleted = notificationService.deleteNotifications(userId, ids);
+        Map<String, Object> response = new HashMap<>();
+        response.put("deleted", deleted);
+        response.put("unreadCount", notificationService.getUnreadCount(userId));
+
+        return ResponseEntity.ok(response);
+    }
+
     // delete all read notifications for current user
     @DeleteMapping("/read")
-    public ResponseEntity<Map<String, String>> deleteReadNotifications(@RequestParam Long userId) {
-        notificationService.deleteReadNotifications(userId);
-        Map<String, String> response = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> deleteReadNotifications(@RequestParam Long userId) {
+        int deleted = notificationService.deleteReadNotifications(userId);
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "All read notifications deleted");
+        response.put("deleted", deleted);
 
         return ResponseEntity.ok(response);
     }
@@ -142,10 +213,34 @@ public class NotificationController {
         response.setRead(notification.getRead());
         response.setReadAt(notification.getReadAt());
         response.setCreatedAt(notification.getCreatedAt());
+        response.setCount(notification.getCoalescedCount() != null ? notification.getCoalescedCount() : 1);
 
         return response;
     }
 
+    // announcements as inbox entries, with thier read flag for this user
+    private List<NotificationResponse> convertAnnouncements(Long userId, List<Announcement> announcements) {
+        Set<Long> readIds = announcementService.getReadIds(userId, announcements);
+        List<NotificationResponse> responses = new ArrayList<>();
+        for (Announcement announcement : announcements) {
+            NotificationResponse response = new NotificationResponse();
+            response.setId(announcement.getId());
+            response.setUserId(userId);
+            response.setType("ANNOUNCEMENT");
+            response.setTitle(announcement.getTitle());
+            response.setMessage(announcement.getMessage());
+            response.setActionUrl(announcement.getActionUrl());
+            response.setRelatedEntityType("Announcement");
+            response.setRelatedEntityId(announcement.getId());
+            response.setRead(readIds.contains(announcement.getId()));
+            response.setCreatedAt(announcement.getCreatedAt());
+            response.setCount(1);
+            response.setSource("ANNOUNCEMENT");
+            responses.add(response);
+        }
+        return responses;
+    }
+
     // convert preference entity to response dto
     private NotificationPreferenceResponse convertPreferenceToResponse(NotificationPreference pref) {
         NotificationPreferenceResponse response = new NotificationPreferenceResponse();
@@ -3,6 +3,7 @@ package com.sams.controller;
 import com.sams.dto.PrivateMessageRequest;
 import com.sams.dto.PrivateMessageResponse;
 import com.sams.entity.PrivateMessage;
+import com.sams.service.MessageSearchService;
 import com.sams.service.PrivateMessageService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -227,9 +228,14 @@ public class PrivateMessageController {
             @RequestParam Long user2Id,
             @RequestParam String query) {
 
-        List<PrivateMessage> messages = messageService.searchConversation(user1Id, user2Id, query);
-        List<PrivateMessageResponse> responses = messages.stream()
-                .map(this::convertToResponse)
+        List<MessageSearchService.Hit<PrivateMessage>> hits = messageService.searchConversation(user1Id, user2Id, query);
+        List<PrivateMessageResponse> responses = hits.stream()
+                .map(hit -> {
+                    PrivateMessageResponse response = convertToResponse(hit.getMessage());
+                    response.setSearchScore(hit.getScore());
+                    response.setHighlight(hit.getHighlight());
+                    return response;
+                })
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(responses);
@@ -1,9 +1,22 @@
 package com.sams.controller;
 
+import com.sams.dto.ReportJobRequest;
 import com.sams.entity.*;
 import com.sams.repository.*;
+import com.sams.service.ReportExportService;
+import com.sams.service.ReportJobService;
+import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -11,6 +24,8 @@ import java.util.stream.Collectors;
  * handles report generation - enrollments, fees, attendance, grades
  * frontend calls these for admin dashboards and data exports
  * returns simple map structures for easy consumption
+ * the /{report}/export endpoint streams the same reports as csv/ndjson for large exports
+ * the /jobs endpoints run them in the background and keep the gzipped file for download
  */
 @RestController
 @RequestMapping("/api/reports")
@@ -22,6 +37,8 @@ public class ReportController {
     private final GradeRepository gradeRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final ReportExportService reportExportService;
+    private final ReportJobService reportJobService;
 
     public ReportController(
             EnrollmentRepository enrollmentRepository,
@@ -29,13 +46,86 @@ public class ReportController {
             AttendanceRepository attendanceRepository,
             GradeRepository gradeRepository,
             UserRepository userRepository,
-            CourseRepository courseRepository) {
+            CourseRepository courseRepository,
+            ReportExportService reportExportService,
+            ReportJobService reportJobService) {
         this.enrollmentRepository = enrollmentRepository;
         this.paymentRepository = paymentRepository;
         this.attendanceRepository = attendanceRepository;
         this.gradeRepository = gradeRepository;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
+        this.reportExportService = reportExportService;
+        this.reportJobService = reportJobService;
+    }
+
+    /**
+     * streaming export of any report - for big exports use this instead of the json endpoints below
+     * GET /api/reports/attendance/export?format=csv&gzip=true&from=2024-09-01&to=2025-06-30&semesterId=3
+     * report: enrollments, fees, attendance, grades, users, courses
+     * format: csv (default) or ndjson (one json object per line)
+     * from/to: inclusive dates, semesterId: only that semester, role: only for the users report
+     */
+    @GetMapping("/{report}/export")
+    public ResponseEntity<StreamingResponseBody> exportReport(
+            @PathVariable String report,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long semesterId,
+            @RequestParam(required = false) String role) {
+        String exportFormat = format.toLowerCase();
+        reportExportService.validate(report, exportFormat, from, to);
+
+        String filename = report + "-report-" + LocalDate.now() + "." + exportFormat + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+            : "csv".equals(exportFormat) ? MediaType.parseMediaType("text/csv; charset=UTF-8")
+            : MediaType.parseMediaType("application/x-ndjson");
+
+        StreamingResponseBody body = out ->
+            reportExportService.export(report, exportFormat, gzip, from, to, semesterId, role, out);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    /**
+     * start a background report job - same options as /export, body like
+     * { "report": "attendance", "format": "csv", "from": "2024-09-01", "to": "2025-06-30", "semesterId": 3 }
+     * returns 202 with the job, if the same report is already running you get that job back instead
+     * 429 when too many jobs are waiting
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobService.Job> submitReportJob(@Valid @RequestBody ReportJobRequest request,
+                                                                Principal principal) {
+        ReportJobService.Job job = reportJobService.submit(request, principal != null ? principal.getName() : null);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/jobs")
+    public List<ReportJobService.Job> getReportJobs() {
+        return reportJobService.getJobs();
+    }
+
+    // poll this - state is QUEUED, RUNNING, COMPLETED or FAILED, rowsWritten is the progress
+    @GetMapping("/jobs/{jobId}")
+    public ReportJobService.Job getReportJob(@PathVariable String jobId) {
+        return reportJobService.getJob(jobId);
+    }
+
+    // the gzipped result, 409 until the job is COMPLETED
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String jobId) {
+        ReportJobService.Job job = reportJobService.getJob(jobId);
+        Resource file = new FileSystemResource(reportJobService.getResultFile(jobId));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFilename() + "\"")
+                .body(file);
     }
 
     @GetMapping("/enrollments")
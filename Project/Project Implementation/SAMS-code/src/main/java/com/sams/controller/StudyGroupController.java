@@ -2,6 +2,7 @@ package com.sams.controller;
 
 import com.sams.dto.*;
 import com.sams.entity.*;
+import com.sams.service.MessageSearchService;
 import com.sams.service.StudyGroupService;
 import com.sams.service.CourseService;
 import com.sams.service.UserService;
@@ -411,9 +412,14 @@ public class StudyGroupController {
             @RequestParam Long userId,
             @RequestParam String query) {
 
-        List<GroupMessage> messages = studyGroupService.searchMessages(groupId, userId, query);
-        List<GroupMessageResponse> responses = messages.stream()
-                .map(this::convertToMessageResponse)
+        List<MessageSearchService.Hit<GroupMessage>> hits = studyGroupService.searchMessages(groupId, userId, query);
+        List<GroupMessageResponse> responses = hits.stream()
+                .map(hit -> {
+                    GroupMessageResponse response = convertToMessageResponse(hit.getMessage());
+                    response.setSearchScore(hit.getScore());
+                    response.setHighlight(hit.getHighlight());
+                    return response;
+                })
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(responses);
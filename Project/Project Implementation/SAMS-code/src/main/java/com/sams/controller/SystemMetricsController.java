@@ -1,5 +1,10 @@
 package com.sams.controller;
 
+import com.sams.service.MessageSearchService;
+import com.sams.service.NotificationPushService;
+import com.sams.service.NotificationQueueService;
+import com.sams.service.NotificationRetentionService;
+import com.sams.service.OutboxService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -8,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.io.File;
 import java.lang.management.*;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -25,12 +31,25 @@ public class SystemMetricsController {
     private final ThreadMXBean threadBean;
     private final RuntimeMXBean runtimeBean;
     private final long startTime;
+    private final OutboxService outboxService;
+    private final MessageSearchService messageSearchService;
+    private final NotificationQueueService notificationQueueService;
+    private final NotificationPushService notificationPushService;
+    private final NotificationRetentionService notificationRetentionService;
 
     /**
      * Constructor initializes all MXBeans for system monitoring.
      * Captures start time for uptime calculations.
      */
-    public SystemMetricsController() {
+    public SystemMetricsController(OutboxService outboxService, MessageSearchService messageSearchService,
+                                   NotificationQueueService notificationQueueService,
+                                   NotificationPushService notificationPushService,
+                                   NotificationRetentionService notificationRetentionService) {
+        this.outboxService = outboxService;
+        this.messageSearchService = messageSearchService;
+        this.notificationQueueService = notificationQueueService;
+        this.notificationPushService = notificationPushService;
+        this.notificationRetentionService = notificationRetentionService;
         this.osBean = ManagementFactory.getOperatingSystemMXBean();
         this.memoryBean = ManagementFactory.getMemoryMXBean();
         this.threadBean = ManagementFactory.getThreadMXBean();
@@ -79,6 +98,51 @@ public class SystemMetricsController {
         }
     }
 
+    /**
+     * GET /api/system/outbox
+     * Returns how many outbox events are waiting and how many gave up after too many retries.
+     */
+    @GetMapping("/outbox")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Long>> getOutboxStats() {
+        return ResponseEntity.ok(outboxService.getOutboxStats());
+    }
+
+    /**
+     * GET /api/system/notification-queue
+     * Returns the background notification queue depth, how much got merged and how often callers had to write themselves,
+     * plus how many notifications were pushed over websocket and replayed to reconnecting clients,
+     * and what the nightly retention run archived and dropped.
+     */
+    @GetMapping("/notification-queue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getNotificationQueueStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(notificationQueueService.getStats());
+        stats.put("push", notificationPushService.getStats());
+        stats.put("retention", notificationRetentionService.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * GET /api/system/message-search
+     * Returns whether message full text search is on and how far a running rebuild got.
+     */
+    @GetMapping("/message-search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getMessageSearchStatus() {
+        return ResponseEntity.ok(messageSearchService.getStatus());
+    }
+
+    /**
+     * POST /api/system/message-search/rebuild
+     * Reindexes every message in the background, batch by batch. Search keeps working meanwhile.
+     */
+    @PostMapping("/message-search/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildMessageSearch() {
+        return ResponseEntity.ok(messageSearchService.rebuild());
+    }
+
     /**
      * returns system health status - HEALTHY, WARNING, or CRITICAL
      * evaluates CPU, memory, storage to determine if action is needed
@@ -143,6 +143,29 @@ public class TeacherController {
         }
     }
 
+    /**
+     * Teacher directory - search with filters and facet counts (department, designation, consultation, rating)
+     */
+    @GetMapping("/directory")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'FACULTY', 'STUDENT')")
+    public ResponseEntity<?> searchDirectory(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String designation,
+            @RequestParam(required = false) Boolean availableForConsultation,
+            @RequestParam(required = false) String rating,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(teacherService.searchDirectory(
+                query, department, designation, availableForConsultation, rating, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error searching teacher directory: " + e.getMessage());
+        }
+    }
+
     /**
      * Get teachers by department
      */
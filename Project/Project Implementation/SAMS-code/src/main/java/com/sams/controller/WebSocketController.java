@@ -1,10 +1,12 @@
 package com.sams.controller;
 
+import com.sams.service.NotificationPushService;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -12,14 +14,18 @@ import java.util.Map;
  * handles WebSocket connections for real-time messaging
  * supports group chat, private messages, and typing indicators
  * frontend connects via STOMP protocol
+ * notifications themselves are pushed by NotificationPushService, the client only asks for a replay here
  */
 @Controller
 public class WebSocketController {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPushService notificationPushService;
 
-    public WebSocketController(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketController(SimpMessagingTemplate messagingTemplate,
+                               NotificationPushService notificationPushService) {
         this.messagingTemplate = messagingTemplate;
+        this.notificationPushService = notificationPushService;
     }
 
     /**
@@ -55,6 +61,23 @@ public class WebSocketController {
         }
     }
 
+    /**
+     * Replay missed notifications after (re)connecting
+     * the user comes from the connection principal (see WebSocketAuthInterceptor), never from the
+     * request body - otherwise anyone could ask for someone elses notifications
+     * @param request lastSeenId (highest notification id the client has, 0 or missing = none)
+     * @param principal named by the user id, null if the client connected without a valid token
+     */
+    @MessageMapping("/notifications/replay")
+    public void replayNotifications(Map<String, Object> request, Principal principal) {
+        if (principal == null) {
+            return;
+        }
+        Object lastSeenId = request.get("lastSeenId");
+        notificationPushService.replay(Long.valueOf(principal.getName()),
+            lastSeenId != null ? Long.valueOf(lastSeenId.toString()) : null);
+    }
+
     /**
      * Handle typing indicators
      * @param typingData The typing indicator data with senderId, recipientId, isTyping
@@ -0,0 +1,95 @@
+package com.sams.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for posting an announcement
+ * audienceType ALL, ROLE (needs audienceRole), COURSE or SEMESTER (need audienceId)
+ */
+public class AnnouncementRequest {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 100)
+    private String title;
+
+    @Size(max = 1000)
+    private String message;
+
+    // optional link for the inbox entry
+    private String actionUrl;
+
+    @NotBlank(message = "Audience type is required")
+    private String audienceType;
+
+    // STUDENT, FACULTY, ADMIN, SUPER_ADMIN - only for ROLE
+    private String audienceRole;
+
+    // course or semester id - only for COURSE / SEMESTER
+    private Long audienceId;
+
+    // optional, stops showing after this
+    private LocalDateTime expiresAt;
+
+    // constructors
+    public AnnouncementRequest() {
+    }
+
+    // getters and setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getActionUrl() {
+        return actionUrl;
+    }
+
+    public void setActionUrl(String actionUrl) {
+        this.actionUrl = actionUrl;
+    }
+
+    public String getAudienceType() {
+        return audienceType;
+    }
+
+    public void setAudienceType(String audienceType) {
+        this.audienceType = audienceType;
+    }
+
+    public String getAudienceRole() {
+        return audienceRole;
+    }
+
+    public void setAudienceRole(String audienceRole) {
+        this.audienceRole = audienceRole;
+    }
+
+    public Long getAudienceId() {
+        return audienceId;
+    }
+
+    public void setAudienceId(Long audienceId) {
+        this.audienceId = audienceId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,136 @@
+package com.sams.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for returning an announcement
+ * read is only filled in when listing announcements for a specific user
+ */
+public class AnnouncementResponse {
+
+    private Long id;
+    private String title;
+    private String message;
+    private String actionUrl;
+    // ALL, ROLE, COURSE, SEMESTER
+    private String audienceType;
+    private String audienceRole;
+    private Long audienceId;
+    private Long createdById;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private Boolean active;
+    // has this user read it (null in admin lists)
+    private Boolean read;
+    // how many users read it (admin lists only)
+    private Long readCount;
+
+    // constructors
+    public AnnouncementResponse() {
+    }
+
+    // getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getActionUrl() {
+        return actionUrl;
+    }
+
+    public void setActionUrl(String actionUrl) {
+        this.actionUrl = actionUrl;
+    }
+
+    public String getAudienceType() {
+        return audienceType;
+    }
+
+    public void setAudienceType(String audienceType) {
+        this.audienceType = audienceType;
+    }
+
+    public String getAudienceRole() {
+        return audienceRole;
+    }
+
+    public void setAudienceRole(String audienceRole) {
+        this.audienceRole = audienceRole;
+    }
+
+    public Long getAudienceId() {
+        return audienceId;
+    }
+
+    public void setAudienceId(Long audienceId) {
+        this.audienceId = audienceId;
+    }
+
+    public Long getCreatedById() {
+        return createdById;
+    }
+
+    public void setCreatedById(Long createdById) {
+        this.createdById = createdById;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public Boolean getRead() {
+        return read;
+    }
+
+    public void setRead(Boolean read) {
+        this.read = read;
+    }
+
+    public Long getReadCount() {
+        return readCount;
+    }
+
+    public void setReadCount(Long readCount) {
+        this.readCount = readCount;
+    }
+}
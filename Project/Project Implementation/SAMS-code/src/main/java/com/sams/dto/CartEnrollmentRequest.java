@@ -0,0 +1,57 @@
+package com.sams.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * request object for enrolling in several courses at once (shopping cart)
+ * planner UI sends dryRun=true to just see what would happen
+ */
+public class CartEnrollmentRequest {
+
+    // student who wants to enroll
+    @NotNull(message = "Student ID is required")
+    private Long studentId;
+
+    // courses in the cart
+    @NotEmpty(message = "Cart must contain at least one course")
+    private List<Long> courseIds;
+
+    // validate only, dont save anything
+    private boolean dryRun;
+
+    public CartEnrollmentRequest() {
+    }
+
+    public CartEnrollmentRequest(Long studentId, List<Long> courseIds, boolean dryRun) {
+        this.studentId = studentId;
+        this.courseIds = courseIds;
+        this.dryRun = dryRun;
+    }
+
+    // getters and setters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public List<Long> getCourseIds() {
+        return courseIds;
+    }
+
+    public void setCourseIds(List<Long> courseIds) {
+        this.courseIds = courseIds;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+}
@@ -0,0 +1,151 @@
+package com.sams.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * response object for cart enrollment - one result per course in the cart
+ * status is PENDING_PAYMENT, WAITLISTED or REJECTED (with the reason)
+ * for a dry run its what would happen if the cart was submitted right now
+ */
+public class CartEnrollmentResponse {
+
+    private Long studentId;
+    private boolean dryRun;
+
+    // totals so the UI doesnt have to count
+    private int enrolled;
+    private int waitlisted;
+    private int rejected;
+
+    private List<CourseResult> results = new ArrayList<>();
+
+    public CartEnrollmentResponse() {
+    }
+
+    public CartEnrollmentResponse(Long studentId, boolean dryRun) {
+        this.studentId = studentId;
+        this.dryRun = dryRun;
+    }
+
+    // add a result and update the totals
+    public void addResult(CourseResult result) {
+        results.add(result);
+        if ("PENDING_PAYMENT".equals(result.getStatus())) {
+            enrolled++;
+        } else if ("WAITLISTED".equals(result.getStatus())) {
+            waitlisted++;
+        } else {
+            rejected++;
+        }
+    }
+
+    // nested class for the result of one course
+    public static class CourseResult {
+        private Long courseId;
+        private String courseCode;
+        private String status;
+        private String reason;
+        // only set when the cart was actually submitted
+        private Long enrollmentId;
+
+        public CourseResult() {
+        }
+
+        public CourseResult(Long courseId, String courseCode, String status, String reason) {
+            this.courseId = courseId;
+            this.courseCode = courseCode;
+            this.status = status;
+            this.reason = reason;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        public void setCourseId(Long courseId) {
+            this.courseId = courseId;
+        }
+
+        public String getCourseCode() {
+            return courseCode;
+        }
+
+        public void setCourseCode(String courseCode) {
+            this.courseCode = courseCode;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+
+        public Long getEnrollmentId() {
+            return enrollmentId;
+        }
+
+        public void setEnrollmentId(Long enrollmentId) {
+            this.enrollmentId = enrollmentId;
+        }
+    }
+
+    // getters and setters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public int getEnrolled() {
+        return enrolled;
+    }
+
+    public void setEnrolled(int enrolled) {
+        this.enrolled = enrolled;
+    }
+
+    public int getWaitlisted() {
+        return waitlisted;
+    }
+
+    public void setWaitlisted(int waitlisted) {
+        this.waitlisted = waitlisted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<CourseResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CourseResult> results) {
+        this.results = results;
+    }
+}
@@ -41,6 +41,10 @@ public class GroupMessageResponse {
     // when it was deleted (if deleted)
     private LocalDateTime deletedAt;
 
+    // only set in search results - relevance and the matching snippet (html escaped, matches in <mark>)
+    private Double searchScore;
+    private String highlight;
+
     // constructors
     public GroupMessageResponse() {
     }
@@ -133,4 +137,20 @@ public class GroupMessageResponse {
     public void setDeletedAt(LocalDateTime deletedAt) {
         this.deletedAt = deletedAt;
     }
+
+    public Double getSearchScore() {
+        return searchScore;
+    }
+
+    public void setSearchScore(Double searchScore) {
+        this.searchScore = searchScore;
+    }
+
+    public String getHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(String highlight) {
+        this.highlight = highlight;
+    }
 }
@@ -27,8 +27,12 @@ public class NotificationResponse {
     private Boolean read;
     // when it was read
     private LocalDateTime readAt;
-    // when notification was created
+    // when notification was created (or last bumped for merged ones)
     private LocalDateTime createdAt;
+    // how many events were merged into this one (1 for normal notifications)
+    private Integer count;
+    // NOTIFICATION or ANNOUNCEMENT - announcements merged into the inbox have thier own ids
+    private String source = "NOTIFICATION";
 
     // constructors
     public NotificationResponse() {
@@ -122,4 +126,20 @@ public class NotificationResponse {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
 }
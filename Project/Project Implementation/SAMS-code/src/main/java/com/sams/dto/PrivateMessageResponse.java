@@ -38,6 +38,10 @@ public class PrivateMessageResponse {
     // whether message was deleted
     private Boolean deleted;
 
+    // only set in search results - relevance and the matching snippet (html escaped, matches in <mark>)
+    private Double searchScore;
+    private String highlight;
+
     // constructors
     public PrivateMessageResponse() {
     }
@@ -122,4 +126,20 @@ public class PrivateMessageResponse {
     public void setDeleted(Boolean deleted) {
         this.deleted = deleted;
     }
+
+    public Double getSearchScore() {
+        return searchScore;
+    }
+
+    public void setSearchScore(Double searchScore) {
+        this.searchScore = searchScore;
+    }
+
+    public String getHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(String highlight) {
+        this.highlight = highlight;
+    }
 }
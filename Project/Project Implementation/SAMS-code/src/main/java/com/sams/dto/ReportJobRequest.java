@@ -0,0 +1,85 @@
+package com.sams.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDate;
+
+/**
+ * request object for starting a background report job
+ * same options as GET /api/reports/{report}/export
+ */
+public class ReportJobRequest {
+
+    // enrollments, fees, attendance, grades, users, courses
+    @NotBlank(message = "Report is required")
+    private String report;
+
+    // csv or ndjson
+    private String format = "csv";
+
+    // optional filters - inclusive dates, semester, role (users report only)
+    private LocalDate from;
+    private LocalDate to;
+    private Long semesterId;
+    private String role;
+
+    public ReportJobRequest() {
+    }
+
+    public ReportJobRequest(String report, String format, LocalDate from, LocalDate to, Long semesterId, String role) {
+        this.report = report;
+        this.format = format;
+        this.from = from;
+        this.to = to;
+        this.semesterId = semesterId;
+        this.role = role;
+    }
+
+    // getters and setters
+    public String getReport() {
+        return report;
+    }
+
+    public void setReport(String report) {
+        this.report = report;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Long getSemesterId() {
+        return semesterId;
+    }
+
+    public void setSemesterId(Long semesterId) {
+        this.semesterId = semesterId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sams.dto.dashboard;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +16,11 @@ public class CompleteDashboard {
     private Map<String, Long> genderDemographics; // MALE, FEMALE, OTHER -> count
     private List<RecentActivity> recentActivities;
 
+    // true when a section timed out or failed - see staleSections / missingSections
+    private boolean partial;
+    private List<String> staleSections = new ArrayList<>(); // showing the last known value
+    private List<String> missingSections = new ArrayList<>(); // null, no value yet
+
     // Constructors
     public CompleteDashboard() {
     }
@@ -67,4 +73,28 @@ public class CompleteDashboard {
     public void setRecentActivities(List<RecentActivity> recentActivities) {
         this.recentActivities = recentActivities;
     }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    public List<String> getStaleSections() {
+        return staleSections;
+    }
+
+    public void setStaleSections(List<String> staleSections) {
+        this.staleSections = staleSections;
+    }
+
+    public List<String> getMissingSections() {
+        return missingSections;
+    }
+
+    public void setMissingSections(List<String> missingSections) {
+        this.missingSections = missingSections;
+    }
 }
@@ -0,0 +1,39 @@
+package com.sams.dto.dashboard;
+
+/**
+ * DTO for the financial summary of one semester
+ * same numbers as FinancialSummary, just limited to that semester's payments
+ */
+public class SemesterFinancialSummary extends FinancialSummary {
+
+    private Long semesterId;
+    private String semesterName;
+
+    // Constructors
+    public SemesterFinancialSummary() {
+        super();
+    }
+
+    public SemesterFinancialSummary(Long semesterId, String semesterName) {
+        super();
+        this.semesterId = semesterId;
+        this.semesterName = semesterName;
+    }
+
+    // Getters and Setters
+    public Long getSemesterId() {
+        return semesterId;
+    }
+
+    public void setSemesterId(Long semesterId) {
+        this.semesterId = semesterId;
+    }
+
+    public String getSemesterName() {
+        return semesterName;
+    }
+
+    public void setSemesterName(String semesterName) {
+        this.semesterName = semesterName;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sams.dto.dashboard;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for one bar of a trend chart (any metric, any granularity)
+ */
+public class TrendPoint {
+
+    private String period; // e.g., "2024-03-14", "Mar 2024", "Q1 2024", "2024"
+    private LocalDate periodStart;
+    private Long count;
+
+    // Constructors
+    public TrendPoint() {
+    }
+
+    public TrendPoint(String period, LocalDate periodStart, Long count) {
+        this.period = period;
+        this.periodStart = periodStart;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.sams.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ActivityRollup entity - how many enrollments / new users of a role there were in one day or one month
+ * one row per metric per period, so a trend chart is a single range read on the unique index
+ * instead of one count query per bar
+ *
+ * metric is ENROLLMENTS or USERS_<ROLE> (USERS_STUDENT, USERS_FACULTY, ...)
+ * granularity is DAY (periodStart = that day) or MONTH (periodStart = first of the month)
+ *
+ * kept up to date by RollupService in the same transaction as the change,
+ * the nightly rebuild recomputes everything from the source tables
+ */
+@Entity
+@Table(name = "activity_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollup_metric_granularity_period",
+        columnNames = {"metric", "granularity", "period_start"}))
+public class ActivityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String metric;
+
+    @Column(nullable = false, length = 10)
+    private String granularity;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Long total = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // constructors
+    public ActivityRollup() {
+    }
+
+    public ActivityRollup(String metric, String granularity, LocalDate periodStart, Long total) {
+        this.metric = metric;
+        this.granularity = granularity;
+        this.periodStart = periodStart;
+        this.total = total;
+    }
+
+    // getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
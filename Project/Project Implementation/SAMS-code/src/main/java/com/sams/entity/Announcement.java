@@ -0,0 +1,182 @@
+package com.sams.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Announcement entity - one notice for many users (whole campus, a role, a course or a semester)
+ *
+ * stored once instead of a Notification row per recipient. who it is for is worked out when reading
+ * (see AnnouncementRepository), and only users who read it get a row in announcement_reads
+ */
+@Entity
+@Table(name = "announcements", indexes = {
+    @Index(name = "idx_announcement_created", columnList = "created_at"),
+    @Index(name = "idx_announcement_audience", columnList = "audience_type, audience_id")
+})
+public class Announcement {
+
+    // audience types
+    public static final String AUDIENCE_ALL = "ALL";
+    public static final String AUDIENCE_ROLE = "ROLE";
+    public static final String AUDIENCE_COURSE = "COURSE";
+    public static final String AUDIENCE_SEMESTER = "SEMESTER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 100)
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Size(max = 1000)
+    @Column(length = 1000)
+    private String message;
+
+    @Column(name = "action_url", length = 200)
+    private String actionUrl;
+
+    // ALL, ROLE, COURSE, SEMESTER
+    @Column(name = "audience_type", nullable = false, length = 20)
+    private String audienceType = AUDIENCE_ALL;
+
+    // for ROLE - STUDENT, FACULTY, ADMIN, SUPER_ADMIN
+    @Column(name = "audience_role", length = 20)
+    private String audienceRole;
+
+    // for COURSE / SEMESTER - the course or semester id
+    @Column(name = "audience_id")
+    private Long audienceId;
+
+    // who posted it
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // stops showing up after this, null = never
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    // withdrawn announcements are kept but not shown
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // constructors
+    public Announcement() {
+    }
+
+    // getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getActionUrl() {
+        return actionUrl;
+    }
+
+    public void setActionUrl(String actionUrl) {
+        this.actionUrl = actionUrl;
+    }
+
+    public String getAudienceType() {
+        return audienceType;
+    }
+
+    public void setAudienceType(String audienceType) {
+        this.audienceType = audienceType;
+    }
+
+    public String getAudienceRole() {
+        return audienceRole;
+    }
+
+    public void setAudienceRole(String audienceRole) {
+        this.audienceRole = audienceRole;
+    }
+
+    public Long getAudienceId() {
+        return audienceId;
+    }
+
+    public void setAudienceId(Long audienceId) {
+        this.audienceId = audienceId;
+    }
+
+    public User getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(User createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Announcement that = (Announcement) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,73 @@
+package com.sams.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * AnnouncementRead entity - marks that a user has read an announcement
+ *
+ * sparse on purpose: no row = unread, so a campus wide announcement costs nothing until people open it.
+ * plain ids instead of relations, nothing ever needs to load the user or announcement from here
+ */
+@Entity
+@Table(name = "announcement_reads",
+    uniqueConstraints = @UniqueConstraint(name = "uk_announcement_read", columnNames = {"announcement_id", "user_id"}),
+    indexes = @Index(name = "idx_announcement_read_user", columnList = "user_id"))
+public class AnnouncementRead {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "announcement_id", nullable = false)
+    private Long announcementId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "read_at", nullable = false)
+    private LocalDateTime readAt;
+
+    // constructors
+    public AnnouncementRead() {
+    }
+
+    public AnnouncementRead(Long announcementId, Long userId) {
+        this.announcementId = announcementId;
+        this.userId = userId;
+        this.readAt = LocalDateTime.now();
+    }
+
+    // getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAnnouncementId() {
+        return announcementId;
+    }
+
+    public void setAnnouncementId(Long announcementId) {
+        this.announcementId = announcementId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+}
@@ -18,7 +18,9 @@ import java.util.Objects;
     @Index(name = "idx_enrollment_student", columnList = "student_id"),
     @Index(name = "idx_enrollment_course", columnList = "course_id"),
     @Index(name = "idx_enrollment_status", columnList = "status"),
-    @Index(name = "idx_enrollment_student_status", columnList = "student_id, status")
+    @Index(name = "idx_enrollment_student_status", columnList = "student_id, status"),
+    // waitlist ordering + rank lookups
+    @Index(name = "idx_enrollment_course_status_waitlist", columnList = "course_id, status, waitlist_position")
 })
 public class Enrollment {
 
@@ -45,7 +47,9 @@ public class Enrollment {
     @Column(length = 20)
     private String status = "PENDING_PAYMENT";
 
-    // if course is full, they go on waitlist - this tracks thier position
+    // if course is full, they go on waitlist - this is thier ticket number in the queue
+    // tickets only ever go up and are never renumbered, the actual rank (#3 in line etc)
+    // is worked out when reading - see EnrollmentService.getWaitlistRank
     @Column(name = "waitlist_position")
     private Integer waitlistPosition;
 
@@ -15,10 +15,9 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "notifications", indexes = {
-    @Index(name = "idx_notification_user", columnList = "user_id"),
-    @Index(name = "idx_notification_read", columnList = "read"),
-    @Index(name = "idx_notification_type", columnList = "type"),
-    @Index(name = "idx_notification_created", columnList = "created_at")
+    // every query is per user and newest first. the table is partitioned by month on created_at and there is also
+    // a partial index on the unread rows - both set up by NotificationRetentionService, hibernate cant do either
+    @Index(name = "idx_notification_user_created", columnList = "user_id, created_at")
 })
 public class Notification {
 
@@ -76,6 +75,10 @@ public class Notification {
     @Column(name = "email_sent_at")
     private LocalDateTime emailSentAt;
 
+    // how many events this one stands for - "12 new messages in X" is one row updated in place while unread
+    @Column(name = "coalesced_count")
+    private Integer coalescedCount = 1;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -209,6 +212,14 @@ public class Notification {
         this.emailSentAt = emailSentAt;
     }
 
+    public Integer getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    public void setCoalescedCount(Integer coalescedCount) {
+        this.coalescedCount = coalescedCount;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
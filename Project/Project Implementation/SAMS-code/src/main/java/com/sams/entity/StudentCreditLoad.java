@@ -0,0 +1,92 @@
+package com.sams.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * StudentCreditLoad entity - running total of credit hours a student holds in a semester
+ * kept up to date by EnrollmentService so the credit limit check is a single row read
+ * instead of walking every enrollment
+ *
+ * only counts seat holding enrollments (ACTIVE + PENDING_PAYMENT)
+ * the nightly rebuild in CreditLoadService fixes it if it ever drifts
+ */
+@Entity
+@Table(name = "student_credit_loads",
+    uniqueConstraints = @UniqueConstraint(name = "uk_credit_load_student_semester", columnNames = {"student_id", "semester_id"}))
+public class StudentCreditLoad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // plain ids on purpose - this table is only ever read by key, no need to load the entities
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "semester_id", nullable = false)
+    private Long semesterId;
+
+    @Column(nullable = false)
+    private Integer credits = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // constructors
+    public StudentCreditLoad() {
+    }
+
+    public StudentCreditLoad(Long studentId, Long semesterId, Integer credits) {
+        this.studentId = studentId;
+        this.semesterId = semesterId;
+        this.credits = credits;
+    }
+
+    // getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getSemesterId() {
+        return semesterId;
+    }
+
+    public void setSemesterId(Long semesterId) {
+        this.semesterId = semesterId;
+    }
+
+    public Integer getCredits() {
+        return credits;
+    }
+
+    public void setCredits(Integer credits) {
+        this.credits = credits;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -237,6 +237,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
     }
 
+    // handles registration queue exception (queue full / already queued / still waiting)
+    @ExceptionHandler(RegistrationQueueException.class)
+    public ResponseEntity<ErrorResponse> handleRegistrationQueue(RegistrationQueueException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // handles report job exception (too many report jobs queued)
+    @ExceptionHandler(ReportJobException.class)
+    public ResponseEntity<ErrorResponse> handleReportJob(ReportJobException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     // handles illegal state exceptions
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ErrorResponse> handleIllegalState(IllegalStateException ex) {
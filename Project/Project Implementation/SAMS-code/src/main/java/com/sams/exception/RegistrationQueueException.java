@@ -0,0 +1,10 @@
+package com.sams.exception;
+
+// thrown when the registration queue cant take a request right now
+// (queue is full, student already has a request waiting, or the request is still waiting in line)
+public class RegistrationQueueException extends RuntimeException {
+
+    public RegistrationQueueException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sams.exception;
+
+// thrown when a report job cant be started right now (too many report jobs already waiting)
+public class ReportJobException extends RuntimeException {
+
+    public ReportJobException(String message) {
+        super(message);
+    }
+}
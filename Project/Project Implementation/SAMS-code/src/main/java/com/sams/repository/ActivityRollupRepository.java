@@ -0,0 +1,69 @@
+package com.sams.repository;
+
+import com.sams.entity.ActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * repository for the per day / per month activity counts
+ * same idea as StudentCreditLoadRepository - native postgres upserts for the increments,
+ * insert-select upserts for the rebuild
+ */
+@Repository
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, Long> {
+
+    // every row of a metric in a date range, oldest first - this is the only read the trend charts do
+    @Query("SELECT r FROM ActivityRollup r WHERE r.metric = :metric AND r.granularity = :granularity " +
+           "AND r.periodStart BETWEEN :from AND :to ORDER BY r.periodStart")
+    List<ActivityRollup> findRange(@Param("metric") String metric,
+                                   @Param("granularity") String granularity,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    // add (or subtract) from a period, creating the row if it doesnt exist yet
+    @Modifying
+    @Query(value = "INSERT INTO activity_rollups (metric, granularity, period_start, total, updated_at) " +
+                   "VALUES (:metric, :granularity, :periodStart, GREATEST(:delta, 0), NOW()) " +
+                   "ON CONFLICT (metric, granularity, period_start) DO UPDATE " +
+                   "SET total = GREATEST(activity_rollups.total + :delta, 0), updated_at = NOW()",
+           nativeQuery = true)
+    int addCount(@Param("metric") String metric,
+                 @Param("granularity") String granularity,
+                 @Param("periodStart") LocalDate periodStart,
+                 @Param("delta") long delta);
+
+    // rebuild step 1 - enrollments per day or month (granularity is DAY or MONTH, also used as the date_trunc unit)
+    // upserts the recounted total so readers never see an empty table while it runs
+    @Modifying
+    @Query(value = "INSERT INTO activity_rollups (metric, granularity, period_start, total, updated_at) " +
+                   "SELECT 'ENROLLMENTS', :granularity, CAST(date_trunc(:granularity, e.enrollment_date) AS date), COUNT(*), NOW() " +
+                   "FROM enrollments e WHERE e.enrollment_date IS NOT NULL " +
+                   "GROUP BY 3 " +
+                   "ON CONFLICT (metric, granularity, period_start) DO UPDATE " +
+                   "SET total = EXCLUDED.total, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int upsertEnrollmentRollups(@Param("granularity") String granularity);
+
+    // rebuild step 2 - new users per role per day or month
+    @Modifying
+    @Query(value = "INSERT INTO activity_rollups (metric, granularity, period_start, total, updated_at) " +
+                   "SELECT 'USERS_' || u.role, :granularity, CAST(date_trunc(:granularity, u.created_at) AS date), COUNT(*), NOW() " +
+                   "FROM users u WHERE u.created_at IS NOT NULL AND u.role IS NOT NULL " +
+                   "GROUP BY 1, 3 " +
+                   "ON CONFLICT (metric, granularity, period_start) DO UPDATE " +
+                   "SET total = EXCLUDED.total, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int upsertUserRollups(@Param("granularity") String granularity);
+
+    // rebuild step 3 - rows the recount didnt touch have nothing behind them anymore
+    // NOW() is the start of the rebuild transaction, so every row upserted above has exactly that updated_at
+    @Modifying
+    @Query(value = "DELETE FROM activity_rollups WHERE updated_at IS NULL OR updated_at < NOW()", nativeQuery = true)
+    int deleteStaleRollups();
+}
@@ -0,0 +1,38 @@
+package com.sams.repository;
+
+import com.sams.entity.AnnouncementRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * repository for announcement read markers (one row per user that read an announcement)
+ */
+@Repository
+public interface AnnouncementReadRepository extends JpaRepository<AnnouncementRead, Long> {
+
+    // which of these announcements the user already read
+    @Query("SELECT r.announcementId FROM AnnouncementRead r WHERE r.userId = :userId AND r.announcementId IN :ids")
+    List<Long> findReadAnnouncementIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // insert the marker unless its already there (double click, two tabs), returns 1 if it was new
+    @Modifying
+    @Query(value = "INSERT INTO announcement_reads (announcement_id, user_id, read_at) "
+        + "VALUES (:announcementId, :userId, :readAt) ON CONFLICT (announcement_id, user_id) DO NOTHING",
+        nativeQuery = true)
+    int markRead(@Param("announcementId") Long announcementId, @Param("userId") Long userId,
+                 @Param("readAt") LocalDateTime readAt);
+
+    // read counts for a page of announcements: [announcementId, count], announcements nobody read are left out
+    @Query("SELECT r.announcementId, COUNT(r) FROM AnnouncementRead r WHERE r.announcementId IN :ids GROUP BY r.announcementId")
+    List<Object[]> countGroupedByAnnouncementId(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM AnnouncementRead r WHERE r.announcementId = :announcementId")
+    int deleteByAnnouncementId(@Param("announcementId") Long announcementId);
+}
@@ -0,0 +1,54 @@
+package com.sams.repository;
+
+import com.sams.entity.Announcement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * repository for announcements
+ * audience targeting is resolved in the query - a user sees ALL ones, ones for thier role,
+ * and ones for courses / semesters they are actively enrolled in or teach
+ */
+@Repository
+public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
+
+    // announcements :userId (with role :role) can see right now
+    String VISIBLE = "a.active = true AND (a.expiresAt IS NULL OR a.expiresAt > :now) AND ("
+        + "a.audienceType = 'ALL' "
+        + "OR (a.audienceType = 'ROLE' AND a.audienceRole = :role) "
+        + "OR (a.audienceType = 'COURSE' AND ("
+        + "a.audienceId IN (SELECT e.course.id FROM Enrollment e WHERE e.student.id = :userId AND e.status = 'ACTIVE') "
+        + "OR a.audienceId IN (SELECT c.id FROM Course c WHERE c.instructor.id = :userId))) "
+        + "OR (a.audienceType = 'SEMESTER' AND ("
+        + "a.audienceId IN (SELECT e2.course.semester.id FROM Enrollment e2 WHERE e2.student.id = :userId AND e2.status = 'ACTIVE') "
+        + "OR a.audienceId IN (SELECT c2.semester.id FROM Course c2 WHERE c2.instructor.id = :userId))))";
+
+    // no read marker yet
+    String UNREAD = " AND NOT EXISTS (SELECT r.id FROM AnnouncementRead r WHERE r.announcementId = a.id AND r.userId = :userId)";
+
+    @Query("SELECT a FROM Announcement a WHERE " + VISIBLE + " ORDER BY a.createdAt DESC")
+    List<Announcement> findVisible(@Param("userId") Long userId, @Param("role") String role,
+                                   @Param("now") LocalDateTime now, Pageable pageable);
+
+    // visible ones created in (after, upTo] - the slice that goes with one page of the notification inbox
+    @Query("SELECT a FROM Announcement a WHERE " + VISIBLE
+        + " AND a.createdAt > :after AND a.createdAt <= :upTo ORDER BY a.createdAt DESC")
+    List<Announcement> findVisibleCreatedBetween(@Param("userId") Long userId, @Param("role") String role,
+                                                 @Param("now") LocalDateTime now, @Param("after") LocalDateTime after,
+                                                 @Param("upTo") LocalDateTime upTo, Pageable pageable);
+
+    @Query("SELECT a FROM Announcement a WHERE " + VISIBLE + UNREAD + " ORDER BY a.createdAt DESC")
+    List<Announcement> findVisibleUnread(@Param("userId") Long userId, @Param("role") String role,
+                                         @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM Announcement a WHERE " + VISIBLE + UNREAD)
+    long countVisibleUnread(@Param("userId") Long userId, @Param("role") String role, @Param("now") LocalDateTime now);
+
+    // everything posted, newest first - admin list
+    List<Announcement> findAllByOrderByCreatedAtDesc(Pageable pageable);
+}
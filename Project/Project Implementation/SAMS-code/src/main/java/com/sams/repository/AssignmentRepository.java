@@ -53,4 +53,8 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     @Query("SELECT a FROM Assignment a WHERE a.active = true AND a.course.instructor.id = :facultyId " +
            "ORDER BY a.dueDate ASC")
     List<Assignment> findAssignmentsByFaculty(@Param("facultyId") Long facultyId);
+
+    // fields for the in-memory search index
+    @Query("SELECT a.id, a.title, c.id, a.dueDate FROM Assignment a LEFT JOIN a.course c WHERE a.active = true")
+    List<Object[]> findSearchIndexFields();
 }
@@ -4,14 +4,18 @@ import com.sams.entity.Attendance;
 import com.sams.entity.Attendance.AttendanceStatus;
 import com.sams.entity.Course;
 import com.sams.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * repository for attendance data access
@@ -84,4 +88,14 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
     // Find attendance records for a course within a date range
     List<Attendance> findByCourseAndDateBetween(Course course, LocalDate startDate, LocalDate endDate);
+
+    // report export - plain columns streamed forward only, 500 rows per fetch (must be read inside a transaction)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a.id, u.firstName, u.lastName, c.courseName, a.date, a.status FROM Attendance a " +
+           "JOIN a.user u LEFT JOIN a.course c " +
+           "WHERE (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) " +
+           "AND (:semesterId IS NULL OR c.semester.id = :semesterId) ORDER BY a.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("semesterId") Long semesterId);
 }
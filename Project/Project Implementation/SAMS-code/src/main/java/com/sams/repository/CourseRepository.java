@@ -2,12 +2,17 @@ package com.sams.repository;
 
 import com.sams.entity.Course;
 import com.sams.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * repository for course data access
@@ -44,6 +49,11 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // find active course by id - might need to optimize this later
     Optional<Course> findByIdAndActiveTrue(Long id);
 
+    // course with its instructor already loaded - for courses that are read after thier transaction closed
+    // (enrollments made on the admission queue threads are turned into responses outside the session)
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor WHERE c.id = :id")
+    Optional<Course> findByIdWithInstructor(@Param("id") Long id);
+
     // find active course by code
     Optional<Course> findByCourseCodeAndActiveTrue(String courseCode);
 
@@ -59,8 +69,30 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // check if active course code exists
     boolean existsByCourseCodeAndActiveTrue(String courseCode);
 
+    // instructors teaching in a semester, for semester announcements
+    @Query("SELECT DISTINCT c.instructor.id FROM Course c WHERE c.semester.id = :semesterId AND c.instructor IS NOT NULL")
+    List<Long> findInstructorIdsBySemesterId(@Param("semesterId") Long semesterId);
+
+    // every prerequisite edge as (course id, course code, prereq id, prereq code)
+    // loaded in one go to build the in-memory prerequisite graph
+    @Query("SELECT c.id, c.courseCode, p.id, p.courseCode FROM Course c JOIN c.prerequisites p")
+    List<Object[]> findAllPrerequisiteEdges();
+
     // custom query for checking duplicate course codes excluding current course
     // needed this becuase JPA doesnt have built-in exclude functionality
     @Query("SELECT COUNT(c) > 0 FROM Course c WHERE c.courseCode = :code AND c.active = true AND c.id != :excludeId")
     boolean existsByCourseCodeAndActiveTrueExcludingId(@Param("code") String code, @Param("excludeId") Long excludeId);
+
+    // report export - plain columns streamed forward only, 500 rows per fetch (must be read inside a transaction)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c.id, c.courseCode, c.courseName, c.credits, c.capacity FROM Course c " +
+           "WHERE (:from IS NULL OR c.createdAt >= :from) AND (:to IS NULL OR c.createdAt < :to) " +
+           "AND (:semesterId IS NULL OR c.semester.id = :semesterId) ORDER BY c.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                     @Param("semesterId") Long semesterId);
+
+    // fields for the in-memory search index
+    @Query("SELECT c.id, c.courseCode, c.courseName, c.credits FROM Course c WHERE c.active = true")
+    List<Object[]> findSearchIndexFields();
 }
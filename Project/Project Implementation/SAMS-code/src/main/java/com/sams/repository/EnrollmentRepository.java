@@ -3,13 +3,19 @@ package com.sams.repository;
 import com.sams.entity.Course;
 import com.sams.entity.Enrollment;
 import com.sams.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * repository for enrollment data access
@@ -34,6 +40,14 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     // find enrollments by course id and status
     List<Enrollment> findByCourseIdAndStatus(Long courseId, String status);
 
+    // just the student ids, for notifying a whole course
+    @Query("SELECT e.student.id FROM Enrollment e WHERE e.course.id = :courseId AND e.status = :status")
+    List<Long> findStudentIdsByCourseIdAndStatus(@Param("courseId") Long courseId, @Param("status") String status);
+
+    // everyone enrolled in any course of a semester, for semester announcements
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.semester.id = :semesterId AND e.status = :status")
+    List<Long> findStudentIdsBySemesterIdAndStatus(@Param("semesterId") Long semesterId, @Param("status") String status);
+
     // check if student is already enrolled in a course
     boolean existsByStudentAndCourse(User student, Course course);
 
@@ -52,15 +66,56 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     // count active enrollments for a course (for capacity checking)
     long countByCourseAndStatus(Course course, String status);
 
+    // count seat holding enrollments for a course - used to seed the seat counters
+    long countByCourseIdAndStatusIn(Long courseId, Collection<String> statuses);
+
+    // seat holding counts for every course in one go - used by the seat reconciliation job
+    @Query("SELECT e.course.id, COUNT(e) FROM Enrollment e WHERE e.status IN :statuses GROUP BY e.course.id")
+    List<Object[]> countByStatusInGroupByCourse(@Param("statuses") Collection<String> statuses);
+
     // find active enrollments for a student (for schedule conflict checking)
     List<Enrollment> findByStudentAndStatus(User student, String status);
 
+    // courses a student has with the given status - fetches the courses directly
+    // so we dont lazy load them one by one (used to build the timetable index)
+    @Query("SELECT e.course FROM Enrollment e WHERE e.student.id = :studentId AND e.status = :status")
+    List<Course> findCoursesByStudentIdAndStatus(@Param("studentId") Long studentId, @Param("status") String status);
+
+    // (course id, course code) for a students enrollments with a given status
+    // used to build the completed courses bitset for prerequisite checks
+    @Query("SELECT e.course.id, e.course.courseCode FROM Enrollment e WHERE e.student.id = :studentId AND e.status = :status")
+    List<Object[]> findCourseIdsAndCodesByStudentIdAndStatus(@Param("studentId") Long studentId, @Param("status") String status);
+
+    // ids of the courses a student has an enrollment with one of the statuses - duplicate check for cart enrollment
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId AND e.status IN :statuses")
+    List<Long> findCourseIdsByStudentIdAndStatusIn(@Param("studentId") Long studentId, @Param("statuses") Collection<String> statuses);
+
     // find completed enrollments for a student (for prerequesite checking)
     List<Enrollment> findByStudentIdAndStatus(Long studentId, String status);
 
     // find waitlisted enrollments for a course (ordered by position)
     List<Enrollment> findByCourseAndStatusOrderByWaitlistPositionAsc(Course course, String status);
 
+    // next few waitlisted students in line - used when promoting in batches
+    List<Enrollment> findByCourseAndStatusOrderByWaitlistPositionAsc(Course course, String status, Pageable pageable);
+
+    // head of the waitlist
+    Optional<Enrollment> findFirstByCourseAndStatusOrderByWaitlistPositionAsc(Course course, String status);
+
+    // how many people are ahead of a ticket - rank = this + 1
+    long countByCourseAndStatusAndWaitlistPositionLessThan(Course course, String status, Integer waitlistPosition);
+
+    // ranks of a whole list of waitlisted enrollments in one go - rows of (enrollment id, rank), rank 1 = next in line
+    @Query(value = "SELECT r.id, r.rank FROM (SELECT e.id, ROW_NUMBER() OVER (PARTITION BY e.course_id " +
+                   "ORDER BY e.waitlist_position) AS rank FROM enrollments e " +
+                   "WHERE e.status = 'WAITLISTED' AND e.course_id IN (:courseIds)) r WHERE r.id IN (:ids)",
+           nativeQuery = true)
+    List<Object[]> findWaitlistRanks(@Param("courseIds") Collection<Long> courseIds, @Param("ids") Collection<Long> ids);
+
+    // highest ticket handed out so far for a course - seeds the ticket counter
+    @Query("SELECT COALESCE(MAX(e.waitlistPosition), 0) FROM Enrollment e WHERE e.course.id = :courseId")
+    int findMaxWaitlistPosition(@Param("courseId") Long courseId);
+
     // soft delete support - find only active enrollments
     List<Enrollment> findByActiveTrue();
 
@@ -79,7 +134,22 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     // find enrollments by payment
     List<Enrollment> findByPaymentId(Long paymentId);
 
+    // (year, month, count) of enrollments made since a date - for the dashboard counters
+    @Query("SELECT YEAR(e.enrollmentDate), MONTH(e.enrollmentDate), COUNT(e) FROM Enrollment e WHERE e.enrollmentDate >= :since " +
+           "GROUP BY YEAR(e.enrollmentDate), MONTH(e.enrollmentDate)")
+    List<Object[]> countByMonthSince(@Param("since") LocalDateTime since);
+
     // Count enrollments in date range (for enrollment trends)
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.enrollmentDate >= :startDate AND e.enrollmentDate < :endDate")
     long countByEnrollmentDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // report export - plain columns streamed forward only, 500 rows per fetch (must be read inside a transaction)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT e.id, s.firstName, s.lastName, c.courseName, e.status, e.enrollmentDate FROM Enrollment e " +
+           "JOIN e.student s JOIN e.course c " +
+           "WHERE (:from IS NULL OR e.enrollmentDate >= :from) AND (:to IS NULL OR e.enrollmentDate < :to) " +
+           "AND (:semesterId IS NULL OR c.semester.id = :semesterId) ORDER BY e.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                     @Param("semesterId") Long semesterId);
 }
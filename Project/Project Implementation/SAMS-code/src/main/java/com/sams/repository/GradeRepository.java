@@ -4,12 +4,17 @@ import com.sams.entity.Course;
 import com.sams.entity.Enrollment;
 import com.sams.entity.Grade;
 import com.sams.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * repository for grade data access
@@ -72,4 +77,14 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
     // Dashboard - Get grade distribution
     @Query("SELECT g.gradeValue, COUNT(g) FROM Grade g WHERE g.active = true GROUP BY g.gradeValue")
     List<Object[]> getGradeDistribution();
+
+    // report export - plain columns streamed forward only, 500 rows per fetch (must be read inside a transaction)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT g.id, s.firstName, s.lastName, c.courseName, g.gradeValue, g.gradePoints FROM Grade g " +
+           "JOIN g.student s JOIN g.course c " +
+           "WHERE (:from IS NULL OR g.createdAt >= :from) AND (:to IS NULL OR g.createdAt < :to) " +
+           "AND (:semesterId IS NULL OR c.semester.id = :semesterId) ORDER BY g.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                     @Param("semesterId") Long semesterId);
 }
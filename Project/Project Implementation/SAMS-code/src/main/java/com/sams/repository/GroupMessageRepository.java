@@ -6,6 +6,7 @@ import com.sams.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -50,4 +51,47 @@ public interface GroupMessageRepository extends JpaRepository<GroupMessage, Long
     // needed this becuase we need flexible text search functionality
     @Query("SELECT m FROM GroupMessage m WHERE m.studyGroup.id = :groupId AND m.deleted = false AND LOWER(m.content) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY m.sentAt DESC")
     List<GroupMessage> searchMessagesByContent(@Param("groupId") Long groupId, @Param("searchTerm") String searchTerm);
+
+    // ---- full text search (search_vector tsvector column + GIN index, see MessageSearchService) ----
+
+    // best matches first, highlight is ts_headline of the content with the markers from :options
+    @Query(value = "SELECT h.id, h.rank, ts_headline(CAST(:language AS regconfig), h.content, " +
+           "websearch_to_tsquery(CAST(:language AS regconfig), :query), :options) FROM (" +
+           "SELECT m.id, m.content, m.sent_at, ts_rank_cd(m.search_vector, q) AS rank " +
+           "FROM group_messages m, websearch_to_tsquery(CAST(:language AS regconfig), :query) q " +
+           "WHERE m.study_group_id = :groupId AND m.deleted = false AND m.search_vector @@ q " +
+           "ORDER BY rank DESC, m.sent_at DESC LIMIT :limit) h ORDER BY h.rank DESC, h.sent_at DESC",
+           nativeQuery = true)
+    List<Object[]> searchFullText(@Param("groupId") Long groupId, @Param("query") String query,
+                                  @Param("language") String language, @Param("options") String options,
+                                  @Param("limit") int limit);
+
+    // (re)index one message - called right after it is saved
+    @Modifying
+    @Query(value = "UPDATE group_messages SET search_vector = to_tsvector(CAST(:language AS regconfig), " +
+           "coalesce(content, '')) WHERE id = :id", nativeQuery = true)
+    int updateSearchVector(@Param("id") Long id, @Param("language") String language);
+
+    // deleted messages leave the index
+    @Modifying
+    @Query(value = "UPDATE group_messages SET search_vector = NULL WHERE id = :id", nativeQuery = true)
+    int clearSearchVector(@Param("id") Long id);
+
+    // backfill - the next batch of messages that arent indexed yet
+    @Modifying
+    @Query(value = "UPDATE group_messages SET search_vector = to_tsvector(CAST(:language AS regconfig), " +
+           "coalesce(content, '')) WHERE id IN (SELECT id FROM group_messages " +
+           "WHERE search_vector IS NULL AND deleted = false LIMIT :batchSize)", nativeQuery = true)
+    int indexMissing(@Param("language") String language, @Param("batchSize") int batchSize);
+
+    // rebuild - last id of the next batch after :afterId (null when there is nothing left)
+    @Query(value = "SELECT MAX(id) FROM (SELECT id FROM group_messages WHERE id > :afterId " +
+           "ORDER BY id LIMIT :batchSize) batch", nativeQuery = true)
+    Long findSearchBatchEnd(@Param("afterId") Long afterId, @Param("batchSize") int batchSize);
+
+    // rebuild - reindex every live message with an id in (afterId, upToId]
+    @Modifying
+    @Query(value = "UPDATE group_messages SET search_vector = to_tsvector(CAST(:language AS regconfig), " +
+           "coalesce(content, '')) WHERE id > :afterId AND id <= :upToId AND deleted = false", nativeQuery = true)
+    int reindexRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId, @Param("language") String language);
 }
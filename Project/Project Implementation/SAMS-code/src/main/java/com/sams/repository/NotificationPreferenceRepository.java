@@ -4,6 +4,8 @@ import com.sams.entity.NotificationPreference;
 import com.sams.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,4 +23,7 @@ public interface NotificationPreferenceRepository extends JpaRepository<Notifica
 
     // check if preferences exist for a user - needed becuase we create defaults on first login
     boolean existsByUserId(Long userId);
+
+    // preferences of many users at once - bulk notifications
+    List<NotificationPreference> findByUserIdIn(Collection<Long> userIds);
 }
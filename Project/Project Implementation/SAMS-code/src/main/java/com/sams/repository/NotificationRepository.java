@@ -5,7 +5,12 @@ import com.sams.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,6 +30,16 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // find all notifications for a user by user id (paginated)
     Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    // the inbox - only the recent ones so only the recent monthly partitions are read (see NotificationRetentionService)
+    Page<Notification> findByUserIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(Long userId, LocalDateTime since,
+                                                                                    Pageable pageable);
+
+    // created time of the notification at some position in the inbox (page boundaries for merging announcements)
+    @Query("SELECT n.createdAt FROM Notification n WHERE n.user.id = :userId AND n.createdAt >= :since " +
+           "ORDER BY n.createdAt DESC")
+    List<LocalDateTime> findCreatedAtsByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                               Pageable pageable);
+
     // find unread notifications for a user
     List<Notification> findByUserAndReadFalseOrderByCreatedAtDesc(User user);
 
@@ -45,4 +60,36 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     // delete all read notifications for a user
     void deleteByUserAndReadTrue(User user);
+
+    // ---- set based bulk operations, one statement instead of loading every row ----
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.read = false")
+    int markAllAsRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true, n.readAt = :readAt " +
+           "WHERE n.user.id = :userId AND n.id IN :ids AND n.read = false")
+    int markAsRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids, @Param("readAt") LocalDateTime readAt);
+
+    long countByUserIdAndIdInAndReadFalse(Long userId, Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.id IN :ids")
+    int deleteByUserIdAndIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.read = true")
+    int deleteReadByUserId(@Param("userId") Long userId);
+
+    // unread count of every user that has any - seeds the badge counters
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n WHERE n.read = false GROUP BY n.user.id")
+    List<Object[]> countUnreadGroupedByUser();
+
+    // what a reconnecting client missed: newer than its last seen id, or a merged one bumped since then
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.createdAt >= :since AND (n.id > :afterId " +
+           "OR (n.read = false AND n.coalescedCount > 1 AND n.createdAt > :bumpedAfter)) ORDER BY n.id")
+    List<Notification> findMissed(@Param("userId") Long userId, @Param("afterId") Long afterId,
+                                  @Param("bumpedAfter") LocalDateTime bumpedAfter, @Param("since") LocalDateTime since,
+                                  Pageable pageable);
 }
@@ -0,0 +1,43 @@
+package com.sams.repository;
+
+import com.sams.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * repository for the outbox table
+ * the claim queries lock rows with SKIP LOCKED so two dispatchers (or a slow run
+ * overlapping the next one) never run the same event twice
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // next batch of due events, locked until the transaction ends
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND available_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // one event, locked - used when a batch failed and we retry them one at a time
+    @Query(value = "SELECT * FROM outbox_events WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<OutboxEvent> claimById(@Param("id") Long id);
+
+    // ids of due events without locking (for the one by one retry)
+    @Query("SELECT o.id FROM OutboxEvent o WHERE o.status = 'PENDING' AND o.availableAt <= :now ORDER BY o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(String status);
+
+    // housekeeping - processed events are only kept for a while
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.status = 'DONE' AND o.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,14 +3,18 @@ package com.sams.repository;
 import com.sams.entity.Payment;
 import com.sams.entity.Semester;
 import com.sams.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * repository for payment data access
@@ -36,6 +40,16 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // count payments by status (for dashboard stats without loading all)
     long countByStatus(String status);
 
+    // (status, count) for every status in one query - seeds the dashboard counters
+    @Query("SELECT p.status, COUNT(p) FROM Payment p GROUP BY p.status")
+    List<Object[]> countGroupedByStatus();
+
+    // (semesterId, semesterName, status, count, sum of amount) - the whole financial summary in one query
+    // left join so payments without a semester still show up in the totals
+    @Query("SELECT s.id, s.name, p.status, COUNT(p), COALESCE(SUM(p.amount), 0) " +
+           "FROM Payment p LEFT JOIN p.semester s GROUP BY s.id, s.name, p.status")
+    List<Object[]> sumGroupedBySemesterAndStatus();
+
     // find payments by student and semester
     Optional<Payment> findByStudentAndSemester(User student, Semester semester);
 
@@ -74,4 +88,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT COALESCE(SUM(p.paidAmount), 0) FROM Payment p " +
            "WHERE p.student.id = :studentId AND p.semester.id = :semesterId")
     java.math.BigDecimal getTotalPaidAmount(@Param("studentId") Long studentId, @Param("semesterId") Long semesterId);
+
+    // report export - plain columns streamed forward only, 500 rows per fetch (must be read inside a transaction)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.id, s.firstName, s.lastName, p.amount, p.status, p.dueDate FROM Payment p JOIN p.student s " +
+           "WHERE (:from IS NULL OR p.createdAt >= :from) AND (:to IS NULL OR p.createdAt < :to) " +
+           "AND (:semesterId IS NULL OR p.semester.id = :semesterId) ORDER BY p.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                     @Param("semesterId") Long semesterId);
 }
@@ -0,0 +1,57 @@
+package com.sams.repository;
+
+import com.sams.entity.StudentCreditLoad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * repository for the per student per semester credit totals
+ * the writes are native postgres upserts so concurrent enrollments for the same
+ * student just queue up on the row lock instead of losing updates
+ */
+@Repository
+public interface StudentCreditLoadRepository extends JpaRepository<StudentCreditLoad, Long> {
+
+    // current total for a student in a semester - empty if they have nothing yet
+    @Query("SELECT l.credits FROM StudentCreditLoad l WHERE l.studentId = :studentId AND l.semesterId = :semesterId")
+    Optional<Integer> findCredits(@Param("studentId") Long studentId, @Param("semesterId") Long semesterId);
+
+    // add (or subtract) credits, creating the row if it doesnt exist yet
+    @Modifying
+    @Query(value = "INSERT INTO student_credit_loads (student_id, semester_id, credits, updated_at) " +
+                   "VALUES (:studentId, :semesterId, GREATEST(:delta, 0), NOW()) " +
+                   "ON CONFLICT (student_id, semester_id) DO UPDATE " +
+                   "SET credits = GREATEST(student_credit_loads.credits + :delta, 0), updated_at = NOW()",
+           nativeQuery = true)
+    int addCredits(@Param("studentId") Long studentId, @Param("semesterId") Long semesterId, @Param("delta") int delta);
+
+    // add (or subtract) credits for everyone holding a seat in a course - used when the course itself changes
+    @Modifying
+    @Query(value = "INSERT INTO student_credit_loads (student_id, semester_id, credits, updated_at) " +
+                   "SELECT DISTINCT e.student_id, :semesterId, GREATEST(:delta, 0), NOW() FROM enrollments e " +
+                   "WHERE e.course_id = :courseId AND e.status IN ('ACTIVE', 'PENDING_PAYMENT') " +
+                   "ON CONFLICT (student_id, semester_id) DO UPDATE " +
+                   "SET credits = GREATEST(student_credit_loads.credits + :delta, 0), updated_at = NOW()",
+           nativeQuery = true)
+    int addCreditsForCourse(@Param("courseId") Long courseId, @Param("semesterId") Long semesterId, @Param("delta") int delta);
+
+    // rebuild step 1 - wipe the totals
+    @Modifying
+    @Query(value = "DELETE FROM student_credit_loads", nativeQuery = true)
+    int deleteAllLoads();
+
+    // rebuild step 2 - recompute every total straight from the enrollments table
+    @Modifying
+    @Query(value = "INSERT INTO student_credit_loads (student_id, semester_id, credits, updated_at) " +
+                   "SELECT e.student_id, c.semester_id, SUM(c.credits), NOW() " +
+                   "FROM enrollments e JOIN courses c ON c.id = e.course_id " +
+                   "WHERE e.status IN ('ACTIVE', 'PENDING_PAYMENT') AND c.semester_id IS NOT NULL " +
+                   "GROUP BY e.student_id, c.semester_id",
+           nativeQuery = true)
+    int insertLoadsFromEnrollments();
+}
@@ -25,6 +25,10 @@ public interface StudyGroupMemberRepository extends JpaRepository<StudyGroupMemb
     // find all groups a user is member of - used in student dashboard
     List<StudyGroupMember> findByUserIdAndStatus(Long userId, String status);
 
+    // just the user ids of a group, for notifying all members
+    @Query("SELECT m.user.id FROM StudyGroupMember m WHERE m.studyGroup.id = :groupId AND m.status = :status")
+    List<Long> findUserIdsByStudyGroupIdAndStatus(@Param("groupId") Long groupId, @Param("status") String status);
+
     // check if user is already a member of a group - needed becuase we prevent duplicate joins
     boolean existsByStudyGroupIdAndUserId(Long groupId, Long userId);
 
@@ -2,6 +2,7 @@ package com.sams.repository;
 
 import com.sams.entity.StudyGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -29,4 +30,9 @@ public interface StudyGroupRepository extends JpaRepository<StudyGroup, Long> {
 
     // search groups by name (case insensitive) - for search functionality
     List<StudyGroup> findByNameContainingIgnoreCaseAndActiveTrue(String name);
+
+    // fields for the in-memory search index - private groups arent searchable
+    @Query("SELECT g.id, g.name, g.description, c.id FROM StudyGroup g LEFT JOIN g.course c " +
+           "WHERE g.active = true AND g.isPrivate = false")
+    List<Object[]> findSearchIndexFields();
 }
@@ -129,4 +129,13 @@ public interface TeacherProfileRepository extends JpaRepository<TeacherProfile,
     boolean existsByEmployeeId(String employeeId);
 
     void deleteByUserId(Long userId);
+
+    // fields for the in-memory search index (the name comes from the user)
+    @Query("SELECT t.id, u.id, t.department, t.designation, t.specialization FROM TeacherProfile t " +
+           "JOIN t.user u WHERE t.active = true")
+    List<Object[]> findSearchIndexFields();
+
+    // every profile with its user in one query, for the teacher directory
+    @Query("SELECT t FROM TeacherProfile t JOIN FETCH t.user")
+    List<TeacherProfile> findAllForDirectory();
 }
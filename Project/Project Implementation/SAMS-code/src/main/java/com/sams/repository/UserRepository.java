@@ -1,12 +1,17 @@
 package com.sams.repository;
 
 import com.sams.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * repository for user data access
@@ -61,7 +66,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.createdAt >= :startDate AND u.createdAt < :endDate")
     long countByRoleAndCreatedAtBetween(@Param("role") String role, @Param("startDate") java.time.LocalDateTime startDate, @Param("endDate") java.time.LocalDateTime endDate);
 
+    // user counts per role / active flag / gender in one go - seeds the dashboard counters
+    @Query("SELECT u.role, u.active, u.gender, COUNT(u) FROM User u GROUP BY u.role, u.active, u.gender")
+    List<Object[]> countGroupedByRoleActiveGender();
+
+    // (role, year, month, count) of users created since a date - for the growth rates
+    @Query("SELECT u.role, YEAR(u.createdAt), MONTH(u.createdAt), COUNT(u) FROM User u WHERE u.createdAt >= :since " +
+           "GROUP BY u.role, YEAR(u.createdAt), MONTH(u.createdAt)")
+    List<Object[]> countByRoleAndMonthSince(@Param("since") java.time.LocalDateTime since);
+
     // Get recent users with pagination (for recent activities fallback - avoids N+1)
     @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
     List<User> findRecentUsers(org.springframework.data.domain.Pageable pageable);
+
+    // report export - plain columns streamed forward only, 500 rows per fetch (must be read inside a transaction)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT u.id, u.username, u.firstName, u.lastName, u.email, u.role, u.active FROM User u " +
+           "WHERE (:role IS NULL OR u.role = :role) " +
+           "AND (:from IS NULL OR u.createdAt >= :from) AND (:to IS NULL OR u.createdAt < :to) ORDER BY u.id")
+    Stream<Object[]> streamForExport(@Param("role") String role, @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    // fields for the in-memory search index, loaded once at startup
+    @Query("SELECT u.id, u.username, u.email, u.firstName, u.lastName, u.role FROM User u WHERE u.active = true")
+    List<Object[]> findSearchIndexFields();
 }
@@ -0,0 +1,98 @@
+package com.sams.security;
+
+import com.sams.repository.UserRepository;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * checks STOMP frames coming in from websocket clients
+ * /ws/** is permitAll in SecurityConfig (the handshake cant carry our header), so this is
+ * the only place a websocket subscription gets checked
+ *
+ * CONNECT: the client sends "Authorization: Bearer <jwt>" as a stomp header (see websocket.js),
+ * if its valid the role is kept in the websocket session attributes and the session gets a
+ * principal named by the user id - thats the name convertAndSendToUser(userId, ...) looks for,
+ * so /user/queue/notifications only works for connections that sent a good token
+ * SUBSCRIBE: /topic/admin/** is only for ADMIN and SUPER_ADMIN - anyone else gets an ERROR frame
+ */
+@Component
+public class WebSocketAuthInterceptor implements ChannelInterceptor {
+
+    public static final String ADMIN_TOPIC_PREFIX = "/topic/admin/";
+
+    private static final String ROLE_ATTRIBUTE = "sams.role";
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+
+    public WebSocketAuthInterceptor(JwtUtil jwtUtil, UserRepository userRepository) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT:
+                String token = validToken(accessor.getFirstNativeHeader("Authorization"));
+                if (token == null) {
+                    break;
+                }
+                String role = jwtUtil.getRoleFromToken(token);
+                Map<String, Object> attributes = accessor.getSessionAttributes();
+                if (attributes != null && role != null) {
+                    attributes.put(ROLE_ATTRIBUTE, role);
+                }
+                // the token only has the username, the queues are keyed by user id
+                String username = jwtUtil.getUsernameFromToken(token);
+                userRepository.findByUsername(username).ifPresent(user ->
+                    accessor.setUser(new UsernamePasswordAuthenticationToken(
+                        String.valueOf(user.getId()), null,
+                        role != null ? List.of(new SimpleGrantedAuthority("ROLE_" + role)) : List.of())));
+                break;
+            case SUBSCRIBE:
+                String destination = accessor.getDestination();
+                if (destination != null && destination.startsWith(ADMIN_TOPIC_PREFIX) && !isAdmin(accessor)) {
+                    throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+                }
+                break;
+            default:
+                break;
+        }
+        return message;
+    }
+
+    private boolean isAdmin(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object role = attributes == null ? null : attributes.get(ROLE_ATTRIBUTE);
+        return "ADMIN".equals(role) || "SUPER_ADMIN".equals(role);
+    }
+
+    // same checks as JwtAuthenticationFilter, null if the header is missing or the token is no good
+    private String validToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        String token = authHeader.substring(7);
+        if (!jwtUtil.validateToken(token) || jwtUtil.isTokenExpired(token)) {
+            return null;
+        }
+        return token;
+    }
+}
@@ -18,6 +18,7 @@ import java.util.List;
  * provides methods to query recent activities by type or user
  *
  * pretty simple service - just logs stuff to database
+ * new entries are also pushed to the live admin dashboard (DashboardFeedService)
  */
 @Service
 @Transactional
@@ -26,6 +27,9 @@ public class ActivityLogService {
     @Autowired
     private ActivityLogRepository activityLogRepository;
 
+    @Autowired
+    private DashboardFeedService dashboardFeedService;
+
     /**
      * Log an activity
      */
@@ -37,35 +41,35 @@ public class ActivityLogService {
         log.setEntityId(entityId);
         log.setPerformedBy(performedBy);
         log.setPerformedByUsername(performedBy != null ? performedBy.getUsername() : "System");
-        return activityLogRepository.save(log);
+        return save(log);
     }
 
     /**
      * Log user creation
      */
     public ActivityLog logUserCreated(User user, User performedBy) {
-        return activityLogRepository.save(ActivityLog.userCreated(user, performedBy));
+        return save(ActivityLog.userCreated(user, performedBy));
     }
 
     /**
      * Log enrollment creation
      */
     public ActivityLog logEnrollmentCreated(Long enrollmentId, String studentName, String courseName, User performedBy) {
-        return activityLogRepository.save(ActivityLog.enrollmentCreated(enrollmentId, studentName, courseName, performedBy));
+        return save(ActivityLog.enrollmentCreated(enrollmentId, studentName, courseName, performedBy));
     }
 
     /**
      * Log grade assignment
      */
     public ActivityLog logGradeAssigned(Long gradeId, String studentName, String courseName, String grade, User performedBy) {
-        return activityLogRepository.save(ActivityLog.gradeAssigned(gradeId, studentName, courseName, grade, performedBy));
+        return save(ActivityLog.gradeAssigned(gradeId, studentName, courseName, grade, performedBy));
     }
 
     /**
      * Log payment approval
      */
     public ActivityLog logPaymentApproved(Long paymentId, String studentName, String amount, User performedBy) {
-        return activityLogRepository.save(ActivityLog.paymentApproved(paymentId, studentName, amount, performedBy));
+        return save(ActivityLog.paymentApproved(paymentId, studentName, amount, performedBy));
     }
 
     /**
@@ -99,4 +103,11 @@ public class ActivityLogService {
     public List<ActivityLog> getActivitiesByUser(Long userId) {
         return activityLogRepository.findByPerformedByIdOrderByCreatedAtDesc(userId);
     }
+
+    // save and hand the entry to the live dashboard feed
+    private ActivityLog save(ActivityLog log) {
+        ActivityLog saved = activityLogRepository.save(log);
+        dashboardFeedService.activityLogged(saved);
+        return saved;
+    }
 }
@@ -0,0 +1,299 @@
+package com.sams.service;
+
+import com.sams.exception.RegistrationQueueException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * virtual waiting room for enrollment requests
+ * when registration opens everyone hits enroll at the same second - without this every request
+ * grabbed a tomcat thread and a db connection at once and the connection pool fell over
+ *
+ * requests go into one FIFO queue and a fixed pool of workers takes them off in order,
+ * so the database only ever sees `workers` enrollments at a time no matter how many people are waiting
+ *
+ * every request gets a token and each student can only have one request in the queue,
+ * so spamming the button doesnt get you further ahead. position is worked out from ticket numbers
+ *
+ * NOTE: in-memory, single app instance only (same as the seat counters)
+ */
+@Service
+public class AdmissionQueueService {
+
+    private final boolean enabled;
+    private final int workers;
+    private final int maxQueueSize;
+    private final long waitTimeoutMs;
+    private final long resultTtlMs;
+
+    private final BlockingQueue<Ticket> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    // the one unfinished request of each student
+    private final Map<Long, Ticket> pendingByStudent = new ConcurrentHashMap<>();
+
+    // ticket numbers - issued when queued, admitted = highest one a worker picked up
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong turnedAway = new AtomicLong();
+
+    private ExecutorService workerPool;
+
+    public AdmissionQueueService(@Value("${enrollment.admission.enabled:true}") boolean enabled,
+                                 @Value("${enrollment.admission.workers:8}") int workers,
+                                 @Value("${enrollment.admission.max-queue-size:5000}") int maxQueueSize,
+                                 @Value("${enrollment.admission.wait-timeout.ms:30000}") long waitTimeoutMs,
+                                 @Value("${enrollment.admission.result-ttl.ms:600000}") long resultTtlMs) {
+        this.enabled = enabled;
+        this.workers = workers;
+        this.maxQueueSize = maxQueueSize;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.resultTtlMs = resultTtlMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "admission-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    // put a request in the queue and return right away - caller polls the token for the result
+    public Ticket enqueue(Long studentId, Callable<?> task) {
+        if (!enabled) {
+            throw new RegistrationQueueException("Registration queue is not enabled");
+        }
+
+        Ticket ticket;
+        // numbering and queueing happen together so ticket order == queue order
+        synchronized (queue) {
+            if (queue.size() >= maxQueueSize) {
+                turnedAway.incrementAndGet();
+                throw new RegistrationQueueException("Registration queue is full, please try again in a few minutes");
+            }
+
+            Ticket existing = pendingByStudent.get(studentId);
+            if (existing != null) {
+                throw new RegistrationQueueException(
+                    "You already have a request in the registration queue (token " + existing.token + ")");
+            }
+
+            ticket = new Ticket(issued.incrementAndGet(), studentId, task);
+            pendingByStudent.put(studentId, ticket);
+            tickets.put(ticket.token, ticket);
+            queue.add(ticket);
+        }
+        return ticket;
+    }
+
+    // queue the request and wait for it - keeps the normal request/response endpoints working
+    // exceptions thrown by the task (CourseFullException etc) come back out as they are
+    // if it takes too long the request stays queued and the caller gets the token to poll
+    @SuppressWarnings("unchecked")
+    public <T> T runAdmitted(Long studentId, Callable<T> task) {
+        if (!enabled) {
+            return call(task);
+        }
+
+        Ticket ticket = enqueue(studentId, task);
+        try {
+            return (T) ticket.future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RegistrationQueueException(
+                "Your request is still waiting in the registration queue (position " + getPosition(ticket) +
+                "). Check GET /api/enrollments/queue/" + ticket.token + " for the result");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistrationQueueException("Interrupted while waiting in the registration queue");
+        }
+    }
+
+    public Ticket getTicket(String token) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null) {
+            throw new IllegalArgumentException("Unknown or expired queue token: " + token);
+        }
+        return ticket;
+    }
+
+    // how many requests are ahead of this one (0 once a worker has it)
+    public long getPosition(Ticket ticket) {
+        if (!ticket.isWaiting()) {
+            return 0;
+        }
+        return Math.max(1, ticket.number - admitted.get());
+    }
+
+    // numbers for the admin screen / load testing
+    public Map<String, Object> getQueueStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("workers", workers);
+        stats.put("waiting", queue.size());
+        stats.put("running", running.get());
+        stats.put("issued", issued.get());
+        stats.put("completed", completed.get());
+        stats.put("turnedAway", turnedAway.get());
+        return stats;
+    }
+
+    // forget finished tickets nobody came back for
+    @Scheduled(fixedDelayString = "${enrollment.admission.cleanup.interval.ms:60000}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(resultTtlMs * 1_000_000);
+        tickets.values().removeIf(ticket -> ticket.finishedAt != null && ticket.finishedAt.isBefore(cutoff));
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Ticket ticket;
+            try {
+                ticket = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // several workers take at the same time, so only ever move the counter forward
+            admitted.accumulateAndGet(ticket.number, Math::max);
+            running.incrementAndGet();
+            ticket.state = "RUNNING";
+            Object result = null;
+            Throwable failure = null;
+            try {
+                result = ticket.task.call();
+            } catch (Throwable e) {
+                // Errors too (StackOverflowError from a bad task etc) - otherwise the worker dies here,
+                // the student stays in pendingByStudent forever and the caller waits until its timeout
+                failure = e;
+            }
+            running.decrementAndGet();
+            completed.incrementAndGet();
+
+            // free the students slot before waking up the caller so they can queue again straight away
+            pendingByStudent.remove(ticket.studentId, ticket);
+            if (failure == null) {
+                ticket.finish("COMPLETED", null);
+                ticket.future.complete(result);
+            } else {
+                ticket.finish("FAILED", failure.getMessage());
+                ticket.future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // one queued request
+    public static class Ticket {
+        private final String token = UUID.randomUUID().toString();
+        private final long number;
+        private final Long studentId;
+        private final Callable<?> task;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+
+        // WAITING -> RUNNING -> COMPLETED / FAILED
+        private volatile String state = "WAITING";
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        Ticket(long number, Long studentId, Callable<?> task) {
+            this.number = number;
+            this.studentId = studentId;
+            this.task = task;
+        }
+
+        private void finish(String finalState, String errorMessage) {
+            this.error = errorMessage;
+            this.finishedAt = LocalDateTime.now();
+            this.state = finalState;
+        }
+
+        public boolean isWaiting() {
+            return "WAITING".equals(state);
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public LocalDateTime getQueuedAt() {
+            return queuedAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        // result of the request, null until COMPLETED
+        public Object getResult() {
+            return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.sams.service;
+
+import com.sams.entity.Announcement;
+import com.sams.entity.Course;
+import com.sams.entity.User;
+import com.sams.exception.CourseNotFoundException;
+import com.sams.exception.ResourceNotFoundException;
+import com.sams.exception.SemesterNotFoundException;
+import com.sams.exception.UserNotFoundException;
+import com.sams.repository.AnnouncementReadRepository;
+import com.sams.repository.AnnouncementRepository;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.EnrollmentRepository;
+import com.sams.repository.SemesterRepository;
+import com.sams.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * announcements - one notice for a whole audience (everyone, a role, a course or a semester)
+ *
+ * a campus wide notice used to mean a Notification row per user (20k inserts). here its one announcements row,
+ * who can see it is worked out in the query when reading, and reading it adds a row to announcement_reads -
+ * so storage grows with how many people actually opened it, not with the audience size.
+ * announcements show up in the notification inbox next to normal notifications (see NotificationController)
+ *
+ * posting one pushes it once committed: ALL and ROLE ones are broadcast on /topic/notifications
+ * (ROLE ones carry audienceRole, clients of other roles ignore them), COURSE and SEMESTER ones go to
+ * each member's /queue/notifications since the client doesnt know which courses it is in
+ *
+ * admins can post to any audience, faculty only to courses they teach
+ */
+@Service
+public class AnnouncementService {
+
+    public static final String TOPIC = "/topic/notifications";
+    public static final List<String> ROLES = List.of("STUDENT", "FACULTY", "ADMIN", "SUPER_ADMIN");
+
+    // lower bound for the oldest inbox page
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementReadRepository announcementReadRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final SemesterRepository semesterRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int inboxMax;
+
+    public AnnouncementService(AnnouncementRepository announcementRepository,
+                               AnnouncementReadRepository announcementReadRepository,
+                               UserRepository userRepository,
+                               CourseRepository courseRepository,
+                               SemesterRepository semesterRepository,
+                               EnrollmentRepository enrollmentRepository,
+                               SimpMessagingTemplate messagingTemplate,
+                               @Value("${announcements.inbox.max:50}") int inboxMax) {
+        this.announcementRepository = announcementRepository;
+        this.announcementReadRepository = announcementReadRepository;
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.semesterRepository = semesterRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.inboxMax = inboxMax;
+    }
+
+    // ========== POSTING ==========
+
+    // posted by the logged in user - the controller passes the username from the JWT
+    @Transactional
+    public Announcement createAnnouncement(Announcement announcement, String creatorUsername) {
+        User creator = userRepository.findByUsername(creatorUsername)
+                .orElseThrow(() -> new UserNotFoundException("username", creatorUsername));
+        checkAudience(announcement, creator);
+
+        announcement.setCreatedBy(creator);
+        announcement.setActive(true);
+        Announcement saved = announcementRepository.save(announcement);
+        TransactionHooks.afterCommit(() -> broadcast(saved));
+        return saved;
+    }
+
+    // take it down - the read markers arent needed anymore
+    @Transactional
+    public Announcement withdrawAnnouncement(Long announcementId) {
+        Announcement announcement = announcementRepository.findById(announcementId)
+                .orElseThrow(() -> new ResourceNotFoundException("Announcement", "id", announcementId));
+        announcement.setActive(false);
+        announcementReadRepository.deleteByAnnouncementId(announcementId);
+        return announcementRepository.save(announcement);
+    }
+
+    // normalise the audience fields and make sure the target exists and the poster is allowed to use it
+    private void checkAudience(Announcement announcement, User creator) {
+        String type = announcement.getAudienceType() != null ? announcement.getAudienceType().toUpperCase() : "";
+        announcement.setAudienceType(type);
+        Course course = null;
+
+        switch (type) {
+            case Announcement.AUDIENCE_ALL:
+                announcement.setAudienceRole(null);
+                announcement.setAudienceId(null);
+                break;
+            case Announcement.AUDIENCE_ROLE:
+                String role = announcement.getAudienceRole() != null ? announcement.getAudienceRole().toUpperCase() : null;
+                if (!ROLES.contains(role)) {
+                    throw new IllegalArgumentException("Audience role must be one of " + ROLES);
+                }
+                announcement.setAudienceRole(role);
+                announcement.setAudienceId(null);
+                break;
+            case Announcement.AUDIENCE_COURSE:
+                Long courseId = requireAudienceId(announcement);
+                course = courseRepository.findById(courseId)
+                        .orElseThrow(() -> new CourseNotFoundException(courseId));
+                announcement.setAudienceRole(null);
+                break;
+            case Announcement.AUDIENCE_SEMESTER:
+                Long semesterId = requireAudienceId(announcement);
+                if (!semesterRepository.existsById(semesterId)) {
+                    throw new SemesterNotFoundException(semesterId);
+                }
+                announcement.setAudienceRole(null);
+                break;
+            default:
+                throw new IllegalArgumentException("Audience type must be ALL, ROLE, COURSE or SEMESTER");
+        }
+
+        if ("FACULTY".equals(creator.getRole())) {
+            boolean ownCourse = course != null && course.getInstructor() != null
+                    && creator.getId().equals(course.getInstructor().getId());
+            if (!ownCourse) {
+                throw new AccessDeniedException("Faculty can only post announcements to thier own courses");
+            }
+        }
+    }
+
+    private Long requireAudienceId(Announcement announcement) {
+        if (announcement.getAudienceId() == null) {
+            throw new IllegalArgumentException("audienceId is required for " + announcement.getAudienceType() + " announcements");
+        }
+        return announcement.getAudienceId();
+    }
+
+    // ========== READING ==========
+
+    // what this user can see, newest first
+    public List<Announcement> getAnnouncementsForUser(Long userId, int page, int size) {
+        return announcementRepository.findVisible(userId, roleOf(userId), LocalDateTime.now(), PageRequest.of(page, size));
+    }
+
+    // everything posted (admin list)
+    public List<Announcement> getAllAnnouncements(int page, int size) {
+        return announcementRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(page, size));
+    }
+
+    public List<Announcement> getUnreadAnnouncements(Long userId) {
+        return announcementRepository.findVisibleUnread(userId, roleOf(userId), LocalDateTime.now(),
+                PageRequest.of(0, inboxMax));
+    }
+
+    public long getUnreadCount(Long userId) {
+        return announcementRepository.countVisibleUnread(userId, roleOf(userId), LocalDateTime.now());
+    }
+
+    /**
+     * the announcements that belong on one page of the notification inbox: created after `after` and up to `upTo`
+     * (null = open ended). NotificationController passes the created times of the notifications around the page
+     * so every announcement lands on exactly one page
+     */
+    public List<Announcement> getInboxSlice(Long userId, LocalDateTime after, LocalDateTime upTo) {
+        LocalDateTime now = LocalDateTime.now();
+        return announcementRepository.findVisibleCreatedBetween(userId, roleOf(userId), now,
+                after != null ? after : EARLIEST, upTo != null ? upTo : now, PageRequest.of(0, inboxMax));
+    }
+
+    // which of these the user has read - one query for the whole page
+    public Set<Long> getReadIds(Long userId, Collection<Announcement> announcements) {
+        if (announcements.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<Long> ids = announcements.stream().map(Announcement::getId).collect(Collectors.toSet());
+        return new HashSet<>(announcementReadRepository.findReadAnnouncementIds(userId, ids));
+    }
+
+    // how many people read each of these - one grouped query for the whole page, missing = nobody yet
+    public Map<Long, Long> getReadCounts(Collection<Announcement> announcements) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (announcements.isEmpty()) {
+            return counts;
+        }
+        Set<Long> ids = announcements.stream().map(Announcement::getId).collect(Collectors.toSet());
+        for (Object[] row : announcementReadRepository.countGroupedByAnnouncementId(ids)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // ========== READ MARKERS ==========
+
+    // returns false if it was already read
+    @Transactional
+    public boolean markAsRead(Long announcementId, Long userId) {
+        if (!announcementRepository.existsById(announcementId)) {
+            throw new ResourceNotFoundException("Announcement", "id", announcementId);
+        }
+        return announcementReadRepository.markRead(announcementId, userId, LocalDateTime.now()) == 1;
+    }
+
+    // one marker per unread visible announcement - there are only ever a handful
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        int marked = 0;
+        for (Announcement announcement : announcementRepository.findVisibleUnread(userId, roleOf(userId), now, Pageable.unpaged())) {
+            marked += announcementReadRepository.markRead(announcement.getId(), userId, now);
+        }
+        return marked;
+    }
+
+    private String roleOf(Long userId) {
+        // unknown user - only ALL announcements match
+        return userRepository.findById(userId).map(User::getRole).orElse("");
+    }
+
+    // ========== PUSH ==========
+
+    void broadcast(Announcement announcement) {
+        Map<String, Object> payload = payload(announcement);
+        try {
+            if (Announcement.AUDIENCE_COURSE.equals(announcement.getAudienceType())
+                    || Announcement.AUDIENCE_SEMESTER.equals(announcement.getAudienceType())) {
+                for (Long userId : audienceUserIds(announcement)) {
+                    messagingTemplate.convertAndSendToUser(String.valueOf(userId), NotificationPushService.DESTINATION, payload);
+                }
+            } else {
+                messagingTemplate.convertAndSend(TOPIC, payload);
+            }
+        } catch (RuntimeException e) {
+            // its stored, people see it on thier next inbox load
+            System.err.println("Could not push announcement " + announcement.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // students actively enrolled plus whoever teaches
+    private Set<Long> audienceUserIds(Announcement announcement) {
+        Long targetId = announcement.getAudienceId();
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (Announcement.AUDIENCE_COURSE.equals(announcement.getAudienceType())) {
+            userIds.addAll(enrollmentRepository.findStudentIdsByCourseIdAndStatus(targetId, "ACTIVE"));
+            courseRepository.findById(targetId)
+                    .map(Course::getInstructor)
+                    .ifPresent(instructor -> userIds.add(instructor.getId()));
+        } else {
+            userIds.addAll(enrollmentRepository.findStudentIdsBySemesterIdAndStatus(targetId, "ACTIVE"));
+            userIds.addAll(courseRepository.findInstructorIdsBySemesterId(targetId));
+        }
+        return userIds;
+    }
+
+    // same fields as an inbox entry (NotificationResponse) plus the audience
+    static Map<String, Object> payload(Announcement announcement) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", "announcement");
+        payload.put("source", "ANNOUNCEMENT");
+        payload.put("id", announcement.getId());
+        payload.put("type", "ANNOUNCEMENT");
+        payload.put("title", announcement.getTitle());
+        payload.put("message", announcement.getMessage());
+        payload.put("actionUrl", announcement.getActionUrl());
+        payload.put("relatedEntityType", "Announcement");
+        payload.put("relatedEntityId", announcement.getId());
+        payload.put("read", false);
+        payload.put("createdAt", announcement.getCreatedAt() != null ? announcement.getCreatedAt().toString() : null);
+        payload.put("count", 1);
+        payload.put("audienceType", announcement.getAudienceType());
+        payload.put("audienceRole", announcement.getAudienceRole());
+        payload.put("audienceId", announcement.getAudienceId());
+        return payload;
+    }
+}
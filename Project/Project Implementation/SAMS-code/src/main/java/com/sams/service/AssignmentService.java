@@ -31,18 +31,21 @@ public class AssignmentService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final NotificationService notificationService;
+    private final NotificationQueueService notificationQueueService;
+    private final SearchIndexService searchIndexService;
 
     public AssignmentService(AssignmentRepository assignmentRepository,
                             CourseRepository courseRepository,
                             UserRepository userRepository,
                             EnrollmentRepository enrollmentRepository,
-                            NotificationService notificationService) {
+                            NotificationQueueService notificationQueueService,
+                            SearchIndexService searchIndexService) {
         this.assignmentRepository = assignmentRepository;
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
         this.enrollmentRepository = enrollmentRepository;
-        this.notificationService = notificationService;
+        this.notificationQueueService = notificationQueueService;
+        this.searchIndexService = searchIndexService;
     }
 
     // ========== CRUD OPERATIONS ==========
@@ -74,12 +77,11 @@ public class AssignmentService {
         assignment.setCreatedBy(faculty);
 
         Assignment savedAssignment = assignmentRepository.save(assignment);
+        searchIndexService.entitySaved(savedAssignment);
 
         // notify all enrolled students about the new assignment
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseIdAndStatus(courseId, "ACTIVE");
-        for (Enrollment enrollment : enrollments) {
-            notificationService.notifyAssignmentCreated(enrollment.getStudent(), course, savedAssignment);
-        }
+        List<Long> studentIds = enrollmentRepository.findStudentIdsByCourseIdAndStatus(courseId, "ACTIVE");
+        notificationQueueService.notifyAssignmentCreated(studentIds, course, savedAssignment);
 
         return savedAssignment;
     }
@@ -171,12 +173,9 @@ public class AssignmentService {
             existing.setDueDate(updatedAssignment.getDueDate());
 
             // notify students of due date change
-            List<Enrollment> enrollments = enrollmentRepository
-                    .findByCourseIdAndStatus(existing.getCourse().getId(), "ACTIVE");
-            for (Enrollment enrollment : enrollments) {
-                notificationService.notifyAssignmentUpdated(enrollment.getStudent(),
-                        existing.getCourse(), existing);
-            }
+            List<Long> studentIds = enrollmentRepository
+                    .findStudentIdsByCourseIdAndStatus(existing.getCourse().getId(), "ACTIVE");
+            notificationQueueService.notifyAssignmentUpdated(studentIds, existing.getCourse(), existing);
         }
 
         if (updatedAssignment.getMaxPoints() != null) {
@@ -199,7 +198,9 @@ public class AssignmentService {
             existing.setMaxFileSizeMb(updatedAssignment.getMaxFileSizeMb());
         }
 
-        return assignmentRepository.save(existing);
+        Assignment saved = assignmentRepository.save(existing);
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 
     /**
@@ -217,6 +218,7 @@ public class AssignmentService {
 
         assignment.setActive(false);
         assignmentRepository.save(assignment);
+        searchIndexService.entitySaved(assignment);
     }
 
     // ========== HELPER METHODS ==========
@@ -266,17 +268,15 @@ public class AssignmentService {
         List<Assignment> upcomingAssignments = getAssignmentsDueBetween(startDate, endDate);
 
         for (Assignment assignment : upcomingAssignments) {
-            List<Enrollment> enrollments = enrollmentRepository
-                    .findByCourseIdAndStatus(assignment.getCourse().getId(), "ACTIVE");
-
-            for (Enrollment enrollment : enrollments) {
-                notificationService.notifyAssignmentDeadlineApproaching(
-                        enrollment.getStudent(),
-                        assignment.getCourse(),
-                        assignment,
-                        daysBeforeDeadline
-                );
-            }
+            List<Long> studentIds = enrollmentRepository
+                    .findStudentIdsByCourseIdAndStatus(assignment.getCourse().getId(), "ACTIVE");
+
+            notificationQueueService.notifyAssignmentDeadlineApproaching(
+                    studentIds,
+                    assignment.getCourse(),
+                    assignment,
+                    daysBeforeDeadline
+            );
         }
     }
 }
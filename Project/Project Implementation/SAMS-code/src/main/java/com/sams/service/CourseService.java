@@ -10,6 +10,7 @@ import com.sams.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -25,11 +26,26 @@ public class CourseService {
 
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final TimetableIndexService timetableIndexService;
+    private final PrerequisiteIndexService prerequisiteIndexService;
+    private final DashboardCounterService dashboardCounterService;
+    private final CreditLoadService creditLoadService;
+    private final SearchIndexService searchIndexService;
 
     // constructor injection
-    public CourseService(CourseRepository courseRepository, UserRepository userRepository) {
+    public CourseService(CourseRepository courseRepository, UserRepository userRepository,
+                         TimetableIndexService timetableIndexService,
+                         PrerequisiteIndexService prerequisiteIndexService,
+                         DashboardCounterService dashboardCounterService,
+                         CreditLoadService creditLoadService,
+                         SearchIndexService searchIndexService) {
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
+        this.timetableIndexService = timetableIndexService;
+        this.prerequisiteIndexService = prerequisiteIndexService;
+        this.dashboardCounterService = dashboardCounterService;
+        this.creditLoadService = creditLoadService;
+        this.searchIndexService = searchIndexService;
     }
 
     // create new course
@@ -58,7 +74,10 @@ public class CourseService {
             course.setCapacity(30); // default 30 students
         }
 
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        dashboardCounterService.courseCreated();
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 
     // get course by id
@@ -67,6 +86,18 @@ public class CourseService {
                 .orElseThrow(() -> new CourseNotFoundException(id));
     }
 
+    // same as getCourseById but the instructor is fetched in the same query,
+    // use it when the course leaves the transaction and the instructor is read later
+    public Course getCourseWithInstructor(Long id) {
+        return courseRepository.findByIdWithInstructor(id)
+                .orElseThrow(() -> new CourseNotFoundException(id));
+    }
+
+    // get several courses in one query - ids that dont exist are just left out
+    public List<Course> getCoursesByIds(Collection<Long> ids) {
+        return courseRepository.findAllById(ids);
+    }
+
     // get course by course code
     public Course getCourseByCourseCode(String courseCode) {
         return courseRepository.findByCourseCode(courseCode)
@@ -111,7 +142,9 @@ public class CourseService {
         }
 
         // update fields
+        boolean codeChanged = false;
         if (courseDetails.getCourseCode() != null && !courseDetails.getCourseCode().trim().isEmpty()) {
+            codeChanged = !courseDetails.getCourseCode().equals(course.getCourseCode());
             course.setCourseCode(courseDetails.getCourseCode());
         }
 
@@ -123,7 +156,12 @@ public class CourseService {
             course.setDescription(courseDetails.getDescription());
         }
 
-        if (courseDetails.getCredits() != null && courseDetails.getCredits() > 0) {
+        if (courseDetails.getCredits() != null && courseDetails.getCredits() > 0
+                && !courseDetails.getCredits().equals(course.getCredits())) {
+            // enrolled students credit totals move with the course
+            Long semesterId = course.getSemester() != null ? course.getSemester().getId() : null;
+            creditLoadService.courseChanged(course.getId(), semesterId, course.getCredits(), semesterId,
+                courseDetails.getCredits());
             course.setCredits(courseDetails.getCredits());
         }
 
@@ -135,7 +173,14 @@ public class CourseService {
             course.setInstructor(courseDetails.getInstructor());
         }
 
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        searchIndexService.entitySaved(saved);
+
+        // the cached timetable slots carry the code for conflict messages
+        if (codeChanged) {
+            timetableIndexService.courseScheduleChanged(saved);
+        }
+        return saved;
     }
 
     // assign instructor to course
@@ -165,7 +210,7 @@ public class CourseService {
     }
 
     // add prerequesite to a course
-    // NOTE: should probably check for circular dependencies but that's wierd to implement
+    // rejects anything that would make a cycle (A needs B needs ... needs A)
     @Transactional
     public Course addPrerequisite(Long courseId, Long prerequisiteId) {
         Course course = getCourseById(courseId);
@@ -176,8 +221,18 @@ public class CourseService {
             throw new IllegalArgumentException("A course cannot be its own prerequisite");
         }
 
+        // the prerequisite (directly or not) already requires this course
+        if (prerequisiteIndexService.wouldCreateCycle(course, prerequisite)) {
+            throw new IllegalArgumentException(
+                "Adding " + prerequisite.getCourseCode() + " as a prerequisite of " + course.getCourseCode() +
+                " would create a circular prerequisite chain"
+            );
+        }
+
         course.addPrerequisite(prerequisite);
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        prerequisiteIndexService.invalidateGraph();
+        return saved;
     }
 
     // remove prerequesite from a course
@@ -187,7 +242,9 @@ public class CourseService {
         Course prerequisite = getCourseById(prerequisiteId);
 
         course.removePrerequisite(prerequisite);
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        prerequisiteIndexService.invalidateGraph();
+        return saved;
     }
 
     // get all prerequisets for a course
@@ -212,7 +269,11 @@ public class CourseService {
             course.setEndTime(LocalTime.parse(endTime));
         }
 
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+
+        // students who already have this course need thier timetable bitmaps rebuilt
+        timetableIndexService.courseScheduleChanged(saved);
+        return saved;
     }
 
     // delete course
@@ -220,6 +281,9 @@ public class CourseService {
     public void deleteCourse(Long id) {
         Course course = getCourseById(id);
         courseRepository.delete(course);
+        dashboardCounterService.courseDeleted();
+        searchIndexService.entityRemoved(course);
+        prerequisiteIndexService.invalidateGraph();
     }
 
     // check if course code exists
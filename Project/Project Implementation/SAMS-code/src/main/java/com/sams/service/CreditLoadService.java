@@ -0,0 +1,100 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.StudentCreditLoadRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+/**
+ * maintains the student_credit_loads table (credits per student per semester)
+ * EnrollmentService calls this whenever an enrollment starts or stops holding a seat,
+ * inside the same transaction, so the total always matches what got committed
+ *
+ * rebuild() recomputes everything from the enrollments table - runs every night
+ * to repair drift from manual db edits etc, and once at startup if the table is still empty
+ * (first deploy) so the credit limit is enforced right away
+ */
+@Service
+public class CreditLoadService {
+
+    private final StudentCreditLoadRepository creditLoadRepository;
+
+    public CreditLoadService(StudentCreditLoadRepository creditLoadRepository) {
+        this.creditLoadRepository = creditLoadRepository;
+    }
+
+    // credits a student currently holds in a semester
+    public int getCredits(Long studentId, Long semesterId) {
+        if (semesterId == null) {
+            return 0; // if no semester, no credit calculation
+        }
+        return creditLoadRepository.findCredits(studentId, semesterId).orElse(0);
+    }
+
+    // student took a seat in the course - returns the new total for the semester
+    // the upsert locks the row so two enrollments for the same student cant both slip under the limit
+    @Transactional
+    public int addCourse(Long studentId, Course course) {
+        Long semesterId = semesterIdOf(course);
+        if (semesterId == null) {
+            return 0;
+        }
+        creditLoadRepository.addCredits(studentId, semesterId, course.getCreditHours());
+        return getCredits(studentId, semesterId);
+    }
+
+    // student gave up the seat (dropped, completed, deleted)
+    @Transactional
+    public void removeCourse(Long studentId, Course course) {
+        Long semesterId = semesterIdOf(course);
+        if (semesterId != null) {
+            creditLoadRepository.addCredits(studentId, semesterId, -course.getCreditHours());
+        }
+    }
+
+    // the course itself changed (credits, semester) - move the totals of everyone holding a seat in it
+    // so a later removeCourse takes off what is actually in the total
+    @Transactional
+    public void courseChanged(Long courseId, Long oldSemesterId, int oldCredits, Long newSemesterId, int newCredits) {
+        if (Objects.equals(oldSemesterId, newSemesterId)) {
+            if (newSemesterId != null && oldCredits != newCredits) {
+                creditLoadRepository.addCreditsForCourse(courseId, newSemesterId, newCredits - oldCredits);
+            }
+            return;
+        }
+        if (oldSemesterId != null) {
+            creditLoadRepository.addCreditsForCourse(courseId, oldSemesterId, -oldCredits);
+        }
+        if (newSemesterId != null) {
+            creditLoadRepository.addCreditsForCourse(courseId, newSemesterId, newCredits);
+        }
+    }
+
+    // first start with the table - fill it now instead of waiting for the nightly rebuild
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (creditLoadRepository.count() == 0) {
+            int rows = rebuild();
+            System.out.println("Backfilled " + rows + " student credit load rows");
+        }
+    }
+
+    // recompute all totals from scratch
+    @Scheduled(cron = "${enrollment.credit.load.rebuild.cron:0 30 3 * * *}")
+    @Transactional
+    public int rebuild() {
+        creditLoadRepository.deleteAllLoads();
+        return creditLoadRepository.insertLoadsFromEnrollments();
+    }
+
+    private Long semesterIdOf(Course course) {
+        // getId on the lazy semester proxy doesnt hit the database
+        return course.getSemester() != null ? course.getSemester().getId() : null;
+    }
+}
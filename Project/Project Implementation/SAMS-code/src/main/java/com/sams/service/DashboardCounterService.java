@@ -0,0 +1,309 @@
+package com.sams.service;
+
+import com.sams.entity.Enrollment;
+import com.sams.entity.User;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.EnrollmentRepository;
+import com.sams.repository.PaymentRepository;
+import com.sams.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * live counters behind the admin dashboard stats (users per role, active/inactive,
+ * gender, courses, enrollments, payments per status, new users/enrollments per month)
+ *
+ * seeded at startup with a handful of grouped queries, then kept up to date by the services
+ * that change the data (user created/updated/toggled/deleted, course created/deleted,
+ * enrollment created/deleted, payment status changed). changes are applied after commit
+ * so a rolled back transaction never moves a counter
+ *
+ * reading the stats is just map lookups. reconcile() recounts everything from the database
+ * every few minutes - an update that races with it can be off by one until the next pass
+ *
+ * every applied change is also handed to DashboardFeedService for the live admin dashboard
+ *
+ * the same calls also feed the per day / per month rollup tables (RollupService) -
+ * those are buffered after commit too and written in batches, not in the callers transaction
+ *
+ * NOTE: single app instance only, same as the other in-memory counters
+ */
+@Service
+public class DashboardCounterService {
+
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final RollupService rollupService;
+    private final DashboardFeedService dashboardFeedService;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    public DashboardCounterService(UserRepository userRepository,
+                                   CourseRepository courseRepository,
+                                   EnrollmentRepository enrollmentRepository,
+                                   PaymentRepository paymentRepository,
+                                   RollupService rollupService,
+                                   DashboardFeedService dashboardFeedService) {
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.paymentRepository = paymentRepository;
+        this.rollupService = rollupService;
+        this.dashboardFeedService = dashboardFeedService;
+    }
+
+    // ========== READS ==========
+
+    public long getTotalUsers() {
+        return get("users");
+    }
+
+    public long getUsersByRole(String role) {
+        return get("users.role." + role);
+    }
+
+    public long getUsersByRoleAndActive(String role, boolean active) {
+        return get("users.role." + role + (active ? ".active" : ".inactive"));
+    }
+
+    public long getActiveUsers() {
+        return get("users.active");
+    }
+
+    // active users with the given gender (null = not set)
+    public long getActiveUsersByGender(String gender) {
+        return get("users.active.gender." + genderKey(gender));
+    }
+
+    public long getTotalCourses() {
+        return get("courses");
+    }
+
+    public long getTotalEnrollments() {
+        return get("enrollments");
+    }
+
+    public long getPaymentsByStatus(String status) {
+        return get("payments.status." + status);
+    }
+
+    // users of a role created in a month - only tracked for this month and last month
+    public long getUsersCreatedInMonth(String role, YearMonth month) {
+        return get("users.created." + role + "." + month);
+    }
+
+    // enrollments made in a month - only tracked for this month and last month
+    public long getEnrollmentsInMonth(YearMonth month) {
+        return get("enrollments.created." + month);
+    }
+
+    private long get(String key) {
+        if (!seeded) {
+            reconcile();
+        }
+        AtomicLong counter = counters.get(key);
+        return counter == null ? 0 : counter.get();
+    }
+
+    // ========== CHANGES ==========
+
+    // the counted fields of a user before a change - take it before modifying the entity
+    public UserSnapshot snapshot(User user) {
+        return new UserSnapshot(user.getRole(), Boolean.TRUE.equals(user.getActive()), user.getGender(), user.getCreatedAt());
+    }
+
+    // user created (before == null), updated, toggled or deleted (after == null)
+    public void userChanged(UserSnapshot before, User after) {
+        Map<String, Long> deltas = new HashMap<>();
+        if (before != null) {
+            addUser(deltas, before, -1);
+        }
+        UserSnapshot afterSnapshot = after != null ? snapshot(after) : null;
+        if (afterSnapshot != null) {
+            addUser(deltas, afterSnapshot, 1);
+        }
+        applyAfterCommit(deltas);
+
+        // new users per role rollup only moves on create, delete or a role change
+        boolean sameRole = before != null && afterSnapshot != null && Objects.equals(before.role, afterSnapshot.role);
+        if (!sameRole) {
+            if (before != null && before.role != null) {
+                rollupService.record(RollupService.usersMetric(before.role), before.createdAt, -1);
+            }
+            if (afterSnapshot != null && afterSnapshot.role != null) {
+                rollupService.record(RollupService.usersMetric(afterSnapshot.role), afterSnapshot.createdAt, 1);
+            }
+        }
+    }
+
+    public void courseCreated() {
+        applyAfterCommit(Map.of("courses", 1L));
+    }
+
+    public void courseDeleted() {
+        applyAfterCommit(Map.of("courses", -1L));
+    }
+
+    public void enrollmentCreated(Enrollment enrollment) {
+        applyAfterCommit(enrollmentDeltas(enrollment, 1));
+        rollupService.record(RollupService.ENROLLMENTS, enrollmentDate(enrollment), 1);
+    }
+
+    public void enrollmentDeleted(Enrollment enrollment) {
+        applyAfterCommit(enrollmentDeltas(enrollment, -1));
+        rollupService.record(RollupService.ENROLLMENTS, enrollmentDate(enrollment), -1);
+    }
+
+    // payment created (oldStatus == null), moved between statuses, or deleted (newStatus == null)
+    public void paymentStatusChanged(String oldStatus, String newStatus) {
+        if (oldStatus != null && oldStatus.equals(newStatus)) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (oldStatus != null) {
+            deltas.merge("payments.status." + oldStatus, -1L, Long::sum);
+        }
+        if (newStatus != null) {
+            deltas.merge("payments.status." + newStatus, 1L, Long::sum);
+        }
+        applyAfterCommit(deltas);
+    }
+
+    private void addUser(Map<String, Long> deltas, UserSnapshot user, long sign) {
+        deltas.merge("users", sign, Long::sum);
+        deltas.merge("users.role." + user.role, sign, Long::sum);
+        deltas.merge("users.role." + user.role + (user.active ? ".active" : ".inactive"), sign, Long::sum);
+        if (user.active) {
+            deltas.merge("users.active", sign, Long::sum);
+            deltas.merge("users.active.gender." + genderKey(user.gender), sign, Long::sum);
+        }
+        if (user.createdAt != null) {
+            deltas.merge("users.created." + user.role + "." + YearMonth.from(user.createdAt), sign, Long::sum);
+        }
+    }
+
+    private Map<String, Long> enrollmentDeltas(Enrollment enrollment, long sign) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put("enrollments", sign);
+        deltas.put("enrollments.created." + YearMonth.from(enrollmentDate(enrollment)), sign);
+        return deltas;
+    }
+
+    // enrollmentDate is only set on persist, so a brand new enrollment counts for right now
+    private static LocalDateTime enrollmentDate(Enrollment enrollment) {
+        return enrollment.getEnrollmentDate() != null ? enrollment.getEnrollmentDate() : LocalDateTime.now();
+    }
+
+    private void applyAfterCommit(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            Map<String, Long> updated = new HashMap<>();
+            deltas.forEach((key, delta) -> {
+                if (delta != 0) {
+                    updated.put(key, counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta));
+                }
+            });
+            dashboardFeedService.countersChanged(updated);
+        });
+    }
+
+    private static String genderKey(String gender) {
+        return gender == null || gender.isEmpty() ? "UNSPECIFIED" : gender;
+    }
+
+    // ========== SEEDING / RECONCILIATION ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    // recount everything from the database and replace the counters
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile.interval.ms:300000}",
+               initialDelayString = "${dashboard.counters.reconcile.interval.ms:300000}")
+    public synchronized void reconcile() {
+        Map<String, Long> fresh = new HashMap<>();
+
+        for (Object[] row : userRepository.countGroupedByRoleActiveGender()) {
+            String role = (String) row[0];
+            boolean active = Boolean.TRUE.equals(row[1]);
+            String gender = (String) row[2];
+            long count = (Long) row[3];
+
+            fresh.merge("users", count, Long::sum);
+            fresh.merge("users.role." + role, count, Long::sum);
+            fresh.merge("users.role." + role + (active ? ".active" : ".inactive"), count, Long::sum);
+            if (active) {
+                fresh.merge("users.active", count, Long::sum);
+                fresh.merge("users.active.gender." + genderKey(gender), count, Long::sum);
+            }
+        }
+
+        // only last month and this month matter for the growth rates
+        LocalDateTime since = YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
+        for (Object[] row : userRepository.countByRoleAndMonthSince(since)) {
+            YearMonth month = YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            fresh.put("users.created." + row[0] + "." + month, (Long) row[3]);
+        }
+        for (Object[] row : enrollmentRepository.countByMonthSince(since)) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            fresh.put("enrollments.created." + month, (Long) row[2]);
+        }
+
+        for (Object[] row : paymentRepository.countGroupedByStatus()) {
+            fresh.put("payments.status." + row[0], (Long) row[1]);
+        }
+
+        fresh.put("courses", courseRepository.count());
+        fresh.put("enrollments", enrollmentRepository.count());
+
+        // reset counters that no longer have rows, then overwrite the rest
+        Map<String, Long> corrected = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            if (!fresh.containsKey(key) && counter.getAndSet(0) != 0) {
+                corrected.put(key, 0L);
+            }
+        });
+        fresh.forEach((key, value) -> {
+            if (counters.computeIfAbsent(key, k -> new AtomicLong()).getAndSet(value) != value) {
+                corrected.put(key, value);
+            }
+        });
+        seeded = true;
+
+        // anything the recount fixed goes out on the live feed too
+        if (!corrected.isEmpty()) {
+            dashboardFeedService.countersChanged(corrected);
+        }
+    }
+
+    // the fields of a user the counters care about
+    public static class UserSnapshot {
+        private final String role;
+        private final boolean active;
+        private final String gender;
+        private final LocalDateTime createdAt;
+
+        UserSnapshot(String role, boolean active, String gender, LocalDateTime createdAt) {
+            this.role = role;
+            this.active = active;
+            this.gender = gender;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.sams.service;
+
+import com.sams.entity.ActivityLog;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * live feed for the admin dashboard on /topic/admin/dashboard
+ * the dashboard page loads /api/dashboard/complete once and then applies these messages
+ * instead of polling every endpoint
+ *
+ * changes are collected as they happen (counter changes from DashboardCounterService, new activity
+ * log entries from ActivityLogService) and flushed at most once per dashboard.feed.interval.ms.
+ * counters are coalesced - if a counter moved 50 times in that second only its latest value goes out,
+ * so a registration rush is one message a second no matter how many enrollments happen
+ *
+ * message: { type: DASHBOARD_DELTA, seq, stats: {DashboardStats field: latest value}, paymentQueueSize (when it changed),
+ *            activities: [new log entries in the /recent-activities shape, oldest first], timestamp }
+ * stats uses the same field names as /api/dashboard/stats so the page can just copy them over,
+ * counters that arent a stats field (gender etc) dont go out
+ * seq goes up by one per message - if the client sees a gap (reconnect etc) it should reload /stats
+ *
+ * only admins can subscribe to /topic/admin/** (WebSocketAuthInterceptor)
+ */
+@Service
+public class DashboardFeedService {
+
+    public static final String TOPIC = "/topic/admin/dashboard";
+
+    // only the newest entries matter, the page shows 10
+    private static final int MAX_ACTIVITIES = 20;
+
+    // counter key -> the DashboardStats field(s) it ends up in
+    private static final Map<String, List<String>> STATS_FIELDS = Map.of(
+        "users", List.of("totalUsers"),
+        "users.role.STUDENT", List.of("totalStudents"),
+        "users.role.FACULTY", List.of("totalFaculty"),
+        "users.role.STUDENT.active", List.of("activeStudents"),
+        "users.role.STUDENT.inactive", List.of("inactiveStudents"),
+        "users.role.FACULTY.active", List.of("activeFaculty"),
+        "users.role.FACULTY.inactive", List.of("inactiveFaculty"),
+        "courses", List.of("totalCourses", "activeCourses"), // all courses count as active, same as DashboardService
+        "enrollments", List.of("totalEnrollments"),
+        "payments.status.PENDING", List.of("pendingPayments"));
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // latest value of every counter that changed since the last push
+    private final Map<String, Long> changedCounters = new ConcurrentHashMap<>();
+    // guarded by itself
+    private final Deque<Map<String, Object>> newActivities = new ArrayDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public DashboardFeedService(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // counters already committed and applied - key -> new value
+    public void countersChanged(Map<String, Long> values) {
+        changedCounters.putAll(values);
+    }
+
+    // an activity log entry was saved - goes out once the transaction commits
+    public void activityLogged(ActivityLog log) {
+        Map<String, Object> activity = new LinkedHashMap<>();
+        activity.put("id", log.getId());
+        activity.put("type", DashboardService.getActivityTypeForFrontend(log.getActivityType()));
+        activity.put("message", log.getDescription());
+        activity.put("activityType", log.getActivityType());
+        activity.put("description", log.getDescription());
+        activity.put("entityType", log.getEntityType());
+        activity.put("entityId", log.getEntityId());
+        activity.put("performedBy", log.getPerformedByUsername());
+        activity.put("timestamp", String.valueOf(log.getCreatedAt()));
+
+        TransactionHooks.afterCommit(() -> {
+            synchronized (newActivities) {
+                newActivities.addLast(activity);
+                while (newActivities.size() > MAX_ACTIVITIES) {
+                    newActivities.removeFirst();
+                }
+            }
+        });
+    }
+
+    // push everything collected since the last run as one message (nothing if nothing changed)
+    @Scheduled(fixedDelayString = "${dashboard.feed.interval.ms:1000}")
+    public void flush() {
+        Map<String, Long> counters = new HashMap<>();
+        // remove key by key so a change that lands in between just goes out next time
+        for (String key : changedCounters.keySet()) {
+            Long value = changedCounters.remove(key);
+            if (value != null) {
+                counters.put(key, value);
+            }
+        }
+
+        List<Map<String, Object>> activities;
+        synchronized (newActivities) {
+            activities = new ArrayList<>(newActivities);
+            newActivities.clear();
+        }
+
+        Map<String, Long> stats = new LinkedHashMap<>();
+        counters.forEach((key, value) ->
+            STATS_FIELDS.getOrDefault(key, List.of()).forEach(field -> stats.put(field, value)));
+        // payments waiting for an admin to approve them
+        Long paymentQueueSize = counters.get("payments.status.PAID");
+
+        if (stats.isEmpty() && paymentQueueSize == null && activities.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "DASHBOARD_DELTA");
+        message.put("seq", sequence.incrementAndGet());
+        message.put("stats", stats);
+        if (paymentQueueSize != null) {
+            message.put("paymentQueueSize", paymentQueueSize);
+        }
+        message.put("activities", activities);
+        message.put("timestamp", LocalDateTime.now().toString());
+        messagingTemplate.convertAndSend(TOPIC, message);
+    }
+}
@@ -2,18 +2,31 @@ package com.sams.service;
 
 import com.sams.dto.dashboard.*;
 import com.sams.entity.ActivityLog;
-import com.sams.entity.Payment;
 import com.sams.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -24,7 +37,10 @@ import java.util.stream.Collectors;
  * demographics, and recent activity logs
  *
  * FIXME: some of these queries are slow with large datasets - need optimization
- * definately needs caching for production use
+ * the basic stats and demographics now come from DashboardCounterService (live counters)
+ * and the trends from the rollup tables (RollupService)
+ * and the financial summary from FinancialSummaryService (grouped query, cached)
+ * getCompleteDashboard builds its sections in parallel, each with a timeout
  */
 @Service
 @Transactional(readOnly = true)
@@ -48,33 +64,130 @@ public class DashboardService {
     @Autowired
     private ActivityLogRepository activityLogRepository;
 
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private FinancialSummaryService financialSummaryService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${dashboard.sections.threads:6}")
+    private int sectionThreads;
+
+    @Value("${dashboard.sections.timeout.ms:3000}")
+    private long defaultSectionTimeoutMs;
+
+    // runs the sections of the complete dashboard in parallel
+    private ExecutorService sectionExecutor;
+
+    // last value each section returned - shown (flagged stale) when that section times out or fails
+    private final Map<String, Object> lastGoodSections = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void startSectionExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // bounded queue - if dashboards pile up faster than they finish the extra sections are just reported missing
+        sectionExecutor = new ThreadPoolExecutor(sectionThreads, sectionThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(sectionThreads * 16), runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-section-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void stopSectionExecutor() {
+        if (sectionExecutor != null) {
+            sectionExecutor.shutdownNow();
+        }
+    }
+
     /**
      * Get complete dashboard with all analytics
+     * all sections run at the same time, so the page takes as long as the slowest one instead of the sum.
+     * each section has its own timeout (dashboard.sections.<name>.timeout.ms, counted from the start) -
+     * a section that doesnt make it gets its last known value and is listed in staleSections,
+     * or null and listed in missingSections if it never worked yet
      */
     public CompleteDashboard getCompleteDashboard() {
         CompleteDashboard dashboard = new CompleteDashboard();
-
-        dashboard.setStats(getDashboardStats());
-        dashboard.setEnrollmentTrends(getEnrollmentTrends(6)); // last 6 months
-        dashboard.setGradeDistribution(getGradeDistribution());
-        dashboard.setFinancialSummary(getFinancialSummary());
-        dashboard.setGenderDemographics(getGenderDemographics());
-        dashboard.setRecentActivities(getRecentActivities(10)); // last 10 activities
+        long startedAt = System.currentTimeMillis();
+
+        Future<DashboardStats> stats = submitSection(this::getDashboardStats);
+        Future<List<EnrollmentTrend>> trends = submitSection(() -> getEnrollmentTrends(6)); // last 6 months
+        Future<List<GradeDistribution>> grades = submitSection(this::getGradeDistribution);
+        Future<FinancialSummary> financial = submitSection(this::getFinancialSummary);
+        Future<Map<String, Long>> demographics = submitSection(this::getGenderDemographics);
+        Future<List<RecentActivity>> activities = submitSection(() -> getRecentActivities(10)); // last 10 activities
+
+        dashboard.setStats(awaitSection("stats", stats, startedAt, dashboard));
+        dashboard.setEnrollmentTrends(awaitSection("enrollmentTrends", trends, startedAt, dashboard));
+        dashboard.setGradeDistribution(awaitSection("gradeDistribution", grades, startedAt, dashboard));
+        dashboard.setFinancialSummary(awaitSection("financialSummary", financial, startedAt, dashboard));
+        dashboard.setGenderDemographics(awaitSection("genderDemographics", demographics, startedAt, dashboard));
+        dashboard.setRecentActivities(awaitSection("recentActivities", activities, startedAt, dashboard));
 
         return dashboard;
     }
 
+    // null if the executor is full - awaitSection treats that like a timeout
+    private <T> Future<T> submitSection(Callable<T> section) {
+        try {
+            return sectionExecutor.submit(section);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitSection(String name, Future<T> future, long startedAt, CompleteDashboard dashboard) {
+        long timeoutMs = environment.getProperty("dashboard.sections." + name + ".timeout.ms", Long.class, defaultSectionTimeoutMs);
+        if (future != null) {
+            try {
+                T value = future.get(Math.max(0, startedAt + timeoutMs - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (value != null) {
+                    lastGoodSections.put(name, value);
+                }
+                return value;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                System.err.println("Dashboard section " + name + " timed out after " + timeoutMs + "ms");
+            } catch (ExecutionException e) {
+                System.err.println("Dashboard section " + name + " failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            System.err.println("Dashboard section " + name + " skipped, section executor is full");
+        }
+
+        dashboard.setPartial(true);
+        T stale = (T) lastGoodSections.get(name);
+        if (stale != null) {
+            dashboard.getStaleSections().add(name);
+        } else {
+            dashboard.getMissingSections().add(name);
+        }
+        return stale;
+    }
+
     /**
      * Get basic dashboard statistics
+     * all numbers come from the live counters in DashboardCounterService - no queries
      */
     public DashboardStats getDashboardStats() {
         DashboardStats stats = new DashboardStats();
 
         // Total counts
-        long totalStudents = userRepository.countByRole("STUDENT");
-        long totalFaculty = userRepository.countByRole("FACULTY");
-        long totalCourses = courseRepository.count();
-        long totalEnrollments = enrollmentRepository.count();
+        long totalStudents = dashboardCounterService.getUsersByRole("STUDENT");
+        long totalFaculty = dashboardCounterService.getUsersByRole("FACULTY");
+        long totalCourses = dashboardCounterService.getTotalCourses();
+        long totalEnrollments = dashboardCounterService.getTotalEnrollments();
 
         stats.setTotalStudents(totalStudents);
         stats.setTotalFaculty(totalFaculty);
@@ -82,40 +195,31 @@ public class DashboardService {
         stats.setTotalEnrollments(totalEnrollments);
 
         // Active/Inactive counts
-        stats.setActiveStudents(userRepository.countByRoleAndActive("STUDENT", true));
-        stats.setInactiveStudents(userRepository.countByRoleAndActive("STUDENT", false));
-        stats.setActiveFaculty(userRepository.countByRoleAndActive("FACULTY", true));
-        stats.setInactiveFaculty(userRepository.countByRoleAndActive("FACULTY", false));
+        stats.setActiveStudents(dashboardCounterService.getUsersByRoleAndActive("STUDENT", true));
+        stats.setInactiveStudents(dashboardCounterService.getUsersByRoleAndActive("STUDENT", false));
+        stats.setActiveFaculty(dashboardCounterService.getUsersByRoleAndActive("FACULTY", true));
+        stats.setInactiveFaculty(dashboardCounterService.getUsersByRoleAndActive("FACULTY", false));
 
         // Frontend-expected fields
-        long totalUsers = userRepository.count();
-        stats.setTotalUsers(totalUsers);
+        stats.setTotalUsers(dashboardCounterService.getTotalUsers());
         stats.setActiveCourses(totalCourses); // All courses are considered active
-
-        // Count pending payments using repository method (avoid loading all payments)
-        long pendingPayments = paymentRepository.countByStatus("PENDING");
-        stats.setPendingPayments(pendingPayments);
+        stats.setPendingPayments(dashboardCounterService.getPaymentsByStatus("PENDING"));
 
         // Growth rates - compare current month vs previous month
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfCurrentMonth = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime startOfPreviousMonth = startOfCurrentMonth.minusMonths(1);
-        LocalDateTime startOfTwoMonthsAgo = startOfCurrentMonth.minusMonths(2);
-
-        // Student growth
-        long studentsThisMonth = userRepository.countByRoleAndCreatedAtBetween("STUDENT", startOfCurrentMonth, now);
-        long studentsLastMonth = userRepository.countByRoleAndCreatedAtBetween("STUDENT", startOfPreviousMonth, startOfCurrentMonth);
-        stats.setStudentGrowthRate(calculateGrowthRate(studentsLastMonth, studentsThisMonth));
-
-        // Faculty growth
-        long facultyThisMonth = userRepository.countByRoleAndCreatedAtBetween("FACULTY", startOfCurrentMonth, now);
-        long facultyLastMonth = userRepository.countByRoleAndCreatedAtBetween("FACULTY", startOfPreviousMonth, startOfCurrentMonth);
-        stats.setFacultyGrowthRate(calculateGrowthRate(facultyLastMonth, facultyThisMonth));
-
-        // Enrollment growth
-        long enrollmentsThisMonth = enrollmentRepository.countByEnrollmentDateBetween(startOfCurrentMonth, now);
-        long enrollmentsLastMonth = enrollmentRepository.countByEnrollmentDateBetween(startOfPreviousMonth, startOfCurrentMonth);
-        stats.setEnrollmentGrowthRate(calculateGrowthRate(enrollmentsLastMonth, enrollmentsThisMonth));
+        YearMonth thisMonth = YearMonth.now();
+        YearMonth lastMonth = thisMonth.minusMonths(1);
+
+        stats.setStudentGrowthRate(calculateGrowthRate(
+            dashboardCounterService.getUsersCreatedInMonth("STUDENT", lastMonth),
+            dashboardCounterService.getUsersCreatedInMonth("STUDENT", thisMonth)));
+
+        stats.setFacultyGrowthRate(calculateGrowthRate(
+            dashboardCounterService.getUsersCreatedInMonth("FACULTY", lastMonth),
+            dashboardCounterService.getUsersCreatedInMonth("FACULTY", thisMonth)));
+
+        stats.setEnrollmentGrowthRate(calculateGrowthRate(
+            dashboardCounterService.getEnrollmentsInMonth(lastMonth),
+            dashboardCounterService.getEnrollmentsInMonth(thisMonth)));
 
         return stats;
     }
@@ -132,27 +236,25 @@ public class DashboardService {
 
     /**
      * Get enrollment trends over the last N months
+     * one read of the monthly rollups instead of a count query per month
      */
     public List<EnrollmentTrend> getEnrollmentTrends(int months) {
-        List<EnrollmentTrend> trends = new ArrayList<>();
         LocalDate now = LocalDate.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM yyyy");
-
-        for (int i = months - 1; i >= 0; i--) {
-            LocalDate monthDate = now.minusMonths(i);
-            String period = monthDate.format(formatter);
-
-            // Get actual enrollment count for this month
-            LocalDateTime startOfMonth = monthDate.withDayOfMonth(1).atStartOfDay();
-            LocalDateTime endOfMonth = monthDate.plusMonths(1).withDayOfMonth(1).atStartOfDay();
-
-            long count = enrollmentRepository.countByEnrollmentDateBetween(startOfMonth, endOfMonth);
-            trends.add(new EnrollmentTrend(period, count));
+        List<EnrollmentTrend> trends = new ArrayList<>();
+        for (TrendPoint point : rollupService.getSeries(RollupService.ENROLLMENTS, "MONTH",
+                now.minusMonths(Math.max(months, 1) - 1L), now)) {
+            trends.add(new EnrollmentTrend(point.getPeriod(), point.getCount()));
         }
-
         return trends;
     }
 
+    /**
+     * Get any rollup metric (ENROLLMENTS, USERS_STUDENT, ...) for a date range and granularity
+     */
+    public List<TrendPoint> getTrend(String metric, String granularity, LocalDate from, LocalDate to) {
+        return rollupService.getSeries(metric, granularity, from, to);
+    }
+
     /**
      * Get grade distribution
      */
@@ -175,38 +277,17 @@ public class DashboardService {
 
     /**
      * Get financial summary
+     * grouped query + cache in FinancialSummaryService, no more loading every payment
      */
     public FinancialSummary getFinancialSummary() {
-        FinancialSummary summary = new FinancialSummary();
-
-        List<Payment> allPayments = paymentRepository.findAll();
-
-        // Calculate totals by status
-        for (Payment payment : allPayments) {
-            summary.setTotalPaymentCount(summary.getTotalPaymentCount() + 1);
-
-            String status = payment.getStatus();
-            if ("PENDING".equals(status)) {
-                summary.setPendingPaymentCount(summary.getPendingPaymentCount() + 1);
-                summary.setPendingPayments(summary.getPendingPayments().add(payment.getAmount()));
-            } else if ("APPROVED".equals(status) || "PAID".equals(status)) {
-                summary.setCompletedPaymentCount(summary.getCompletedPaymentCount() + 1);
-                summary.setCompletedPayments(summary.getCompletedPayments().add(payment.getAmount()));
-            } else if ("REJECTED".equals(status)) {
-                summary.setRejectedPaymentCount(summary.getRejectedPaymentCount() + 1);
-                summary.setRejectedPayments(summary.getRejectedPayments().add(payment.getAmount()));
-            }
-        }
-
-        // Calculate total revenue and collection rate
-        summary.setTotalRevenue(summary.getCompletedPayments());
-
-        if (summary.getTotalPaymentCount() > 0) {
-            double collectionRate = (summary.getCompletedPaymentCount() * 100.0) / summary.getTotalPaymentCount();
-            summary.setCollectionRate(collectionRate);
-        }
+        return financialSummaryService.getSummary();
+    }
 
-        return summary;
+    /**
+     * Get financial summary per semester
+     */
+    public List<SemesterFinancialSummary> getSemesterFinancialSummaries() {
+        return financialSummaryService.getSemesterSummaries();
     }
 
     /**
@@ -215,14 +296,14 @@ public class DashboardService {
     public Map<String, Long> getGenderDemographics() {
         Map<String, Long> demographics = new HashMap<>();
 
-        // Count users by gender
-        demographics.put("MALE", userRepository.countByGenderAndActiveTrue("MALE"));
-        demographics.put("FEMALE", userRepository.countByGenderAndActiveTrue("FEMALE"));
-        demographics.put("OTHER", userRepository.countByGenderAndActiveTrue("OTHER"));
-        demographics.put("PREFER_NOT_TO_SAY", userRepository.countByGenderAndActiveTrue("PREFER_NOT_TO_SAY"));
+        // Count users by gender (live counters, no queries)
+        demographics.put("MALE", dashboardCounterService.getActiveUsersByGender("MALE"));
+        demographics.put("FEMALE", dashboardCounterService.getActiveUsersByGender("FEMALE"));
+        demographics.put("OTHER", dashboardCounterService.getActiveUsersByGender("OTHER"));
+        demographics.put("PREFER_NOT_TO_SAY", dashboardCounterService.getActiveUsersByGender("PREFER_NOT_TO_SAY"));
 
-        // Count users without gender set (null) - use count instead of loading all users
-        long totalActive = userRepository.countByActiveTrue();
+        // everyone else (no gender set or some other value)
+        long totalActive = dashboardCounterService.getActiveUsers();
         long withGender = demographics.values().stream().mapToLong(Long::longValue).sum();
         demographics.put("UNSPECIFIED", totalActive - withGender);
 
@@ -277,8 +358,9 @@ public class DashboardService {
 
     /**
      * Get frontend-friendly type from activity type
+     * (DashboardFeedService uses it too so live activities look the same)
      */
-    private String getActivityTypeForFrontend(String activityType) {
+    static String getActivityTypeForFrontend(String activityType) {
         if (activityType == null) return "info";
         switch (activityType) {
             case "USER_CREATED":
@@ -1,5 +1,6 @@
 package com.sams.service;
 
+import com.sams.dto.CartEnrollmentResponse;
 import com.sams.entity.Course;
 import com.sams.entity.Enrollment;
 import com.sams.entity.Semester;
@@ -8,12 +9,11 @@ import com.sams.exception.*;
 import com.sams.repository.EnrollmentRepository;
 import com.sams.repository.SemesterRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * handles all the enrollment logic - probably teh most complex service in the system
@@ -22,7 +22,7 @@ import java.util.stream.Collectors;
  * this was a pain to implement - so many edge cases to handle
  * definately needs some refactoring but works for now
  *
- * FIXME: the schedule conflict checking could be more efficient
+ * schedule conflicts go through TimetableIndexService and seats through SeatReservationService
  */
 @Service
 public class EnrollmentService {
@@ -31,7 +31,18 @@ public class EnrollmentService {
     private final CourseService courseService;
     private final UserService userService;
     private final SemesterRepository semesterRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final SeatReservationService seatReservationService;
+    private final TimetableIndexService timetableIndexService;
+    private final PrerequisiteIndexService prerequisiteIndexService;
+    private final CreditLoadService creditLoadService;
+    private final DashboardCounterService dashboardCounterService;
+
+    // statuses that stop a student from enrolling in the same course again
+    private static final List<String> BLOCKING_STATUSES = Arrays.asList("ACTIVE", "PENDING_PAYMENT", "WAITLISTED");
+
+    // how many waitlisted rows we load at a time when promoting
+    private static final int WAITLIST_BATCH_SIZE = 20;
 
     @Value("${enrollment.max.credits.per.semester:18}")
     private int maxCreditsPerSemester;
@@ -44,12 +55,22 @@ public class EnrollmentService {
                             CourseService courseService,
                             UserService userService,
                             SemesterRepository semesterRepository,
-                            NotificationService notificationService) {
+                            OutboxService outboxService,
+                            SeatReservationService seatReservationService,
+                            TimetableIndexService timetableIndexService,
+                            PrerequisiteIndexService prerequisiteIndexService,
+                            CreditLoadService creditLoadService,
+                            DashboardCounterService dashboardCounterService) {
         this.enrollmentRepository = enrollmentRepository;
         this.courseService = courseService;
         this.userService = userService;
         this.semesterRepository = semesterRepository;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.seatReservationService = seatReservationService;
+        this.timetableIndexService = timetableIndexService;
+        this.prerequisiteIndexService = prerequisiteIndexService;
+        this.creditLoadService = creditLoadService;
+        this.dashboardCounterService = dashboardCounterService;
     }
 
     // create new enrollment (enroll student in course)
@@ -57,9 +78,10 @@ public class EnrollmentService {
     // tricky part was getting all these validations in the right order
     @Transactional
     public Enrollment createEnrollment(Long studentId, Long courseId) {
-        // get student and course
+        // get student and course - the instructor is fetched too, this runs on an admission queue thread
+        // and the controller reads course.instructor for the response after the session is closed
         User student = userService.getUserById(studentId);
-        Course course = courseService.getCourseById(courseId);
+        Course course = courseService.getCourseWithInstructor(courseId);
 
         // validate student role - only students can enroll
         if (!"STUDENT".equals(student.getRole())) {
@@ -68,44 +90,19 @@ public class EnrollmentService {
 
         // check if student has an active enrollment (ACTIVE, PENDING_PAYMENT, or WAITLISTED)
         // Students who dropped or completed a course can re-enroll
-        List<String> blockingStatuses = Arrays.asList("ACTIVE", "PENDING_PAYMENT", "WAITLISTED");
-        if (enrollmentRepository.existsByStudentAndCourseAndStatusIn(student, course, blockingStatuses)) {
+        if (enrollmentRepository.existsByStudentAndCourseAndStatusIn(student, course, BLOCKING_STATUSES)) {
             throw new AlreadyEnrolledException(
                 "Student " + student.getUsername() + " is already enrolled in " + course.getCourseCode()
             );
         }
 
         // validate semester - chekc if course belongs to an active semester with open enrollment
-        if (course.getSemester() != null) {
-            Semester semester = course.getSemester();
+        validateSemester(course);
 
-            if (!semester.getActive()) {
-                throw new EnrollmentPeriodClosedException("The semester for this course is not active");
-            }
-
-            if (!semester.getRegistrationOpen()) {
-                throw new EnrollmentPeriodClosedException("Registration is not open for this semester");
-            }
-
-            // chekc if we are within enrollment period
-            if (!semester.isEnrollmentPeriod()) {
-                throw new EnrollmentPeriodClosedException(
-                    "Enrollment period for " + semester.getName() + " has closed"
-                );
-            }
-        }
-
-        // validate credit hour limits
-        int currentCredits = getTotalCreditsForCurrentSemester(student, course.getSemester());
-        int newTotalCredits = currentCredits + course.getCreditHours();
-
-        if (newTotalCredits > maxCreditsPerSemester) {
-            throw new CreditLimitExceededException(
-                "Enrolling in this course would exceed the maximum credit limit of " +
-                maxCreditsPerSemester + " credits per semester. Current: " + currentCredits +
-                ", New total would be: " + newTotalCredits
-            );
-        }
+        // validate credit hour limits - quick read of the students credit load for the semester
+        Long semesterId = course.getSemester() != null ? course.getSemester().getId() : null;
+        int currentCredits = creditLoadService.getCredits(student.getId(), semesterId);
+        checkCreditLimit(currentCredits, currentCredits + course.getCreditHours());
 
         // validate prerequisites - student must have completed all prerequesite courses
         validatePrerequisites(student, course);
@@ -113,18 +110,16 @@ public class EnrollmentService {
         // check for schedule conflicts with students existing active enrollments
         checkScheduleConflicts(student, course);
 
-        // chekc course capacity and handle enrollment or waitlist
-        long activeEnrolledCount = enrollmentRepository.countByCourseAndStatus(course, "ACTIVE");
-
+        // grab a seat from the in-memory counter - no count query and no overselling
+        // if two requests race for the last seat
         Enrollment enrollment = new Enrollment(student, course);
 
-        if (activeEnrolledCount >= course.getCapacity()) {
+        if (!seatReservationService.tryReserve(course)) {
             // course is full - add student to waitlist
             enrollment.setStatus("WAITLISTED");
 
-            // calculate waitlist position
-            long waitlistCount = enrollmentRepository.countByCourseAndStatus(course, "WAITLISTED");
-            enrollment.setWaitlistPosition((int) (waitlistCount + 1));
+            // take a ticket - rank in the queue is worked out on read
+            enrollment.setWaitlistPosition(seatReservationService.nextWaitlistTicket(course));
 
         } else {
             // course has space - enrollment starts as PENDING_PAYMENT
@@ -134,9 +129,18 @@ public class EnrollmentService {
         }
 
         Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        dashboardCounterService.enrollmentCreated(savedEnrollment);
+
+        // add the credits for real - the row lock means a parallel enrollment for the same student
+        // sees this total, and if we went over the limit the whole thing rolls back (seat included)
+        if (!savedEnrollment.isWaitlisted()) {
+            int newTotalCredits = creditLoadService.addCourse(student.getId(), course);
+            checkCreditLimit(newTotalCredits - course.getCreditHours(), newTotalCredits);
+        }
 
         // Create notification for student about enrollment pending payment
-        notificationService.createNotification(
+        // goes through the outbox - written with the enrollment, sent in the background
+        outboxService.notify(
                 student,
                 "ENROLLMENT",
                 "Enrollment Pending Payment",
@@ -146,114 +150,262 @@ public class EnrollmentService {
                 "Course",
                 course.getId()
         );
+        outboxService.logEnrollmentCreated(savedEnrollment.getId(), student.getUsername(), course.getCourseCode(), student);
 
         return savedEnrollment;
     }
 
-    // validate that student has completed all prerequesite courses
-    // throws PrerequisiteNotMetException if any prerequisets are missing
-    // TODO: might need to add GPA requirements for prereqs later
-    private void validatePrerequisites(User student, Course course) {
-        Set<Course> prerequisites = course.getPrerequisites();
+    // enroll in a whole cart of courses at once
+    // every course is validated the same way as createEnrollment, but the student, the courses and
+    // thier current enrollments are loaded once for the whole cart, and the courses in the cart are
+    // also checked against each other (credits add up, times cant clash)
+    // valid courses are all saved in this one transaction, invalid ones come back REJECTED with the reason
+    // dryRun only validates - nothing is saved and no seats are taken
+    @Transactional
+    public CartEnrollmentResponse enrollCart(Long studentId, List<Long> courseIds, boolean dryRun) {
+        User student = userService.getUserById(studentId);
+
+        // validate student role - only students can enroll
+        if (!"STUDENT".equals(student.getRole())) {
+            throw new IllegalArgumentException("Only students can enroll in courses");
+        }
+
+        Map<Long, Course> courses = new HashMap<>();
+        for (Course course : courseService.getCoursesByIds(new HashSet<>(courseIds))) {
+            courses.put(course.getId(), course);
+        }
+        Set<Long> enrolledCourseIds = new HashSet<>(
+            enrollmentRepository.findCourseIdsByStudentIdAndStatusIn(studentId, BLOCKING_STATUSES));
+
+        List<CartEnrollmentResponse.CourseResult> results = new ArrayList<>();
+        Map<CartEnrollmentResponse.CourseResult, Course> accepted = new LinkedHashMap<>();
+        Map<Long, Integer> creditsBySemester = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+
+        for (Long courseId : courseIds) {
+            Course course = courses.get(courseId);
+            if (course == null) {
+                results.add(new CartEnrollmentResponse.CourseResult(courseId, null, "REJECTED",
+                    "Course not found with id: " + courseId));
+                continue;
+            }
+
+            String reason = !seen.add(courseId)
+                ? course.getCourseCode() + " is in the cart more than once"
+                : validateCartCourse(student, course, enrolledCourseIds, accepted.values(), creditsBySemester);
 
-        if (prerequisites == null || prerequisites.isEmpty()) {
-            return; // no prerequisets required
+            CartEnrollmentResponse.CourseResult result = new CartEnrollmentResponse.CourseResult(
+                courseId, course.getCourseCode(), reason == null ? null : "REJECTED", reason);
+            results.add(result);
+            if (reason == null) {
+                accepted.put(result, course);
+            }
         }
 
-        // get all courses the student has completed
-        List<Enrollment> completedEnrollments = enrollmentRepository
-            .findByStudentIdAndStatus(student.getId(), "COMPLETED");
+        if (dryRun) {
+            // just predict - a seat could still be gone by the time the cart is submitted
+            accepted.forEach((result, course) -> result.setStatus(
+                seatReservationService.getAvailableSeats(course) > 0 ? "PENDING_PAYMENT" : "WAITLISTED"));
+        } else {
+            saveCart(student, accepted);
+        }
 
-        Set<Long> completedCourseIds = completedEnrollments.stream()
-            .map(e -> e.getCourse().getId())
-            .collect(Collectors.toSet());
+        CartEnrollmentResponse response = new CartEnrollmentResponse(studentId, dryRun);
+        results.forEach(response::addResult);
+        return response;
+    }
 
-        // find missing prerequisets
-        List<Course> missingPrereqs = prerequisites.stream()
-            .filter(prereq -> !completedCourseIds.contains(prereq.getId()))
-            .collect(Collectors.toList());
+    // check one course of a cart, returns why it cant be taken (null = ok)
+    // creditsBySemester holds the running totals including the courses accepted so far
+    private String validateCartCourse(User student, Course course, Set<Long> enrolledCourseIds,
+                                      Collection<Course> acceptedCourses, Map<Long, Integer> creditsBySemester) {
+        Long semesterId = course.getSemester() != null ? course.getSemester().getId() : null;
+        int currentCredits = 0;
+
+        try {
+            if (enrolledCourseIds.contains(course.getId())) {
+                throw new AlreadyEnrolledException(
+                    "Student " + student.getUsername() + " is already enrolled in " + course.getCourseCode()
+                );
+            }
 
-        if (!missingPrereqs.isEmpty()) {
-            // student is missing some prerequisets
-            String missingCodes = missingPrereqs.stream()
-                .map(Course::getCourseCode)
-                .collect(Collectors.joining(", "));
+            validateSemester(course);
 
-            throw new PrerequisiteNotMetException(course.getCourseCode(), missingCodes);
+            if (semesterId != null) {
+                currentCredits = creditsBySemester.computeIfAbsent(semesterId,
+                    id -> creditLoadService.getCredits(student.getId(), id));
+            }
+            checkCreditLimit(currentCredits, currentCredits + course.getCreditHours());
+
+            validatePrerequisites(student, course);
+            checkScheduleConflicts(student, course);
+
+            // and against the other courses in the cart
+            List<String> clashes = new ArrayList<>();
+            for (Course other : acceptedCourses) {
+                if (timetableIndexService.overlaps(course, other)) {
+                    clashes.add(other.getCourseCode());
+                }
+            }
+            if (!clashes.isEmpty()) {
+                throw new ScheduleConflictException(course.getCourseCode(), String.join(", ", clashes));
+            }
+        } catch (AlreadyEnrolledException | EnrollmentPeriodClosedException | CreditLimitExceededException
+                 | PrerequisiteNotMetException | ScheduleConflictException e) {
+            return e.getMessage();
         }
+
+        if (semesterId != null) {
+            creditsBySemester.put(semesterId, currentCredits + course.getCreditHours());
+        }
+        return null;
     }
 
-    // check for schedule conflicts between new course and students existing enrollemnts
-    // throws ScheduleConflictException if there is a time conflict
-    // this part was wierd - had to parse day strings and compare times
-    private void checkScheduleConflicts(User student, Course newCourse) {
-        // if new course has no schedule info, skip conflict checking
-        if (!newCourse.hasSchedule()) {
-            return;
+    // take seats and save the accepted cart courses in one go
+    private void saveCart(User student, Map<CartEnrollmentResponse.CourseResult, Course> accepted) {
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (Course course : accepted.values()) {
+            Enrollment enrollment = new Enrollment(student, course);
+            if (seatReservationService.tryReserve(course)) {
+                enrollment.setStatus("PENDING_PAYMENT");
+                enrollment.setWaitlistPosition(null);
+            } else {
+                enrollment.setStatus("WAITLISTED");
+                enrollment.setWaitlistPosition(seatReservationService.nextWaitlistTicket(course));
+            }
+            enrollments.add(enrollment);
         }
 
-        // get all active enrollments for the student
-        List<Enrollment> activeEnrollments = enrollmentRepository
-            .findByStudentAndStatus(student, "ACTIVE");
+        List<Enrollment> saved = enrollmentRepository.saveAll(enrollments);
+        saved.forEach(dashboardCounterService::enrollmentCreated);
 
-        // check each active enrollment for schedule conflicts
-        for (Enrollment enrollment : activeEnrollments) {
-            Course existingCourse = enrollment.getCourse();
+        List<String> enrolledCodes = new ArrayList<>();
+        List<String> waitlistedCodes = new ArrayList<>();
+        int i = 0;
+        for (CartEnrollmentResponse.CourseResult result : accepted.keySet()) {
+            Enrollment enrollment = saved.get(i++);
+            Course course = enrollment.getCourse();
+            result.setStatus(enrollment.getStatus());
+            result.setEnrollmentId(enrollment.getId());
 
-            // skip if existing course has no schedule
-            if (!existingCourse.hasSchedule()) {
+            if (enrollment.isWaitlisted()) {
+                waitlistedCodes.add(course.getCourseCode());
                 continue;
             }
+            enrolledCodes.add(course.getCourseCode());
 
-            // chekc if courses have overlapping days and times
-            if (hasScheduleConflict(newCourse, existingCourse)) {
-                throw new ScheduleConflictException(
-                    newCourse.getCourseCode(),
-                    existingCourse.getCourseCode()
-                );
+            // same as createEnrollment - if a parallel enrollment pushed the student over the limit
+            // the whole cart rolls back and they can just submit it again
+            int newTotalCredits = creditLoadService.addCourse(student.getId(), course);
+            checkCreditLimit(newTotalCredits - course.getCreditHours(), newTotalCredits);
+        }
+
+        if (saved.isEmpty()) {
+            return;
+        }
+
+        // one notification for the whole cart instead of one per course
+        StringBuilder message = new StringBuilder();
+        if (!enrolledCodes.isEmpty()) {
+            message.append("You have been enrolled in ").append(String.join(", ", enrolledCodes))
+                   .append(". Please complete payment to activate your enrollment.");
+        }
+        if (!waitlistedCodes.isEmpty()) {
+            if (message.length() > 0) {
+                message.append(" ");
             }
+            message.append("You have been added to the waitlist for ").append(String.join(", ", waitlistedCodes)).append(".");
+        }
+        outboxService.notify(
+                student,
+                "ENROLLMENT",
+                enrolledCodes.isEmpty() ? "Added to Waitlist" : "Enrollment Pending Payment",
+                message.toString(),
+                "/student/payments",
+                null,
+                null
+        );
+        for (Enrollment enrollment : saved) {
+            outboxService.logEnrollmentCreated(enrollment.getId(), student.getUsername(),
+                    enrollment.getCourse().getCourseCode(), student);
         }
     }
 
-    // helper method to check if two courses have conflicting schedules
-    // returns true if courses overlap in time on any day
-    private boolean hasScheduleConflict(Course course1, Course course2) {
-        // get days for each course
-        Set<String> days1 = parseDaysOfWeek(course1.getDaysOfWeek());
-        Set<String> days2 = parseDaysOfWeek(course2.getDaysOfWeek());
+    // semester must be active, open for registration and inside the enrollment period
+    // throws EnrollmentPeriodClosedException otherwise (courses without a semester are always ok)
+    private void validateSemester(Course course) {
+        if (course.getSemester() == null) {
+            return;
+        }
+        Semester semester = course.getSemester();
+
+        if (!semester.getActive()) {
+            throw new EnrollmentPeriodClosedException("The semester for this course is not active");
+        }
 
-        // check if they share any common days
-        Set<String> commonDays = new HashSet<>(days1);
-        commonDays.retainAll(days2);
+        if (!semester.getRegistrationOpen()) {
+            throw new EnrollmentPeriodClosedException("Registration is not open for this semester");
+        }
 
-        if (commonDays.isEmpty()) {
-            return false; // no common days, no conflict
+        // chekc if we are within enrollment period
+        if (!semester.isEnrollmentPeriod()) {
+            throw new EnrollmentPeriodClosedException(
+                "Enrollment period for " + semester.getName() + " has closed"
+            );
         }
+    }
+
+    // throws CreditLimitExceededException if the new total goes over the semester max
+    private void checkCreditLimit(int currentCredits, int newTotalCredits) {
+        if (newTotalCredits > maxCreditsPerSemester) {
+            throw new CreditLimitExceededException(
+                "Enrolling in this course would exceed the maximum credit limit of " +
+                maxCreditsPerSemester + " credits per semester. Current: " + currentCredits +
+                ", New total would be: " + newTotalCredits
+            );
+        }
+    }
+
+    // validate that student has completed all prerequesite courses
+    // throws PrerequisiteNotMetException if any prerequisets are missing
+    // graph + completed courses come from PrerequisiteIndexService so no db hit once its warm
+    // TODO: might need to add GPA requirements for prereqs later
+    private void validatePrerequisites(User student, Course course) {
+        List<String> missing = prerequisiteIndexService.getMissingPrerequisites(student.getId(), course);
 
-        // they have common days - now chekc if times overlap
-        LocalTime start1 = course1.getStartTime();
-        LocalTime end1 = course1.getEndTime();
-        LocalTime start2 = course2.getStartTime();
-        LocalTime end2 = course2.getEndTime();
+        if (!missing.isEmpty()) {
+            // student is missing some prerequisets
+            throw new PrerequisiteNotMetException(course.getCourseCode(), String.join(", ", missing));
+        }
+    }
 
-        // check for time overlap
-        // two time ranges overlap if: start1 < end2 AND start2 < end1
-        return start1.isBefore(end2) && start2.isBefore(end1);
+    // explain what a student still needs before they can take a course
+    // "missing" = direct prereqs not completed, "missingChain" = everything left including prereqs of prereqs
+    public Map<String, Object> getPrerequisiteStatus(Long studentId, Long courseId) {
+        Course course = courseService.getCourseById(courseId);
+        List<String> missing = prerequisiteIndexService.getMissingPrerequisites(studentId, course);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("courseCode", course.getCourseCode());
+        status.put("eligible", missing.isEmpty());
+        status.put("missing", missing);
+        status.put("missingChain", prerequisiteIndexService.getMissingPrerequisiteChain(studentId, course));
+        return status;
     }
 
-    // helper method to parse days of week string into set of days
-    // format: "MON,WED,FRI" -> {"MON", "WED", "FRI"}
-    private Set<String> parseDaysOfWeek(String daysOfWeek) {
-        if (daysOfWeek == null || daysOfWeek.isEmpty()) {
-            return new HashSet<>();
+    // check for schedule conflicts between new course and students existing enrollemnts
+    // throws ScheduleConflictException listing every course that clashes
+    // the actual overlap check lives in TimetableIndexService (weekly bitmaps, no db hit once cached)
+    private void checkScheduleConflicts(User student, Course newCourse) {
+        // if new course has no schedule info, skip conflict checking
+        if (!newCourse.hasSchedule()) {
+            return;
         }
 
-        String[] days = daysOfWeek.split(",");
-        Set<String> daySet = new HashSet<>();
-        for (String day : days) {
-            daySet.add(day.trim().toUpperCase());
+        List<String> conflicts = timetableIndexService.findConflicts(student.getId(), newCourse);
+        if (!conflicts.isEmpty()) {
+            throw new ScheduleConflictException(newCourse.getCourseCode(), String.join(", ", conflicts));
         }
-        return daySet;
     }
 
     // get enrollment by id
@@ -293,14 +445,56 @@ public class EnrollmentService {
         }
 
         String oldStatus = enrollment.getStatus();
+        Course course = enrollment.getCourse();
+        boolean heldSeat = SeatReservationService.holdsSeat(oldStatus);
+        boolean needsSeat = SeatReservationService.holdsSeat(status);
+
+        // moving into a seat holding status (e.g. WAITLISTED -> ACTIVE by an admin) has to take a seat
+        if (!heldSeat && needsSeat && !seatReservationService.tryReserve(course)) {
+            throw new CourseFullException(course.getCourseCode());
+        }
+
         enrollment.setStatus(status);
+        if (needsSeat) {
+            enrollment.setWaitlistPosition(null);
+        } else if ("WAITLISTED".equals(status) && !"WAITLISTED".equals(oldStatus)) {
+            // back of the line, same as a new waitlisted enrollment
+            enrollment.setWaitlistPosition(seatReservationService.nextWaitlistTicket(course));
+        }
+        Enrollment saved = enrollmentRepository.save(enrollment);
+
+        // keep the students credit load in sync with the seats they hold
+        Long studentId = enrollment.getStudent().getId();
+        if (!heldSeat && needsSeat) {
+            creditLoadService.addCourse(studentId, course);
+        } else if (heldSeat && !needsSeat) {
+            creditLoadService.removeCourse(studentId, course);
+        }
+
+        // and the timetable index with thier active courses
+        if (!"ACTIVE".equals(oldStatus) && "ACTIVE".equals(status)) {
+            timetableIndexService.addCourse(studentId, course);
+        } else if ("ACTIVE".equals(oldStatus) && !"ACTIVE".equals(status)) {
+            timetableIndexService.removeCourse(studentId, course.getId());
+        }
+
+        // and thier completed courses for prerequisite checks
+        if ("COMPLETED".equals(status) && !"COMPLETED".equals(oldStatus)) {
+            prerequisiteIndexService.markCompleted(studentId, course);
+        } else if ("COMPLETED".equals(oldStatus) && !"COMPLETED".equals(status)) {
+            prerequisiteIndexService.evictStudent(studentId);
+        }
 
-        // if changing from ACTIVE to DROPPED or COMPLETED, process waitlist
-        if ("ACTIVE".equals(oldStatus) && ("DROPPED".equals(status) || "COMPLETED".equals(status))) {
-            processWaitlist(enrollment.getCourse());
+        // seat freed up by a drop or completion - hand it straight to the waitlist
+        // or give it back to the counter if nobody is waiting
+        if (heldSeat && !needsSeat) {
+            boolean leftCourse = "DROPPED".equals(status) || "COMPLETED".equals(status);
+            if (!leftCourse || !promoteNextWaitlisted(course)) {
+                seatReservationService.release(course);
+            }
         }
 
-        return enrollmentRepository.save(enrollment);
+        return saved;
     }
 
     // drop enrollment (student drops course)
@@ -329,38 +523,93 @@ public class EnrollmentService {
         return updateEnrollmentStatus(enrollmentId, "DROPPED");
     }
 
-    // process waitlist - move first waitlisted student to active enrollment
-    // called when a spot opens up in the course
-    // NOTE: this automaticaly updates waitlist positions for remaining students
-    // dont forget to update positions when someone drops!
+    // process waitlist - move waitlisted students to active enrollment while there are free seats
+    // called when spots open up in the course (capacity increase, several drops, ...)
+    // only the promoted rows are touched - everyone else keeps thier ticket
+    // returns how many students got promoted
     @Transactional
-    public void processWaitlist(Course course) {
-        // get all waitlisted enrollments ordered by position
-        List<Enrollment> waitlist = enrollmentRepository
-            .findByCourseAndStatusOrderByWaitlistPositionAsc(course, "WAITLISTED");
+    public int processWaitlist(Course course) {
+        int promoted = 0;
+
+        while (true) {
+            // promoted rows are no longer WAITLISTED so page 0 is always the next ones in line
+            List<Enrollment> batch = enrollmentRepository.findByCourseAndStatusOrderByWaitlistPositionAsc(
+                course, "WAITLISTED", PageRequest.of(0, WAITLIST_BATCH_SIZE));
+
+            if (batch.isEmpty()) {
+                return promoted; // no one (else) on waitlist
+            }
 
-        if (waitlist.isEmpty()) {
-            return; // no one on waitlist
+            for (Enrollment waitlisted : batch) {
+                // check if there is space in the course
+                if (!seatReservationService.tryReserve(course)) {
+                    return promoted; // course is full again
+                }
+                promote(waitlisted);
+                promoted++;
+            }
         }
+    }
 
-        // check if there is space in the course
-        long activeCount = enrollmentRepository.countByCourseAndStatus(course, "ACTIVE");
-        if (activeCount >= course.getCapacity()) {
-            return; // course is still full
+    // give a seat that was just freed to the first waitlisted student
+    // the seat is handed over directly so it never goes back to the counter
+    // returns false if nobody is waiting
+    private boolean promoteNextWaitlisted(Course course) {
+        // capacity was lowered below the seats already held - let the seat go instead
+        if (seatReservationService.getHeldSeats(course) > course.getCapacity()) {
+            return false;
         }
 
-        // enroll first student from waitlist
-        Enrollment firstWaitlisted = waitlist.get(0);
-        firstWaitlisted.setStatus("ACTIVE");
-        firstWaitlisted.setWaitlistPosition(null);
-        enrollmentRepository.save(firstWaitlisted);
+        Optional<Enrollment> next = enrollmentRepository
+            .findFirstByCourseAndStatusOrderByWaitlistPositionAsc(course, "WAITLISTED");
+
+        if (next.isEmpty()) {
+            return false;
+        }
+
+        promote(next.get());
+        return true;
+    }
+
+    // enroll a waitlisted student (caller already secured the seat)
+    private void promote(Enrollment waitlisted) {
+        waitlisted.setStatus("ACTIVE");
+        waitlisted.setWaitlistPosition(null);
+        enrollmentRepository.save(waitlisted);
+        creditLoadService.addCourse(waitlisted.getStudent().getId(), waitlisted.getCourse());
+        timetableIndexService.addCourse(waitlisted.getStudent().getId(), waitlisted.getCourse());
+    }
+
+    // current rank of a waitlisted enrollment (1 = next in line), null if not waitlisted
+    public Integer getWaitlistRank(Enrollment enrollment) {
+        if (!enrollment.isWaitlisted() || enrollment.getWaitlistPosition() == null) {
+            return null;
+        }
+        long ahead = enrollmentRepository.countByCourseAndStatusAndWaitlistPositionLessThan(
+            enrollment.getCourse(), "WAITLISTED", enrollment.getWaitlistPosition());
+        return (int) ahead + 1;
+    }
+
+    // ranks for a list of enrollments (enrollment id -> rank) - one query for the whole list instead of
+    // a count per waitlisted row. enrollments that arent waitlisted arent in the map
+    public Map<Long, Integer> getWaitlistRanks(Collection<Enrollment> enrollments) {
+        Set<Long> ids = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (Enrollment enrollment : enrollments) {
+            if (enrollment.isWaitlisted() && enrollment.getWaitlistPosition() != null) {
+                ids.add(enrollment.getId());
+                courseIds.add(enrollment.getCourse().getId());
+            }
+        }
 
-        // update waitlist positions for remaining students
-        for (int i = 1; i < waitlist.size(); i++) {
-            Enrollment e = waitlist.get(i);
-            e.setWaitlistPosition(i); // positions are 1-indexed, but now first is removed
-            enrollmentRepository.save(e);
+        Map<Long, Integer> ranks = new HashMap<>();
+        if (ids.isEmpty()) {
+            return ranks;
+        }
+        for (Object[] row : enrollmentRepository.findWaitlistRanks(courseIds, ids)) {
+            ranks.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
         }
+        return ranks;
     }
 
     // get waitlist for a course
@@ -375,6 +624,19 @@ public class EnrollmentService {
     public void deleteEnrollment(Long id) {
         Enrollment enrollment = getEnrollmentById(id);
         enrollmentRepository.delete(enrollment);
+        dashboardCounterService.enrollmentDeleted(enrollment);
+
+        // deleting a seat holder frees the seat too
+        if (SeatReservationService.holdsSeat(enrollment.getStatus())) {
+            seatReservationService.release(enrollment.getCourse());
+            creditLoadService.removeCourse(enrollment.getStudent().getId(), enrollment.getCourse());
+        }
+        if ("ACTIVE".equals(enrollment.getStatus())) {
+            timetableIndexService.removeCourse(enrollment.getStudent().getId(), enrollment.getCourse().getId());
+        }
+        if ("COMPLETED".equals(enrollment.getStatus())) {
+            prerequisiteIndexService.evictStudent(enrollment.getStudent().getId());
+        }
     }
 
     // helper method to validate status
@@ -396,36 +658,18 @@ public class EnrollmentService {
         return enrollmentRepository.existsByStudentAndCourse(student, course);
     }
 
-    // get total credit hours for a student in the current semester
-    private int getTotalCreditsForCurrentSemester(User student, Semester semester) {
-        if (semester == null) {
-            return 0; // if no semester, no credit calculation
-        }
-
-        // get all active enrollments for the student in courses belonging to this semester
-        List<Enrollment> activeEnrollments = enrollmentRepository
-            .findByStudentAndStatus(student, "ACTIVE");
-
-        int totalCredits = 0;
-        for (Enrollment enrollment : activeEnrollments) {
-            Course course = enrollment.getCourse();
-
-            // only count courses from the same semester
-            if (course.getSemester() != null &&
-                course.getSemester().getId().equals(semester.getId())) {
-                totalCredits += course.getCreditHours();
-            }
+    // get total credits for a student (for checking minimum credit requirements)
+    // single row read from the maintained credit load table
+    public int getTotalCreditsForStudent(Long studentId, Long semesterId) {
+        if (!semesterRepository.existsById(semesterId)) {
+            throw new SemesterNotFoundException(semesterId);
         }
 
-        return totalCredits;
+        return creditLoadService.getCredits(studentId, semesterId);
     }
 
-    // get total credits for a student (for checking minimum credit requirements)
-    public int getTotalCreditsForStudent(Long studentId, Long semesterId) {
-        User student = userService.getUserById(studentId);
-        Semester semester = semesterRepository.findById(semesterId)
-            .orElseThrow(() -> new SemesterNotFoundException(semesterId));
-
-        return getTotalCreditsForCurrentSemester(student, semester);
+    // repair the credit load table from the enrollments (also runs nightly)
+    public int rebuildCreditLoads() {
+        return creditLoadService.rebuild();
     }
 }
@@ -0,0 +1,130 @@
+package com.sams.service;
+
+import com.sams.dto.dashboard.FinancialSummary;
+import com.sams.dto.dashboard.SemesterFinancialSummary;
+import com.sams.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * financial numbers for the admin dashboard - totals per payment status, overall and per semester
+ *
+ * used to be paymentRepository.findAll() and adding up BigDecimals in java on every dashboard view.
+ * now the database does the counting and summing with one GROUP BY (semester, status) query,
+ * so the result is a few rows per semester no matter how many payments exist
+ *
+ * the result is cached until a payment changes - PaymentService calls paymentChanged() on every
+ * write and the cache is dropped after that commit. the ttl is just a safety net for manual db edits
+ */
+@Service
+public class FinancialSummaryService {
+
+    private final PaymentRepository paymentRepository;
+    private final long ttlMs;
+
+    private volatile Snapshot cached;
+    // bumped on every invalidation, so a rebuild that raced with a payment change doesnt get cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public FinancialSummaryService(PaymentRepository paymentRepository,
+                                   @Value("${dashboard.financial.cache.ttl.ms:300000}") long ttlMs) {
+        this.paymentRepository = paymentRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    // totals over every payment
+    public FinancialSummary getSummary() {
+        return snapshot().overall;
+    }
+
+    // totals per semester, in the order the database grouped them
+    public List<SemesterFinancialSummary> getSemesterSummaries() {
+        return snapshot().bySemester;
+    }
+
+    // a payment was created, changed amount/status or deleted - drop the cache once its committed
+    public void paymentChanged() {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            cached = null;
+        });
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = cached;
+        if (current != null && System.currentTimeMillis() - current.builtAt < ttlMs) {
+            return current;
+        }
+        long startGeneration = generation.get();
+        Snapshot fresh = build();
+        if (generation.get() == startGeneration) {
+            cached = fresh;
+        }
+        return fresh;
+    }
+
+    private Snapshot build() {
+        FinancialSummary overall = new FinancialSummary();
+        Map<Long, SemesterFinancialSummary> bySemester = new LinkedHashMap<>();
+
+        for (Object[] row : paymentRepository.sumGroupedBySemesterAndStatus()) {
+            Long semesterId = (Long) row[0];
+            String status = (String) row[2];
+            long count = (Long) row[3];
+            BigDecimal amount = (BigDecimal) row[4];
+
+            add(overall, status, count, amount);
+            if (semesterId != null) {
+                SemesterFinancialSummary semester = bySemester.computeIfAbsent(semesterId,
+                    id -> new SemesterFinancialSummary(id, (String) row[1]));
+                add(semester, status, count, amount);
+            }
+        }
+
+        finish(overall);
+        bySemester.values().forEach(FinancialSummaryService::finish);
+        return new Snapshot(overall, Collections.unmodifiableList(new ArrayList<>(bySemester.values())));
+    }
+
+    // same buckets the old java loop used - PAID counts as completed, PARTIAL only shows up in the total
+    private static void add(FinancialSummary summary, String status, long count, BigDecimal amount) {
+        summary.setTotalPaymentCount(summary.getTotalPaymentCount() + count);
+
+        if ("PENDING".equals(status)) {
+            summary.setPendingPaymentCount(summary.getPendingPaymentCount() + count);
+            summary.setPendingPayments(summary.getPendingPayments().add(amount));
+        } else if ("APPROVED".equals(status) || "PAID".equals(status)) {
+            summary.setCompletedPaymentCount(summary.getCompletedPaymentCount() + count);
+            summary.setCompletedPayments(summary.getCompletedPayments().add(amount));
+        } else if ("REJECTED".equals(status)) {
+            summary.setRejectedPaymentCount(summary.getRejectedPaymentCount() + count);
+            summary.setRejectedPayments(summary.getRejectedPayments().add(amount));
+        }
+    }
+
+    private static void finish(FinancialSummary summary) {
+        summary.setTotalRevenue(summary.getCompletedPayments());
+        if (summary.getTotalPaymentCount() > 0) {
+            summary.setCollectionRate((summary.getCompletedPaymentCount() * 100.0) / summary.getTotalPaymentCount());
+        }
+    }
+
+    private static class Snapshot {
+        private final FinancialSummary overall;
+        private final List<SemesterFinancialSummary> bySemester;
+        private final long builtAt = System.currentTimeMillis();
+
+        Snapshot(FinancialSummary overall, List<SemesterFinancialSummary> bySemester) {
+            this.overall = overall;
+            this.bySemester = bySemester;
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class GradeService {
     private final EnrollmentService enrollmentService;
     private final UserService userService;
     private final CourseService courseService;
+    private final OutboxService outboxService;
 
     // grade scale mapping - converts letter grades to grade points
     // this is the standard 4.0 scale used in most universities
@@ -68,12 +69,14 @@ public class GradeService {
                        GradeHistoryRepository gradeHistoryRepository,
                        EnrollmentService enrollmentService,
                        UserService userService,
-                       CourseService courseService) {
+                       CourseService courseService,
+                       OutboxService outboxService) {
         this.gradeRepository = gradeRepository;
         this.gradeHistoryRepository = gradeHistoryRepository;
         this.enrollmentService = enrollmentService;
         this.userService = userService;
         this.courseService = courseService;
+        this.outboxService = outboxService;
     }
 
     // create or update grade for an enrollment with history tracking
@@ -133,10 +136,24 @@ public class GradeService {
         // save grade first
         grade = gradeRepository.save(grade);
 
-        // create history entry
+        // create history entry (stays in this transaction - its the audit trail for the grade itself)
         User modifier = userService.getUserById(modifiedBy);
         createGradeHistory(grade, previousValue, gradeValue, previousPoints, gradePoints, modifier, actionType, null);
 
+        // notification + activity log go through the outbox and run in the background
+        Course course = enrollment.getCourse();
+        User student = enrollment.getStudent();
+        if ("CREATE".equals(actionType)) {
+            outboxService.notify(student, "GRADE", "New Grade Posted",
+                    "Your grade for " + course.getCourseCode() + " has been posted: " + gradeValue,
+                    "/student/grades", "Course", course.getId());
+        } else if (!gradeValue.equals(previousValue)) {
+            outboxService.notify(student, "GRADE", "Grade Updated",
+                    "Your grade for " + course.getCourseCode() + " was updated from " + previousValue + " to " + gradeValue,
+                    "/student/grades", "Course", course.getId());
+        }
+        outboxService.logGradeAssigned(grade.getId(), student.getUsername(), course.getCourseCode(), gradeValue, modifier);
+
         return grade;
     }
 
@@ -0,0 +1,280 @@
+package com.sams.service;
+
+import com.sams.entity.GroupMessage;
+import com.sams.entity.PrivateMessage;
+import com.sams.repository.GroupMessageRepository;
+import com.sams.repository.PrivateMessageRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * full text search over study group and private messages
+ *
+ * the old LOWER(content) LIKE '%term%' queries read every message of the table for every search.
+ * this uses postgres full text search instead of an extra search engine: each message gets a
+ * search_vector column (tokenized + stemmed with the messages.search.language config, so "studying"
+ * finds "study") with a GIN index on it. searches are scoped to one group / one conversation,
+ * ranked with ts_rank_cd and come back with a highlighted snippet
+ *
+ * keeping it up to date:
+ * - sendMessage indexes the new message in the same transaction, deleteMessage takes it out
+ * - a background job indexes anything still missing in batches (existing messages after the first
+ *   deploy, anything written around the services) - lives in the database so nothing is lost on restart
+ * - rebuild() reindexes everything batch by batch from the lowest id, searches keep working meanwhile
+ *
+ * the column and indexes are added on startup if missing (hibernate doesnt know about tsvector).
+ * if that fails (not postgres) search falls back to the old LIKE queries
+ */
+@Service
+public class MessageSearchService {
+
+    // ts_headline puts these around the matches, turned into <mark> after the text is html escaped
+    private static final String START_MARK = "\u0002";
+    private static final String STOP_MARK = "\u0003";
+    private static final String HEADLINE_OPTIONS = "StartSel=\"" + START_MARK + "\", StopSel=\"" + STOP_MARK + "\", "
+        + "MaxWords=30, MinWords=10, MaxFragments=2, FragmentDelimiter=\" ... \"";
+
+    private static final String[] TABLES = {"group_messages", "private_messages"};
+
+    private final GroupMessageRepository groupMessageRepository;
+    private final PrivateMessageRepository privateMessageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String language;
+    private final int maxResults;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private volatile boolean fullTextAvailable;
+    // rebuild position per table, -1 = no rebuild going on
+    private final AtomicLong groupRebuildCursor = new AtomicLong(-1);
+    private final AtomicLong privateRebuildCursor = new AtomicLong(-1);
+
+    public MessageSearchService(GroupMessageRepository groupMessageRepository,
+                                PrivateMessageRepository privateMessageRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${messages.search.language:english}") String language,
+                                @Value("${messages.search.max-results:50}") int maxResults,
+                                @Value("${messages.search.batch-size:1000}") int batchSize,
+                                @Value("${messages.search.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.groupMessageRepository = groupMessageRepository;
+        this.privateMessageRepository = privateMessageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.language = language;
+        this.maxResults = maxResults;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    // add the tsvector column + indexes if they arent there yet, runs in autocommit so CONCURRENTLY works
+    @PostConstruct
+    public void ensureSchema() {
+        try {
+            for (String table : TABLES) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS search_vector tsvector");
+                jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_" + table + "_search "
+                    + "ON " + table + " USING GIN (search_vector)");
+                // keeps the backfill query cheap once everything is indexed
+                jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_" + table + "_unindexed "
+                    + "ON " + table + " (id) WHERE search_vector IS NULL AND deleted = false");
+            }
+            fullTextAvailable = true;
+        } catch (DataAccessException e) {
+            System.err.println("Message full text search not available, using LIKE search: " + e.getMessage());
+            fullTextAvailable = false;
+        }
+    }
+
+    // ---- keeping the index up to date ----
+
+    // call in the same transaction right after the message was saved
+    public void groupMessageSaved(GroupMessage message) {
+        if (fullTextAvailable) {
+            groupMessageRepository.updateSearchVector(message.getId(), language);
+        }
+    }
+
+    public void groupMessageDeleted(GroupMessage message) {
+        if (fullTextAvailable) {
+            groupMessageRepository.clearSearchVector(message.getId());
+        }
+    }
+
+    public void privateMessageSaved(PrivateMessage message) {
+        if (fullTextAvailable) {
+            privateMessageRepository.updateSearchVector(message.getId(), language);
+        }
+    }
+
+    public void privateMessageDeleted(PrivateMessage message) {
+        if (fullTextAvailable) {
+            privateMessageRepository.clearSearchVector(message.getId());
+        }
+    }
+
+    // ---- searching ----
+
+    // messages of one group matching the query, best first
+    public List<Hit<GroupMessage>> searchGroup(Long groupId, String query) {
+        if (!fullTextAvailable) {
+            return plainHits(groupMessageRepository.searchMessagesByContent(groupId, query));
+        }
+        List<Object[]> rows = groupMessageRepository.searchFullText(groupId, query, language, HEADLINE_OPTIONS, maxResults);
+        return toHits(rows, groupMessageRepository::findAllById, GroupMessage::getId);
+    }
+
+    // messages between two users matching the query, best first
+    public List<Hit<PrivateMessage>> searchConversation(Long user1Id, Long user2Id, String query) {
+        if (!fullTextAvailable) {
+            return plainHits(privateMessageRepository.searchConversation(user1Id, user2Id, query));
+        }
+        List<Object[]> rows = privateMessageRepository.searchConversationFullText(user1Id, user2Id, query, language,
+            HEADLINE_OPTIONS, maxResults);
+        return toHits(rows, privateMessageRepository::findAllById, PrivateMessage::getId);
+    }
+
+    // rows are (id, rank, headline) in ranked order, the entities are loaded in one go and put back in that order
+    private <T> List<Hit<T>> toHits(List<Object[]> rows, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+        }
+        Map<Long, T> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (T message : loader.apply(ids)) {
+                byId.put(idOf.apply(message), message);
+            }
+        }
+
+        List<Hit<T>> hits = new ArrayList<>();
+        for (Object[] row : rows) {
+            T message = byId.get(((Number) row[0]).longValue());
+            if (message != null) {
+                hits.add(new Hit<>(message, ((Number) row[1]).doubleValue(), highlightToHtml((String) row[2])));
+            }
+        }
+        return hits;
+    }
+
+    private static <T> List<Hit<T>> plainHits(List<T> messages) {
+        List<Hit<T>> hits = new ArrayList<>();
+        for (T message : messages) {
+            hits.add(new Hit<>(message, null, null));
+        }
+        return hits;
+    }
+
+    // escape the snippet for html, then turn the match markers into <mark> tags
+    static String highlightToHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        String escaped = headline.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+            .replace("\"", "&quot;").replace("'", "&#39;");
+        return escaped.replace(START_MARK, "<mark>").replace(STOP_MARK, "</mark>");
+    }
+
+    // ---- backfill / rebuild ----
+
+    // start reindexing every message from the lowest id, done in the background by indexPending()
+    public Map<String, Object> rebuild() {
+        groupRebuildCursor.set(0);
+        privateRebuildCursor.set(0);
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("fullTextAvailable", fullTextAvailable);
+        status.put("language", language);
+        status.put("groupMessagesRebuildAfterId", groupRebuildCursor.get() < 0 ? null : groupRebuildCursor.get());
+        status.put("privateMessagesRebuildAfterId", privateRebuildCursor.get() < 0 ? null : privateRebuildCursor.get());
+        return status;
+    }
+
+    // index what is missing, then continue a running rebuild - at most maxBatchesPerRun batches per table
+    @Scheduled(fixedDelayString = "${messages.search.backfill.interval.ms:10000}")
+    public void indexPending() {
+        if (!fullTextAvailable) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer indexed = transactionTemplate.execute(status ->
+                    groupMessageRepository.indexMissing(language, batchSize)
+                        + privateMessageRepository.indexMissing(language, batchSize));
+                if (indexed == null || indexed == 0) {
+                    break;
+                }
+            }
+            rebuildBatches(groupRebuildCursor, groupMessageRepository::findSearchBatchEnd,
+                (after, upTo) -> groupMessageRepository.reindexRange(after, upTo, language));
+            rebuildBatches(privateRebuildCursor, privateMessageRepository::findSearchBatchEnd,
+                (after, upTo) -> privateMessageRepository.reindexRange(after, upTo, language));
+        } catch (DataAccessException e) {
+            System.err.println("Message search indexing failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private void rebuildBatches(AtomicLong cursor, BatchEndFinder batchEnd, RangeIndexer indexer) {
+        for (int i = 0; i < maxBatchesPerRun && cursor.get() >= 0; i++) {
+            long after = cursor.get();
+            Long upTo = batchEnd.find(after, batchSize);
+            if (upTo == null) {
+                cursor.set(-1); // done
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> indexer.reindex(after, upTo));
+            cursor.compareAndSet(after, upTo);
+        }
+    }
+
+    private interface BatchEndFinder {
+        Long find(Long afterId, int batchSize);
+    }
+
+    private interface RangeIndexer {
+        int reindex(Long afterId, Long upToId);
+    }
+
+    // one search result - score and highlight are null when the LIKE fallback was used
+    public static class Hit<T> {
+        private final T message;
+        private final Double score;
+        private final String highlight;
+
+        Hit(T message, Double score, String highlight) {
+            this.message = message;
+            this.score = score;
+            this.highlight = highlight;
+        }
+
+        public T getMessage() {
+            return message;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public String getHighlight() {
+            return highlight;
+        }
+    }
+}
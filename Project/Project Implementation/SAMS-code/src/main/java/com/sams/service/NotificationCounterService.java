@@ -0,0 +1,136 @@
+package com.sams.service;
+
+import com.sams.repository.NotificationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * unread notification count per user - the header badge
+ *
+ * the badge called countByUserIdAndReadFalse on every page load. here the counts are seeded at startup
+ * with one grouped query and then moved by NotificationService whenever a notification is created,
+ * read or deleted, so reading the badge is a map lookup. only users with something unread are in the map
+ *
+ * changes are applied after commit (a rolled back insert never moves the badge) and the new count is pushed
+ * to the users /queue/notifications as {"event": "unreadCount", "count": n}
+ *
+ * reconcile() recounts from the database every notifications.unread.reconcile.interval.ms,
+ * a change racing with it can be off by one until the next pass (same as the dashboard counters)
+ *
+ * NOTE: single app instance only, same as the other in-memory counters
+ */
+@Service
+public class NotificationCounterService {
+
+    public static final String DESTINATION = "/queue/notifications";
+
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<Long, Long> unreadByUser = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    public NotificationCounterService(NotificationRepository notificationRepository,
+                                      SimpMessagingTemplate messagingTemplate) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public long getUnreadCount(Long userId) {
+        if (!seeded) {
+            reconcile();
+        }
+        return unreadByUser.getOrDefault(userId, 0L);
+    }
+
+    // ========== CHANGES (applied after commit) ==========
+
+    public void created(Long userId, int count) {
+        adjustAfterCommit(Map.of(userId, (long) count));
+    }
+
+    public void read(Long userId, int count) {
+        adjustAfterCommit(Map.of(userId, (long) -count));
+    }
+
+    // several users at once (bulk inserts), userId -> how many new unread
+    public void created(Map<Long, Long> countsByUser) {
+        adjustAfterCommit(countsByUser);
+    }
+
+    // the user read everything - set to 0 instead of subtracting so the badge is right even if the counter drifted
+    public void allRead(Long userId) {
+        TransactionHooks.afterCommit(() -> {
+            unreadByUser.remove(userId);
+            push(userId, 0);
+        });
+    }
+
+    private void adjustAfterCommit(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> deltas.forEach((userId, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            // drop users that reach 0 so the map only holds people with unread notifications
+            Long count = unreadByUser.compute(userId, (id, current) -> {
+                long updated = Math.max(0, (current != null ? current : 0) + delta);
+                return updated == 0 ? null : updated;
+            });
+            push(userId, count != null ? count : 0);
+        }));
+    }
+
+    private void push(Long userId, long count) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("event", "unreadCount");
+        message.put("count", count);
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), DESTINATION, message);
+        } catch (RuntimeException e) {
+            // the badge is still right on the next poll
+            System.err.println("Could not push unread count to user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    // ========== SEEDING / RECONCILIATION ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    // recount every users unread notifications with one grouped query and replace the map
+    @Scheduled(fixedDelayString = "${notifications.unread.reconcile.interval.ms:300000}",
+               initialDelayString = "${notifications.unread.reconcile.interval.ms:300000}")
+    public synchronized void reconcile() {
+        Map<Long, Long> fresh = new HashMap<>();
+        for (Object[] row : notificationRepository.countUnreadGroupedByUser()) {
+            fresh.put((Long) row[0], (Long) row[1]);
+        }
+
+        // push only the counts the recount actually fixed
+        for (Long userId : unreadByUser.keySet()) {
+            if (!fresh.containsKey(userId) && unreadByUser.remove(userId) != null) {
+                push(userId, 0);
+            }
+        }
+        fresh.forEach((userId, count) -> {
+            Long previous = unreadByUser.put(userId, count);
+            if (seeded && !count.equals(previous)) {
+                push(userId, count);
+            }
+        });
+        seeded = true;
+    }
+}
@@ -0,0 +1,161 @@
+package com.sams.service;
+
+import com.sams.entity.Notification;
+import com.sams.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * pushes notifications to the users websocket queue as soon as they are committed
+ *
+ * the frontend used to poll /api/notifications every 30s to find out about new ones. now every notification
+ * NotificationService writes (single save, bulk insert or a coalesced bump) is sent to
+ * /user/{id}/queue/notifications as {"event": "notification", ...same fields as NotificationResponse}.
+ * a bumped one keeps its id so the client just replaces it
+ *
+ * offline replay: the client remembers the highest notification id it has seen. after (re)connecting it
+ * sends {"userId", "lastSeenId"} to /app/notifications/replay and gets everything newer, plus the merged
+ * notifications bumped since then, followed by {"event": "replayDone", "lastId", "unreadCount", "truncated"}.
+ * more than notifications.replay.max missed = truncated, the client reloads the first page over http instead
+ *
+ * pushes go through the simple broker, a user who isnt connected just misses them - thats what replay is for
+ */
+@Service
+public class NotificationPushService {
+
+    public static final String DESTINATION = "/queue/notifications";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationCounterService counterService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationRetentionService retentionService;
+    private final int replayMax;
+
+    private final AtomicLong pushed = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public NotificationPushService(NotificationRepository notificationRepository,
+                                   NotificationCounterService counterService,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   NotificationRetentionService retentionService,
+                                   @Value("${notifications.replay.max:100}") int replayMax) {
+        this.notificationRepository = notificationRepository;
+        this.counterService = counterService;
+        this.messagingTemplate = messagingTemplate;
+        this.retentionService = retentionService;
+        this.replayMax = replayMax;
+    }
+
+    // push once the current transaction commits, nothing is sent for a rolled back notification
+    public void pushAfterCommit(Notification notification) {
+        Map<String, Object> payload = payload(notification);
+        TransactionHooks.afterCommit(() -> push(notification.getUser().getId(), payload));
+    }
+
+    // same for many (bulk inserts), payloads from payload(...) with "userId" set
+    public void pushAllAfterCommit(List<Map<String, Object>> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> payloads.forEach(payload -> push((Long) payload.get("userId"), payload)));
+    }
+
+    // everything the user missed since lastSeenId, sent down the same queue as live pushes
+    @Transactional(readOnly = true)
+    public void replay(Long userId, Long lastSeenId) {
+        List<Notification> missed = findMissed(userId, lastSeenId);
+        boolean truncated = missed.size() > replayMax;
+        if (truncated) {
+            missed = missed.subList(0, replayMax);
+        }
+
+        long lastId = lastSeenId != null ? lastSeenId : 0;
+        for (Notification notification : missed) {
+            push(userId, payload(notification));
+            lastId = Math.max(lastId, notification.getId());
+        }
+        replays.incrementAndGet();
+        replayed.addAndGet(missed.size());
+
+        Map<String, Object> done = new LinkedHashMap<>();
+        done.put("event", "replayDone");
+        done.put("lastId", lastId);
+        done.put("unreadCount", counterService.getUnreadCount(userId));
+        done.put("truncated", truncated);
+        send(userId, done);
+    }
+
+    // notifications newer than lastSeenId, and merged ones bumped after it was created (they keep thier old id).
+    // one more than replayMax so the caller can tell it was cut off. only the hot partitions, anything older
+    // than that is past replayMax anyway
+    @Transactional(readOnly = true)
+    public List<Notification> findMissed(Long userId, Long lastSeenId) {
+        long afterId = lastSeenId != null ? lastSeenId : 0;
+        // lastSeenId deleted (or 0) - no bump cutoff, only go by id
+        LocalDateTime bumpedAfter = notificationRepository.findById(afterId)
+            .map(Notification::getCreatedAt)
+            .orElse(LocalDateTime.now());
+        return notificationRepository.findMissed(userId, afterId, bumpedAfter, retentionService.hotSince(),
+            PageRequest.of(0, replayMax + 1));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pushed", pushed.get());
+        stats.put("replays", replays.get());
+        stats.put("replayed", replayed.get());
+        return stats;
+    }
+
+    private void push(Long userId, Map<String, Object> payload) {
+        pushed.incrementAndGet();
+        send(userId, payload);
+    }
+
+    private void send(Long userId, Map<String, Object> payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), DESTINATION, payload);
+        } catch (RuntimeException e) {
+            // not fatal, the client picks it up on the next replay
+            System.err.println("Could not push notification to user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    static Map<String, Object> payload(Notification notification) {
+        return payload(notification.getId(), notification.getUser().getId(), notification.getType(),
+            notification.getTitle(), notification.getMessage(), notification.getActionUrl(),
+            notification.getRelatedEntityType(), notification.getRelatedEntityId(), notification.getRead(),
+            notification.getCreatedAt(),
+            notification.getCoalescedCount() != null ? notification.getCoalescedCount() : 1);
+    }
+
+    // field names match NotificationResponse so the client treats pushed and fetched ones the same
+    static Map<String, Object> payload(Long id, Long userId, String type, String title, String message,
+                                       String actionUrl, String relatedEntityType, Long relatedEntityId,
+                                       Boolean read, LocalDateTime createdAt, int count) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", "notification");
+        payload.put("id", id);
+        payload.put("userId", userId);
+        payload.put("type", type);
+        payload.put("title", title);
+        payload.put("message", message);
+        payload.put("actionUrl", actionUrl);
+        payload.put("relatedEntityType", relatedEntityType);
+        payload.put("relatedEntityId", relatedEntityId);
+        payload.put("read", read);
+        payload.put("createdAt", createdAt != null ? createdAt.toString() : null);
+        payload.put("count", count);
+        return payload;
+    }
+}
@@ -0,0 +1,267 @@
+package com.sams.service;
+
+import com.sams.entity.Assignment;
+import com.sams.entity.Course;
+import com.sams.entity.StudyGroup;
+import com.sams.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * background notification pipeline - services hand over "notify these users" and return right away
+ *
+ * every group message used to write a notification row per member inside the send request, an active
+ * 50 person chat made thousands of rows an hour. now:
+ * - jobs go into a bounded queue (notifications.queue.capacity) and notifications.queue.workers threads
+ *   write them with NotificationService.notifyAll (batched inserts)
+ * - coalescing: a job for the same thing as one still waiting in the queue (same group chat, same sender)
+ *   is merged into it, and the worker bumps the users unread notification instead of adding rows -
+ *   "12 new messages in Group X" is one row updated in place until its read
+ * - jobs are queued after the callers transaction commits, so a rolled back message notifies nobody
+ * - backpressure: when the queue is full the caller writes the job itself (slower request, nothing lost),
+ *   counted in the stats along with queue depth and how much was merged
+ * - every write runs in its own REQUIRES_NEW transaction. the caller runs path is inside the callers
+ *   afterCommit hook, where the old transaction is still bound - joining it would mean the rows never
+ *   get committed and the pushes registered by notifyAll never fire
+ * - on shutdown the workers finish whats queued (up to notifications.queue.drain-timeout.ms)
+ *
+ * NOTE: in memory - a crash loses queued notifications (same as before when the request died half way).
+ * things that must not get lost still go through the outbox
+ */
+@Service
+public class NotificationQueueService {
+
+    private final NotificationService notificationService;
+    private final TransactionTemplate writeTransaction;
+    private final int workers;
+    private final int capacity;
+    private final long drainTimeoutMs;
+
+    private final BlockingQueue<Job> queue;
+    // coalesce key -> job still waiting in the queue, guarded by itself
+    private final Map<String, Job> queuedByKey = new HashMap<>();
+    // one writer per coalesce key at a time, otherwise two workers could both miss the unread row and insert
+    private final Object[] keyLocks = new Object[64];
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+
+    private volatile boolean running;
+    private ExecutorService workerPool;
+
+    public NotificationQueueService(NotificationService notificationService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${notifications.queue.workers:2}") int workers,
+                                    @Value("${notifications.queue.capacity:10000}") int capacity,
+                                    @Value("${notifications.queue.drain-timeout.ms:10000}") long drainTimeoutMs) {
+        this.notificationService = notificationService;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workers = workers;
+        this.capacity = capacity;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::work);
+        }
+    }
+
+    // stop taking new jobs, let the workers empty the queue
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workerPool == null) {
+            return;
+        }
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(drainTimeoutMs, TimeUnit.MILLISECONDS)) {
+                System.err.println("Notification queue not drained in time, dropping " + queue.size() + " jobs");
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== WHAT THE SERVICES CALL ==========
+
+    public void notifyStudyGroupNewMessage(Collection<Long> userIds, StudyGroup group, User sender) {
+        submit(userIds, NotificationService.studyGroupNewMessage(group, sender));
+    }
+
+    public void notifyStudyGroupDisbanded(Collection<Long> userIds, StudyGroup group) {
+        submit(userIds, NotificationService.studyGroupDisbanded(group));
+    }
+
+    public void notifyPrivateMessageReceived(User receiver, User sender) {
+        submit(List.of(receiver.getId()), NotificationService.privateMessageReceived(sender));
+    }
+
+    public void notifyAssignmentCreated(Collection<Long> studentIds, Course course, Assignment assignment) {
+        submit(studentIds, NotificationService.assignmentCreated(course, assignment));
+    }
+
+    public void notifyAssignmentUpdated(Collection<Long> studentIds, Course course, Assignment assignment) {
+        submit(studentIds, NotificationService.assignmentUpdated(course, assignment));
+    }
+
+    public void notifyAssignmentDeadlineApproaching(Collection<Long> studentIds, Course course, Assignment assignment,
+                                                    int daysRemaining) {
+        submit(studentIds, NotificationService.assignmentDeadlineApproaching(course, assignment, daysRemaining));
+    }
+
+    // queue a notification for these users once the current transaction commits
+    public void submit(Collection<Long> recipientIds, NotificationService.Template template) {
+        if (recipientIds.isEmpty()) {
+            return;
+        }
+        Set<Long> recipients = new LinkedHashSet<>(recipientIds);
+        TransactionHooks.afterCommit(() -> enqueue(recipients, template));
+    }
+
+    void enqueue(Collection<Long> recipientIds, NotificationService.Template template) {
+        submitted.incrementAndGet();
+        String key = template.getCoalesceKey();
+        Job job;
+        synchronized (queuedByKey) {
+            Job waiting = key != null ? queuedByKey.get(key) : null;
+            if (waiting != null) {
+                waiting.add(recipientIds);
+                merged.incrementAndGet();
+                return;
+            }
+
+            job = new Job(template);
+            job.add(recipientIds);
+            if (running && queue.offer(job)) {
+                if (key != null) {
+                    queuedByKey.put(key, job);
+                }
+                return;
+            }
+        }
+        // queue full (or shutting down) - do it on the callers thread instead of dropping it
+        callerRuns.incrementAndGet();
+        process(job);
+    }
+
+    private void work() {
+        while (running || !queue.isEmpty()) {
+            Job job;
+            try {
+                job = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (job == null) {
+                continue;
+            }
+            // from here on nothing gets merged into it anymore
+            String key = job.template.getCoalesceKey();
+            if (key != null) {
+                synchronized (queuedByKey) {
+                    queuedByKey.remove(key, job);
+                }
+            }
+            busyWorkers.incrementAndGet();
+            try {
+                process(job);
+            } finally {
+                busyWorkers.decrementAndGet();
+            }
+        }
+    }
+
+    private void process(Job job) {
+        String key = job.template.getCoalesceKey();
+        Object lock = key != null ? keyLocks[Math.floorMod(key.hashCode(), keyLocks.length)] : new Object();
+        try {
+            synchronized (lock) {
+                Integer count = writeTransaction.execute(status ->
+                    notificationService.notifyAll(job.countsByRecipient, job.template));
+                written.addAndGet(count == null ? 0 : count);
+            }
+            processed.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Could not write notifications (" + job.template.getTitle() + ") for "
+                + job.countsByRecipient.size() + " users: " + e.getMessage());
+        }
+    }
+
+    // queue depth and counters - for the admin system screen
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("workers", workers);
+        stats.put("busyWorkers", busyWorkers.get());
+        stats.put("submitted", submitted.get());
+        stats.put("merged", merged.get());
+        stats.put("processed", processed.get());
+        stats.put("notificationsWritten", written.get());
+        stats.put("callerRuns", callerRuns.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    // one queued notification, with how many times each user got it while it was waiting
+    private static class Job {
+        private final NotificationService.Template template;
+        private final Map<Long, Integer> countsByRecipient = new LinkedHashMap<>();
+
+        Job(NotificationService.Template template) {
+            this.template = template;
+        }
+
+        void add(Collection<Long> recipientIds) {
+            for (Long recipientId : recipientIds) {
+                if (recipientId != null) {
+                    countsByRecipient.merge(recipientId, 1, Integer::sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.sams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * retention for the notifications table - monthly partitions, archiving and dropping old months
+ *
+ * notifications only ever grew: deleteReadNotifications is per user and manual, and the indexes on
+ * user_id / read / created_at kept every row ever sent. now:
+ * - on startup the table is turned into one partitioned by month on created_at (one transaction, rows are
+ *   copied over and ids keep counting from where they were). there is a partition for every month up to
+ *   notifications.partitions.ahead months ahead plus a default one as a safety net, and the indexes are per
+ *   month: (user_id, created_at) and a partial one on the unread rows only
+ * - every night read notifications older than notifications.retention.read-days are written to a gzipped
+ *   ndjson file under {file.upload.directory}/archive/notifications and deleted, and months older than
+ *   notifications.retention.max-days are archived whole (unread ones too) and dropped - no big DELETE
+ *   and nothing for vacuum to clean up afterwards
+ * - inbox queries (paged list, page boundaries, replay) only look at the last notifications.inbox.hot-days
+ *   via hotSince() so postgres only opens the recent partitions. the unread list and the badge still see everything
+ *
+ * an archive file is complete (written as .part, then renamed) before anything in it is deleted, a crash
+ * in between means the same rows end up in two files, never in none
+ *
+ * if the conversion fails (not postgres) or notifications.partitioning.enabled=false the table stays as it is
+ * and old rows are archived and deleted in batches instead of dropping months
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final String COLUMNS = "id, user_id, type, title, message, action_url, related_entity_type, "
+        + "related_entity_id, read, read_at, created_at, email_sent, email_sent_at, coalesced_count";
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_p(\\d{4})_(\\d{2})");
+    private static final String DEFAULT_PARTITION = "notifications_default";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationCounterService counterService;
+    private final ObjectMapper objectMapper;
+    private final Path archiveDirectory;
+    private final boolean partitioningEnabled;
+    private final int monthsAhead;
+    private final int readDays;
+    private final int maxDays;
+    private final int hotDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private volatile boolean partitioned;
+    private volatile LocalDateTime lastRunAt;
+    private volatile String lastError;
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong archiveFiles = new AtomicLong();
+    private final AtomicLong partitionsDropped = new AtomicLong();
+
+    // the counter service is here for the reconcile after dropping unread rows, it also makes sure
+    // hibernate created the table before ensureSchema runs (it needs the notification repository)
+    public NotificationRetentionService(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        NotificationCounterService counterService,
+                                        ObjectMapper objectMapper,
+                                        @Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                                        @Value("${notifications.partitioning.enabled:true}") boolean partitioningEnabled,
+                                        @Value("${notifications.partitions.ahead:3}") int monthsAhead,
+                                        @Value("${notifications.retention.read-days:90}") int readDays,
+                                        @Value("${notifications.retention.max-days:365}") int maxDays,
+                                        @Value("${notifications.inbox.hot-days:90}") int hotDays,
+                                        @Value("${notifications.retention.batch-size:1000}") int batchSize,
+                                        @Value("${notifications.retention.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.counterService = counterService;
+        this.objectMapper = objectMapper;
+        this.archiveDirectory = Paths.get(uploadDirectory, "archive", "notifications");
+        this.partitioningEnabled = partitioningEnabled;
+        this.monthsAhead = monthsAhead;
+        this.readDays = readDays;
+        this.maxDays = maxDays;
+        this.hotDays = hotDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    // lower bound for inbox queries - with it postgres skips every partition older than this
+    public LocalDateTime hotSince() {
+        return LocalDateTime.now().minusDays(hotDays);
+    }
+
+    // ========== SCHEMA ==========
+
+    // convert to a partitioned table if it still is a plain one, then make sure the coming months exist
+    @PostConstruct
+    public void ensureSchema() {
+        if (!partitioningEnabled) {
+            partitioned = false;
+            return;
+        }
+        try {
+            String kind = jdbcTemplate.queryForObject("SELECT c.relkind::text FROM pg_class c "
+                + "JOIN pg_namespace ns ON ns.oid = c.relnamespace "
+                + "WHERE c.relname = 'notifications' AND ns.nspname = current_schema()", String.class);
+            if ("r".equals(kind)) {
+                transactionTemplate.executeWithoutResult(status -> convertToPartitioned());
+                System.out.println("notifications table converted to monthly partitions");
+            }
+            partitioned = true;
+            ensurePartitions();
+        } catch (DataAccessException e) {
+            System.err.println("Notification partitioning not available, old notifications are deleted in batches instead: "
+                + e.getMessage());
+            partitioned = false;
+        }
+    }
+
+    // everything in one transaction - if any step fails the old table is still there untouched
+    private void convertToPartitioned() {
+        jdbcTemplate.execute("LOCK TABLE notifications IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE notifications RENAME TO notifications_unpartitioned");
+        // LIKE copies columns, NOT NULLs and defaults but not the identity (partitioned tables cant have one
+        // before postgres 17) - ids come from a plain sequence default instead, hibernate reads back whatever was generated
+        jdbcTemplate.execute("CREATE TABLE notifications (LIKE notifications_unpartitioned INCLUDING DEFAULTS) "
+            + "PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS notifications_partitioned_id_seq OWNED BY notifications.id");
+        jdbcTemplate.execute("ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_partitioned_id_seq')");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM notifications_unpartitioned", Timestamp.class);
+        YearMonth month = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+        for (; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF notifications DEFAULT");
+
+        jdbcTemplate.execute("INSERT INTO notifications SELECT * FROM notifications_unpartitioned");
+        jdbcTemplate.queryForObject("SELECT setval('notifications_partitioned_id_seq', COALESCE(MAX(id), 0) + 1, false) "
+            + "FROM notifications", Long.class);
+        jdbcTemplate.execute("DROP TABLE notifications_unpartitioned");
+
+        // added after the old table is gone so the names are free. the key has to include the partition column
+        jdbcTemplate.execute("ALTER TABLE notifications ADD CONSTRAINT notifications_pkey PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE notifications ADD CONSTRAINT fk_notifications_user "
+            + "FOREIGN KEY (user_id) REFERENCES users (id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notifications (user_id, created_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notification_unread ON notifications (user_id) WHERE read = false");
+    }
+
+    // this month and the next few - a month that already got rows in the default partition cant be created, its skipped
+    void ensurePartitions() {
+        YearMonth now = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(now.plusMonths(i));
+            } catch (DataAccessException e) {
+                System.err.println("Could not create notification partition for " + now.plusMonths(i) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF notifications "
+            + "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("notifications_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    // month of a partition we created, null for the default one or anything else
+    static YearMonth partitionMonth(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    // ========== RETENTION ==========
+
+    @Scheduled(cron = "${notifications.retention.cron:0 15 4 * * *}")
+    public synchronized void runRetention() {
+        lastRunAt = LocalDateTime.now();
+        try {
+            if (partitioned) {
+                ensurePartitions();
+            }
+            archiveReadNotifications(LocalDateTime.now().minusDays(readDays));
+            LocalDateTime expiredBefore = LocalDateTime.now().minusDays(maxDays);
+            int expired = partitioned ? dropExpiredPartitions(expiredBefore) : archiveExpired("notifications", expiredBefore);
+            if (expired > 0) {
+                // unread ones went too
+                counterService.reconcile();
+            }
+            lastError = null;
+        } catch (DataAccessException | IOException e) {
+            System.err.println("Notification retention run failed: " + e.getMessage());
+            lastError = e.getMessage();
+        }
+    }
+
+    // read notifications older than the cutoff, at most maxBatchesPerRun batches per run - the rest goes next night
+    int archiveReadNotifications(LocalDateTime cutoff) throws IOException {
+        return archive("notifications", "read = true AND created_at < ?", new Object[]{Timestamp.valueOf(cutoff)},
+            "read", maxBatchesPerRun, true);
+    }
+
+    // whole months that ended before the cutoff - archived completely, then dropped
+    int dropExpiredPartitions(LocalDateTime cutoff) throws IOException {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = 'notifications' ORDER BY c.relname", String.class);
+
+        int removed = 0;
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month == null || month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            removed += archive(partition, "TRUE", new Object[0], partition.substring("notifications_".length()),
+                Integer.MAX_VALUE, false);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            partitionsDropped.incrementAndGet();
+            System.out.println("Dropped notification partition " + partition);
+        }
+        // anything that old in the default partition (should be nothing)
+        return removed + archiveExpired(DEFAULT_PARTITION, cutoff);
+    }
+
+    // without partitions (or for the default one) old rows are deleted in batches
+    private int archiveExpired(String table, LocalDateTime cutoff) throws IOException {
+        return archive(table, "created_at < ?", new Object[]{Timestamp.valueOf(cutoff)}, "expired", maxBatchesPerRun, true);
+    }
+
+    /**
+     * writes the matching rows of the table to one gzipped ndjson file, batch by batch from the lowest id,
+     * and with delete set deletes them once the file is complete. the delete repeats the condition so a row
+     * that changed in between (a merged notification bumped to now) stays
+     */
+    private int archive(String table, String condition, Object[] args, String label, int maxBatches,
+                        boolean delete) throws IOException {
+        Files.createDirectories(archiveDirectory);
+        Path file = archiveDirectory.resolve("notifications-" + label + "-" + LocalDateTime.now().format(FILE_TIME) + ".ndjson.gz");
+        Path partial = archiveDirectory.resolve(file.getFileName() + ".part");
+
+        List<Long> ids = new ArrayList<>();
+        int written = 0;
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(partial), 8192),
+                StandardCharsets.UTF_8)) {
+            long afterId = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Object[] params = Arrays.copyOf(args, args.length + 2);
+                params[args.length] = afterId;
+                params[args.length + 1] = batchSize;
+                List<Map<String, Object>> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + table
+                    + " WHERE " + condition + " AND id > ? ORDER BY id LIMIT ?", NotificationRetentionService::row, params);
+
+                for (Map<String, Object> row : rows) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                    afterId = (Long) row.get("id");
+                    if (delete) {
+                        ids.add(afterId);
+                    }
+                }
+                written += rows.size();
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+
+        if (written == 0) {
+            deleteQuietly(partial);
+            return 0;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        archiveFiles.incrementAndGet();
+        archived.addAndGet(written);
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            Object[] params = Arrays.copyOf(args, args.length + 1);
+            params[args.length] = ids.subList(from, Math.min(from + batchSize, ids.size())).toArray(new Long[0]);
+            deleted.addAndGet(jdbcTemplate.update("DELETE FROM " + table + " WHERE " + condition + " AND id = ANY (?)", params));
+        }
+        return written;
+    }
+
+    // one ndjson line, same field names as NotificationResponse
+    private static Map<String, Object> row(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("userId", rs.getLong("user_id"));
+        row.put("type", rs.getString("type"));
+        row.put("title", rs.getString("title"));
+        row.put("message", rs.getString("message"));
+        row.put("actionUrl", rs.getString("action_url"));
+        row.put("relatedEntityType", rs.getString("related_entity_type"));
+        row.put("relatedEntityId", rs.getObject("related_entity_id"));
+        row.put("read", rs.getBoolean("read"));
+        row.put("readAt", time(rs.getTimestamp("read_at")));
+        row.put("createdAt", time(rs.getTimestamp("created_at")));
+        row.put("emailSent", rs.getBoolean("email_sent"));
+        row.put("emailSentAt", time(rs.getTimestamp("email_sent_at")));
+        row.put("count", rs.getObject("coalesced_count"));
+        return row;
+    }
+
+    private static String time(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("partitioned", partitioned);
+        stats.put("readDays", readDays);
+        stats.put("maxDays", maxDays);
+        stats.put("hotDays", hotDays);
+        stats.put("archived", archived.get());
+        stats.put("deleted", deleted.get());
+        stats.put("archiveFiles", archiveFiles.get());
+        stats.put("partitionsDropped", partitionsDropped.get());
+        stats.put("lastRunAt", lastRunAt != null ? lastRunAt.toString() : null);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
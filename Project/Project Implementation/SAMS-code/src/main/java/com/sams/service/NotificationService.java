@@ -3,11 +3,27 @@ package com.sams.service;
 import com.sams.entity.*;
 import com.sams.repository.NotificationPreferenceRepository;
 import com.sams.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * service to manage notifications across teh entire system
@@ -16,6 +32,13 @@ import java.util.List;
  * handles all notification types: enrollments, grades, assignments, messages, connections, payments
  * respects user notification preferences - checks before sending each notification
  *
+ * notifying a whole course / group goes through notifyAll: preferences for all recipients are read with one
+ * query per batch and the rows go in as a JDBC batch insert (notifications.batch-size rows per round trip,
+ * the driver rewrites them into multi-row inserts) instead of one save() per student.
+ * services dont call it directly, they hand it to NotificationQueueService which runs it in the background
+ *
+ * every notification written here is also pushed to the users websocket once committed (NotificationPushService)
+ *
  * TODO: add email notification integration later
  * FIXME: notification preferences aren't working perfectly yet
  */
@@ -24,11 +47,28 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final NotificationPreferenceRepository preferenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final NotificationCounterService counterService;
+    private final NotificationPushService pushService;
+    private final NotificationRetentionService retentionService;
+    private final int batchSize;
 
     public NotificationService(NotificationRepository notificationRepository,
-                              NotificationPreferenceRepository preferenceRepository) {
+                              NotificationPreferenceRepository preferenceRepository,
+                              JdbcTemplate jdbcTemplate,
+                              NotificationCounterService counterService,
+                              NotificationPushService pushService,
+                              NotificationRetentionService retentionService,
+                              @Value("${notifications.batch-size:500}") int batchSize) {
         this.notificationRepository = notificationRepository;
         this.preferenceRepository = preferenceRepository;
+        this.counterService = counterService;
+        this.pushService = pushService;
+        this.retentionService = retentionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchSize = batchSize;
     }
 
     // ========== ENROLLMENT NOTIFICATIONS ==========
@@ -48,7 +88,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when they drop a course
@@ -66,7 +106,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when promoted from waitlist to enrolled
@@ -84,7 +124,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student of their waitlist position
@@ -102,7 +142,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // ========== GRADE NOTIFICATIONS ==========
@@ -122,7 +162,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when a grade is updated
@@ -140,7 +180,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when grades are finalized
@@ -158,7 +198,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Course");
         notification.setRelatedEntityId(course.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // ========== STUDY GROUP NOTIFICATIONS ==========
@@ -178,7 +218,7 @@ public class NotificationService {
         notification.setRelatedEntityType("StudyGroup");
         notification.setRelatedEntityId(group.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify admin when someone requests to join private group
@@ -197,7 +237,7 @@ public class NotificationService {
         notification.setRelatedEntityType("StudyGroup");
         notification.setRelatedEntityId(group.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify user when their join request is approved
@@ -215,7 +255,7 @@ public class NotificationService {
         notification.setRelatedEntityType("StudyGroup");
         notification.setRelatedEntityId(group.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify user when their join request is rejected
@@ -233,7 +273,7 @@ public class NotificationService {
         notification.setRelatedEntityType("StudyGroup");
         notification.setRelatedEntityId(group.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify user when their role changes in a group
@@ -251,7 +291,7 @@ public class NotificationService {
         notification.setRelatedEntityType("StudyGroup");
         notification.setRelatedEntityId(group.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify user when they are removed from a group
@@ -269,101 +309,34 @@ public class NotificationService {
         notification.setRelatedEntityType("StudyGroup");
         notification.setRelatedEntityId(group.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify user when a study group is disbanded
     public void notifyStudyGroupDisbanded(User user, StudyGroup group) {
-        if (!shouldNotify(user.getId(), "STUDY_GROUP")) {
-            return;
-        }
-
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setType("STUDY_GROUP");
-        notification.setTitle("Group Disbanded");
-        notification.setMessage("The study group " + group.getName() + " has been disbanded");
-        notification.setActionUrl("/study-groups");
-        notification.setRelatedEntityType("StudyGroup");
-        notification.setRelatedEntityId(group.getId());
-
-        notificationRepository.save(notification);
+        send(user, studyGroupDisbanded(group));
     }
 
     // notify user when there's a new message in a group
     public void notifyStudyGroupNewMessage(User user, StudyGroup group, User sender) {
-        if (!shouldNotify(user.getId(), "MESSAGE")) {
-            return;
-        }
-
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setType("MESSAGE");
-        notification.setTitle("New Group Message");
-        notification.setMessage(sender.getFirstName() + " " + sender.getLastName() +
-                               " sent a message in " + group.getName());
-        notification.setActionUrl("/study-groups/" + group.getId() + "/chat");
-        notification.setRelatedEntityType("StudyGroup");
-        notification.setRelatedEntityId(group.getId());
-
-        notificationRepository.save(notification);
+        send(user, studyGroupNewMessage(group, sender));
     }
 
     // ========== ASSIGNMENT NOTIFICATIONS ==========
 
     // notify student when a new assignment is created
     public void notifyAssignmentCreated(User student, Course course, Assignment assignment) {
-        if (!shouldNotify(student.getId(), "ASSIGNMENT")) {
-            return;
-        }
-
-        Notification notification = new Notification();
-        notification.setUser(student);
-        notification.setType("ASSIGNMENT");
-        notification.setTitle("New Assignment Posted");
-        notification.setMessage("New assignment for " + course.getCourseCode() + ": " + assignment.getTitle());
-        notification.setActionUrl("/assignments/" + assignment.getId());
-        notification.setRelatedEntityType("Assignment");
-        notification.setRelatedEntityId(assignment.getId());
-
-        notificationRepository.save(notification);
+        send(student, assignmentCreated(course, assignment));
     }
 
     // notify student when an assignment is updated
     public void notifyAssignmentUpdated(User student, Course course, Assignment assignment) {
-        if (!shouldNotify(student.getId(), "ASSIGNMENT")) {
-            return;
-        }
-
-        Notification notification = new Notification();
-        notification.setUser(student);
-        notification.setType("ASSIGNMENT");
-        notification.setTitle("Assignment Updated");
-        notification.setMessage("Assignment updated for " + course.getCourseCode() + ": " + assignment.getTitle());
-        notification.setActionUrl("/assignments/" + assignment.getId());
-        notification.setRelatedEntityType("Assignment");
-        notification.setRelatedEntityId(assignment.getId());
-
-        notificationRepository.save(notification);
+        send(student, assignmentUpdated(course, assignment));
     }
 
     // notify student when assignment deadline is approaching
     public void notifyAssignmentDeadlineApproaching(User student, Course course, Assignment assignment, int daysRemaining) {
-        if (!shouldNotify(student.getId(), "DEADLINE")) {
-            return;
-        }
-
-        Notification notification = new Notification();
-        notification.setUser(student);
-        notification.setType("DEADLINE");
-        notification.setTitle("Assignment Deadline Approaching");
-        notification.setMessage(assignment.getTitle() + " for " + course.getCourseCode() +
-                               " is due in " + daysRemaining + " day(s)");
-        notification.setActionUrl("/assignments/" + assignment.getId());
-        notification.setRelatedEntityType("Assignment");
-        notification.setRelatedEntityId(assignment.getId());
-
-        notificationRepository.save(notification);
+        send(student, assignmentDeadlineApproaching(course, assignment, daysRemaining));
     }
 
     // notify faculty when a student submits an assignment
@@ -382,7 +355,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Assignment");
         notification.setRelatedEntityId(assignment.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when their submission is confirmed
@@ -401,7 +374,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Assignment");
         notification.setRelatedEntityId(assignment.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when their submission is graded
@@ -420,7 +393,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Assignment");
         notification.setRelatedEntityId(assignment.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify student when their graded submission is returned
@@ -439,7 +412,7 @@ public class NotificationService {
         notification.setRelatedEntityType("Assignment");
         notification.setRelatedEntityId(assignment.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // ========== CONNECTION NOTIFICATIONS ==========
@@ -460,7 +433,7 @@ public class NotificationService {
         notification.setRelatedEntityType("User");
         notification.setRelatedEntityId(requester.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // notify user when their connection request is accepted
@@ -479,28 +452,14 @@ public class NotificationService {
         notification.setRelatedEntityType("User");
         notification.setRelatedEntityId(receiver.getId());
 
-        notificationRepository.save(notification);
+        deliver(notification);
     }
 
     // ========== PRIVATE MESSAGE NOTIFICATIONS ==========
 
     // notify user when they recieve a private message
     public void notifyPrivateMessageReceived(User receiver, User sender) {
-        if (!shouldNotify(receiver.getId(), "MESSAGE")) {
-            return;
-        }
-
-        Notification notification = new Notification();
-        notification.setUser(receiver);
-        notification.setType("MESSAGE");
-        notification.setTitle("New Private Message");
-        notification.setMessage(sender.getFirstName() + " " + sender.getLastName() +
-                               " sent you a message");
-        notification.setActionUrl("/messages/" + sender.getId());
-        notification.setRelatedEntityType("User");
-        notification.setRelatedEntityId(sender.getId());
-
-        notificationRepository.save(notification);
+        send(receiver, privateMessageReceived(sender));
     }
 
     // ========== PAYMENT NOTIFICATIONS ==========
@@ -513,6 +472,144 @@ public class NotificationService {
         // In production, inject UserRepository and query for admin users
     }
 
+    // ========== BULK NOTIFICATIONS ==========
+    // usually called from NotificationQueueService workers, not from the request thread
+
+    /**
+     * send one notification to many users, returns how many were written or updated
+     * (users who turned the type off are skipped). per batch: one preference query + one jdbc batch insert
+     */
+    @Transactional
+    public int notifyAll(Collection<Long> recipientIds, Template template) {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        for (Long recipientId : recipientIds) {
+            if (recipientId != null) {
+                counts.put(recipientId, 1);
+            }
+        }
+        return notifyAll(counts, template);
+    }
+
+    /**
+     * same with a count per user - how many of these events got merged together for them.
+     * for a coalescing template the users unread notification for the same thing is bumped in place
+     * ("12 new messages in X") and only users without one get a new row
+     */
+    @Transactional
+    public int notifyAll(Map<Long, Integer> countsByRecipient, Template template) {
+        // nearly always everyone has the same count
+        Map<Integer, List<Long>> recipientsByCount = new LinkedHashMap<>();
+        countsByRecipient.forEach((userId, count) ->
+            recipientsByCount.computeIfAbsent(count, key -> new ArrayList<>()).add(userId));
+        // micros, thats what postgres keeps - inserted() looks the rows up by it
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        List<Map<String, Object>> payloads = new ArrayList<>();
+
+        int written = 0;
+        for (Map.Entry<Integer, List<Long>> group : recipientsByCount.entrySet()) {
+            int count = group.getKey();
+            List<Long> recipients = group.getValue();
+            for (int from = 0; from < recipients.size(); from += batchSize) {
+                List<Long> userIds = new ArrayList<>(recipients.subList(from, Math.min(from + batchSize, recipients.size())));
+
+                if (template.getCoalesceKey() != null) {
+                    List<Map<String, Object>> updated = coalesce(userIds, template, count, now);
+                    for (Map<String, Object> payload : updated) {
+                        userIds.remove((Long) payload.get("userId"));
+                    }
+                    payloads.addAll(updated);
+                    written += updated.size();
+                }
+                userIds.removeAll(optedOut(userIds, template.type));
+                if (userIds.isEmpty()) {
+                    continue;
+                }
+                insert(userIds, template, count, now);
+                written += userIds.size();
+                Map<Long, Long> newUnread = new HashMap<>();
+                userIds.forEach(userId -> newUnread.put(userId, 1L));
+                counterService.created(newUnread);
+                payloads.addAll(inserted(userIds, template, count, now));
+            }
+        }
+        pushService.pushAllAfterCommit(payloads);
+        return written;
+    }
+
+    // bump the unread notification about the same thing, returns push payloads for the users that had one
+    private List<Map<String, Object>> coalesce(List<Long> userIds, Template template, int count, Timestamp now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("userIds", userIds)
+            .addValue("count", count)
+            .addValue("title", template.coalescedTitle)
+            .addValue("suffix", template.coalescedSuffix)
+            .addValue("now", now)
+            .addValue("type", template.type)
+            .addValue("entityType", template.relatedEntityType)
+            .addValue("entityId", template.relatedEntityId);
+        return namedJdbcTemplate.query("UPDATE notifications SET "
+                + "coalesced_count = COALESCE(coalesced_count, 1) + :count, title = :title, "
+                + "message = (COALESCE(coalesced_count, 1) + :count) || :suffix, created_at = :now "
+                + "WHERE user_id IN (:userIds) AND read = false AND type = :type "
+                + "AND related_entity_type = :entityType AND related_entity_id = :entityId "
+                + "RETURNING id, user_id, title, message, created_at, coalesced_count",
+            params, (rs, rowNum) -> NotificationPushService.payload(rs.getLong("id"), rs.getLong("user_id"),
+                template.type, rs.getString("title"), rs.getString("message"), template.actionUrl,
+                template.relatedEntityType, template.relatedEntityId, false,
+                rs.getTimestamp("created_at").toLocalDateTime(), rs.getInt("coalesced_count")));
+    }
+
+    // users in the list who turned this type off - no preferences row = everything enabled, same as shouldNotify
+    private Set<Long> optedOut(List<Long> userIds, String type) {
+        Set<Long> optedOut = new HashSet<>();
+        if (userIds.isEmpty()) {
+            return optedOut;
+        }
+        for (NotificationPreference prefs : preferenceRepository.findByUserIdIn(userIds)) {
+            if (!prefs.isNotificationTypeEnabled(type)) {
+                optedOut.add(prefs.getUser().getId());
+            }
+        }
+        return optedOut;
+    }
+
+    private void insert(List<Long> userIds, Template template, int count, Timestamp now) {
+        boolean merged = count > 1 && template.getCoalesceKey() != null;
+        String title = merged ? template.coalescedTitle : template.title;
+        String message = merged ? count + template.coalescedSuffix : template.message;
+        jdbcTemplate.batchUpdate("INSERT INTO notifications (user_id, type, title, message, action_url, "
+                + "related_entity_type, related_entity_id, read, email_sent, created_at, coalesced_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, false, false, ?, ?)",
+            userIds, userIds.size(), (statement, userId) -> {
+                statement.setLong(1, userId);
+                statement.setString(2, template.type);
+                statement.setString(3, title);
+                statement.setString(4, message);
+                statement.setString(5, template.actionUrl);
+                statement.setString(6, template.relatedEntityType);
+                statement.setObject(7, template.relatedEntityId);
+                statement.setTimestamp(8, now);
+                statement.setInt(9, count);
+            });
+    }
+
+    // the batch insert doesnt hand back ids, read them back (same users, same timestamp, same thing) to push them
+    private List<Map<String, Object>> inserted(List<Long> userIds, Template template, int count, Timestamp now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("userIds", userIds)
+            .addValue("now", now)
+            .addValue("type", template.type)
+            .addValue("entityType", template.relatedEntityType)
+            .addValue("entityId", template.relatedEntityId);
+        return namedJdbcTemplate.query("SELECT id, user_id, title, message FROM notifications "
+                + "WHERE user_id IN (:userIds) AND created_at = :now AND type = :type "
+                + "AND related_entity_type IS NOT DISTINCT FROM CAST(:entityType AS varchar) "
+                + "AND related_entity_id IS NOT DISTINCT FROM CAST(:entityId AS bigint)",
+            params, (rs, rowNum) -> NotificationPushService.payload(rs.getLong("id"), rs.getLong("user_id"),
+                template.type, rs.getString("title"), rs.getString("message"), template.actionUrl,
+                template.relatedEntityType, template.relatedEntityId, false, now.toLocalDateTime(), count));
+    }
+
     // ========== GENERIC NOTIFICATION METHODS ==========
 
     // create a custom notification
@@ -532,14 +629,22 @@ public class NotificationService {
         notification.setRelatedEntityType(entityType);
         notification.setRelatedEntityId(entityId);
 
-        return notificationRepository.save(notification);
+        return deliver(notification);
     }
 
-    // get all notifications for a user (paginated)
+    // get all notifications for a user (paginated) - the recent ones, older read ones get archived anyway
     public Page<Notification> getNotificationsForUser(Long userId, Pageable pageable) {
         // we would normally get user first, but for efficiency we can use userId directly
         // in production, you might want to verify user exists first
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+        return notificationRepository.findByUserIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(userId,
+            retentionService.hotSince(), pageable);
+    }
+
+    // created time of the notification at this offset of the users inbox (newest first), null past the end
+    public LocalDateTime getCreatedAtAt(Long userId, int offset) {
+        List<LocalDateTime> createdAt = notificationRepository.findCreatedAtsByUserId(userId, retentionService.hotSince(),
+            PageRequest.of(offset, 1));
+        return createdAt.isEmpty() ? null : createdAt.get(0);
     }
 
     // get unread notifications for a user
@@ -547,9 +652,9 @@ public class NotificationService {
         return notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(userId);
     }
 
-    // get count of unread notifications
+    // get count of unread notifications - from the in-memory counter, not the database
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndReadFalse(userId);
+        return counterService.getUnreadCount(userId);
     }
 
     // mark notification as read
@@ -558,32 +663,61 @@ public class NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
 
+        if (Boolean.TRUE.equals(notification.getRead())) {
+            return notification;
+        }
         notification.markAsRead();
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        counterService.read(notification.getUser().getId(), 1);
+        return saved;
     }
 
-    // mark all notifications as read for a user
+    // mark some of a users notifications as read in one update, returns how many were unread
     @Transactional
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        for (Notification notification : unreadNotifications) {
-            notification.markAsRead();
-            notificationRepository.save(notification);
+    public int markAsRead(Long userId, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
         }
+        int updated = notificationRepository.markAsRead(userId, notificationIds, LocalDateTime.now());
+        counterService.read(userId, updated);
+        return updated;
+    }
+
+    // mark all notifications as read for a user - one update instead of loading and saving each one
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        counterService.allRead(userId);
+        return updated;
     }
 
     // delete a notification
     @Transactional
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            notificationRepository.delete(notification);
+            if (!Boolean.TRUE.equals(notification.getRead())) {
+                counterService.read(notification.getUser().getId(), 1);
+            }
+        });
+    }
+
+    // delete some of a users notifications in one statement, returns how many were deleted
+    @Transactional
+    public int deleteNotifications(Long userId, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        long unread = notificationRepository.countByUserIdAndIdInAndReadFalse(userId, notificationIds);
+        int deleted = notificationRepository.deleteByUserIdAndIds(userId, notificationIds);
+        counterService.read(userId, (int) unread);
+        return deleted;
     }
 
-    // delete all read notifications for a user
+    // delete all read notifications for a user - unread count doesnt change
     @Transactional
-    public void deleteReadNotifications(Long userId) {
-        User user = new User();
-        user.setId(userId);
-        notificationRepository.deleteByUserAndReadTrue(user);
+    public int deleteReadNotifications(Long userId) {
+        return notificationRepository.deleteReadByUserId(userId);
     }
 
     // ========== PREFERENCE MANAGEMENT ==========
@@ -617,6 +751,72 @@ public class NotificationService {
         return preferenceRepository.save(existing);
     }
 
+    // ========== TEMPLATES ==========
+
+    static Template studyGroupNewMessage(StudyGroup group, User sender) {
+        return new Template("MESSAGE", "New Group Message",
+            sender.getFirstName() + " " + sender.getLastName() + " sent a message in " + group.getName(),
+            "/study-groups/" + group.getId() + "/chat", "StudyGroup", group.getId())
+            .coalescing("New Group Messages", " new messages in " + group.getName());
+    }
+
+    static Template privateMessageReceived(User sender) {
+        String senderName = sender.getFirstName() + " " + sender.getLastName();
+        return new Template("MESSAGE", "New Private Message", senderName + " sent you a message",
+            "/messages/" + sender.getId(), "User", sender.getId())
+            .coalescing("New Private Messages", " new messages from " + senderName);
+    }
+
+    static Template studyGroupDisbanded(StudyGroup group) {
+        return new Template("STUDY_GROUP", "Group Disbanded",
+            "The study group " + group.getName() + " has been disbanded",
+            "/study-groups", "StudyGroup", group.getId());
+    }
+
+    static Template assignmentCreated(Course course, Assignment assignment) {
+        return new Template("ASSIGNMENT", "New Assignment Posted",
+            "New assignment for " + course.getCourseCode() + ": " + assignment.getTitle(),
+            "/assignments/" + assignment.getId(), "Assignment", assignment.getId());
+    }
+
+    static Template assignmentUpdated(Course course, Assignment assignment) {
+        return new Template("ASSIGNMENT", "Assignment Updated",
+            "Assignment updated for " + course.getCourseCode() + ": " + assignment.getTitle(),
+            "/assignments/" + assignment.getId(), "Assignment", assignment.getId());
+    }
+
+    static Template assignmentDeadlineApproaching(Course course, Assignment assignment, int daysRemaining) {
+        return new Template("DEADLINE", "Assignment Deadline Approaching",
+            assignment.getTitle() + " for " + course.getCourseCode() + " is due in " + daysRemaining + " day(s)",
+            "/assignments/" + assignment.getId(), "Assignment", assignment.getId());
+    }
+
+    // single user version of notifyAll
+    private void send(User user, Template template) {
+        if (!shouldNotify(user.getId(), template.type)) {
+            return;
+        }
+
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setType(template.type);
+        notification.setTitle(template.title);
+        notification.setMessage(template.message);
+        notification.setActionUrl(template.actionUrl);
+        notification.setRelatedEntityType(template.relatedEntityType);
+        notification.setRelatedEntityId(template.relatedEntityId);
+
+        deliver(notification);
+    }
+
+    // save a single notification, bump the badge and push it to the user once committed
+    private Notification deliver(Notification notification) {
+        Notification saved = notificationRepository.save(notification);
+        counterService.created(saved.getUser().getId(), 1);
+        pushService.pushAfterCommit(saved);
+        return saved;
+    }
+
     // helper method to check if user should recieve a notification based on their preferences
     private boolean shouldNotify(Long userId, String notificationType) {
         NotificationPreference prefs = preferenceRepository.findByUserId(userId).orElse(null);
@@ -628,4 +828,52 @@ public class NotificationService {
 
         return prefs.isNotificationTypeEnabled(notificationType);
     }
+
+    // what a notification says, without the recipient
+    public static class Template {
+        private final String type;
+        private final String title;
+        private final String message;
+        private final String actionUrl;
+        private final String relatedEntityType;
+        private final Long relatedEntityId;
+        // set for templates that merge into the unread one: "{count}{coalescedSuffix}"
+        private String coalescedTitle;
+        private String coalescedSuffix;
+
+        public Template(String type, String title, String message, String actionUrl,
+                        String relatedEntityType, Long relatedEntityId) {
+            this.type = type;
+            this.title = title;
+            this.message = message;
+            this.actionUrl = actionUrl;
+            this.relatedEntityType = relatedEntityType;
+            this.relatedEntityId = relatedEntityId;
+        }
+
+        // merge repeats into one unread notification per user instead of a row each
+        public Template coalescing(String title, String countSuffix) {
+            Template template = new Template(type, this.title, message, actionUrl, relatedEntityType, relatedEntityId);
+            template.coalescedTitle = title;
+            template.coalescedSuffix = countSuffix;
+            return template;
+        }
+
+        // templates with the same key can be merged, null = never merged
+        public String getCoalesceKey() {
+            return coalescedSuffix == null ? null : type + ":" + relatedEntityType + ":" + relatedEntityId;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.sams.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * background worker that drains the outbox table (see OutboxService)
+ * runs every second, a batch at a time, until there is nothing due
+ *
+ * a batch runs in one transaction for speed. if something in it blows up we fall back
+ * to one transaction per event so one bad event cant hold up the rest
+ */
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+
+    @Value("${outbox.batch.size:100}")
+    private int batchSize;
+
+    @Value("${outbox.retention.days:7}")
+    private int retentionDays;
+
+    public OutboxDispatcher(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch.interval.ms:1000}")
+    public void dispatch() {
+        while (true) {
+            int processed;
+            try {
+                processed = outboxService.dispatchBatch(batchSize);
+            } catch (RuntimeException e) {
+                System.err.println("Outbox batch failed, retrying events one by one: " + e.getMessage());
+                dispatchOneByOne();
+                return;
+            }
+            if (processed < batchSize) {
+                return; // caught up
+            }
+        }
+    }
+
+    private void dispatchOneByOne() {
+        List<Long> ids = outboxService.findDueIds(batchSize);
+        for (Long id : ids) {
+            try {
+                outboxService.dispatchOne(id);
+            } catch (RuntimeException e) {
+                outboxService.recordFailure(id, e.getMessage());
+            }
+        }
+    }
+
+    // processed events are only useful for debugging for a few days
+    @Scheduled(cron = "${outbox.cleanup.cron:0 0 4 * * *}")
+    public void cleanup() {
+        outboxService.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+}
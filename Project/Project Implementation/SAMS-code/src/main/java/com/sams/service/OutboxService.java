@@ -0,0 +1,238 @@
+package com.sams.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sams.entity.OutboxEvent;
+import com.sams.entity.User;
+import com.sams.repository.OutboxEventRepository;
+import com.sams.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * transactional outbox for the side effects of enrollments, payments and grades
+ *
+ * the services call notify()/logXxx() inside thier own transaction - that only inserts
+ * an outbox row, so the request doesnt wait on notification preferences, activity log inserts
+ * or websocket pushes while it holds locks on hot rows (course seats, payments, ...)
+ *
+ * OutboxDispatcher then runs the events in batches. the side effect and marking the event DONE
+ * commit together, so a retry after a crash or a failure never creates the same notification twice.
+ * the websocket push is NotificationService's job, same as for every other notification
+ */
+@Service
+public class OutboxService {
+
+    public static final String NOTIFICATION = "NOTIFICATION";
+    public static final String ACTIVITY_LOG = "ACTIVITY_LOG";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final ActivityLogService activityLogService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${outbox.max.attempts:10}")
+    private int maxAttempts;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         NotificationService notificationService,
+                         ActivityLogService activityLogService,
+                         UserRepository userRepository,
+                         ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.activityLogService = activityLogService;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // ========== WRITING EVENTS (inside the callers transaction) ==========
+
+    // in-app notification, pushed to the user over websocket once its saved (by NotificationService)
+    public void notify(User user, String type, String title, String message,
+                       String actionUrl, String entityType, Long entityId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", user.getId());
+        payload.put("type", type);
+        payload.put("title", title);
+        payload.put("message", message);
+        payload.put("actionUrl", actionUrl);
+        payload.put("entityType", entityType);
+        payload.put("entityId", entityId);
+        save(NOTIFICATION, payload);
+    }
+
+    // activity log entries for the admin activity feed, written by the matching ActivityLogService helper
+    public void logEnrollmentCreated(Long enrollmentId, String studentName, String courseName, User performedBy) {
+        Map<String, Object> payload = activityPayload("ENROLLMENT_CREATED", enrollmentId, performedBy);
+        payload.put("studentName", studentName);
+        payload.put("courseName", courseName);
+        save(ACTIVITY_LOG, payload);
+    }
+
+    public void logGradeAssigned(Long gradeId, String studentName, String courseName, String grade, User performedBy) {
+        Map<String, Object> payload = activityPayload("GRADE_ASSIGNED", gradeId, performedBy);
+        payload.put("studentName", studentName);
+        payload.put("courseName", courseName);
+        payload.put("grade", grade);
+        save(ACTIVITY_LOG, payload);
+    }
+
+    public void logPaymentApproved(Long paymentId, String studentName, String amount, User performedBy) {
+        Map<String, Object> payload = activityPayload("PAYMENT_APPROVED", paymentId, performedBy);
+        payload.put("studentName", studentName);
+        payload.put("amount", amount);
+        save(ACTIVITY_LOG, payload);
+    }
+
+    private static Map<String, Object> activityPayload(String activityType, Long entityId, User performedBy) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("activityType", activityType);
+        payload.put("entityId", entityId);
+        payload.put("performedById", performedBy != null ? performedBy.getId() : null);
+        return payload;
+    }
+
+    private void save(String eventType, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(eventType, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+
+    // ========== RUNNING EVENTS (called by OutboxDispatcher) ==========
+
+    // claim and run the next batch in one transaction - returns how many were run
+    // if any event fails the whole batch rolls back and the dispatcher retries them one by one
+    @Transactional
+    public int dispatchBatch(int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.claimDue(LocalDateTime.now(), batchSize);
+        for (OutboxEvent event : events) {
+            run(event);
+        }
+        return events.size();
+    }
+
+    // ids of the events that are due (for the one by one retry)
+    public List<Long> findDueIds(int limit) {
+        return outboxEventRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    // run a single event in its own transaction
+    // skipped if another dispatcher has it locked or it was already done
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void dispatchOne(Long eventId) {
+        OutboxEvent event = outboxEventRepository.claimById(eventId).orElse(null);
+        if (event == null || !event.isPending()) {
+            return;
+        }
+        run(event);
+    }
+
+    // event failed - try again later with backoff (2s, 4s, 8s ... max 10 min), give up after maxAttempts
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(Long eventId, String error) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            if (attempts >= maxAttempts) {
+                event.setStatus("FAILED");
+            } else {
+                long delaySeconds = Math.min(600, 1L << Math.min(attempts, 10));
+                event.setAvailableAt(LocalDateTime.now().plusSeconds(delaySeconds));
+            }
+            outboxEventRepository.save(event);
+        });
+    }
+
+    // how many events are waiting / stuck - for the admin system screen
+    public Map<String, Long> getOutboxStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxEventRepository.countByStatus("PENDING"));
+        stats.put("failed", outboxEventRepository.countByStatus("FAILED"));
+        return stats;
+    }
+
+    @Transactional
+    public int deleteProcessedBefore(LocalDateTime cutoff) {
+        return outboxEventRepository.deleteProcessedBefore(cutoff);
+    }
+
+    private void run(OutboxEvent event) {
+        Map<String, Object> payload = readPayload(event);
+
+        switch (event.getEventType()) {
+            case NOTIFICATION:
+                // pushed to the user by NotificationService once this commits (null if they turned the type off)
+                notificationService.createNotification(
+                    userRepository.getReferenceById(longValue(payload.get("userId"))),
+                    (String) payload.get("type"),
+                    (String) payload.get("title"),
+                    (String) payload.get("message"),
+                    (String) payload.get("actionUrl"),
+                    (String) payload.get("entityType"),
+                    longValue(payload.get("entityId"))
+                );
+                break;
+            case ACTIVITY_LOG:
+                logActivity(payload);
+                break;
+            default:
+                throw new IllegalStateException("Unknown outbox event type: " + event.getEventType());
+        }
+
+        event.markDone();
+        outboxEventRepository.save(event);
+    }
+
+    // the description text lives in ActivityLog's factories, the payload only carries thier arguments
+    private void logActivity(Map<String, Object> payload) {
+        Long entityId = longValue(payload.get("entityId"));
+        String studentName = (String) payload.get("studentName");
+        Long performedById = longValue(payload.get("performedById"));
+        User performedBy = performedById != null ? userRepository.findById(performedById).orElse(null) : null;
+
+        String activityType = (String) payload.get("activityType");
+        switch (activityType) {
+            case "ENROLLMENT_CREATED":
+                activityLogService.logEnrollmentCreated(entityId, studentName,
+                    (String) payload.get("courseName"), performedBy);
+                break;
+            case "GRADE_ASSIGNED":
+                activityLogService.logGradeAssigned(entityId, studentName,
+                    (String) payload.get("courseName"), (String) payload.get("grade"), performedBy);
+                break;
+            case "PAYMENT_APPROVED":
+                activityLogService.logPaymentApproved(entityId, studentName,
+                    (String) payload.get("amount"), performedBy);
+                break;
+            default:
+                throw new IllegalStateException("Unknown outbox activity type: " + activityType);
+        }
+    }
+
+    private Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Bad outbox payload for event " + event.getId(), e);
+        }
+    }
+
+    // json numbers come back as Integer or Long depending on size
+    private static Long longValue(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+}
@@ -32,19 +32,31 @@ public class PaymentService {
     private final SemesterRepository semesterRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final TimetableIndexService timetableIndexService;
+    private final OutboxService outboxService;
+    private final DashboardCounterService dashboardCounterService;
+    private final FinancialSummaryService financialSummaryService;
 
     public PaymentService(PaymentRepository paymentRepository,
                          PaymentHistoryRepository paymentHistoryRepository,
                          EnrollmentRepository enrollmentRepository,
                          SemesterRepository semesterRepository,
                          UserService userService,
-                         NotificationService notificationService) {
+                         NotificationService notificationService,
+                         TimetableIndexService timetableIndexService,
+                         OutboxService outboxService,
+                         DashboardCounterService dashboardCounterService,
+                         FinancialSummaryService financialSummaryService) {
         this.paymentRepository = paymentRepository;
         this.paymentHistoryRepository = paymentHistoryRepository;
         this.enrollmentRepository = enrollmentRepository;
         this.semesterRepository = semesterRepository;
         this.userService = userService;
         this.notificationService = notificationService;
+        this.timetableIndexService = timetableIndexService;
+        this.outboxService = outboxService;
+        this.dashboardCounterService = dashboardCounterService;
+        this.financialSummaryService = financialSummaryService;
     }
 
     /**
@@ -91,6 +103,7 @@ public class PaymentService {
             BigDecimal previousAmount = payment.getAmount();
             payment.setAmount(totalAmount);
             payment.setUpdatedAt(LocalDateTime.now());
+            financialSummaryService.paymentChanged();
 
             // create history entry
             createPaymentHistory(payment, "UPDATED", student,
@@ -104,6 +117,8 @@ public class PaymentService {
             payment.setDueDate(LocalDateTime.now().plusDays(7));
 
             payment = paymentRepository.save(payment);
+            dashboardCounterService.paymentStatusChanged(null, payment.getStatus());
+            financialSummaryService.paymentChanged();
 
             // create history entry
             createPaymentHistory(payment, "CREATED", student,
@@ -141,6 +156,8 @@ public class PaymentService {
         // update payment
         payment.markAsPaid(paidAmount, paymentMethod, transactionReference);
         payment = paymentRepository.save(payment);
+        dashboardCounterService.paymentStatusChanged(previousStatus, payment.getStatus());
+        financialSummaryService.paymentChanged();
 
         // create history entry
         createPaymentHistory(payment, "PAID", payment.getStudent(),
@@ -193,6 +210,8 @@ public class PaymentService {
         // approve payment
         payment.approve(admin);
         payment = paymentRepository.save(payment);
+        dashboardCounterService.paymentStatusChanged(previousStatus, payment.getStatus());
+        financialSummaryService.paymentChanged();
 
         // activate all enrollments associated with this payment
         List<Enrollment> enrollments = enrollmentRepository.findByPaymentId(payment.getId());
@@ -200,6 +219,7 @@ public class PaymentService {
             if ("PENDING_PAYMENT".equals(enrollment.getStatus())) {
                 enrollment.setStatus("ACTIVE");
                 enrollmentRepository.save(enrollment);
+                timetableIndexService.addCourse(enrollment.getStudent().getId(), enrollment.getCourse());
             }
         }
 
@@ -208,8 +228,8 @@ public class PaymentService {
                 String.format("Payment approved by %s. Status changed from %s to APPROVED. %d enrollments activated.",
                         admin.getUsername(), previousStatus, enrollments.size()));
 
-        // send notification to student
-        notificationService.createNotification(
+        // send notification to student - through the outbox so approving doesnt wait on it
+        outboxService.notify(
                 payment.getStudent(),
                 "PAYMENT",
                 "Payment Approved",
@@ -219,6 +239,8 @@ public class PaymentService {
                 "Payment",
                 payment.getId()
         );
+        outboxService.logPaymentApproved(payment.getId(), payment.getStudent().getUsername(),
+                String.valueOf(payment.getPaidAmount()), admin);
 
         return payment;
     }
@@ -245,6 +267,8 @@ public class PaymentService {
         // reject payment
         payment.reject(admin, reason);
         payment = paymentRepository.save(payment);
+        dashboardCounterService.paymentStatusChanged(previousStatus, payment.getStatus());
+        financialSummaryService.paymentChanged();
 
         // create history entry
         createPaymentHistory(payment, "REJECTED", admin,
@@ -373,5 +397,7 @@ public class PaymentService {
         }
 
         paymentRepository.delete(payment);
+        dashboardCounterService.paymentStatusChanged(payment.getStatus(), null);
+        financialSummaryService.paymentChanged();
     }
 }
@@ -0,0 +1,208 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.EnrollmentRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * in-memory prerequisite graph so enrollment doesnt have to query completed courses
+ * and lazy load Course.prerequisites on every attempt
+ *
+ * every course gets a small stable index, so both the graph and each students
+ * completed courses can be stored as BitSets. the graph keeps the direct prereqs and
+ * the transitive closure of every course, and is rebuilt from one query after
+ * a prerequisite is added or removed
+ *
+ * completed course bitsets are loaded per student on first use and kept up to date
+ * when an enrollment moves to COMPLETED
+ */
+@Service
+public class PrerequisiteIndexService {
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    // course id -> bit index, only ever grows so student bitsets stay valid after a rebuild
+    private final Map<Long, Integer> courseIndex = new ConcurrentHashMap<>();
+    private final Map<Integer, String> courseCodes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    private final Map<Long, BitSet> completedByStudent = new ConcurrentHashMap<>();
+
+    // null means it needs rebuilding
+    private volatile PrerequisiteGraph graph;
+
+    public PrerequisiteIndexService(CourseRepository courseRepository, EnrollmentRepository enrollmentRepository) {
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    // direct prerequisites of the course the student hasnt completed yet (course codes)
+    public List<String> getMissingPrerequisites(Long studentId, Course course) {
+        BitSet missing = (BitSet) currentGraph().directOf(indexOf(course)).clone();
+        missing.andNot(completedFor(studentId));
+        return codesOf(missing);
+    }
+
+    // everything still missing on the way to this course, including prereqs of prereqs
+    // e.g. CS301 needs CS201 which needs CS101 -> [CS101, CS201] for a brand new student
+    public List<String> getMissingPrerequisiteChain(Long studentId, Course course) {
+        BitSet missing = (BitSet) currentGraph().closureOf(indexOf(course)).clone();
+        missing.andNot(completedFor(studentId));
+        return codesOf(missing);
+    }
+
+    // would making prerequisiteId a prereq of courseId create a cycle?
+    // it does if courseId is already (transitively) required by the prerequisite
+    public boolean wouldCreateCycle(Course course, Course prerequisite) {
+        if (course.getId().equals(prerequisite.getId())) {
+            return true;
+        }
+        return currentGraph().closureOf(indexOf(prerequisite)).get(indexOf(course));
+    }
+
+    // prerequisites changed - rebuild the graph after the change is committed
+    // synchronized so a rebuild thats already running cant put a stale graph back afterwards
+    public void invalidateGraph() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                graph = null;
+            }
+        });
+    }
+
+    // enrollment moved to COMPLETED
+    public void markCompleted(Long studentId, Course course) {
+        int index = indexOf(course);
+        TransactionHooks.afterCommit(() -> {
+            BitSet completed = completedByStudent.get(studentId);
+            if (completed != null) {
+                synchronized (completed) {
+                    completed.set(index);
+                }
+            }
+        });
+    }
+
+    // enrollment left COMPLETED (or got deleted) - the student might have completed
+    // the course more than once so just reload thier bitset next time
+    public void evictStudent(Long studentId) {
+        TransactionHooks.afterCommit(() -> completedByStudent.remove(studentId));
+    }
+
+    private BitSet completedFor(Long studentId) {
+        BitSet completed = completedByStudent.computeIfAbsent(studentId, id -> {
+            BitSet bits = new BitSet();
+            for (Object[] row : enrollmentRepository.findCourseIdsAndCodesByStudentIdAndStatus(id, "COMPLETED")) {
+                bits.set(indexOf((Long) row[0], (String) row[1]));
+            }
+            return bits;
+        });
+        synchronized (completed) {
+            return (BitSet) completed.clone();
+        }
+    }
+
+    private PrerequisiteGraph currentGraph() {
+        PrerequisiteGraph current = graph;
+        if (current == null) {
+            synchronized (this) {
+                current = graph;
+                if (current == null) {
+                    current = buildGraph();
+                    graph = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // one query for all edges, then closures computed with a memoized dfs
+    private PrerequisiteGraph buildGraph() {
+        Map<Integer, BitSet> direct = new HashMap<>();
+        for (Object[] row : courseRepository.findAllPrerequisiteEdges()) {
+            int course = indexOf((Long) row[0], (String) row[1]);
+            int prereq = indexOf((Long) row[2], (String) row[3]);
+            direct.computeIfAbsent(course, k -> new BitSet()).set(prereq);
+        }
+
+        Map<Integer, BitSet> closure = new HashMap<>();
+        for (Integer course : direct.keySet()) {
+            closureOf(course, direct, closure, new BitSet());
+        }
+        return new PrerequisiteGraph(direct, closure);
+    }
+
+    private BitSet closureOf(int course, Map<Integer, BitSet> direct, Map<Integer, BitSet> closure, BitSet visiting) {
+        BitSet cached = closure.get(course);
+        if (cached != null) {
+            return cached;
+        }
+
+        BitSet result = new BitSet();
+        BitSet prereqs = direct.get(course);
+        if (prereqs != null) {
+            // visiting guards against bad data already in the table (cycles from before we checked)
+            visiting.set(course);
+            for (int p = prereqs.nextSetBit(0); p >= 0; p = prereqs.nextSetBit(p + 1)) {
+                result.set(p);
+                if (!visiting.get(p)) {
+                    result.or(closureOf(p, direct, closure, visiting));
+                }
+            }
+            visiting.clear(course);
+        }
+        closure.put(course, result);
+        return result;
+    }
+
+    private int indexOf(Course course) {
+        return indexOf(course.getId(), course.getCourseCode());
+    }
+
+    private int indexOf(Long courseId, String courseCode) {
+        int index = courseIndex.computeIfAbsent(courseId, id -> nextIndex.getAndIncrement());
+        if (courseCode != null) {
+            courseCodes.put(index, courseCode);
+        }
+        return index;
+    }
+
+    private List<String> codesOf(BitSet bits) {
+        List<String> codes = new ArrayList<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            codes.add(courseCodes.getOrDefault(i, "?"));
+        }
+        return codes;
+    }
+
+    // immutable snapshot of the graph
+    private static class PrerequisiteGraph {
+        private static final BitSet EMPTY = new BitSet();
+
+        private final Map<Integer, BitSet> direct;
+        private final Map<Integer, BitSet> closure;
+
+        PrerequisiteGraph(Map<Integer, BitSet> direct, Map<Integer, BitSet> closure) {
+            this.direct = direct;
+            this.closure = closure;
+        }
+
+        BitSet directOf(int course) {
+            return direct.getOrDefault(course, EMPTY);
+        }
+
+        BitSet closureOf(int course) {
+            return closure.getOrDefault(course, EMPTY);
+        }
+    }
+}
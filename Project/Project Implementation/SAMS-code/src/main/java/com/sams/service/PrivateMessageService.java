@@ -28,16 +28,19 @@ public class PrivateMessageService {
     private final PrivateMessageRepository messageRepository;
     private final UserRepository userRepository;
     private final ConnectionService connectionService;
-    private final NotificationService notificationService;
+    private final NotificationQueueService notificationQueueService;
+    private final MessageSearchService messageSearchService;
 
     public PrivateMessageService(PrivateMessageRepository messageRepository,
                                 UserRepository userRepository,
                                 ConnectionService connectionService,
-                                NotificationService notificationService) {
+                                NotificationQueueService notificationQueueService,
+                                MessageSearchService messageSearchService) {
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
         this.connectionService = connectionService;
-        this.notificationService = notificationService;
+        this.notificationQueueService = notificationQueueService;
+        this.messageSearchService = messageSearchService;
     }
 
     // ========== MESSAGING OPERATIONS ==========
@@ -81,9 +84,10 @@ public class PrivateMessageService {
         // create and save message
         PrivateMessage message = new PrivateMessage(sender, receiver, content);
         PrivateMessage saved = messageRepository.save(message);
+        messageSearchService.privateMessageSaved(saved);
 
         // notify receiver of new message
-        notificationService.notifyPrivateMessageReceived(receiver, sender);
+        notificationQueueService.notifyPrivateMessageReceived(receiver, sender);
 
         return saved;
     }
@@ -138,6 +142,7 @@ public class PrivateMessageService {
 
         message.delete(deletedBy);
         messageRepository.save(message);
+        messageSearchService.privateMessageDeleted(message);
     }
 
     // ========== QUERY OPERATIONS ==========
@@ -216,10 +221,10 @@ public class PrivateMessageService {
     }
 
     /**
-     * Search messages in a conversation
+     * Search messages in a conversation - full text, best matches first with a highlighted snippet
      */
-    public List<PrivateMessage> searchConversation(Long user1Id, Long user2Id, String searchTerm) {
-        return messageRepository.searchConversation(user1Id, user2Id, searchTerm);
+    public List<MessageSearchService.Hit<PrivateMessage>> searchConversation(Long user1Id, Long user2Id, String searchTerm) {
+        return messageSearchService.searchConversation(user1Id, user2Id, searchTerm);
     }
 
     /**
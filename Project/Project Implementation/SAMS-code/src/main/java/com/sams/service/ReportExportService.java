@@ -0,0 +1,209 @@
+package com.sams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sams.repository.*;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * streaming exports for the /api/reports endpoints (CSV or NDJSON, optionally gzipped)
+ *
+ * the old reports loaded every entity with findAll() and built one big list of maps - a full
+ * academic year of attendance ran the server out of memory. here each report is a plain column
+ * query read forward only (postgres fetch size 500, read only, no entities in the persistence context)
+ * and every row is written to the response as soon as its read, so memory stays the same for 100 rows or 10 million
+ *
+ * the query stream has to stay inside a transaction while its read, so export() opens its own
+ * read only transaction - it runs on the async thread of the StreamingResponseBody, not the request thread
+ */
+@Service
+public class ReportExportService {
+
+    public static final Set<String> REPORTS = Set.of("enrollments", "fees", "attendance", "grades", "users", "courses");
+    public static final Set<String> FORMATS = Set.of("csv", "ndjson");
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final GradeRepository gradeRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportExportService(EnrollmentRepository enrollmentRepository,
+                               PaymentRepository paymentRepository,
+                               AttendanceRepository attendanceRepository,
+                               GradeRepository gradeRepository,
+                               UserRepository userRepository,
+                               CourseRepository courseRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.paymentRepository = paymentRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.gradeRepository = gradeRepository;
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // throws IllegalArgumentException (-> 400) before anything is streamed
+    public void validate(String report, String format, LocalDate from, LocalDate to) {
+        if (!REPORTS.contains(report)) {
+            throw new IllegalArgumentException("Unknown report: " + report + " (use one of " + REPORTS + ")");
+        }
+        if (!FORMATS.contains(format)) {
+            throw new IllegalArgumentException("Unknown export format: " + format + " (use csv or ndjson)");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+    }
+
+    /**
+     * write a report to the output stream
+     * from/to are inclusive dates (either can be null), semesterId is ignored for the users report, role only applies to it
+     */
+    public void export(String report, String format, boolean gzip, LocalDate from, LocalDate to,
+                       Long semesterId, String role, OutputStream out) throws IOException {
+        export(report, format, gzip, from, to, semesterId, role, out, new AtomicLong());
+    }
+
+    // same, counting rows into rowsWritten as it goes (progress for report jobs)
+    public void export(String report, String format, boolean gzip, LocalDate from, LocalDate to,
+                       Long semesterId, String role, OutputStream out, AtomicLong rowsWritten) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 16384);
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = query(report, from, to, semesterId, role)) {
+                    writeRows(writer, format, columns(report), rows.iterator(), rowsWritten);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // usually the client went away half way through
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+    }
+
+    // column names, same keys the json reports use - order matches the streamForExport queries
+    private List<String> columns(String report) {
+        switch (report) {
+            case "enrollments":
+                return List.of("id", "studentName", "courseName", "status", "enrollmentDate");
+            case "fees":
+                return List.of("id", "studentName", "amount", "status", "dueDate");
+            case "attendance":
+                return List.of("id", "studentName", "courseName", "date", "status");
+            case "grades":
+                return List.of("id", "studentName", "courseName", "gradeValue", "gradePoints");
+            case "users":
+                return List.of("id", "username", "firstName", "lastName", "email", "role", "active");
+            default:
+                return List.of("id", "courseCode", "courseName", "credits", "capacity");
+        }
+    }
+
+    // rows come back with first/last name as two columns, turned into studentName here so the query stays simple
+    private Stream<Object[]> query(String report, LocalDate from, LocalDate to, Long semesterId, String role) {
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null; // to is inclusive
+
+        switch (report) {
+            case "enrollments":
+                return enrollmentRepository.streamForExport(fromTime, toTime, semesterId)
+                    .map(r -> new Object[]{r[0], fullName(r[1], r[2]), r[3], r[4], r[5]});
+            case "fees":
+                return paymentRepository.streamForExport(fromTime, toTime, semesterId)
+                    .map(r -> new Object[]{r[0], fullName(r[1], r[2]), r[3], r[4], r[5]});
+            case "attendance":
+                return attendanceRepository.streamForExport(from, to, semesterId)
+                    .map(r -> new Object[]{r[0], fullName(r[1], r[2]), r[3] != null ? r[3] : "N/A", r[4], r[5]});
+            case "grades":
+                return gradeRepository.streamForExport(fromTime, toTime, semesterId)
+                    .map(r -> new Object[]{r[0], fullName(r[1], r[2]), r[3], r[4], r[5]});
+            case "users":
+                return userRepository.streamForExport(role == null || role.isEmpty() ? null : role, fromTime, toTime);
+            default:
+                return courseRepository.streamForExport(fromTime, toTime, semesterId);
+        }
+    }
+
+    private void writeRows(Writer writer, String format, List<String> columns, Iterator<Object[]> rows,
+                           AtomicLong rowsWritten) throws IOException {
+        boolean csv = "csv".equals(format);
+        if (csv) {
+            writeCsvLine(writer, columns.toArray());
+        }
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (csv) {
+                writeCsvLine(writer, row);
+            } else {
+                Map<String, Object> json = new LinkedHashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    json.put(columns.get(i), row[i]);
+                }
+                writer.write(objectMapper.writeValueAsString(json));
+                writer.write('\n');
+            }
+            rowsWritten.incrementAndGet();
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 - quote anything with a comma, quote or line break in it
+    static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static String fullName(Object firstName, Object lastName) {
+        return firstName + " " + lastName;
+    }
+}
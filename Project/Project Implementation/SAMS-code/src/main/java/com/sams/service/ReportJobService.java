@@ -0,0 +1,289 @@
+package com.sams.service;
+
+import com.sams.dto.ReportJobRequest;
+import com.sams.exception.ReportJobException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * background report jobs - for reports too big to wait for in a request
+ *
+ * a job is submitted with the same options as the streaming export, runs on a small dedicated pool
+ * (report.jobs.workers, at most report.jobs.max-queued waiting) and writes a gzipped file to
+ * {upload dir}/reports/{jobId}.{format}.gz. the client polls the status (rows written so far)
+ * and downloads the file when its COMPLETED
+ *
+ * submitting the exact same spec while a job for it is still queued or running returns that job
+ * instead of starting the same export twice (everyone hitting "export year" at the end of term)
+ *
+ * finished jobs and thier files are deleted after report.jobs.result-ttl.ms
+ * NOTE: job status is in memory (single instance) - files left over from before a restart are cleaned up by age
+ */
+@Service
+public class ReportJobService {
+
+    private final ReportExportService reportExportService;
+    private final int workers;
+    private final int maxQueued;
+    private final long resultTtlMs;
+    private final Path reportDirectory;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // spec -> the queued/running job for it
+    private final Map<String, Job> activeBySpec = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor workerPool;
+
+    public ReportJobService(ReportExportService reportExportService,
+                            @Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                            @Value("${report.jobs.workers:2}") int workers,
+                            @Value("${report.jobs.max-queued:20}") int maxQueued,
+                            @Value("${report.jobs.result-ttl.ms:86400000}") long resultTtlMs) {
+        this.reportExportService = reportExportService;
+        this.reportDirectory = Paths.get(uploadDirectory, "reports");
+        this.workers = workers;
+        this.maxQueued = maxQueued;
+        this.resultTtlMs = resultTtlMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    // start a job (or attach to the one already running for the same spec)
+    public Job submit(ReportJobRequest request, String requestedBy) {
+        String report = request.getReport().toLowerCase();
+        String format = request.getFormat() == null ? "csv" : request.getFormat().toLowerCase();
+        String role = request.getRole() == null || request.getRole().isEmpty() ? null : request.getRole();
+        reportExportService.validate(report, format, request.getFrom(), request.getTo());
+
+        String spec = String.join("|", report, format, String.valueOf(request.getFrom()), String.valueOf(request.getTo()),
+            String.valueOf(request.getSemesterId()), String.valueOf(role));
+
+        synchronized (activeBySpec) {
+            Job existing = activeBySpec.get(spec);
+            if (existing != null) {
+                return existing;
+            }
+
+            // register before handing it to a worker - a quick job can finish (and take itself out
+            // of activeBySpec) before execute even returns
+            Job job = new Job(spec, report, format, request, role, requestedBy);
+            jobs.put(job.id, job);
+            activeBySpec.put(spec, job);
+            try {
+                workerPool.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                activeBySpec.remove(spec, job);
+                throw new ReportJobException("Too many report jobs are waiting, please try again in a few minutes");
+            }
+            return job;
+        }
+    }
+
+    public Job getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown or expired report job: " + jobId);
+        }
+        return job;
+    }
+
+    // newest first
+    public List<Job> getJobs() {
+        List<Job> list = new ArrayList<>(jobs.values());
+        list.sort(Comparator.comparing(Job::getSubmittedAt).reversed());
+        return list;
+    }
+
+    // the finished file - IllegalStateException (409) if the job isnt done
+    public Path getResultFile(String jobId) {
+        Job job = getJob(jobId);
+        if (!"COMPLETED".equals(job.state)) {
+            throw new IllegalStateException("Report job " + jobId + " is " + job.state + ", nothing to download yet");
+        }
+        return job.file;
+    }
+
+    private void run(Job job) {
+        job.state = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        Path file = reportDirectory.resolve(job.id + "." + job.format + ".gz");
+        Path partial = reportDirectory.resolve(job.id + "." + job.format + ".gz.part");
+        try {
+            Files.createDirectories(reportDirectory);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                reportExportService.export(job.report, job.format, true, job.request.getFrom(), job.request.getTo(),
+                    job.request.getSemesterId(), job.role, out, job.rowsWritten);
+            }
+            // only ever expose complete files
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = file;
+            job.sizeBytes = Files.size(file);
+            job.state = "COMPLETED";
+        } catch (Exception e) {
+            System.err.println("Report job " + job.id + " failed: " + e.getMessage());
+            deleteQuietly(partial);
+            job.error = e.getMessage();
+            job.state = "FAILED";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            activeBySpec.remove(job.spec, job);
+        }
+    }
+
+    // drop finished jobs past the ttl, plus any old files nobody knows about anymore (restart)
+    @Scheduled(fixedDelayString = "${report.jobs.cleanup.interval.ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(resultTtlMs * 1_000_000);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt != null && job.finishedAt.isBefore(cutoff)) {
+                if (job.file != null) {
+                    deleteQuietly(job.file);
+                }
+                return true;
+            }
+            return false;
+        });
+
+        if (!Files.isDirectory(reportDirectory)) {
+            return;
+        }
+        long cutoffMillis = System.currentTimeMillis() - resultTtlMs;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(reportDirectory)) {
+            for (Path path : files) {
+                String jobId = path.getFileName().toString().split("\\.")[0];
+                if (!jobs.containsKey(jobId) && Files.getLastModifiedTime(path).toMillis() < cutoffMillis) {
+                    deleteQuietly(path);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clean up report files: " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    // one report job
+    public static class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final String spec;
+        private final String report;
+        private final String format;
+        private final ReportJobRequest request;
+        private final String role;
+        private final String requestedBy;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicLong rowsWritten = new AtomicLong();
+
+        // QUEUED -> RUNNING -> COMPLETED / FAILED
+        private volatile String state = "QUEUED";
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Path file;
+        private volatile long sizeBytes;
+
+        Job(String spec, String report, String format, ReportJobRequest request, String role, String requestedBy) {
+            this.spec = spec;
+            this.report = report;
+            this.format = format;
+            this.request = request;
+            this.role = role;
+            this.requestedBy = requestedBy;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getReport() {
+            return report;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public String getRequestedBy() {
+            return requestedBy;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten.get();
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public LocalDateTime getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public String getFilename() {
+            return report + "-report-" + submittedAt.toLocalDate() + "." + format + ".gz";
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.sams.service;
+
+import com.sams.dto.dashboard.TrendPoint;
+import com.sams.entity.ActivityRollup;
+import com.sams.repository.ActivityRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * maintains the activity_rollups table (enrollments and new users per role, per day and per month)
+ * and builds trend series out of it
+ *
+ * DashboardCounterService calls record() whenever an enrollment or user is created/deleted.
+ * the change is only buffered in memory once the callers transaction commits, and flush() adds the
+ * buffered deltas to the table every few seconds - so the enrollment transaction never holds a lock
+ * on the hot (ENROLLMENTS, today) rows, and a rolled back change never gets counted
+ *
+ * trends are one range read: DAY and WEEK come from the daily rows, MONTH / QUARTER / YEAR
+ * from the monthly rows. buckets are whole periods, so a range starting mid-month with MONTH
+ * granularity includes that whole month
+ *
+ * rebuild() is the backfill - runs on startup if the table is empty and every night after that.
+ * it upserts the recounted totals and deletes whatever it didnt touch, all in one transaction, so
+ * readers never see an empty table. flush and rebuild take the same lock, and the rebuild drops the
+ * buffer first since the recount already has those rows - a change committing while the rebuild runs
+ * can be off by one until the next one
+ *
+ * NOTE: buffered deltas of the last few seconds are lost if the app is killed, the nightly rebuild fixes that
+ */
+@Service
+public class RollupService {
+
+    public static final String ENROLLMENTS = "ENROLLMENTS";
+    public static final Set<String> GRANULARITIES = Set.of("DAY", "WEEK", "MONTH", "QUARTER", "YEAR");
+
+    // dont let someone ask for 50 years of daily bars
+    private static final int MAX_POINTS = 1000;
+
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    private final ActivityRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // committed changes waiting for the next flush
+    private final Map<RollupKey, AtomicLong> pending = new ConcurrentHashMap<>();
+
+    public RollupService(ActivityRollupRepository rollupRepository, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // metric name for new users of a role (USERS_STUDENT, USERS_FACULTY, ...)
+    public static String usersMetric(String role) {
+        return "USERS_" + role;
+    }
+
+    // something happened at `at` - bump the day and the month it falls in, once the caller commits
+    public void record(String metric, LocalDateTime at, long delta) {
+        if (at == null || delta == 0) {
+            return;
+        }
+        LocalDate day = at.toLocalDate();
+        TransactionHooks.afterCommit(() -> {
+            pending.computeIfAbsent(new RollupKey(metric, "DAY", day), k -> new AtomicLong()).addAndGet(delta);
+            pending.computeIfAbsent(new RollupKey(metric, "MONTH", day.withDayOfMonth(1)), k -> new AtomicLong()).addAndGet(delta);
+        });
+    }
+
+    // write the buffered deltas, one upsert per row that changed
+    @Scheduled(fixedDelayString = "${dashboard.rollups.flush.interval.ms:5000}")
+    public synchronized int flush() {
+        Map<RollupKey, Long> deltas = drainPending();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> deltas.forEach((key, delta) ->
+                rollupRepository.addCount(key.metric, key.granularity, key.periodStart, delta)));
+        } catch (RuntimeException e) {
+            // put them back for the next try
+            deltas.forEach((key, delta) -> pending.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta));
+            System.err.println("Failed to flush activity rollups: " + e.getMessage());
+            return 0;
+        }
+        return deltas.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    private Map<RollupKey, Long> drainPending() {
+        Map<RollupKey, Long> deltas = new LinkedHashMap<>();
+        for (RollupKey key : pending.keySet()) {
+            AtomicLong counter = pending.remove(key);
+            long delta = counter == null ? 0 : counter.get();
+            if (delta != 0) {
+                deltas.put(key, delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * counts for a metric between two dates (inclusive), one point per period - empty periods come back as 0
+     * granularity: DAY, WEEK (starting monday), MONTH, QUARTER or YEAR
+     */
+    @Transactional(readOnly = true)
+    public List<TrendPoint> getSeries(String metric, String granularity, LocalDate from, LocalDate to) {
+        String unit = granularity == null ? "MONTH" : granularity.toUpperCase();
+        if (!GRANULARITIES.contains(unit)) {
+            throw new IllegalArgumentException("Unknown granularity: " + granularity + " (use one of " + GRANULARITIES + ")");
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+
+        // empty bucket for every period in the range, in order
+        Map<LocalDate, Long> buckets = new LinkedHashMap<>();
+        for (LocalDate start = bucketStart(from, unit); !start.isAfter(to); start = nextBucket(start, unit)) {
+            if (buckets.size() >= MAX_POINTS) {
+                throw new IllegalArgumentException("Date range too large for " + unit + " granularity (max " + MAX_POINTS + " points)");
+            }
+            buckets.put(start, 0L);
+        }
+
+        // one indexed read of the stored rows, then fold them into the buckets
+        boolean daily = "DAY".equals(unit) || "WEEK".equals(unit);
+        LocalDate readFrom = bucketStart(from, unit);
+        LocalDate readTo = daily ? to : to.withDayOfMonth(1);
+        for (ActivityRollup row : rollupRepository.findRange(metric, daily ? "DAY" : "MONTH", readFrom, readTo)) {
+            buckets.merge(bucketStart(row.getPeriodStart(), unit), row.getTotal(), Long::sum);
+        }
+
+        List<TrendPoint> series = new ArrayList<>();
+        buckets.forEach((start, count) -> series.add(new TrendPoint(label(start, unit), start, count)));
+        return series;
+    }
+
+    // recompute every rollup from the enrollments and users tables
+    @Scheduled(cron = "${dashboard.rollups.rebuild.cron:0 45 3 * * *}")
+    public synchronized int rebuild() {
+        // already committed, so the recount below includes them
+        drainPending();
+        Integer rows = transactionTemplate.execute(status -> {
+            int upserted = 0;
+            for (String granularity : List.of("DAY", "MONTH")) {
+                upserted += rollupRepository.upsertEnrollmentRollups(granularity);
+                upserted += rollupRepository.upsertUserRollups(granularity);
+            }
+            rollupRepository.deleteStaleRollups();
+            return upserted;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    // backfill history the first time the app starts with the rollup table
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            int rows = rebuild();
+            System.out.println("Backfilled " + rows + " activity rollup rows");
+        }
+    }
+
+    private static LocalDate bucketStart(LocalDate date, String unit) {
+        switch (unit) {
+            case "DAY":
+                return date;
+            case "WEEK":
+                return date.with(DayOfWeek.MONDAY);
+            case "MONTH":
+                return date.withDayOfMonth(1);
+            case "QUARTER":
+                return date.withDayOfMonth(1).withMonth(((date.getMonthValue() - 1) / 3) * 3 + 1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+
+    private static LocalDate nextBucket(LocalDate start, String unit) {
+        switch (unit) {
+            case "DAY":
+                return start.plusDays(1);
+            case "WEEK":
+                return start.plusWeeks(1);
+            case "MONTH":
+                return start.plusMonths(1);
+            case "QUARTER":
+                return start.plusMonths(3);
+            default:
+                return start.plusYears(1);
+        }
+    }
+
+    private static String label(LocalDate start, String unit) {
+        switch (unit) {
+            case "DAY":
+            case "WEEK":
+                return start.toString();
+            case "MONTH":
+                return start.format(MONTH_LABEL);
+            case "QUARTER":
+                return "Q" + ((start.getMonthValue() - 1) / 3 + 1) + " " + start.getYear();
+            default:
+                return String.valueOf(start.getYear());
+        }
+    }
+
+    // one row of the rollup table
+    private static final class RollupKey {
+        private final String metric;
+        private final String granularity;
+        private final LocalDate periodStart;
+
+        RollupKey(String metric, String granularity, LocalDate periodStart) {
+            this.metric = metric;
+            this.granularity = granularity;
+            this.periodStart = periodStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey other = (RollupKey) o;
+            return metric.equals(other.metric) && granularity.equals(other.granularity)
+                && periodStart.equals(other.periodStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(metric, granularity, periodStart);
+        }
+    }
+}
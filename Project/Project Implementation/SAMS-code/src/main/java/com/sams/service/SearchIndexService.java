@@ -0,0 +1,649 @@
+package com.sams.service;
+
+import com.sams.entity.Assignment;
+import com.sams.entity.Course;
+import com.sams.entity.StudyGroup;
+import com.sams.entity.TeacherProfile;
+import com.sams.entity.User;
+import com.sams.repository.AssignmentRepository;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.StudyGroupRepository;
+import com.sams.repository.TeacherProfileRepository;
+import com.sams.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * in-memory inverted index behind GET /api/search
+ * covers users, courses, teacher profiles, (public) study groups and assignments - only active ones
+ *
+ * the old search loaded every user on every keystroke and ran contains() over them. here every
+ * indexed word is split into trigrams ("smith" -> smi, mit, ith) plus its first one and two letters,
+ * and each of those keys points to a sorted list of documents. a query word of 3+ letters matches
+ * anywhere inside a word (same as the old contains), 1-2 letters only match the start of a word.
+ * the candidate lists are intersected (smallest first), then the few candidates left are scored:
+ * exact word > word prefix > inside a word, times a weight per field (username/name/course code count
+ * more than email or description). only the top `limit` per type are kept
+ *
+ * text is normalized first - lowercase, accents stripped (jose == José), punctuation splits words
+ *
+ * built from a handful of column queries at startup, then kept up to date by the services that own
+ * the records (UserService, AdminUserManagementController, CourseService, TeacherService, StudyGroupService,
+ * AssignmentService call entitySaved/entityRemoved, applied after commit). a full rebuild runs every search.index.rebuild.interval.ms
+ * as a safety net for bulk/native updates that dont go through hibernate
+ */
+@Service
+public class SearchIndexService {
+
+    public static final String USER = "user";
+    public static final String COURSE = "course";
+    public static final String TEACHER = "teacher";
+    public static final String STUDY_GROUP = "studyGroup";
+    public static final String ASSIGNMENT = "assignment";
+
+    // type -> the key its results go under in the response
+    public static final Map<String, String> GROUPS;
+
+    static {
+        Map<String, String> groups = new LinkedHashMap<>();
+        groups.put(USER, "users");
+        groups.put(COURSE, "courses");
+        groups.put(TEACHER, "teachers");
+        groups.put(STUDY_GROUP, "studyGroups");
+        groups.put(ASSIGNMENT, "assignments");
+        GROUPS = Collections.unmodifiableMap(groups);
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MAX_QUERY_WORDS = 8;
+
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final TeacherProfileRepository teacherProfileRepository;
+    private final StudyGroupRepository studyGroupRepository;
+    private final AssignmentRepository assignmentRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock
+    private Index index = new Index();
+    // changes that came in while a rebuild was loading, replayed onto the new index (null = no rebuild running)
+    private List<Consumer<Index>> pendingChanges;
+    // bumped on every change, SuggestService uses it to know when to rebuild
+    private final AtomicLong version = new AtomicLong();
+
+    public SearchIndexService(UserRepository userRepository,
+                              CourseRepository courseRepository,
+                              TeacherProfileRepository teacherProfileRepository,
+                              StudyGroupRepository studyGroupRepository,
+                              AssignmentRepository assignmentRepository) {
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.teacherProfileRepository = teacherProfileRepository;
+        this.studyGroupRepository = studyGroupRepository;
+        this.assignmentRepository = assignmentRepository;
+    }
+
+    /**
+     * top `limit` results per type, best first
+     * types: which types to search (null/empty = all), returns group name (users, courses, ...) -> results
+     */
+    public Map<String, List<Map<String, Object>>> search(String query, Set<String> types, int limit) {
+        Map<String, List<Map<String, Object>>> results = new LinkedHashMap<>();
+        Set<String> searchTypes = types == null || types.isEmpty() ? GROUPS.keySet() : types;
+        for (String type : GROUPS.keySet()) {
+            if (searchTypes.contains(type)) {
+                results.put(GROUPS.get(type), new ArrayList<>());
+            }
+        }
+
+        String[] words = words(normalize(query));
+        if (words.length == 0 || limit <= 0) {
+            return results;
+        }
+        if (words.length > MAX_QUERY_WORDS) {
+            words = Arrays.copyOf(words, MAX_QUERY_WORDS);
+        }
+        String phrase = String.join(" ", words);
+
+        Map<String, PriorityQueue<Hit>> best = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int[] candidates = index.candidates(words);
+            for (int number : candidates) {
+                Doc doc = index.docs.get(number);
+                if (doc == null || !searchTypes.contains(doc.type)) {
+                    continue;
+                }
+                int score = doc.score(words, phrase);
+                if (score == 0) {
+                    continue; // the trigrams were spread over different words
+                }
+                PriorityQueue<Hit> top = best.computeIfAbsent(doc.type, t -> new PriorityQueue<>(Hit.WORST_FIRST));
+                top.add(new Hit(score, doc));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (Map.Entry<String, PriorityQueue<Hit>> entry : best.entrySet()) {
+            List<Hit> hits = new ArrayList<>(entry.getValue());
+            hits.sort(Hit.WORST_FIRST.reversed());
+            List<Map<String, Object>> list = results.get(GROUPS.get(entry.getKey()));
+            for (Hit hit : hits) {
+                list.add(hit.doc.result);
+            }
+        }
+        return results;
+    }
+
+    // number of indexed documents per type
+    public Map<String, Integer> getStats() {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        GROUPS.keySet().forEach(type -> stats.put(type, 0));
+        lock.readLock().lock();
+        try {
+            for (Integer number : index.numberByKey.values()) {
+                stats.merge(index.docs.get(number).type, 1, Integer::sum);
+            }
+            stats.put("keys", index.postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    // the result maps of every indexed document of one type
+    public List<Map<String, Object>> getDocuments(String type) {
+        List<Map<String, Object>> documents = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Integer number : index.numberByKey.values()) {
+                Doc doc = index.docs.get(number);
+                if (doc.type.equals(type)) {
+                    documents.add(doc.result);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return documents;
+    }
+
+    // called by the owning service after insert/update - inactive/private records are taken out of the index
+    public void entitySaved(Object entity) {
+        if (entity instanceof User user) {
+            if (Boolean.FALSE.equals(user.getActive())) {
+                afterCommit(index -> index.removeUser(user.getId()));
+            } else {
+                Doc doc = userDoc(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                    user.getLastName(), user.getRole());
+                afterCommit(index -> index.putUser(doc));
+            }
+        } else if (entity instanceof Course course) {
+            if (Boolean.FALSE.equals(course.getActive())) {
+                afterCommit(index -> index.remove(key(COURSE, course.getId())));
+            } else {
+                Doc doc = courseDoc(course.getId(), course.getCourseCode(), course.getCourseName(), course.getCredits());
+                afterCommit(index -> index.put(doc));
+            }
+        } else if (entity instanceof TeacherProfile profile) {
+            if (Boolean.FALSE.equals(profile.getActive()) || profile.getUser() == null) {
+                afterCommit(index -> index.removeTeacher(profile.getId()));
+            } else {
+                // getId() on the lazy user doesnt load it, the name comes from the indexed user
+                TeacherFields fields = new TeacherFields(profile.getId(), profile.getUser().getId(),
+                    profile.getDepartment(), profile.getDesignation(), profile.getSpecialization());
+                afterCommit(index -> index.putTeacher(fields));
+            }
+        } else if (entity instanceof StudyGroup group) {
+            if (Boolean.FALSE.equals(group.getActive()) || Boolean.TRUE.equals(group.getIsPrivate())) {
+                afterCommit(index -> index.remove(key(STUDY_GROUP, group.getId())));
+            } else {
+                Doc doc = studyGroupDoc(group.getId(), group.getName(), group.getDescription(),
+                    group.getCourse() != null ? group.getCourse().getId() : null);
+                afterCommit(index -> index.put(doc));
+            }
+        } else if (entity instanceof Assignment assignment) {
+            if (Boolean.FALSE.equals(assignment.getActive())) {
+                afterCommit(index -> index.remove(key(ASSIGNMENT, assignment.getId())));
+            } else {
+                Doc doc = assignmentDoc(assignment.getId(), assignment.getTitle(),
+                    assignment.getCourse() != null ? assignment.getCourse().getId() : null, assignment.getDueDate());
+                afterCommit(index -> index.put(doc));
+            }
+        }
+    }
+
+    // called by the owning service after delete
+    public void entityRemoved(Object entity) {
+        if (entity instanceof User user) {
+            afterCommit(index -> index.removeUser(user.getId()));
+        } else if (entity instanceof Course course) {
+            afterCommit(index -> index.remove(key(COURSE, course.getId())));
+        } else if (entity instanceof TeacherProfile profile) {
+            afterCommit(index -> index.removeTeacher(profile.getId()));
+        } else if (entity instanceof StudyGroup group) {
+            afterCommit(index -> index.remove(key(STUDY_GROUP, group.getId())));
+        } else if (entity instanceof Assignment assignment) {
+            afterCommit(index -> index.remove(key(ASSIGNMENT, assignment.getId())));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    // load everything into a fresh index and swap it in, searches keep using the old one meanwhile
+    @Scheduled(initialDelayString = "${search.index.rebuild.interval.ms:3600000}",
+               fixedDelayString = "${search.index.rebuild.interval.ms:3600000}")
+    public synchronized void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = new Index();
+        try {
+            for (Object[] row : userRepository.findSearchIndexFields()) {
+                fresh.putUser(userDoc((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (String) row[5]));
+            }
+            for (Object[] row : courseRepository.findSearchIndexFields()) {
+                fresh.put(courseDoc((Long) row[0], (String) row[1], (String) row[2], (Integer) row[3]));
+            }
+            // after the users, teachers take thier name from them
+            for (Object[] row : teacherProfileRepository.findSearchIndexFields()) {
+                fresh.putTeacher(new TeacherFields((Long) row[0], (Long) row[1], (String) row[2], (String) row[3],
+                    (String) row[4]));
+            }
+            for (Object[] row : studyGroupRepository.findSearchIndexFields()) {
+                fresh.put(studyGroupDoc((Long) row[0], (String) row[1], (String) row[2], (Long) row[3]));
+            }
+            for (Object[] row : assignmentRepository.findSearchIndexFields()) {
+                fresh.put(assignmentDoc((Long) row[0], (String) row[1], (Long) row[2], row[3]));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println("Search index rebuild failed, keeping the old index: " + e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            index = fresh;
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Search index built: " + fresh.numberByKey.size() + " documents in "
+            + (System.currentTimeMillis() - startedAt) + "ms");
+    }
+
+    private void afterCommit(Consumer<Index> change) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                change.accept(index);
+                version.incrementAndGet();
+                if (pendingChanges != null) {
+                    pendingChanges.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // ---- documents ----
+
+    private static Doc userDoc(Long id, String username, String email, String firstName, String lastName, String role) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("username", username);
+        result.put("email", email);
+        result.put("firstName", firstName);
+        result.put("lastName", lastName);
+        result.put("role", role);
+        result.put("type", USER);
+        return new Doc(key(USER, id), USER, result,
+            new String[]{username, fullName(firstName, lastName), email}, new int[]{3, 3, 2});
+    }
+
+    private static Doc courseDoc(Long id, String code, String name, Integer credits) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("code", code);
+        result.put("name", name);
+        result.put("credits", credits);
+        result.put("type", COURSE);
+        return new Doc(key(COURSE, id), COURSE, result, new String[]{code, name}, new int[]{4, 3});
+    }
+
+    private static Doc teacherDoc(TeacherFields teacher, Doc user) {
+        String name = fullName((String) user.result.get("firstName"), (String) user.result.get("lastName"));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", teacher.profileId);
+        result.put("userId", teacher.userId);
+        result.put("name", name);
+        result.put("department", teacher.department);
+        result.put("designation", teacher.designation);
+        result.put("specialization", teacher.specialization);
+        result.put("type", TEACHER);
+        return new Doc(key(TEACHER, teacher.profileId), TEACHER, result,
+            new String[]{name, teacher.department, teacher.designation, teacher.specialization}, new int[]{3, 2, 1, 1});
+    }
+
+    private static Doc studyGroupDoc(Long id, String name, String description, Long courseId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("name", name);
+        result.put("courseId", courseId);
+        result.put("type", STUDY_GROUP);
+        return new Doc(key(STUDY_GROUP, id), STUDY_GROUP, result, new String[]{name, description}, new int[]{3, 1});
+    }
+
+    private static Doc assignmentDoc(Long id, String title, Long courseId, Object dueDate) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("title", title);
+        result.put("courseId", courseId);
+        result.put("dueDate", dueDate);
+        result.put("type", ASSIGNMENT);
+        return new Doc(key(ASSIGNMENT, id), ASSIGNMENT, result, new String[]{title}, new int[]{3});
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
+    }
+
+    // lowercase, no accents, anything that isnt a letter or digit becomes a single space
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_WORD.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String[] words(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // index keys of a word - "^s", "^sm" for prefix lookups plus every trigram
+    private static void keysOf(String word, Set<String> keys) {
+        keys.add("^" + word.substring(0, 1));
+        if (word.length() >= 2) {
+            keys.add("^" + word.substring(0, 2));
+        }
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            keys.add(word.substring(i, i + 3));
+        }
+    }
+
+    // keys a query word needs - 1-2 letters only match the start of a word
+    private static List<String> queryKeysOf(String word) {
+        if (word.length() < 3) {
+            return List.of("^" + word);
+        }
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            keys.add(word.substring(i, i + 3));
+        }
+        return keys;
+    }
+
+    // ---- index structures ----
+
+    // not thread safe on its own, everything goes through the service lock
+    private static class Index {
+        // doc numbers only ever grow so postings stay sorted by just appending,
+        // an updated doc gets a new number and its old slot becomes null (compacted by the next rebuild)
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<String, Integer> numberByKey = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        // teacher profile fields by user id, so a name change on the user reaches the teacher too
+        private final Map<Long, TeacherFields> teachersByUser = new HashMap<>();
+
+        void put(Doc doc) {
+            remove(doc.key);
+            int number = docs.size();
+            docs.add(doc);
+            numberByKey.put(doc.key, number);
+            for (String key : doc.keys) {
+                postings.computeIfAbsent(key, k -> new Postings()).add(number);
+            }
+        }
+
+        void remove(String key) {
+            Integer number = numberByKey.remove(key);
+            if (number == null) {
+                return;
+            }
+            Doc doc = docs.set(number, null);
+            for (String indexKey : doc.keys) {
+                Postings list = postings.get(indexKey);
+                list.remove(number);
+                if (list.size == 0) {
+                    postings.remove(indexKey);
+                }
+            }
+        }
+
+        void putUser(Doc doc) {
+            put(doc);
+            TeacherFields teacher = teachersByUser.get((Long) doc.result.get("id"));
+            if (teacher != null) {
+                put(teacherDoc(teacher, doc));
+            }
+        }
+
+        void removeUser(Long userId) {
+            remove(key(USER, userId));
+            TeacherFields teacher = teachersByUser.get(userId);
+            if (teacher != null) {
+                remove(key(TEACHER, teacher.profileId));
+            }
+        }
+
+        void putTeacher(TeacherFields teacher) {
+            teachersByUser.put(teacher.userId, teacher);
+            Integer userNumber = numberByKey.get(key(USER, teacher.userId));
+            if (userNumber != null) {
+                put(teacherDoc(teacher, docs.get(userNumber)));
+            } else {
+                remove(key(TEACHER, teacher.profileId)); // inactive user
+            }
+        }
+
+        void removeTeacher(Long profileId) {
+            teachersByUser.values().removeIf(teacher -> teacher.profileId.equals(profileId));
+            remove(key(TEACHER, profileId));
+        }
+
+        // docs that have every key of every query word - smallest list first so the rest is cheap
+        int[] candidates(String[] words) {
+            List<Postings> lists = new ArrayList<>();
+            for (String word : words) {
+                for (String key : queryKeysOf(word)) {
+                    Postings list = postings.get(key);
+                    if (list == null) {
+                        return new int[0];
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] result = Arrays.copyOf(lists.get(0).numbers, lists.get(0).size);
+            int count = result.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                Postings other = lists.get(i);
+                int kept = 0;
+                for (int j = 0; j < count; j++) {
+                    if (Arrays.binarySearch(other.numbers, 0, other.size, result[j]) >= 0) {
+                        result[kept++] = result[j];
+                    }
+                }
+                count = kept;
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+
+    // sorted growable int list of doc numbers
+    private static class Postings {
+        private int[] numbers = new int[4];
+        private int size;
+
+        void add(int number) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = number;
+        }
+
+        void remove(int number) {
+            int at = Arrays.binarySearch(numbers, 0, size, number);
+            if (at >= 0) {
+                System.arraycopy(numbers, at + 1, numbers, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+
+    // one searchable record - fields are stored normalized and split into words for scoring
+    private static class Doc {
+        private final String key;
+        private final String type;
+        private final Map<String, Object> result;
+        private final String[] fields;
+        private final String[][] fieldWords;
+        private final int[] weights;
+        private final Set<String> keys = new LinkedHashSet<>();
+
+        Doc(String key, String type, Map<String, Object> result, String[] rawFields, int[] weights) {
+            this.key = key;
+            this.type = type;
+            this.result = Collections.unmodifiableMap(result);
+            this.weights = weights;
+            this.fields = new String[rawFields.length];
+            this.fieldWords = new String[rawFields.length][];
+            for (int i = 0; i < rawFields.length; i++) {
+                fields[i] = normalize(rawFields[i]);
+                fieldWords[i] = words(fields[i]);
+                for (String word : fieldWords[i]) {
+                    keysOf(word, keys);
+                }
+            }
+        }
+
+        // 0 when a query word doesnt actually match any word of the doc
+        int score(String[] queryWords, String phrase) {
+            int total = 0;
+            for (String queryWord : queryWords) {
+                int best = 0;
+                for (int f = 0; f < fields.length; f++) {
+                    for (String word : fieldWords[f]) {
+                        int score;
+                        if (word.equals(queryWord)) {
+                            score = 10;
+                        } else if (word.startsWith(queryWord)) {
+                            score = 6;
+                        } else if (queryWord.length() >= 3 && word.contains(queryWord)) {
+                            score = 3;
+                        } else {
+                            continue;
+                        }
+                        best = Math.max(best, score * weights[f]);
+                    }
+                }
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            // "john sm" should put John Smith above Smith Johnson
+            for (int f = 0; f < fields.length; f++) {
+                if (fields[f].startsWith(phrase)) {
+                    total += 5 * weights[f];
+                    break;
+                }
+            }
+            return total;
+        }
+    }
+
+    private static class Hit {
+        // lowest score first, ties go to the longer/later record so the top of the list is stable
+        static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingInt(hit -> hit.score)
+            .thenComparing(hit -> -hit.doc.fields[0].length())
+            .thenComparing(hit -> hit.doc.key, Comparator.reverseOrder());
+
+        private final int score;
+        private final Doc doc;
+
+        Hit(int score, Doc doc) {
+            this.score = score;
+            this.doc = doc;
+        }
+    }
+
+    private static class TeacherFields {
+        private final Long profileId;
+        private final Long userId;
+        private final String department;
+        private final String designation;
+        private final String specialization;
+
+        TeacherFields(Long profileId, Long userId, String department, String designation, String specialization) {
+            this.profileId = profileId;
+            this.userId = userId;
+            this.department = department;
+            this.designation = designation;
+            this.specialization = specialization;
+        }
+    }
+}
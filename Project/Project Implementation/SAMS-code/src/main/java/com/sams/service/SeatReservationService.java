@@ -0,0 +1,212 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.EnrollmentRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * keeps an in-memory seat counter per course so enrollment doesnt need a count query
+ * every time someone hits POST /api/enrollments during the registration rush
+ *
+ * a seat is held by ACTIVE and PENDING_PAYMENT enrollments - pending students already
+ * got a seat, they just havent paid yet. counting only ACTIVE let the course oversell
+ *
+ * counters are seeded lazily from the enrollments table and reconciled against it on a timer.
+ * reservations made inside a transaction are given back if it rolls back, and releases only
+ * happen after commit, so the counter can be a bit high for a moment but never too low
+ *
+ * NOTE: this only works with a single app instance (same as the simple STOMP broker)
+ */
+@Service
+public class SeatReservationService {
+
+    // statuses that occupy a seat in the course
+    public static final List<String> SEAT_HOLDING_STATUSES = List.of("ACTIVE", "PENDING_PAYMENT");
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final Map<Long, CourseSeats> seatsByCourse = new ConcurrentHashMap<>();
+
+    // last waitlist ticket handed out per course
+    private final Map<Long, AtomicInteger> waitlistTickets = new ConcurrentHashMap<>();
+
+    // reservations take the read lock (shared), reconciliation takes the write lock
+    // so a reconcile never overwrites a counter halfway through a reservation
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    public SeatReservationService(EnrollmentRepository enrollmentRepository) {
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    public static boolean holdsSeat(String status) {
+        return SEAT_HOLDING_STATUSES.contains(status);
+    }
+
+    // try to take a seat in the course - returns false if the course is full
+    // capacity is read from the course every time so capacity changes apply right away
+    public boolean tryReserve(Course course) {
+        int capacity = course.getCapacity();
+
+        reconcileLock.readLock().lock();
+        try {
+            CourseSeats seats = seatsFor(course.getId());
+            while (true) {
+                int held = seats.held.get();
+                if (held >= capacity) {
+                    return false;
+                }
+                if (seats.held.compareAndSet(held, held + 1)) {
+                    seats.inFlight.incrementAndGet();
+                    break;
+                }
+            }
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+
+        onTransactionEnd(course.getId());
+        return true;
+    }
+
+    // give a seat back - deferred until after commit when called inside a transaction
+    // so a rolled back drop doesnt free a seat that is still taken in the database
+    public void release(Course course) {
+        Long courseId = course.getId();
+        TransactionHooks.afterCommit(() -> releaseNow(courseId));
+    }
+
+    // next waitlist ticket for a course - tickets only go up so nobody needs renumbering
+    // when someone leaves the waitlist. gaps from rolled back enrollments dont matter
+    public int nextWaitlistTicket(Course course) {
+        return waitlistTickets
+            .computeIfAbsent(course.getId(), id -> new AtomicInteger(enrollmentRepository.findMaxWaitlistPosition(id)))
+            .incrementAndGet();
+    }
+
+    // how many seats are held right now (for admin screens / debugging)
+    public int getHeldSeats(Course course) {
+        return seatsFor(course.getId()).held.get();
+    }
+
+    public int getAvailableSeats(Course course) {
+        return Math.max(0, course.getCapacity() - getHeldSeats(course));
+    }
+
+    // seed the counters for a bunch of courses with one grouped query
+    // called when registration opens so the first wave of requests doesnt each run a count
+    public void warmUp(Collection<Course> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> committed = new HashMap<>();
+        for (Object[] row : enrollmentRepository.countByStatusInGroupByCourse(SEAT_HOLDING_STATUSES)) {
+            committed.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        for (Course course : courses) {
+            seatsByCourse.putIfAbsent(course.getId(), new CourseSeats(committed.getOrDefault(course.getId(), 0)));
+        }
+    }
+
+    // drop the cached counter for a course - next reservation reseeds it from the db
+    public void evict(Long courseId) {
+        seatsByCourse.remove(courseId);
+    }
+
+    // reset every tracked counter to what the enrollments table says
+    // in flight reservations are added back on top since they arent committed yet
+    //
+    // a reservation that finishes while the count query runs has already left inFlight but may not be in
+    // the count - so the finished counter is read before the query and courses where it moved are skipped,
+    // the next pass gets them. the lock alone doesnt help, transactions end without it
+    @Scheduled(fixedDelayString = "${enrollment.seats.reconcile.interval.ms:300000}")
+    public void reconcile() {
+        if (seatsByCourse.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> finishedBefore = new HashMap<>();
+        seatsByCourse.forEach((courseId, seats) -> finishedBefore.put(courseId, seats.finished.get()));
+
+        Map<Long, Integer> committed = new HashMap<>();
+        for (Object[] row : enrollmentRepository.countByStatusInGroupByCourse(SEAT_HOLDING_STATUSES)) {
+            committed.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+
+        reconcileLock.writeLock().lock();
+        try {
+            seatsByCourse.forEach((courseId, seats) -> {
+                Long before = finishedBefore.get(courseId);
+                if (before == null || before != seats.finished.get()) {
+                    return;
+                }
+                seats.held.set(committed.getOrDefault(courseId, 0) + seats.inFlight.get());
+            });
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private CourseSeats seatsFor(Long courseId) {
+        return seatsByCourse.computeIfAbsent(courseId, id ->
+            new CourseSeats((int) enrollmentRepository.countByCourseIdAndStatusIn(id, SEAT_HOLDING_STATUSES)));
+    }
+
+    private void releaseNow(Long courseId) {
+        CourseSeats seats = seatsByCourse.get(courseId);
+        if (seats != null) {
+            seats.held.updateAndGet(held -> Math.max(0, held - 1));
+        }
+    }
+
+    // once the transaction is over the reservation is either in the table or rolled back
+    private void onTransactionEnd(Long courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            CourseSeats seats = seatsFor(courseId);
+            seats.finished.incrementAndGet();
+            seats.inFlight.decrementAndGet();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                CourseSeats seats = seatsByCourse.get(courseId);
+                if (seats == null) {
+                    return;
+                }
+                // finished first - a reconcile that sees inFlight go down has also seen this move
+                seats.finished.incrementAndGet();
+                seats.inFlight.decrementAndGet();
+                if (status != STATUS_COMMITTED) {
+                    seats.held.updateAndGet(held -> Math.max(0, held - 1));
+                }
+            }
+        });
+    }
+
+    // counters for one course
+    private static class CourseSeats {
+        final AtomicInteger held;
+        final AtomicInteger inFlight = new AtomicInteger();
+        // reservations whose transaction ended, only ever goes up
+        final AtomicLong finished = new AtomicLong();
+
+        CourseSeats(int held) {
+            this.held = new AtomicInteger(held);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.sams.service;
 
+import com.sams.entity.Course;
 import com.sams.entity.Semester;
 import com.sams.exception.SemesterNotFoundException;
 import com.sams.repository.SemesterRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,9 +20,11 @@ import java.util.List;
 public class SemesterService {
 
     private final SemesterRepository semesterRepository;
+    private final SeatReservationService seatReservationService;
 
-    public SemesterService(SemesterRepository semesterRepository) {
+    public SemesterService(SemesterRepository semesterRepository, SeatReservationService seatReservationService) {
         this.semesterRepository = semesterRepository;
+        this.seatReservationService = seatReservationService;
     }
 
     // create new semester
@@ -151,7 +155,13 @@ public class SemesterService {
     public Semester openRegistration(Long id) {
         Semester semester = getSemesterById(id);
         semester.setRegistrationOpen(true);
-        return semesterRepository.save(semester);
+        Semester saved = semesterRepository.save(semester);
+
+        // everyone is about to hit enroll - load the seat counters now instead of on the first requests
+        // (the requests themselves get spread out by AdmissionQueueService)
+        List<Course> courses = new ArrayList<>(semester.getCourses());
+        TransactionHooks.afterCommit(() -> seatReservationService.warmUp(courses));
+        return saved;
     }
 
     // close registration for a semester
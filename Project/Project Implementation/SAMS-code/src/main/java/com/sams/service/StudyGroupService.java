@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,9 @@ public class StudyGroupService {
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
     private final NotificationService notificationService;
+    private final NotificationQueueService notificationQueueService;
+    private final MessageSearchService messageSearchService;
+    private final SearchIndexService searchIndexService;
 
     @Value("${study.group.max.members.default:10}")
     private int defaultMaxMembers;
@@ -44,13 +48,19 @@ public class StudyGroupService {
                             GroupMessageRepository messageRepository,
                             UserRepository userRepository,
                             CourseRepository courseRepository,
-                            NotificationService notificationService) {
+                            NotificationService notificationService,
+                            NotificationQueueService notificationQueueService,
+                            MessageSearchService messageSearchService,
+                            SearchIndexService searchIndexService) {
         this.studyGroupRepository = studyGroupRepository;
         this.memberRepository = memberRepository;
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
         this.notificationService = notificationService;
+        this.notificationQueueService = notificationQueueService;
+        this.messageSearchService = messageSearchService;
+        this.searchIndexService = searchIndexService;
     }
 
     // ========== STUDY GROUP CRUD OPERATIONS ==========
@@ -86,6 +96,7 @@ public class StudyGroupService {
 
         // save the group first
         StudyGroup savedGroup = studyGroupRepository.save(group);
+        searchIndexService.entitySaved(savedGroup);
 
         // add creator as ADMIN member
         StudyGroupMember adminMember = new StudyGroupMember();
@@ -177,7 +188,9 @@ public class StudyGroupService {
             existingGroup.setIsPrivate(updatedGroup.getIsPrivate());
         }
 
-        return studyGroupRepository.save(existingGroup);
+        StudyGroup saved = studyGroupRepository.save(existingGroup);
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 
     /**
@@ -195,16 +208,12 @@ public class StudyGroupService {
 
         group.setActive(false);
         studyGroupRepository.save(group);
+        searchIndexService.entitySaved(group);
 
         // notify all active members
-        List<StudyGroupMember> activeMembers = memberRepository
-                .findByStudyGroupIdAndStatusOrderByJoinedAtAsc(groupId, "ACTIVE");
-
-        for (StudyGroupMember member : activeMembers) {
-            if (!member.getUser().getId().equals(userId)) {
-                notificationService.notifyStudyGroupDisbanded(member.getUser(), group);
-            }
-        }
+        List<Long> memberIds = new ArrayList<>(memberRepository.findUserIdsByStudyGroupIdAndStatus(groupId, "ACTIVE"));
+        memberIds.remove(userId);
+        notificationQueueService.notifyStudyGroupDisbanded(memberIds, group);
     }
 
     // ========== MEMBERSHIP OPERATIONS ==========
@@ -549,16 +558,12 @@ public class StudyGroupService {
         message.setFileName(fileName);
 
         GroupMessage savedMessage = messageRepository.save(message);
+        messageSearchService.groupMessageSaved(savedMessage);
 
         // notify all other active members (except sender)
-        List<StudyGroupMember> activeMembers = memberRepository
-                .findByStudyGroupIdAndStatusOrderByJoinedAtAsc(groupId, "ACTIVE");
-
-        for (StudyGroupMember member : activeMembers) {
-            if (!member.getUser().getId().equals(senderId)) {
-                notificationService.notifyStudyGroupNewMessage(member.getUser(), group, sender);
-            }
-        }
+        List<Long> memberIds = new ArrayList<>(memberRepository.findUserIdsByStudyGroupIdAndStatus(groupId, "ACTIVE"));
+        memberIds.remove(senderId);
+        notificationQueueService.notifyStudyGroupNewMessage(memberIds, group, sender);
 
         return savedMessage;
     }
@@ -616,12 +621,13 @@ public class StudyGroupService {
 
         message.delete();
         messageRepository.save(message);
+        messageSearchService.groupMessageDeleted(message);
     }
 
     /**
-     * Search messages in a group
+     * Search messages in a group - full text, best matches first with a highlighted snippet
      */
-    public List<GroupMessage> searchMessages(Long groupId, Long userId, String searchTerm) {
+    public List<MessageSearchService.Hit<GroupMessage>> searchMessages(Long groupId, Long userId, String searchTerm) {
         // chekc if user is an active member
         StudyGroupMember membership = memberRepository.findByStudyGroupIdAndUserId(groupId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User is not a member of this group"));
@@ -630,7 +636,7 @@ public class StudyGroupService {
             throw new IllegalStateException("Only active members can search messages");
         }
 
-        return messageRepository.searchMessagesByContent(groupId, searchTerm);
+        return messageSearchService.searchGroup(groupId, searchTerm);
     }
 
     /**
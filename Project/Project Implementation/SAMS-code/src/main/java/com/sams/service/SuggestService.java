@@ -0,0 +1,214 @@
+package com.sams.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * typeahead completions for the search box (GET /api/search/suggest)
+ * course codes, course names, usernames and teacher names
+ *
+ * every completion is stored under its full text and under every later word of it
+ * ("linear algebra" is found by "lin" and by "alg"), all keys in one sorted String array.
+ * a prefix lookup is a binary search to the first key >= prefix and a scan while keys still
+ * start with it - no database, no per-request objects besides the result
+ *
+ * ranking: exact match, then matches at the start of the text, then by type (course code > course name/
+ * teacher > username), shorter text first. results are cached per prefix inside the snapshot,
+ * so the cache goes away together with the data it was built from
+ *
+ * the snapshot is rebuilt from SearchIndexService whenever that index changed (checked every
+ * search.suggest.refresh.ms) or on demand, the old one keeps serving until the new one is swapped in
+ */
+@Service
+public class SuggestService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 20;
+
+    // short prefixes get hit all the time, long ones almost never - just start over when its full
+    private static final int MAX_CACHED_PREFIXES = 5000;
+
+    private final SearchIndexService searchIndexService;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), -1);
+
+    public SuggestService(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    // best completions for what the user typed so far
+    public List<Map<String, Object>> suggest(String prefix, int limit) {
+        String normalized = SearchIndexService.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return snapshot.lookup(normalized, Math.min(limit, MAX_LIMIT));
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.refresh.ms:5000}")
+    public void refreshIfChanged() {
+        if (searchIndexService.getVersion() != snapshot.version) {
+            rebuild();
+        }
+    }
+
+    // build a new snapshot from the search index and swap it in, returns some numbers for the admin endpoint
+    public synchronized Map<String, Object> rebuild() {
+        long startedAt = System.currentTimeMillis();
+        long version = searchIndexService.getVersion();
+
+        List<Completion> completions = new ArrayList<>();
+        for (Map<String, Object> course : searchIndexService.getDocuments(SearchIndexService.COURSE)) {
+            completions.add(new Completion((String) course.get("code"), SearchIndexService.COURSE, course.get("id"), 4));
+            completions.add(new Completion((String) course.get("name"), SearchIndexService.COURSE, course.get("id"), 3));
+        }
+        for (Map<String, Object> teacher : searchIndexService.getDocuments(SearchIndexService.TEACHER)) {
+            completions.add(new Completion((String) teacher.get("name"), SearchIndexService.TEACHER, teacher.get("id"), 3));
+        }
+        for (Map<String, Object> user : searchIndexService.getDocuments(SearchIndexService.USER)) {
+            completions.add(new Completion((String) user.get("username"), SearchIndexService.USER, user.get("id"), 2));
+        }
+        completions.removeIf(completion -> completion.normalized.isEmpty());
+
+        Snapshot fresh = new Snapshot(completions, version);
+        snapshot = fresh;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completions", completions.size());
+        stats.put("keys", fresh.keys.length);
+        stats.put("version", version);
+        stats.put("tookMs", System.currentTimeMillis() - startedAt);
+        return stats;
+    }
+
+    // immutable sorted key array + per prefix result cache
+    private static class Snapshot {
+        private final long version;
+        private final Completion[] completions;
+        private final String[] keys;
+        // completion index << 1, low bit set when the key starts at a later word
+        private final int[] refs;
+        private final Map<String, List<Map<String, Object>>> cache = new ConcurrentHashMap<>();
+
+        Snapshot(List<Completion> list, long version) {
+            this.version = version;
+            this.completions = list.toArray(new Completion[0]);
+
+            List<String> keyList = new ArrayList<>();
+            List<Integer> refList = new ArrayList<>();
+            for (int i = 0; i < completions.length; i++) {
+                String text = completions[i].normalized;
+                keyList.add(text);
+                refList.add(i << 1);
+                for (int at = text.indexOf(' '); at >= 0; at = text.indexOf(' ', at + 1)) {
+                    keyList.add(text.substring(at + 1));
+                    refList.add((i << 1) | 1);
+                }
+            }
+
+            Integer[] order = new Integer[keyList.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(keyList::get));
+            this.keys = new String[order.length];
+            this.refs = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                refs[i] = refList.get(order[i]);
+            }
+        }
+
+        List<Map<String, Object>> lookup(String prefix, int limit) {
+            String cacheKey = limit + ":" + prefix;
+            List<Map<String, Object>> cached = cache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+
+            // best score per completion - the same one can be reached through several of its words
+            Map<Integer, Integer> scores = new HashMap<>();
+            for (int i = firstAtLeast(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                int completion = refs[i] >>> 1;
+                boolean laterWord = (refs[i] & 1) == 1;
+                int score = completions[completion].weight * 10 + (laterWord ? 0 : 20)
+                    + (!laterWord && keys[i].length() == prefix.length() ? 50 : 0);
+                scores.merge(completion, score, Math::max);
+            }
+
+            Comparator<Map.Entry<Integer, Integer>> worstFirst = Comparator
+                .<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue)
+                .thenComparing(entry -> -completions[entry.getKey()].text.length())
+                .thenComparing(entry -> completions[entry.getKey()].normalized, Comparator.reverseOrder());
+            PriorityQueue<Map.Entry<Integer, Integer>> top = new PriorityQueue<>(worstFirst);
+            for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                top.add(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Map.Entry<Integer, Integer>> best = new ArrayList<>(top);
+            best.sort(worstFirst.reversed());
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : best) {
+                results.add(completions[entry.getKey()].toResult());
+            }
+            results = List.copyOf(results);
+
+            if (cache.size() >= MAX_CACHED_PREFIXES) {
+                cache.clear();
+            }
+            cache.put(cacheKey, results);
+            return results;
+        }
+
+        private int firstAtLeast(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static class Completion {
+        private final String text;
+        private final String normalized;
+        private final String type;
+        private final Object id;
+        private final int weight;
+
+        Completion(String text, String type, Object id, int weight) {
+            this.text = text != null ? text.trim() : "";
+            this.normalized = SearchIndexService.normalize(text);
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+        }
+
+        Map<String, Object> toResult() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("text", text);
+            result.put("type", type);
+            result.put("id", id);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.sams.service;
+
+import com.sams.dto.TeacherProfileResponse;
+import com.sams.entity.TeacherProfile;
+import com.sams.repository.TeacherProfileRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * teacher directory read model - search + facet counts without touching the database
+ *
+ * the old search was six LOWER(...) LIKE '%x%' ORed together (full scan with a join to users every time)
+ * and the department/designation counts were seperate GROUP BY queries. here every profile is kept in memory
+ * as the finished TeacherProfileResponse plus its words already normalized (name, department, designation,
+ * specialization, qualification), so a search is a scan over a few thousand small arrays
+ *
+ * facets (department, designation, consultation, rating bucket) are counted in the same pass as the search.
+ * each facet is counted with every filter applied except its own, so picking "Physics" still shows how many
+ * teachers the other departments have
+ *
+ * kept up to date by TeacherService (create/update/toggle/delete, applied after commit). loaded on startup
+ * and reloaded every teacher.directory.rebuild.interval.ms to pick up things changed elsewhere (user names)
+ */
+@Service
+public class TeacherDirectoryService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    public static final String RATING_4_PLUS = "4+";
+    public static final String RATING_3_TO_4 = "3-4";
+    public static final String RATING_BELOW_3 = "below-3";
+    public static final String RATING_UNRATED = "unrated";
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt((Hit hit) -> hit.score).reversed()
+        .thenComparing(hit -> hit.entry.sortName);
+
+    private final TeacherProfileRepository teacherProfileRepository;
+
+    // profile id -> entry, replaced as a whole on every change so searches never see half an update
+    private volatile Map<Long, Entry> entries = Map.of();
+    // changes that came in while a rebuild was loading, replayed on top of it
+    private List<Consumer<Map<Long, Entry>>> pendingChanges;
+
+    public TeacherDirectoryService(TeacherProfileRepository teacherProfileRepository) {
+        this.teacherProfileRepository = teacherProfileRepository;
+    }
+
+    // ---- keeping it up to date ----
+
+    // call inside the transaction that saved the profile, the entry is built now (user is loaded) and used after commit
+    public void profileChanged(TeacherProfile profile) {
+        Entry entry = new Entry(TeacherProfileResponse.fromEntity(profile));
+        TransactionHooks.afterCommit(() -> apply(map -> map.put(entry.response.getId(), entry)));
+    }
+
+    public void profileRemoved(Long profileId) {
+        TransactionHooks.afterCommit(() -> apply(map -> map.remove(profileId)));
+    }
+
+    private synchronized void apply(Consumer<Map<Long, Entry>> change) {
+        Map<Long, Entry> copy = new HashMap<>(entries);
+        change.accept(copy);
+        entries = copy;
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    // load every profile with its user in one query and swap the new map in
+    @Scheduled(initialDelayString = "${teacher.directory.rebuild.interval.ms:3600000}",
+               fixedDelayString = "${teacher.directory.rebuild.interval.ms:3600000}")
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        Map<Long, Entry> fresh = new HashMap<>();
+        try {
+            for (TeacherProfile profile : teacherProfileRepository.findAllForDirectory()) {
+                fresh.put(profile.getId(), new Entry(TeacherProfileResponse.fromEntity(profile)));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            System.err.println("Teacher directory rebuild failed, keeping the old one: " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            entries = fresh;
+        }
+        System.out.println("Teacher directory built: " + fresh.size() + " profiles in "
+            + (System.currentTimeMillis() - startedAt) + "ms");
+    }
+
+    // ---- searching ----
+
+    /**
+     * search the directory, every argument can be null
+     * query words all have to be found (start of a word counts more than the middle), filters are exact
+     * returns teachers (best first, at most limit), total and facets
+     */
+    public Map<String, Object> search(String query, String department, String designation,
+                                      Boolean availableForConsultation, String rating, boolean includeInactive, int limit) {
+        if (rating != null && !List.of(RATING_4_PLUS, RATING_3_TO_4, RATING_BELOW_3, RATING_UNRATED).contains(rating)) {
+            throw new IllegalArgumentException("Unknown rating bucket: " + rating
+                + " (use " + RATING_4_PLUS + ", " + RATING_3_TO_4 + ", " + RATING_BELOW_3 + " or " + RATING_UNRATED + ")");
+        }
+        String[] queryWords = words(SearchIndexService.normalize(query));
+        String availability = availableForConsultation == null ? null : availableForConsultation.toString();
+
+        Map<String, Integer> departments = new TreeMap<>();
+        Map<String, Integer> designations = new TreeMap<>();
+        Map<String, Integer> consultation = new TreeMap<>();
+        Map<String, Integer> ratings = new LinkedHashMap<>();
+        for (String bucket : List.of(RATING_4_PLUS, RATING_3_TO_4, RATING_BELOW_3, RATING_UNRATED)) {
+            ratings.put(bucket, 0);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (!includeInactive && !entry.active) {
+                continue;
+            }
+            int score = entry.score(queryWords);
+            if (score == 0) {
+                continue;
+            }
+
+            // which filters does it fail - with none its a hit and counts everywhere,
+            // with exactly one it still counts for that facet (the other values of it are still an option)
+            boolean departmentOk = department == null || department.equalsIgnoreCase(entry.department);
+            boolean designationOk = designation == null || designation.equalsIgnoreCase(entry.designation);
+            boolean availabilityOk = availability == null || availability.equals(entry.availability);
+            boolean ratingOk = rating == null || rating.equals(entry.ratingBucket);
+            int failed = (departmentOk ? 0 : 1) + (designationOk ? 0 : 1) + (availabilityOk ? 0 : 1) + (ratingOk ? 0 : 1);
+            if (failed > 1) {
+                continue;
+            }
+
+            if (failed == 0 || !departmentOk) {
+                departments.merge(entry.department, 1, Integer::sum);
+            }
+            if (failed == 0 || !designationOk) {
+                designations.merge(entry.designation, 1, Integer::sum);
+            }
+            if (failed == 0 || !availabilityOk) {
+                consultation.merge(entry.availability, 1, Integer::sum);
+            }
+            if (failed == 0 || !ratingOk) {
+                ratings.merge(entry.ratingBucket, 1, Integer::sum);
+            }
+            if (failed == 0) {
+                hits.add(new Hit(entry, score));
+            }
+        }
+
+        hits.sort(BEST_FIRST);
+        int max = Math.min(Math.max(limit, 0), MAX_LIMIT);
+        List<TeacherProfileResponse> teachers = new ArrayList<>();
+        for (int i = 0; i < hits.size() && i < max; i++) {
+            teachers.add(hits.get(i).entry.response);
+        }
+
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("department", departments);
+        facets.put("designation", designations);
+        facets.put("availableForConsultation", consultation);
+        facets.put("rating", ratings);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("total", hits.size());
+        result.put("teachers", teachers);
+        result.put("facets", facets);
+        return result;
+    }
+
+    // every matching profile (active or not) best first, no filters or limit - what the old LIKE search returned
+    public List<TeacherProfileResponse> searchAll(String query) {
+        String[] queryWords = words(SearchIndexService.normalize(query));
+        List<Hit> hits = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            int score = entry.score(queryWords);
+            if (score > 0) {
+                hits.add(new Hit(entry, score));
+            }
+        }
+        hits.sort(BEST_FIRST);
+
+        List<TeacherProfileResponse> teachers = new ArrayList<>();
+        hits.forEach(hit -> teachers.add(hit.entry.response));
+        return teachers;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    static String ratingBucket(Double rating) {
+        if (rating == null) {
+            return RATING_UNRATED;
+        }
+        if (rating >= 4.0) {
+            return RATING_4_PLUS;
+        }
+        return rating >= 3.0 ? RATING_3_TO_4 : RATING_BELOW_3;
+    }
+
+    private static String[] words(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // one profile, everything the search needs worked out once
+    private static class Entry {
+        private final TeacherProfileResponse response;
+        private final String[] nameWords;
+        private final String[] otherWords;
+        private final String sortName;
+        private final String department;
+        private final String designation;
+        private final String availability;
+        private final String ratingBucket;
+        private final boolean active;
+
+        Entry(TeacherProfileResponse response) {
+            this.response = response;
+            this.nameWords = words(SearchIndexService.normalize(response.getUserName()));
+            this.otherWords = words(SearchIndexService.normalize(joined(response.getDepartment(),
+                response.getDesignation(), response.getSpecialization(), response.getQualification())));
+            this.sortName = SearchIndexService.normalize(response.getUserName());
+            this.department = response.getDepartment() != null ? response.getDepartment() : "Unknown";
+            this.designation = response.getDesignation() != null ? response.getDesignation() : "Unknown";
+            this.availability = String.valueOf(!Boolean.FALSE.equals(response.getAvailableForConsultation()));
+            this.ratingBucket = ratingBucket(response.getAverageRating());
+            this.active = !Boolean.FALSE.equals(response.getActive());
+        }
+
+        private static String joined(String... fields) {
+            StringBuilder text = new StringBuilder();
+            for (String field : fields) {
+                if (field != null) {
+                    text.append(field).append(' ');
+                }
+            }
+            return text.toString();
+        }
+
+        // 0 = doesnt match. no query words matches everything
+        int score(String[] queryWords) {
+            int total = 1;
+            for (String queryWord : queryWords) {
+                int best = Math.max(wordScore(nameWords, queryWord) * 2, wordScore(otherWords, queryWord));
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        // exact word 3, start of a word 2, anywhere in it 1
+        private static int wordScore(String[] words, String queryWord) {
+            int best = 0;
+            for (String word : words) {
+                if (word.equals(queryWord)) {
+                    return 3;
+                }
+                if (word.startsWith(queryWord)) {
+                    best = 2;
+                } else if (best == 0 && word.contains(queryWord)) {
+                    best = 1;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static class Hit {
+        private final Entry entry;
+        private final int score;
+
+        Hit(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -39,6 +40,12 @@ public class TeacherService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TeacherDirectoryService teacherDirectoryService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     // ==================== Teacher Profile Management ====================
 
     /**
@@ -70,6 +77,8 @@ public class TeacherService {
         updateProfileFromRequest(profile, request);
 
         profile = teacherProfileRepository.save(profile);
+        teacherDirectoryService.profileChanged(profile);
+        searchIndexService.entitySaved(profile);
         return TeacherProfileResponse.fromEntity(profile);
     }
 
@@ -91,6 +100,8 @@ public class TeacherService {
         profile.updateProfileCompletionStatus();
 
         profile = teacherProfileRepository.save(profile);
+        teacherDirectoryService.profileChanged(profile);
+        searchIndexService.entitySaved(profile);
         return TeacherProfileResponse.fromEntity(profile);
     }
 
@@ -132,11 +143,19 @@ public class TeacherService {
 
     /**
      * Search teachers by keyword
+     * answered from the in-memory directory, not the LIKE query anymore
      */
     public List<TeacherProfileResponse> searchTeachers(String searchTerm) {
-        return teacherProfileRepository.searchTeachers(searchTerm).stream()
-            .map(TeacherProfileResponse::fromEntity)
-            .collect(Collectors.toList());
+        return teacherDirectoryService.searchAll(searchTerm);
+    }
+
+    /**
+     * Teacher directory - search + filters + facet counts
+     */
+    public Map<String, Object> searchDirectory(String query, String department, String designation,
+                                               Boolean availableForConsultation, String rating, Integer limit) {
+        return teacherDirectoryService.search(query, department, designation, availableForConsultation, rating,
+            false, limit != null ? limit : TeacherDirectoryService.DEFAULT_LIMIT);
     }
 
     /**
@@ -181,6 +200,8 @@ public class TeacherService {
 
         // Delete profile
         teacherProfileRepository.delete(profile);
+        teacherDirectoryService.profileRemoved(profileId);
+        searchIndexService.entityRemoved(profile);
     }
 
     /**
@@ -192,6 +213,8 @@ public class TeacherService {
 
         profile.setActive(!profile.getActive());
         profile = teacherProfileRepository.save(profile);
+        teacherDirectoryService.profileChanged(profile);
+        searchIndexService.entitySaved(profile);
 
         return TeacherProfileResponse.fromEntity(profile);
     }
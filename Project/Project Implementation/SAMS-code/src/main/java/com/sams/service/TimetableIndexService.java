@@ -0,0 +1,262 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.EnrollmentRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * weekly timetable index used for schedule conflict checks
+ * replaces the old approach of loading every active enrollment and re-parsing
+ * the daysOfWeek strings for every pair of courses
+ *
+ * each course is turned into a bitmap of 5 minute slots for the whole week
+ * (7 days x 288 slots = 2016 bits = 32 longs). each student gets the OR of thier
+ * active courses, so checking a new course is just 32 ANDs. when the bitmap says
+ * there is an overlap we double check with the exact times so the 5 minute rounding
+ * never reports a fake conflict
+ *
+ * student timetables are loaded lazily and updated after commit on enroll/drop,
+ * course bitmaps are rebuilt when the schedule changes
+ */
+@Service
+public class TimetableIndexService {
+
+    static final int SLOT_MINUTES = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    private static final String[] DAY_CODES = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final Map<Long, CourseSlots> courseSlots = new ConcurrentHashMap<>();
+    private final Map<Long, StudentTimetable> timetables = new ConcurrentHashMap<>();
+
+    public TimetableIndexService(EnrollmentRepository enrollmentRepository) {
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    // find every active course of the student that clashes with the given course
+    // returns the conflicting course codes (empty list = no conflict)
+    public List<String> findConflicts(Long studentId, Course course) {
+        if (!course.hasSchedule()) {
+            return List.of();
+        }
+
+        CourseSlots candidate = slotsFor(course);
+        StudentTimetable timetable = timetableFor(studentId);
+        return timetable.conflictsWith(candidate, courseSlots);
+    }
+
+    // do two courses clash with each other? used for courses that arent in the timetable yet (cart enrollment)
+    public boolean overlaps(Course first, Course second) {
+        if (!first.hasSchedule() || !second.hasSchedule()) {
+            return false;
+        }
+        return slotsFor(first).overlaps(slotsFor(second));
+    }
+
+    // student now has this course in thier timetable (enrollment became active)
+    public void addCourse(Long studentId, Course course) {
+        CourseSlots slots = slotsFor(course);
+        TransactionHooks.afterCommit(() -> {
+            StudentTimetable timetable = timetables.get(studentId);
+            if (timetable != null) {
+                timetable.add(slots.courseId, courseSlots);
+            }
+        });
+    }
+
+    // student dropped / completed the course
+    public void removeCourse(Long studentId, Long courseId) {
+        TransactionHooks.afterCommit(() -> {
+            StudentTimetable timetable = timetables.get(studentId);
+            if (timetable != null) {
+                timetable.remove(courseId, courseSlots);
+            }
+        });
+    }
+
+    // course schedule (or code, conflicts are reported by code) changed - rebuild its bitmap
+    // and every cached timetable that has it
+    public void courseScheduleChanged(Course course) {
+        CourseSlots updated = CourseSlots.of(course);
+        TransactionHooks.afterCommit(() -> {
+            courseSlots.put(updated.courseId, updated);
+            for (StudentTimetable timetable : timetables.values()) {
+                if (timetable.contains(updated.courseId)) {
+                    timetable.rebuild(courseSlots);
+                }
+            }
+        });
+    }
+
+    // forget a student - next check reloads it from the db
+    public void evictStudent(Long studentId) {
+        timetables.remove(studentId);
+    }
+
+    private CourseSlots slotsFor(Course course) {
+        return courseSlots.computeIfAbsent(course.getId(), id -> CourseSlots.of(course));
+    }
+
+    private StudentTimetable timetableFor(Long studentId) {
+        return timetables.computeIfAbsent(studentId, id -> {
+            StudentTimetable timetable = new StudentTimetable();
+            // unscheduled courses go in too (empty bitmap), so scheduling one later
+            // still finds this timetable in courseScheduleChanged
+            for (Course course : enrollmentRepository.findCoursesByStudentIdAndStatus(id, "ACTIVE")) {
+                slotsFor(course);
+                timetable.add(course.getId(), courseSlots);
+            }
+            return timetable;
+        });
+    }
+
+    // day index (0 = monday) from strings like "MON", "mon", "Monday"
+    // anything we dont recognise is ignored
+    static int dayIndex(String day) {
+        String code = day.trim().toUpperCase();
+        if (code.length() > 3) {
+            code = code.substring(0, 3);
+        }
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // bitmap + exact times for one course
+    static class CourseSlots {
+        final Long courseId;
+        final String courseCode;
+        final long[] bits = new long[WORDS];
+        final int dayMask;
+        final int startMinute;
+        final int endMinute;
+
+        private CourseSlots(Long courseId, String courseCode, int dayMask, int startMinute, int endMinute) {
+            this.courseId = courseId;
+            this.courseCode = courseCode;
+            this.dayMask = dayMask;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+
+            if (endMinute <= startMinute) {
+                return;
+            }
+            // start rounds down, end rounds up - the exact check below removes false positives
+            int firstSlot = startMinute / SLOT_MINUTES;
+            int lastSlot = (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            for (int day = 0; day < 7; day++) {
+                if ((dayMask & (1 << day)) == 0) {
+                    continue;
+                }
+                for (int slot = firstSlot; slot < lastSlot; slot++) {
+                    int bit = day * SLOTS_PER_DAY + slot;
+                    bits[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        static CourseSlots of(Course course) {
+            int dayMask = 0;
+            if (course.getDaysOfWeek() != null) {
+                for (String day : course.getDaysOfWeek().split(",")) {
+                    int index = dayIndex(day);
+                    if (index >= 0) {
+                        dayMask |= 1 << index;
+                    }
+                }
+            }
+            return new CourseSlots(course.getId(), course.getCourseCode(), dayMask,
+                minuteOf(course.getStartTime()), minuteOf(course.getEndTime()));
+        }
+
+        private static int minuteOf(LocalTime time) {
+            return time == null ? 0 : time.getHour() * 60 + time.getMinute();
+        }
+
+        boolean intersects(long[] other) {
+            for (int i = 0; i < WORDS; i++) {
+                if ((bits[i] & other[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // same rule as before: shared day and start1 < end2 && start2 < end1
+        boolean overlaps(CourseSlots other) {
+            return intersects(other.bits)
+                && (dayMask & other.dayMask) != 0
+                && startMinute < other.endMinute
+                && other.startMinute < endMinute;
+        }
+    }
+
+    // all active courses of one student plus the OR of thier bitmaps
+    static class StudentTimetable {
+        private final Set<Long> courseIds = ConcurrentHashMap.newKeySet();
+        private volatile long[] union = new long[WORDS];
+
+        boolean contains(Long courseId) {
+            return courseIds.contains(courseId);
+        }
+
+        synchronized void add(Long courseId, Map<Long, CourseSlots> slots) {
+            CourseSlots course = slots.get(courseId);
+            if (course == null || !courseIds.add(courseId)) {
+                return;
+            }
+            long[] next = union.clone();
+            for (int i = 0; i < WORDS; i++) {
+                next[i] |= course.bits[i];
+            }
+            union = next;
+        }
+
+        synchronized void remove(Long courseId, Map<Long, CourseSlots> slots) {
+            if (courseIds.remove(courseId)) {
+                rebuild(slots);
+            }
+        }
+
+        synchronized void rebuild(Map<Long, CourseSlots> slots) {
+            long[] next = new long[WORDS];
+            for (Long id : courseIds) {
+                CourseSlots course = slots.get(id);
+                if (course != null) {
+                    for (int i = 0; i < WORDS; i++) {
+                        next[i] |= course.bits[i];
+                    }
+                }
+            }
+            union = next;
+        }
+
+        List<String> conflictsWith(CourseSlots candidate, Map<Long, CourseSlots> slots) {
+            List<String> conflicts = new ArrayList<>();
+            // quick reject - nothing in the week overlaps at all
+            if (!candidate.intersects(union)) {
+                return conflicts;
+            }
+            for (Long id : courseIds) {
+                CourseSlots existing = slots.get(id);
+                if (existing != null && !id.equals(candidate.courseId) && candidate.overlaps(existing)) {
+                    conflicts.add(existing.courseCode);
+                }
+            }
+            return conflicts;
+        }
+    }
+}
@@ -23,11 +23,17 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DashboardCounterService dashboardCounterService;
+    private final SearchIndexService searchIndexService;
 
     // constructor injection
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       DashboardCounterService dashboardCounterService,
+                       SearchIndexService searchIndexService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.dashboardCounterService = dashboardCounterService;
+        this.searchIndexService = searchIndexService;
     }
 
     // create new user
@@ -57,7 +63,10 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        dashboardCounterService.userChanged(null, saved);
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 
     // get user by id
@@ -92,6 +101,7 @@ public class UserService {
     @Transactional
     public User updateUser(Long id, User userDetails) {
         User user = getUserById(id);
+        DashboardCounterService.UserSnapshot before = dashboardCounterService.snapshot(user);
 
         // check if email is being changed and if new email already exists
         if (!user.getEmail().equals(userDetails.getEmail())) {
@@ -118,14 +128,20 @@ public class UserService {
             user.setRole(userDetails.getRole());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        dashboardCounterService.userChanged(before, saved);
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 
     // delete user
     @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
+        DashboardCounterService.UserSnapshot before = dashboardCounterService.snapshot(user);
         userRepository.delete(user);
+        dashboardCounterService.userChanged(before, null);
+        searchIndexService.entityRemoved(user);
     }
 
     // check if email exists
@@ -136,7 +152,9 @@ public class UserService {
     // simple save user (for profile updates without password change)
     @Transactional
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 
     // change user password with verification of current password
@@ -160,6 +178,7 @@ public class UserService {
     @Transactional
     public User updateProfile(Long id, java.util.Map<String, Object> profileData) {
         User user = getUserById(id);
+        DashboardCounterService.UserSnapshot before = dashboardCounterService.snapshot(user);
 
         if (profileData.containsKey("firstName")) {
             Object value = profileData.get("firstName");
@@ -260,6 +279,10 @@ public class UserService {
             }
         }
 
-        return userRepository.save(user);
+        // gender feeds the demographics counters
+        User saved = userRepository.save(user);
+        dashboardCounterService.userChanged(before, saved);
+        searchIndexService.entitySaved(saved);
+        return saved;
     }
 }
@@ -115,3 +115,29 @@ function formatFileSize(bytes) {
     else if (bytes < 1024 * 1024) return (bytes / 1024).toFixed(2) + ' KB';
     else return (bytes / (1024 * 1024)).toFixed(2) + ' MB';
 }
+
+// Search box typeahead - waits until typing pauses and remembers prefixes it already asked for
+const suggestCache = new Map();
+let suggestTimer = null;
+
+function suggest(prefix, callback, delay = 150) {
+    clearTimeout(suggestTimer);
+    const key = prefix.trim().toLowerCase();
+    if (!key) {
+        callback([]);
+        return;
+    }
+    if (suggestCache.has(key)) {
+        callback(suggestCache.get(key));
+        return;
+    }
+    suggestTimer = setTimeout(async () => {
+        try {
+            const results = await apiCall(`/search/suggest?prefix=${encodeURIComponent(key)}`);
+            suggestCache.set(key, results || []);
+            callback(results || []);
+        } catch (error) {
+            callback([]);
+        }
+    }, delay);
+}
@@ -0,0 +1,71 @@
+package com.sams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sams.dto.EnrollmentRequest;
+import com.sams.entity.Course;
+import com.sams.entity.User;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EnrollmentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User student;
+    private User instructor;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        // own users and course for every test so we dont have to clean up the whole database
+        String suffix = String.valueOf(System.nanoTime());
+        student = userRepository.save(new User("stu" + suffix, "stu" + suffix + "@example.com", "hashedpass", "STUDENT"));
+        instructor = userRepository.save(new User("fac" + suffix, "fac" + suffix + "@example.com", "hashedpass", "FACULTY"));
+
+        Course newCourse = new Course("EC" + suffix, "Enrollment Controller Test", "test course", 3, 30);
+        newCourse.setInstructor(instructor);
+        course = courseRepository.save(newCourse);
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testCreateEnrollment_ResponseHasInstructor() throws Exception {
+        // the enrollment is made on an admission queue thread, the response is built after
+        // that transaction closed - the lazy instructor has to be loaded already
+        EnrollmentRequest request = new EnrollmentRequest();
+        request.setStudentId(student.getId());
+        request.setCourseId(course.getId());
+
+        mockMvc.perform(post("/api/enrollments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING_PAYMENT"))
+                .andExpect(jsonPath("$.course.id").value(course.getId()))
+                .andExpect(jsonPath("$.course.instructor.id").value(instructor.getId()))
+                .andExpect(jsonPath("$.course.instructor.username").value(instructor.getUsername()));
+    }
+}
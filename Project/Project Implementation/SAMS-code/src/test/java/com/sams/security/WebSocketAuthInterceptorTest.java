@@ -0,0 +1,221 @@
+package com.sams.security;
+
+import com.sams.entity.User;
+import com.sams.repository.UserRepository;
+import com.sams.service.NotificationPushService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketAuthInterceptorTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private WebSocketAuthInterceptor interceptor;
+
+    @Test
+    void testAdminTopic_AdminCanSubscribe() {
+        // arrange
+        Map<String, Object> session = new HashMap<>();
+        connectAs(session, "ADMIN");
+
+        // act
+        Message<?> subscribe = frame(StompCommand.SUBSCRIBE, session, "/topic/admin/dashboard", null);
+
+        // assert
+        assertSame(subscribe, interceptor.preSend(subscribe, null));
+    }
+
+    @Test
+    void testAdminTopic_StudentRejected() {
+        // arrange
+        Map<String, Object> session = new HashMap<>();
+        connectAs(session, "STUDENT");
+        Message<?> subscribe = frame(StompCommand.SUBSCRIBE, session, "/topic/admin/dashboard", null);
+
+        // act & assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe, null));
+    }
+
+    @Test
+    void testAdminTopic_NoTokenRejected_OtherTopicsAllowed() {
+        // arrange - connected without an Authorization header
+        Map<String, Object> session = new HashMap<>();
+        interceptor.preSend(frame(StompCommand.CONNECT, session, null, null), null);
+        Message<?> admin = frame(StompCommand.SUBSCRIBE, session, "/topic/admin/dashboard", null);
+        Message<?> broadcast = frame(StompCommand.SUBSCRIBE, session, "/topic/notifications", null);
+
+        // act & assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(admin, null));
+        assertSame(broadcast, interceptor.preSend(broadcast, null));
+    }
+
+    @Test
+    void testAdminTopic_ExpiredTokenRejected() {
+        // arrange
+        when(jwtUtil.validateToken("old")).thenReturn(true);
+        when(jwtUtil.isTokenExpired("old")).thenReturn(true);
+        Map<String, Object> session = new HashMap<>();
+        interceptor.preSend(frame(StompCommand.CONNECT, session, null, "Bearer old"), null);
+        Message<?> subscribe = frame(StompCommand.SUBSCRIBE, session, "/topic/admin/dashboard", null);
+
+        // act & assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe, null));
+        verify(jwtUtil, never()).getRoleFromToken(anyString());
+    }
+
+    @Test
+    void testConnect_PrincipalIsTheUserId() {
+        // arrange
+        Map<String, Object> session = new HashMap<>();
+
+        // act
+        Message<?> connect = connectAs(session, "STUDENT");
+
+        // assert - convertAndSendToUser(String.valueOf(userId), ...) looks the user up by this name
+        Principal user = SimpMessageHeaderAccessor.getUser(connect.getHeaders());
+        assertNotNull(user);
+        assertEquals("5", user.getName());
+    }
+
+    @Test
+    void testConnect_NoTokenNoPrincipal() {
+        // arrange
+        Message<?> connect = frame(StompCommand.CONNECT, new HashMap<>(), null, null);
+
+        // act
+        interceptor.preSend(connect, null);
+
+        // assert
+        assertNull(SimpMessageHeaderAccessor.getUser(connect.getHeaders()));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testPushedNotification_ReachesSubscribedSession() {
+        // arrange - the same channels/handlers WebSocketConfig gets from @EnableWebSocketMessageBroker
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientInbound.addInterceptor(interceptor);
+        DefaultSimpUserRegistry registry = new DefaultSimpUserRegistry();
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(
+            clientInbound, clientOutbound, brokerChannel, List.of("/topic", "/queue"));
+        UserDestinationMessageHandler userDestinations = new UserDestinationMessageHandler(
+            clientInbound, brokerChannel, new DefaultUserDestinationResolver(registry));
+        broker.start();
+        userDestinations.start();
+        List<Message<?>> delivered = new ArrayList<>();
+        clientOutbound.subscribe(delivered::add);
+
+        when(jwtUtil.validateToken("token")).thenReturn(true);
+        when(jwtUtil.isTokenExpired("token")).thenReturn(false);
+        when(jwtUtil.getRoleFromToken("token")).thenReturn("STUDENT");
+        when(jwtUtil.getUsernameFromToken("token")).thenReturn("student");
+        when(userRepository.findByUsername("student")).thenReturn(Optional.of(user(5L)));
+
+        // the websocket handler does this part for real: CONNECT goes through the channel, the
+        // principal is remembered for the session and put on every later frame
+        Map<String, Object> session = new HashMap<>();
+        Message<?> connect = frame(StompCommand.CONNECT, session, null, "Bearer token");
+        clientInbound.send(connect);
+        Principal user = SimpMessageHeaderAccessor.getUser(connect.getHeaders());
+        registry.onApplicationEvent(new SessionConnectedEvent(this, toBytes(connect), user));
+
+        StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        subscribe.setSessionId("session-1");
+        subscribe.setSessionAttributes(session);
+        subscribe.setSubscriptionId("sub-1");
+        subscribe.setDestination("/user/queue/notifications");
+        subscribe.setUser(user);
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+
+        NotificationPushService pushService = new NotificationPushService(
+            null, null, new SimpMessagingTemplate(brokerChannel), null, 100);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", 5L);
+        payload.put("title", "Grade posted");
+
+        // act - no transaction, so pushAllAfterCommit sends right away
+        pushService.pushAllAfterCommit(List.of(payload));
+
+        // assert
+        List<Message<?>> pushed = delivered.stream()
+            .filter(m -> SimpMessageHeaderAccessor.getMessageType(m.getHeaders()) == SimpMessageType.MESSAGE)
+            .toList();
+        assertEquals(1, pushed.size());
+        assertEquals(payload, pushed.get(0).getPayload());
+        assertEquals("sub-1", SimpMessageHeaderAccessor.getSubscriptionId(pushed.get(0).getHeaders()));
+        assertEquals("session-1", SimpMessageHeaderAccessor.getSessionId(pushed.get(0).getHeaders()));
+    }
+
+    private Message<?> connectAs(Map<String, Object> session, String role) {
+        when(jwtUtil.validateToken("token")).thenReturn(true);
+        when(jwtUtil.isTokenExpired("token")).thenReturn(false);
+        when(jwtUtil.getRoleFromToken("token")).thenReturn(role);
+        when(jwtUtil.getUsernameFromToken("token")).thenReturn("someone");
+        when(userRepository.findByUsername("someone")).thenReturn(Optional.of(user(5L)));
+        Message<?> connect = frame(StompCommand.CONNECT, session, null, "Bearer token");
+        interceptor.preSend(connect, null);
+        return connect;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message<byte[]> toBytes(Message<?> message) {
+        return (Message<byte[]>) message;
+    }
+
+    private static Message<?> frame(StompCommand command, Map<String, Object> session, String destination, String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("session-1");
+        accessor.setSessionAttributes(session);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        if (authorization != null) {
+            accessor.setNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
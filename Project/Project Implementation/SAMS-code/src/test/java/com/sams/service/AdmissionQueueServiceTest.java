@@ -0,0 +1,134 @@
+package com.sams.service;
+
+import com.sams.exception.CourseFullException;
+import com.sams.exception.RegistrationQueueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionQueueServiceTest {
+
+    private static final int WORKERS = 4;
+
+    private AdmissionQueueService admissionQueueService;
+
+    @BeforeEach
+    void setUp() {
+        admissionQueueService = new AdmissionQueueService(true, WORKERS, 5000, 30000, 600000);
+        admissionQueueService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        admissionQueueService.stop();
+    }
+
+    // load generator - 2000 students hit enroll at the same moment
+    @Test
+    void testRunAdmitted_RegistrationRush_NeverMoreThanWorkersAtOnce() throws Exception {
+        // arrange
+        int students = 2000;
+        AtomicInteger inDatabase = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(200);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+
+        // act
+        for (long i = 1; i <= students; i++) {
+            long studentId = i;
+            futures.add(clients.submit(() -> {
+                start.await();
+                return admissionQueueService.runAdmitted(studentId, () -> {
+                    // pretend to be an enrollment transaction
+                    peak.accumulateAndGet(inDatabase.incrementAndGet(), Math::max);
+                    Thread.sleep(1);
+                    inDatabase.decrementAndGet();
+                    return studentId;
+                });
+            }));
+        }
+        start.countDown();
+        for (int i = 0; i < students; i++) {
+            assertEquals(i + 1L, futures.get(i).get(60, TimeUnit.SECONDS));
+        }
+        clients.shutdown();
+
+        // assert
+        assertTrue(peak.get() <= WORKERS, "peak concurrency was " + peak.get());
+        assertEquals((long) students, admissionQueueService.getQueueStats().get("completed"));
+    }
+
+    @Test
+    void testEnqueue_ServedInArrivalOrder() throws Exception {
+        // arrange - block the workers so everything queues up behind them
+        CountDownLatch release = new CountDownLatch(1);
+        for (long i = 1; i <= WORKERS; i++) {
+            admissionQueueService.enqueue(-i, () -> release.await(10, TimeUnit.SECONDS));
+        }
+        List<Long> served = Collections.synchronizedList(new ArrayList<>());
+        List<AdmissionQueueService.Ticket> tickets = new ArrayList<>();
+
+        // act
+        for (long i = 1; i <= 20; i++) {
+            long studentId = i;
+            tickets.add(admissionQueueService.enqueue(studentId, () -> served.add(studentId)));
+        }
+        Thread.sleep(50);
+        long lastPosition = admissionQueueService.getPosition(tickets.get(19));
+        release.countDown();
+        while (admissionQueueService.getTicket(tickets.get(19).getToken()).getFinishedAt() == null) {
+            Thread.sleep(5);
+        }
+
+        // assert - workers run in parallel so only check who got picked up first
+        assertEquals(20, lastPosition);
+        assertEquals(20, served.size());
+        assertTrue(served.subList(0, WORKERS).stream().allMatch(id -> id <= 2 * WORKERS));
+    }
+
+    @Test
+    void testEnqueue_SecondRequestFromSameStudent_Rejected() {
+        // arrange
+        CountDownLatch release = new CountDownLatch(1);
+        admissionQueueService.enqueue(1L, () -> release.await(10, TimeUnit.SECONDS));
+
+        // act & assert
+        assertThrows(RegistrationQueueException.class,
+            () -> admissionQueueService.enqueue(1L, () -> "again"));
+        release.countDown();
+    }
+
+    @Test
+    void testRunAdmitted_TaskException_PassedThrough() {
+        // act & assert
+        assertThrows(CourseFullException.class, () -> admissionQueueService.runAdmitted(1L, () -> {
+            throw new CourseFullException("CS101");
+        }));
+    }
+
+    @Test
+    void testRunAdmitted_TaskError_WorkerKeepsGoing() {
+        // act - an Error out of the task must not take the worker down with it
+        for (int i = 0; i < WORKERS; i++) {
+            assertThrows(StackOverflowError.class, () -> admissionQueueService.runAdmitted(1L, () -> {
+                throw new StackOverflowError();
+            }));
+        }
+
+        // assert - the students slot was freed and there is still a worker to run the next request
+        assertEquals("ok", admissionQueueService.runAdmitted(1L, () -> "ok"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.sams.service;
+
+import com.sams.entity.Announcement;
+import com.sams.entity.Course;
+import com.sams.entity.User;
+import com.sams.repository.AnnouncementReadRepository;
+import com.sams.repository.AnnouncementRepository;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.EnrollmentRepository;
+import com.sams.repository.SemesterRepository;
+import com.sams.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnnouncementServiceTest {
+
+    @Mock
+    private AnnouncementRepository announcementRepository;
+
+    @Mock
+    private AnnouncementReadRepository announcementReadRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private SemesterRepository semesterRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private AnnouncementService announcementService;
+
+    @BeforeEach
+    void setUp() {
+        announcementService = new AnnouncementService(announcementRepository, announcementReadRepository, userRepository,
+            courseRepository, semesterRepository, enrollmentRepository, messagingTemplate, 50);
+    }
+
+    @Test
+    void testCreateAnnouncement_CampusWideIsOneRowAndOneBroadcast() {
+        // arrange
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user(1L, "ADMIN")));
+        when(announcementRepository.save(any(Announcement.class))).thenAnswer(invocation -> {
+            Announcement saved = invocation.getArgument(0);
+            saved.setId(30L);
+            return saved;
+        });
+        Announcement announcement = announcement("all", null, null);
+
+        // act
+        Announcement created = announcementService.createAnnouncement(announcement, "user1");
+
+        // assert - no per user rows, no per user pushes
+        assertEquals(Announcement.AUDIENCE_ALL, created.getAudienceType());
+        verify(announcementRepository, times(1)).save(any(Announcement.class));
+        verify(messagingTemplate).convertAndSend(eq(AnnouncementService.TOPIC), argThat((Map<String, Object> payload) ->
+            "announcement".equals(payload.get("event")) && Long.valueOf(30L).equals(payload.get("id"))));
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+        verifyNoInteractions(announcementReadRepository);
+    }
+
+    @Test
+    void testCreateAnnouncement_CoursePushedToMembersOnly() {
+        // arrange - instructor 2 posts to thier course, 2 active students
+        User instructor = user(2L, "FACULTY");
+        Course course = new Course();
+        course.setId(9L);
+        course.setInstructor(instructor);
+        when(userRepository.findByUsername("user2")).thenReturn(Optional.of(instructor));
+        when(courseRepository.findById(9L)).thenReturn(Optional.of(course));
+        when(announcementRepository.save(any(Announcement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(enrollmentRepository.findStudentIdsByCourseIdAndStatus(9L, "ACTIVE")).thenReturn(List.of(5L, 6L));
+
+        // act
+        announcementService.createAnnouncement(announcement(Announcement.AUDIENCE_COURSE, null, 9L), "user2");
+
+        // assert
+        verify(messagingTemplate).convertAndSendToUser(eq("5"), eq(NotificationPushService.DESTINATION), any(Object.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("6"), eq(NotificationPushService.DESTINATION), any(Object.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq(NotificationPushService.DESTINATION), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void testCreateAnnouncement_ByUsername_PosterIsTheLoggedInUser() {
+        // arrange - faculty 3 (from the token) tries to post to a course of instructor 2
+        User instructor = user(2L, "FACULTY");
+        User otherFaculty = user(3L, "FACULTY");
+        Course course = new Course();
+        course.setId(9L);
+        course.setInstructor(instructor);
+        when(userRepository.findByUsername("user3")).thenReturn(Optional.of(otherFaculty));
+        when(userRepository.findByUsername("user2")).thenReturn(Optional.of(instructor));
+        when(courseRepository.findById(9L)).thenReturn(Optional.of(course));
+        when(announcementRepository.save(any(Announcement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // act + assert - not thier course
+        assertThrows(AccessDeniedException.class,
+            () -> announcementService.createAnnouncement(announcement(Announcement.AUDIENCE_COURSE, null, 9L), "user3"));
+
+        // act - the instructor themselves
+        Announcement created = announcementService.createAnnouncement(announcement(Announcement.AUDIENCE_COURSE, null, 9L), "user2");
+
+        // assert
+        assertSame(instructor, created.getCreatedBy());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testCreateAnnouncement_AudienceChecks() {
+        // arrange
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user(1L, "ADMIN")));
+        when(userRepository.findByUsername("user2")).thenReturn(Optional.of(user(2L, "FACULTY")));
+
+        // act + assert
+        assertThrows(IllegalArgumentException.class,
+            () -> announcementService.createAnnouncement(announcement(Announcement.AUDIENCE_ROLE, "DEAN", null), "user1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> announcementService.createAnnouncement(announcement(Announcement.AUDIENCE_SEMESTER, null, null), "user1"));
+        assertThrows(AccessDeniedException.class,
+            () -> announcementService.createAnnouncement(announcement(Announcement.AUDIENCE_ALL, null, null), "user2"));
+        verify(announcementRepository, never()).save(any());
+    }
+
+    @Test
+    void testMarkAllAsRead_OnlyUnreadGetMarkers() {
+        // arrange
+        Announcement first = announcement(Announcement.AUDIENCE_ALL, null, null);
+        first.setId(1L);
+        Announcement second = announcement(Announcement.AUDIENCE_ALL, null, null);
+        second.setId(2L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(7L, "STUDENT")));
+        when(announcementRepository.findVisibleUnread(eq(7L), eq("STUDENT"), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(first, second));
+        when(announcementReadRepository.markRead(anyLong(), eq(7L), any(LocalDateTime.class))).thenReturn(1);
+
+        // act
+        int marked = announcementService.markAllAsRead(7L);
+
+        // assert
+        assertEquals(2, marked);
+        verify(announcementReadRepository).markRead(eq(1L), eq(7L), any(LocalDateTime.class));
+        verify(announcementReadRepository).markRead(eq(2L), eq(7L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testGetReadCounts_OneGroupedQueryForThePage() {
+        // arrange - announcement 2 was read by nobody so it has no row
+        Announcement first = announcement(Announcement.AUDIENCE_ALL, null, null);
+        first.setId(1L);
+        Announcement second = announcement(Announcement.AUDIENCE_ALL, null, null);
+        second.setId(2L);
+        when(announcementReadRepository.countGroupedByAnnouncementId(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[]{1L, 40L}));
+
+        // act
+        Map<Long, Long> counts = announcementService.getReadCounts(List.of(first, second));
+
+        // assert
+        assertEquals(Map.of(1L, 40L), counts);
+        verify(announcementReadRepository, times(1)).countGroupedByAnnouncementId(anyCollection());
+    }
+
+    private static Announcement announcement(String audienceType, String audienceRole, Long audienceId) {
+        Announcement announcement = new Announcement();
+        announcement.setTitle("Campus closed Friday");
+        announcement.setMessage("Snow day");
+        announcement.setAudienceType(audienceType);
+        announcement.setAudienceRole(audienceRole);
+        announcement.setAudienceId(audienceId);
+        return announcement;
+    }
+
+    private static User user(Long id, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -29,6 +29,21 @@ class CourseServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TimetableIndexService timetableIndexService;
+
+    @Mock
+    private PrerequisiteIndexService prerequisiteIndexService;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
+    @Mock
+    private CreditLoadService creditLoadService;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -150,6 +165,29 @@ class CourseServiceTest {
         // assert
         assertNotNull(result);
         verify(courseRepository, times(1)).save(testCourse);
+        // 3 -> 4 credits, enrolled students totals follow
+        verify(creditLoadService).courseChanged(1L, null, 3, null, 4);
+        verify(searchIndexService).entitySaved(testCourse);
+        // same code, cached timetables stay as they are
+        verify(timetableIndexService, never()).courseScheduleChanged(any(Course.class));
+    }
+
+    @Test
+    void testUpdateCourse_CodeChanged_RefreshesTimetableSlots() {
+        // arrange
+        Course updatedDetails = new Course();
+        updatedDetails.setCourseCode("CS110");
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        when(courseRepository.existsByCourseCode("CS110")).thenReturn(false);
+        when(courseRepository.save(any(Course.class))).thenReturn(testCourse);
+
+        // act
+        courseService.updateCourse(1L, updatedDetails);
+
+        // assert
+        assertEquals("CS110", testCourse.getCourseCode());
+        verify(timetableIndexService).courseScheduleChanged(testCourse);
     }
 
     @Test
@@ -163,6 +201,7 @@ class CourseServiceTest {
 
         // assert
         verify(courseRepository, times(1)).delete(testCourse);
+        verify(searchIndexService).entityRemoved(testCourse);
     }
 
     @Test
@@ -216,4 +255,23 @@ class CourseServiceTest {
 
         verify(courseRepository, never()).save(any(Course.class));
     }
+
+    @Test
+    void testAddPrerequisite_Cycle_ThrowsException() {
+        // arrange - CS102 already needs CS101, so CS101 cant need CS102
+        Course course2 = new Course();
+        course2.setId(2L);
+        course2.setCourseCode("CS102");
+        course2.setCourseName("Data Structures");
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        when(courseRepository.findById(2L)).thenReturn(Optional.of(course2));
+        when(prerequisiteIndexService.wouldCreateCycle(testCourse, course2)).thenReturn(true);
+
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            courseService.addPrerequisite(1L, 2L);
+        });
+
+        verify(courseRepository, never()).save(any(Course.class));
+    }
 }
@@ -0,0 +1,123 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.entity.Semester;
+import com.sams.repository.StudentCreditLoadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CreditLoadServiceTest {
+
+    @Mock
+    private StudentCreditLoadRepository creditLoadRepository;
+
+    @InjectMocks
+    private CreditLoadService creditLoadService;
+
+    private Course testCourse;
+
+    @BeforeEach
+    void setUp() {
+        Semester semester = new Semester();
+        semester.setId(5L);
+
+        testCourse = new Course();
+        testCourse.setId(1L);
+        testCourse.setCourseCode("CS101");
+        testCourse.setCredits(3);
+        testCourse.setSemester(semester);
+    }
+
+    @Test
+    void testBackfillIfEmpty_RebuildsOnFirstStart() {
+        // arrange
+        when(creditLoadRepository.count()).thenReturn(0L);
+        when(creditLoadRepository.insertLoadsFromEnrollments()).thenReturn(120);
+
+        // act
+        creditLoadService.backfillIfEmpty();
+
+        // assert
+        verify(creditLoadRepository).deleteAllLoads();
+        verify(creditLoadRepository).insertLoadsFromEnrollments();
+    }
+
+    @Test
+    void testBackfillIfEmpty_LeavesFilledTableAlone() {
+        // arrange
+        when(creditLoadRepository.count()).thenReturn(40L);
+
+        // act
+        creditLoadService.backfillIfEmpty();
+
+        // assert
+        verify(creditLoadRepository, never()).deleteAllLoads();
+        verify(creditLoadRepository, never()).insertLoadsFromEnrollments();
+    }
+
+    @Test
+    void testAddCourse_ReturnsNewTotal() {
+        // arrange
+        when(creditLoadRepository.findCredits(8L, 5L)).thenReturn(Optional.of(15));
+
+        // act
+        int total = creditLoadService.addCourse(8L, testCourse);
+
+        // assert
+        assertEquals(15, total);
+        verify(creditLoadRepository).addCredits(8L, 5L, 3);
+    }
+
+    @Test
+    void testRemoveCourse_NoSemesterNothingToDo() {
+        // arrange
+        testCourse.setSemester(null);
+
+        // act
+        creditLoadService.removeCourse(8L, testCourse);
+
+        // assert
+        verifyNoInteractions(creditLoadRepository);
+        assertEquals(0, creditLoadService.getCredits(8L, null));
+    }
+
+    @Test
+    void testCourseChanged_CreditsMoveByTheDifference() {
+        // act - 3 credit course becomes 4 credits
+        creditLoadService.courseChanged(1L, 5L, 3, 5L, 4);
+
+        // assert - one statement for every enrolled student
+        verify(creditLoadRepository).addCreditsForCourse(1L, 5L, 1);
+        verifyNoMoreInteractions(creditLoadRepository);
+    }
+
+    @Test
+    void testCourseChanged_SemesterMoveTakesOldCreditsOffAndAddsNewOnes() {
+        // act
+        creditLoadService.courseChanged(1L, 5L, 3, 6L, 4);
+
+        // assert
+        verify(creditLoadRepository).addCreditsForCourse(1L, 5L, -3);
+        verify(creditLoadRepository).addCreditsForCourse(1L, 6L, 4);
+    }
+
+    @Test
+    void testCourseChanged_NothingChanged() {
+        // act
+        creditLoadService.courseChanged(1L, 5L, 3, 5L, 3);
+
+        // assert
+        verifyNoInteractions(creditLoadRepository);
+    }
+}
@@ -0,0 +1,261 @@
+package com.sams.service;
+
+import com.sams.entity.User;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.EnrollmentRepository;
+import com.sams.repository.PaymentRepository;
+import com.sams.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardCounterServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private DashboardFeedService dashboardFeedService;
+
+    private DashboardCounterService counterService;
+
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        counterService = new DashboardCounterService(userRepository, courseRepository, enrollmentRepository,
+            paymentRepository, rollupService, dashboardFeedService);
+        // seed from an empty database so reads dont trigger a recount
+        counterService.reconcile();
+        clearInvocations(userRepository, courseRepository, enrollmentRepository, paymentRepository, dashboardFeedService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testUserChanged_Created() {
+        // act
+        counterService.userChanged(null, user("STUDENT", true, "FEMALE"));
+
+        // assert
+        assertEquals(1, counterService.getTotalUsers());
+        assertEquals(1, counterService.getUsersByRole("STUDENT"));
+        assertEquals(1, counterService.getUsersByRoleAndActive("STUDENT", true));
+        assertEquals(1, counterService.getActiveUsers());
+        assertEquals(1, counterService.getActiveUsersByGender("FEMALE"));
+        assertEquals(1, counterService.getUsersCreatedInMonth("STUDENT", YearMonth.from(createdAt)));
+        verify(rollupService).record(RollupService.usersMetric("STUDENT"), createdAt, 1);
+    }
+
+    @Test
+    void testUserChanged_RoleChangeMovesUserAndRollup() {
+        // arrange
+        User user = user("STUDENT", true, "MALE");
+        counterService.userChanged(null, user);
+
+        // act
+        DashboardCounterService.UserSnapshot before = counterService.snapshot(user);
+        user.setRole("FACULTY");
+        counterService.userChanged(before, user);
+
+        // assert - still one user, counted under the new role
+        assertEquals(1, counterService.getTotalUsers());
+        assertEquals(0, counterService.getUsersByRole("STUDENT"));
+        assertEquals(1, counterService.getUsersByRoleAndActive("FACULTY", true));
+        assertEquals(0, counterService.getUsersCreatedInMonth("STUDENT", YearMonth.from(createdAt)));
+        assertEquals(1, counterService.getUsersCreatedInMonth("FACULTY", YearMonth.from(createdAt)));
+        verify(rollupService).record(RollupService.usersMetric("STUDENT"), createdAt, -1);
+        verify(rollupService).record(RollupService.usersMetric("FACULTY"), createdAt, 1);
+    }
+
+    @Test
+    void testUserChanged_DeactivatedKeepsRoleCount() {
+        // arrange
+        User user = user("STUDENT", true, "MALE");
+        counterService.userChanged(null, user);
+
+        // act
+        DashboardCounterService.UserSnapshot before = counterService.snapshot(user);
+        user.setActive(false);
+        counterService.userChanged(before, user);
+
+        // assert - active and gender counts drop, the rollup doesnt move for the same role
+        assertEquals(1, counterService.getUsersByRole("STUDENT"));
+        assertEquals(0, counterService.getUsersByRoleAndActive("STUDENT", true));
+        assertEquals(1, counterService.getUsersByRoleAndActive("STUDENT", false));
+        assertEquals(0, counterService.getActiveUsers());
+        assertEquals(0, counterService.getActiveUsersByGender("MALE"));
+        verify(rollupService, times(1)).record(anyString(), any(LocalDateTime.class), anyLong());
+    }
+
+    @Test
+    void testUserChanged_GenderChange() {
+        // arrange - gender not set yet
+        User user = user("STUDENT", true, null);
+        counterService.userChanged(null, user);
+        assertEquals(1, counterService.getActiveUsersByGender(null));
+
+        // act
+        DashboardCounterService.UserSnapshot before = counterService.snapshot(user);
+        user.setGender("FEMALE");
+        counterService.userChanged(before, user);
+
+        // assert
+        assertEquals(0, counterService.getActiveUsersByGender(null));
+        assertEquals(1, counterService.getActiveUsersByGender("FEMALE"));
+        assertEquals(1, counterService.getActiveUsers());
+    }
+
+    @Test
+    void testUserChanged_Deleted() {
+        // arrange
+        User user = user("ADMIN", true, "MALE");
+        counterService.userChanged(null, user);
+
+        // act
+        counterService.userChanged(counterService.snapshot(user), null);
+
+        // assert
+        assertEquals(0, counterService.getTotalUsers());
+        assertEquals(0, counterService.getUsersByRole("ADMIN"));
+        assertEquals(0, counterService.getActiveUsers());
+        assertEquals(0, counterService.getUsersCreatedInMonth("ADMIN", YearMonth.from(createdAt)));
+        verify(rollupService).record(RollupService.usersMetric("ADMIN"), createdAt, -1);
+    }
+
+    @Test
+    void testPaymentStatusChanged_Transitions() {
+        // act - created, approved, saved again with the same status, then deleted
+        counterService.paymentStatusChanged(null, "PENDING");
+        counterService.paymentStatusChanged(null, "PENDING");
+        counterService.paymentStatusChanged("PENDING", "APPROVED");
+        counterService.paymentStatusChanged("APPROVED", "APPROVED");
+
+        // assert
+        assertEquals(1, counterService.getPaymentsByStatus("PENDING"));
+        assertEquals(1, counterService.getPaymentsByStatus("APPROVED"));
+
+        // act
+        counterService.paymentStatusChanged("APPROVED", null);
+
+        // assert
+        assertEquals(0, counterService.getPaymentsByStatus("APPROVED"));
+        assertEquals(1, counterService.getPaymentsByStatus("PENDING"));
+        verify(dashboardFeedService, times(4)).countersChanged(anyMap());
+    }
+
+    @Test
+    void testChangesAppliedOnlyAfterCommit() {
+        // arrange - pretend a transaction is running
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        counterService.paymentStatusChanged(null, "PENDING");
+        counterService.userChanged(null, user("STUDENT", true, "MALE"));
+
+        // assert - nothing moved and nothing was pushed yet
+        assertEquals(0, counterService.getPaymentsByStatus("PENDING"));
+        assertEquals(0, counterService.getTotalUsers());
+        verify(dashboardFeedService, never()).countersChanged(anyMap());
+
+        // act - commit
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        // assert
+        assertEquals(1, counterService.getPaymentsByStatus("PENDING"));
+        assertEquals(1, counterService.getTotalUsers());
+        verify(dashboardFeedService, times(2)).countersChanged(anyMap());
+    }
+
+    @Test
+    void testChangesDroppedOnRollback() {
+        // arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act - transaction rolls back, afterCommit never runs
+        counterService.paymentStatusChanged(null, "PENDING");
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // assert
+        assertEquals(0, counterService.getPaymentsByStatus("PENDING"));
+        verify(dashboardFeedService, never()).countersChanged(anyMap());
+    }
+
+    @Test
+    void testReconcile_CorrectsDrift() {
+        // arrange - counters drifted away from the database
+        counterService.paymentStatusChanged(null, "PENDING");
+        counterService.paymentStatusChanged(null, "PENDING");
+        counterService.userChanged(null, user("ADMIN", true, "MALE"));
+        clearInvocations(dashboardFeedService);
+
+        when(userRepository.countGroupedByRoleActiveGender())
+            .thenReturn(List.<Object[]>of(new Object[]{"STUDENT", true, "FEMALE", 4L}));
+        when(paymentRepository.countGroupedByStatus())
+            .thenReturn(List.<Object[]>of(new Object[]{"PENDING", 1L}, new Object[]{"APPROVED", 3L}));
+        when(courseRepository.count()).thenReturn(2L);
+
+        // act
+        counterService.reconcile();
+
+        // assert - counts come from the database, counters without rows go back to 0
+        assertEquals(1, counterService.getPaymentsByStatus("PENDING"));
+        assertEquals(3, counterService.getPaymentsByStatus("APPROVED"));
+        assertEquals(4, counterService.getTotalUsers());
+        assertEquals(4, counterService.getUsersByRoleAndActive("STUDENT", true));
+        assertEquals(0, counterService.getUsersByRole("ADMIN"));
+        assertEquals(0, counterService.getActiveUsersByGender("MALE"));
+        assertEquals(2, counterService.getTotalCourses());
+
+        // and the corrections go out on the live feed, unchanged counters dont
+        verify(dashboardFeedService).countersChanged(argThat(corrected ->
+            Long.valueOf(1L).equals(corrected.get("payments.status.PENDING"))
+                && Long.valueOf(3L).equals(corrected.get("payments.status.APPROVED"))
+                && Long.valueOf(0L).equals(corrected.get("users.role.ADMIN"))
+                && !corrected.containsKey("enrollments")));
+    }
+
+    private User user(String role, boolean active, String gender) {
+        User user = new User("user", "user@example.com", "hashedpass", role);
+        user.setActive(active);
+        user.setGender(gender);
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sams.service;
+
+import com.sams.entity.ActivityLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardFeedServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private DashboardFeedService dashboardFeedService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_CoalescesCounterChangesIntoOneMessage() {
+        // arrange - the same counters move several times before the flush
+        dashboardFeedService.countersChanged(Map.of("enrollments", 10L, "payments.status.PAID", 3L));
+        dashboardFeedService.countersChanged(Map.of("enrollments", 11L));
+        dashboardFeedService.countersChanged(Map.of("enrollments", 12L, "courses", 4L, "users.active.gender.FEMALE", 7L));
+        ActivityLog log = new ActivityLog();
+        log.setActivityType("ENROLLMENT_CREATED");
+        log.setDescription("student1 enrolled in CS101");
+        dashboardFeedService.activityLogged(log);
+
+        // act
+        dashboardFeedService.flush();
+
+        // assert
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DashboardFeedService.TOPIC), captor.capture());
+        Map<String, Object> message = (Map<String, Object>) captor.getValue();
+        // counters go out under the DashboardStats field names, ones without a field are left out
+        assertEquals(Map.of("totalEnrollments", 12L, "totalCourses", 4L, "activeCourses", 4L), message.get("stats"));
+        assertEquals(3L, message.get("paymentQueueSize"));
+        List<Map<String, Object>> activities = (List<Map<String, Object>>) message.get("activities");
+        assertEquals(1, activities.size());
+        assertEquals("enrollment", activities.get(0).get("type"));
+        assertEquals("student1 enrolled in CS101", activities.get(0).get("message"));
+        assertEquals(1L, message.get("seq"));
+    }
+
+    @Test
+    void testFlush_OnlyCountersWithoutStatsField_NoMessage() {
+        // arrange
+        dashboardFeedService.countersChanged(Map.of("users.active.gender.MALE", 5L, "payments.status.APPROVED", 2L));
+
+        // act
+        dashboardFeedService.flush();
+
+        // assert
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void testFlush_NothingChanged_NoMessage() {
+        // arrange
+        dashboardFeedService.countersChanged(Map.of("courses", 5L));
+        dashboardFeedService.flush();
+
+        // act
+        dashboardFeedService.flush();
+
+        // assert - only the first flush had something to send
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.sams.service;
+
+import com.sams.dto.dashboard.CompleteDashboard;
+import com.sams.repository.ActivityLogRepository;
+import com.sams.repository.GradeRepository;
+import com.sams.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DashboardServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private GradeRepository gradeRepository;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private FinancialSummaryService financialSummaryService;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("dashboard.sections.gradeDistribution.timeout.ms", "100");
+        ReflectionTestUtils.setField(dashboardService, "environment", environment);
+        ReflectionTestUtils.setField(dashboardService, "sectionThreads", 6);
+        ReflectionTestUtils.setField(dashboardService, "defaultSectionTimeoutMs", 2000L);
+        dashboardService.startSectionExecutor();
+
+        when(activityLogRepository.findRecentActivities(any())).thenReturn(List.of());
+        when(userRepository.findRecentUsers(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.stopSectionExecutor();
+    }
+
+    @Test
+    void testGetCompleteDashboard_SlowSection_ReturnsPartialWithoutWaiting() {
+        // arrange - grade distribution takes way longer than its 100ms timeout
+        when(gradeRepository.getGradeDistribution()).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return List.of();
+        });
+
+        // act
+        long start = System.currentTimeMillis();
+        CompleteDashboard dashboard = dashboardService.getCompleteDashboard();
+        long took = System.currentTimeMillis() - start;
+
+        // assert
+        assertTrue(took < 2000, "took " + took + "ms");
+        assertTrue(dashboard.isPartial());
+        assertEquals(List.of("gradeDistribution"), dashboard.getMissingSections());
+        assertNull(dashboard.getGradeDistribution());
+        assertNotNull(dashboard.getStats());
+        assertNotNull(dashboard.getRecentActivities());
+    }
+
+    @Test
+    void testGetCompleteDashboard_FailedSection_ServesLastGoodValue() {
+        // arrange - works the first time, then the query starts failing
+        when(gradeRepository.getGradeDistribution())
+            .thenReturn(List.<Object[]>of(new Object[]{"A", 2L}))
+            .thenThrow(new RuntimeException("connection reset"));
+
+        // act
+        CompleteDashboard first = dashboardService.getCompleteDashboard();
+        CompleteDashboard second = dashboardService.getCompleteDashboard();
+
+        // assert
+        assertFalse(first.isPartial());
+        assertTrue(second.isPartial());
+        assertEquals(List.of("gradeDistribution"), second.getStaleSections());
+        assertEquals("A", second.getGradeDistribution().get(0).getGradeValue());
+    }
+}
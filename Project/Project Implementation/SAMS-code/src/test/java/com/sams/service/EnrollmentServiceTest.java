@@ -0,0 +1,361 @@
+package com.sams.service;
+
+import com.sams.dto.CartEnrollmentResponse;
+import com.sams.entity.Course;
+import com.sams.entity.Enrollment;
+import com.sams.entity.Semester;
+import com.sams.entity.User;
+import com.sams.exception.CreditLimitExceededException;
+import com.sams.repository.EnrollmentRepository;
+import com.sams.repository.SemesterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private SemesterRepository semesterRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private TimetableIndexService timetableIndexService;
+
+    @Mock
+    private PrerequisiteIndexService prerequisiteIndexService;
+
+    @Mock
+    private CreditLoadService creditLoadService;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
+    @InjectMocks
+    private EnrollmentService enrollmentService;
+
+    private Course testCourse;
+    private Semester semester;
+    private User testStudent;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(enrollmentService, "maxCreditsPerSemester", 18);
+
+        // semester with registration open right now
+        semester = new Semester();
+        semester.setId(5L);
+        semester.setName("Fall 2026");
+        semester.setActive(true);
+        semester.setRegistrationOpen(true);
+        semester.setEnrollmentStartDate(LocalDate.now().minusDays(7));
+        semester.setEnrollmentEndDate(LocalDate.now().plusDays(7));
+
+        testStudent = student(8L);
+
+        testCourse = new Course();
+        testCourse.setId(1L);
+        testCourse.setCourseCode("CS101");
+        testCourse.setCourseName("Introduction to Computer Science");
+        testCourse.setCredits(3);
+        testCourse.setCapacity(30);
+    }
+
+    @Test
+    void testGetWaitlistRank_CountsTicketsAhead() {
+        // arrange - ticket 57, two people with lower tickets still waiting (the rest left)
+        Enrollment waitlisted = waitlisted(9L, 57);
+        when(enrollmentRepository.countByCourseAndStatusAndWaitlistPositionLessThan(testCourse, "WAITLISTED", 57))
+            .thenReturn(2L);
+
+        // act + assert
+        assertEquals(3, enrollmentService.getWaitlistRank(waitlisted));
+    }
+
+    @Test
+    void testGetWaitlistRank_NotWaitlistedNoQuery() {
+        // arrange
+        Enrollment active = new Enrollment(student(1L), testCourse);
+        active.setStatus("ACTIVE");
+
+        // act + assert
+        assertNull(enrollmentService.getWaitlistRank(active));
+        verifyNoInteractions(enrollmentRepository);
+    }
+
+    @Test
+    void testGetWaitlistRanks_OneQueryForTheWholeList() {
+        // arrange - one active and two waitlisted enrollments
+        Enrollment active = new Enrollment(student(1L), testCourse);
+        active.setId(1L);
+        active.setStatus("ACTIVE");
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{2L, 1L});
+        rows.add(new Object[]{3L, 2L});
+        when(enrollmentRepository.findWaitlistRanks(anyCollection(), anyCollection())).thenReturn(rows);
+
+        // act
+        Map<Long, Integer> ranks = enrollmentService.getWaitlistRanks(List.of(active, waitlisted(2L, 40), waitlisted(3L, 44)));
+
+        // assert
+        assertEquals(Map.of(2L, 1, 3L, 2), ranks);
+        verify(enrollmentRepository, times(1)).findWaitlistRanks(anyCollection(), anyCollection());
+        verify(enrollmentRepository, never()).countByCourseAndStatusAndWaitlistPositionLessThan(any(), anyString(), anyInt());
+    }
+
+    @Test
+    void testGetWaitlistRanks_NobodyWaitlistedNoQuery() {
+        // arrange
+        Enrollment active = new Enrollment(student(1L), testCourse);
+        active.setStatus("ACTIVE");
+
+        // act + assert
+        assertTrue(enrollmentService.getWaitlistRanks(List.of(active)).isEmpty());
+        verifyNoInteractions(enrollmentRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProcessWaitlist_PromotesInBatchesUntilCourseIsFull() {
+        // arrange - 30 waiting, loaded 20 at a time, 25 seats free
+        List<Enrollment> firstBatch = new ArrayList<>();
+        List<Enrollment> secondBatch = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            (i <= 20 ? firstBatch : secondBatch).add(waitlisted((long) i, i));
+        }
+        when(enrollmentRepository.findByCourseAndStatusOrderByWaitlistPositionAsc(eq(testCourse), eq("WAITLISTED"),
+            any(Pageable.class))).thenReturn(firstBatch, secondBatch);
+        AtomicInteger reserved = new AtomicInteger();
+        when(seatReservationService.tryReserve(testCourse)).thenAnswer(invocation -> reserved.incrementAndGet() <= 25);
+
+        // act
+        int promoted = enrollmentService.processWaitlist(testCourse);
+
+        // assert - first 25 in line promoted, the rest keep thier tickets
+        assertEquals(25, promoted);
+        verify(enrollmentRepository, times(2)).findByCourseAndStatusOrderByWaitlistPositionAsc(eq(testCourse),
+            eq("WAITLISTED"), any(Pageable.class));
+        verify(enrollmentRepository, times(25)).save(any(Enrollment.class));
+        verify(creditLoadService, times(25)).addCourse(anyLong(), eq(testCourse));
+        assertEquals("ACTIVE", firstBatch.get(0).getStatus());
+        assertNull(firstBatch.get(0).getWaitlistPosition());
+        assertEquals("ACTIVE", secondBatch.get(4).getStatus());
+        assertEquals("WAITLISTED", secondBatch.get(5).getStatus());
+        assertEquals(26, secondBatch.get(5).getWaitlistPosition());
+    }
+
+    @Test
+    void testProcessWaitlist_EmptyWaitlist() {
+        // arrange
+        when(enrollmentRepository.findByCourseAndStatusOrderByWaitlistPositionAsc(eq(testCourse), eq("WAITLISTED"),
+            any(Pageable.class))).thenReturn(List.of());
+
+        // act + assert
+        assertEquals(0, enrollmentService.processWaitlist(testCourse));
+        verifyNoInteractions(seatReservationService);
+    }
+
+    // ========== CART ==========
+
+    @Test
+    void testEnrollCart_DryRunSavesNothing() {
+        // arrange
+        Course cs101 = course(1L, "CS101", 3);
+        Course cs102 = course(2L, "CS102", 3);
+        arrangeCart(List.of(cs101, cs102), 6);
+        when(seatReservationService.getAvailableSeats(cs101)).thenReturn(4);
+        when(seatReservationService.getAvailableSeats(cs102)).thenReturn(0);
+
+        // act
+        CartEnrollmentResponse response = enrollmentService.enrollCart(8L, List.of(1L, 2L), true);
+
+        // assert - only a prediction, no seats taken and no rows written
+        assertEquals("PENDING_PAYMENT", response.getResults().get(0).getStatus());
+        assertEquals("WAITLISTED", response.getResults().get(1).getStatus());
+        verify(seatReservationService, never()).tryReserve(any());
+        verify(enrollmentRepository, never()).saveAll(any());
+        verify(creditLoadService, never()).addCourse(anyLong(), any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void testEnrollCart_CreditsAddUpAcrossTheCart() {
+        // arrange - 12 credits already, three 3 credit courses: 15, 18, then 21 is over the limit
+        arrangeCart(List.of(course(1L, "CS101", 3), course(2L, "CS102", 3), course(3L, "CS103", 3)), 12);
+
+        // act
+        CartEnrollmentResponse response = enrollmentService.enrollCart(8L, List.of(1L, 2L, 3L), true);
+
+        // assert
+        assertNull(response.getResults().get(0).getReason());
+        assertNull(response.getResults().get(1).getReason());
+        assertEquals("REJECTED", response.getResults().get(2).getStatus());
+        assertTrue(response.getResults().get(2).getReason().contains("maximum credit limit"));
+        // the current load was read once for the semester, not once per course
+        verify(creditLoadService, times(1)).getCredits(8L, 5L);
+    }
+
+    @Test
+    void testEnrollCart_DuplicatesAndAlreadyEnrolledRejected() {
+        // arrange - CS101 twice in the cart, already enrolled in CS102, 99 doesnt exist
+        arrangeCart(List.of(course(1L, "CS101", 3), course(2L, "CS102", 3)), 0);
+        when(enrollmentRepository.findCourseIdsByStudentIdAndStatusIn(eq(8L), anyCollection())).thenReturn(List.of(2L));
+
+        // act
+        CartEnrollmentResponse response = enrollmentService.enrollCart(8L, List.of(1L, 1L, 2L, 99L), true);
+
+        // assert
+        List<CartEnrollmentResponse.CourseResult> results = response.getResults();
+        assertNull(results.get(0).getReason());
+        assertEquals("CS101 is in the cart more than once", results.get(1).getReason());
+        assertTrue(results.get(2).getReason().contains("already enrolled in CS102"));
+        assertEquals("Course not found with id: 99", results.get(3).getReason());
+    }
+
+    @Test
+    void testEnrollCart_TimeClashInsideTheCart() {
+        // arrange - CS102 overlaps CS101, which was accepted first
+        Course cs101 = course(1L, "CS101", 3);
+        Course cs102 = course(2L, "CS102", 3);
+        arrangeCart(List.of(cs101, cs102), 0);
+        when(timetableIndexService.overlaps(cs102, cs101)).thenReturn(true);
+
+        // act
+        CartEnrollmentResponse response = enrollmentService.enrollCart(8L, List.of(1L, 2L), true);
+
+        // assert
+        assertNull(response.getResults().get(0).getReason());
+        assertEquals("REJECTED", response.getResults().get(1).getStatus());
+        assertTrue(response.getResults().get(1).getReason().contains("CS101"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEnrollCart_SavesAcceptedCoursesInOneGo() {
+        // arrange - seat in CS101, CS102 is full
+        Course cs101 = course(1L, "CS101", 3);
+        Course cs102 = course(2L, "CS102", 3);
+        arrangeCart(List.of(cs101, cs102), 0);
+        when(seatReservationService.tryReserve(cs101)).thenReturn(true);
+        when(seatReservationService.tryReserve(cs102)).thenReturn(false);
+        when(seatReservationService.nextWaitlistTicket(cs102)).thenReturn(7);
+        arrangeSaveAll();
+        when(creditLoadService.addCourse(8L, cs101)).thenReturn(3);
+
+        // act
+        CartEnrollmentResponse response = enrollmentService.enrollCart(8L, List.of(1L, 2L), false);
+
+        // assert
+        assertEquals("PENDING_PAYMENT", response.getResults().get(0).getStatus());
+        assertEquals("WAITLISTED", response.getResults().get(1).getStatus());
+        verify(enrollmentRepository, times(1)).saveAll(anyList());
+        // credits only for the seat actually taken
+        verify(creditLoadService, times(1)).addCourse(anyLong(), any());
+    }
+
+    @Test
+    void testEnrollCart_CreditLimitAfterSaveThrowsSoEverythingRollsBack() {
+        // arrange - validation saw 12 credits, but a parallel enrollment got in before the save
+        Course cs101 = course(1L, "CS101", 3);
+        arrangeCart(List.of(cs101), 12);
+        when(seatReservationService.tryReserve(cs101)).thenReturn(true);
+        arrangeSaveAll();
+        when(creditLoadService.addCourse(8L, cs101)).thenReturn(21);
+
+        // act + assert - the exception leaves the transaction, rows and seats are rolled back with it
+        assertThrows(CreditLimitExceededException.class, () -> enrollmentService.enrollCart(8L, List.of(1L), false));
+        verifyNoInteractions(outboxService);
+    }
+
+    private void arrangeCart(List<Course> courses, int currentCredits) {
+        when(userService.getUserById(8L)).thenReturn(testStudent);
+        when(courseService.getCoursesByIds(anyCollection())).thenReturn(courses);
+        lenient().when(creditLoadService.getCredits(8L, 5L)).thenReturn(currentCredits);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void arrangeSaveAll() {
+        AtomicInteger ids = new AtomicInteger(100);
+        when(enrollmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Enrollment> enrollments = invocation.getArgument(0);
+            enrollments.forEach(enrollment -> enrollment.setId((long) ids.incrementAndGet()));
+            return enrollments;
+        });
+    }
+
+    private Course course(Long id, String code, int credits) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCourseCode(code);
+        course.setCourseName(code);
+        course.setCredits(credits);
+        course.setCapacity(30);
+        course.setSemester(semester);
+        return course;
+    }
+
+    @Test
+    void testUpdateEnrollmentStatus_ToWaitlistedGetsATicket() {
+        // arrange - an admin moves an active enrollment to the waitlist
+        Enrollment enrollment = new Enrollment(testStudent, testCourse);
+        enrollment.setId(3L);
+        enrollment.setStatus("ACTIVE");
+        when(enrollmentRepository.findById(3L)).thenReturn(Optional.of(enrollment));
+        when(seatReservationService.nextWaitlistTicket(testCourse)).thenReturn(12);
+        when(enrollmentRepository.save(enrollment)).thenReturn(enrollment);
+
+        // act
+        Enrollment result = enrollmentService.updateEnrollmentStatus(3L, "WAITLISTED");
+
+        // assert - without a ticket getWaitlistRank and processWaitlist would never see them
+        assertEquals("WAITLISTED", result.getStatus());
+        assertEquals(12, result.getWaitlistPosition());
+        verify(creditLoadService).removeCourse(8L, testCourse);
+    }
+
+    private Enrollment waitlisted(Long id, int ticket) {
+        Enrollment enrollment = new Enrollment(student(100L + id), testCourse);
+        enrollment.setId(id);
+        enrollment.setStatus("WAITLISTED");
+        enrollment.setWaitlistPosition(ticket);
+        return enrollment;
+    }
+
+    private static User student(Long id) {
+        User student = new User();
+        student.setId(id);
+        student.setUsername("student" + id);
+        student.setRole("STUDENT");
+        return student;
+    }
+}
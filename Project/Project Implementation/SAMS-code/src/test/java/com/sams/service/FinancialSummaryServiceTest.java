@@ -0,0 +1,68 @@
+package com.sams.service;
+
+import com.sams.dto.dashboard.FinancialSummary;
+import com.sams.dto.dashboard.SemesterFinancialSummary;
+import com.sams.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinancialSummaryServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    private FinancialSummaryService financialSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        financialSummaryService = new FinancialSummaryService(paymentRepository, 300000);
+    }
+
+    @Test
+    void testGetSummary_AddsUpGroupedRows() {
+        // arrange - two semesters plus a payment with no semester
+        when(paymentRepository.sumGroupedBySemesterAndStatus()).thenReturn(List.of(
+            new Object[]{1L, "Fall 2024", "APPROVED", 3L, new BigDecimal("3000.00")},
+            new Object[]{1L, "Fall 2024", "PENDING", 1L, new BigDecimal("500.00")},
+            new Object[]{2L, "Spring 2025", "PAID", 1L, new BigDecimal("1000.00")},
+            new Object[]{null, null, "REJECTED", 1L, new BigDecimal("200.00")}));
+
+        // act
+        FinancialSummary summary = financialSummaryService.getSummary();
+        List<SemesterFinancialSummary> semesters = financialSummaryService.getSemesterSummaries();
+
+        // assert
+        assertEquals(6L, summary.getTotalPaymentCount());
+        assertEquals(new BigDecimal("4000.00"), summary.getTotalRevenue());
+        assertEquals(1L, summary.getRejectedPaymentCount());
+        assertEquals(2, semesters.size());
+        assertEquals("Fall 2024", semesters.get(0).getSemesterName());
+        assertEquals(75.0, semesters.get(0).getCollectionRate());
+    }
+
+    @Test
+    void testGetSummary_CachedUntilPaymentChanged() {
+        // arrange
+        when(paymentRepository.sumGroupedBySemesterAndStatus()).thenReturn(List.<Object[]>of(
+            new Object[]{1L, "Fall 2024", "PENDING", 1L, new BigDecimal("500.00")}));
+
+        // act
+        financialSummaryService.getSummary();
+        financialSummaryService.getSemesterSummaries();
+        financialSummaryService.paymentChanged();
+        financialSummaryService.getSummary();
+
+        // assert - one query for the first two reads, one more after the change
+        verify(paymentRepository, times(2)).sumGroupedBySemesterAndStatus();
+    }
+}
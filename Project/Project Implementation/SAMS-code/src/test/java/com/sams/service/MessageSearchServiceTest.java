@@ -0,0 +1,101 @@
+package com.sams.service;
+
+import com.sams.entity.GroupMessage;
+import com.sams.repository.GroupMessageRepository;
+import com.sams.repository.PrivateMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSearchServiceTest {
+
+    @Mock
+    private GroupMessageRepository groupMessageRepository;
+
+    @Mock
+    private PrivateMessageRepository privateMessageRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MessageSearchService messageSearchService;
+
+    @BeforeEach
+    void setUp() {
+        messageSearchService = new MessageSearchService(groupMessageRepository, privateMessageRepository,
+            jdbcTemplate, transactionManager, "english", 50, 1000, 20);
+    }
+
+    @Test
+    void testSearchGroup_KeepsRankOrderAndHighlights() {
+        // arrange
+        messageSearchService.ensureSchema();
+        GroupMessage first = message(7L);
+        GroupMessage second = message(3L);
+        when(groupMessageRepository.searchFullText(eq(1L), eq("exam"), eq("english"), anyString(), eq(50)))
+            .thenReturn(List.of(new Object[]{7L, 0.9f, "the \u0002exam\u0003 is <b>friday</b>"},
+                new Object[]{3L, 0.2f, "\u0002exams\u0003"}));
+        // the database hands them back in id order
+        when(groupMessageRepository.findAllById(List.of(7L, 3L))).thenReturn(List.of(second, first));
+
+        // act
+        List<MessageSearchService.Hit<GroupMessage>> hits = messageSearchService.searchGroup(1L, "exam");
+
+        // assert
+        assertEquals(2, hits.size());
+        assertSame(first, hits.get(0).getMessage());
+        assertSame(second, hits.get(1).getMessage());
+        assertEquals("the <mark>exam</mark> is &lt;b&gt;friday&lt;/b&gt;", hits.get(0).getHighlight());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testSearchGroup_NoFullText_FallsBackToLike() {
+        // arrange
+        doThrow(new DataAccessResourceFailureException("no tsvector")).when(jdbcTemplate).execute(anyString());
+        messageSearchService.ensureSchema();
+        GroupMessage message = message(5L);
+        when(groupMessageRepository.searchMessagesByContent(1L, "exam")).thenReturn(List.of(message));
+
+        // act
+        List<MessageSearchService.Hit<GroupMessage>> hits = messageSearchService.searchGroup(1L, "exam");
+
+        // assert
+        assertSame(message, hits.get(0).getMessage());
+        assertNull(hits.get(0).getHighlight());
+        verify(groupMessageRepository, never()).searchFullText(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGroupMessageSaved_IndexesTheMessage() {
+        // arrange
+        messageSearchService.ensureSchema();
+
+        // act
+        messageSearchService.groupMessageSaved(message(9L));
+
+        // assert
+        verify(groupMessageRepository).updateSearchVector(9L, "english");
+    }
+
+    private static GroupMessage message(Long id) {
+        GroupMessage message = new GroupMessage();
+        message.setId(id);
+        return message;
+    }
+}
@@ -0,0 +1,82 @@
+package com.sams.service;
+
+import com.sams.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCounterServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private NotificationCounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        // arrange - user 1 has 3 unread, user 2 has 1
+        when(notificationRepository.countUnreadGroupedByUser()).thenReturn(List.of(
+            new Object[]{1L, 3L},
+            new Object[]{2L, 1L}));
+        counterService.seed();
+    }
+
+    @Test
+    void testGetUnreadCount_NoDatabaseAfterSeed() {
+        // act
+        long first = counterService.getUnreadCount(1L);
+        long unknown = counterService.getUnreadCount(99L);
+
+        // assert
+        assertEquals(3, first);
+        assertEquals(0, unknown);
+        verify(notificationRepository, times(1)).countUnreadGroupedByUser();
+        verify(notificationRepository, never()).countByUserIdAndReadFalse(anyLong());
+    }
+
+    @Test
+    void testChanges_MoveCountAndPush() {
+        // act - no transaction, so applied right away
+        counterService.created(Map.of(1L, 1L, 5L, 1L));
+        counterService.read(2L, 4);
+        counterService.allRead(1L);
+
+        // assert
+        assertEquals(0, counterService.getUnreadCount(1L));
+        assertEquals(0, counterService.getUnreadCount(2L)); // never below 0
+        assertEquals(1, counterService.getUnreadCount(5L));
+        verify(messagingTemplate).convertAndSendToUser("5", NotificationCounterService.DESTINATION,
+            Map.of("event", "unreadCount", "count", 1L));
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("1"), anyString(), any(Object.class));
+    }
+
+    @Test
+    void testReconcile_PushesOnlyCorrectedCounts() {
+        // arrange - user 1 read everything somewhere we didnt see
+        when(notificationRepository.countUnreadGroupedByUser()).thenReturn(List.<Object[]>of(new Object[]{2L, 1L}));
+
+        // act
+        counterService.reconcile();
+
+        // assert
+        assertEquals(0, counterService.getUnreadCount(1L));
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), anyString(), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("2"), anyString(), any(Object.class));
+    }
+}
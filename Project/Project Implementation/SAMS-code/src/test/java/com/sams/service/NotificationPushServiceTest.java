@@ -0,0 +1,115 @@
+package com.sams.service;
+
+import com.sams.entity.Notification;
+import com.sams.entity.User;
+import com.sams.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPushServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationCounterService counterService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private NotificationRetentionService retentionService;
+
+    private NotificationPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        pushService = new NotificationPushService(notificationRepository, counterService, messagingTemplate, retentionService, 2);
+    }
+
+    @Test
+    void testPushAfterCommit_NoTransactionSendsRightAway() {
+        // act
+        pushService.pushAfterCommit(notification(15L, 3L));
+
+        // assert
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("3"), eq(NotificationPushService.DESTINATION), payload.capture());
+        Map<?, ?> sent = (Map<?, ?>) payload.getValue();
+        assertEquals("notification", sent.get("event"));
+        assertEquals(15L, sent.get("id"));
+        assertEquals(1, sent.get("count"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReplay_SendsMissedThenDone() {
+        // arrange - client last saw 10, missed 11 and 12
+        LocalDateTime seenAt = LocalDateTime.now().minusHours(1);
+        Notification lastSeen = notification(10L, 3L);
+        lastSeen.setCreatedAt(seenAt);
+        when(notificationRepository.findById(10L)).thenReturn(Optional.of(lastSeen));
+        when(notificationRepository.findMissed(eq(3L), eq(10L), eq(seenAt), any(), any(Pageable.class)))
+            .thenReturn(List.of(notification(11L, 3L), notification(12L, 3L)));
+        when(counterService.getUnreadCount(3L)).thenReturn(5L);
+
+        // act
+        pushService.replay(3L, 10L);
+
+        // assert
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(3)).convertAndSendToUser(eq("3"), anyString(), payloads.capture());
+        List<Map<String, Object>> sent = new ArrayList<>();
+        payloads.getAllValues().forEach(payload -> sent.add((Map<String, Object>) payload));
+        assertEquals(11L, sent.get(0).get("id"));
+        assertEquals(12L, sent.get(1).get("id"));
+        assertEquals(Map.of("event", "replayDone", "lastId", 12L, "unreadCount", 5L, "truncated", false), sent.get(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReplay_TooManyMissedIsTruncated() {
+        // arrange - limit is 2, repository hands back 3
+        when(notificationRepository.findMissed(eq(3L), eq(0L), any(LocalDateTime.class), any(), any(Pageable.class)))
+            .thenReturn(List.of(notification(1L, 3L), notification(2L, 3L), notification(3L, 3L)));
+
+        // act
+        pushService.replay(3L, null);
+
+        // assert - two pushed, then told to reload
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(3)).convertAndSendToUser(eq("3"), anyString(), payloads.capture());
+        Map<String, Object> done = (Map<String, Object>) payloads.getAllValues().get(2);
+        assertEquals(true, done.get("truncated"));
+        assertEquals(2L, done.get("lastId"));
+        assertEquals(2L, pushService.getStats().get("replayed"));
+    }
+
+    private static Notification notification(Long id, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUser(user);
+        notification.setType("GRADE");
+        notification.setTitle("New Grade Posted");
+        return notification;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sams.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationQueueServiceTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationQueueService queueService;
+
+    private final CountDownLatch firstJobStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstJob = new CountDownLatch(1);
+
+    private final NotificationService.Template groupMessage = new NotificationService.Template(
+        "MESSAGE", "New Group Message", "Ada sent a message in Algebra", "/study-groups/5/chat", "StudyGroup", 5L)
+        .coalescing("New Group Messages", " new messages in Algebra");
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstJob.countDown();
+        if (queueService != null) {
+            queueService.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSubmit_MergesWhileQueuedAndDrainsOnStop() throws Exception {
+        // arrange - the only worker is stuck on the first job so the next ones wait in the queue
+        startQueue(10);
+        blockFirstJob();
+        queueService.submit(List.of(9L), groupMessage);
+        assertTrue(firstJobStarted.await(5, TimeUnit.SECONDS));
+
+        // act
+        queueService.submit(List.of(1L, 2L), groupMessage);
+        queueService.submit(List.of(1L, 3L), groupMessage);
+        releaseFirstJob.countDown();
+        queueService.stop();
+
+        // assert - second and third message became one job, user 1 got both
+        ArgumentCaptor<Map<Long, Integer>> counts = ArgumentCaptor.forClass(Map.class);
+        verify(notificationService, times(2)).notifyAll(counts.capture(), same(groupMessage));
+        assertEquals(Map.of(1L, 2, 2L, 1, 3L, 1), counts.getAllValues().get(1));
+        assertEquals(1L, queueService.getStats().get("merged"));
+        assertEquals(0, queueService.getStats().get("queued"));
+    }
+
+    @Test
+    void testSubmit_FullQueueRunsOnCaller() throws Exception {
+        // arrange - room for one waiting job
+        startQueue(1);
+        blockFirstJob();
+        NotificationService.Template assignment = new NotificationService.Template(
+            "ASSIGNMENT", "New Assignment Posted", "New assignment for CS101: Lab 1", "/assignments/7", "Assignment", 7L);
+        queueService.submit(List.of(1L), assignment);
+        assertTrue(firstJobStarted.await(5, TimeUnit.SECONDS));
+
+        // act
+        queueService.submit(List.of(2L), assignment);
+        queueService.submit(List.of(3L), assignment);
+
+        // assert - the third one didnt fit and was written right away, in a transaction of its own
+        // (the caller is in an afterCommit hook, joining that transaction would never commit)
+        assertEquals(1L, queueService.getStats().get("callerRuns"));
+        InOrder inOrder = inOrder(transactionManager, notificationService);
+        inOrder.verify(transactionManager).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        inOrder.verify(notificationService).notifyAll(eq(Map.of(3L, 1)), same(assignment));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    private void startQueue(int capacity) {
+        queueService = new NotificationQueueService(notificationService, transactionManager, 1, capacity, 5000);
+        queueService.start();
+    }
+
+    private void blockFirstJob() {
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(notificationService.notifyAll(anyMap(), any(NotificationService.Template.class))).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                firstJobStarted.countDown();
+                releaseFirstJob.await(5, TimeUnit.SECONDS);
+            }
+            return ((Map<?, ?>) invocation.getArgument(0)).size();
+        });
+    }
+}
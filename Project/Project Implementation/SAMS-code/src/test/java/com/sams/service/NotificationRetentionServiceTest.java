@@ -0,0 +1,125 @@
+package com.sams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionServiceTest {
+
+    @TempDir
+    Path uploadDirectory;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationCounterService counterService;
+
+    private NotificationRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new NotificationRetentionService(jdbcTemplate, transactionManager, counterService,
+            new ObjectMapper(), uploadDirectory.toString(), true, 3, 90, 365, 90, 1000, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testArchiveReadNotifications_FileWrittenBeforeDelete() throws Exception {
+        // arrange - two old read notifications, less than a batch so one select
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+            .thenReturn(List.of(row(7L), row(9L)));
+        when(jdbcTemplate.update(startsWith("DELETE"), any(Object[].class))).thenReturn(2);
+
+        // act
+        int archived = retentionService.archiveReadNotifications(LocalDateTime.now().minusDays(90));
+
+        // assert - one complete gzipped file with a line per notification, then one delete of exactly those ids
+        assertEquals(2, archived);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(uploadDirectory.resolve("archive").resolve("notifications"))) {
+            files = listing.collect(Collectors.toList());
+        }
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).getFileName().toString().endsWith(".ndjson.gz"));
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(files.get(0))), StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":7,"));
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM notifications WHERE read = true"),
+            any(Timestamp.class), aryEq(new Long[]{7L, 9L}));
+        assertEquals(2L, retentionService.getStats().get("deleted"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDropExpiredPartitions_OnlyMonthsBeforeCutoff() throws Exception {
+        // arrange - cutoff in the middle of march 2025, partitions are empty
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+            .thenReturn(List.of("notifications_default", "notifications_p2025_02", "notifications_p2025_03"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        // act
+        retentionService.dropExpiredPartitions(LocalDateTime.of(2025, 3, 15, 0, 0));
+
+        // assert - february is over, march isnt, the default one is never dropped
+        verify(jdbcTemplate).execute("DROP TABLE notifications_p2025_02");
+        verify(jdbcTemplate, never()).execute("DROP TABLE notifications_p2025_03");
+        verify(jdbcTemplate, never()).execute("DROP TABLE notifications_default");
+        assertEquals(1L, retentionService.getStats().get("partitionsDropped"));
+    }
+
+    @Test
+    void testPartitionNames_RoundTrip() {
+        // act + assert
+        assertEquals("notifications_p2026_01", NotificationRetentionService.partitionName(YearMonth.of(2026, 1)));
+        assertEquals(YearMonth.of(2026, 1), NotificationRetentionService.partitionMonth("notifications_p2026_01"));
+        assertNull(NotificationRetentionService.partitionMonth("notifications_default"));
+    }
+
+    private static Map<String, Object> row(Long id) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("userId", 4L);
+        row.put("type", "GRADE");
+        row.put("title", "Grade Posted");
+        row.put("read", true);
+        row.put("createdAt", "2025-01-10T09:00");
+        return row;
+    }
+}
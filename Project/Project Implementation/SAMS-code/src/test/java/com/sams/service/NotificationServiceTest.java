@@ -0,0 +1,164 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.entity.Notification;
+import com.sams.entity.NotificationPreference;
+import com.sams.entity.User;
+import com.sams.repository.NotificationPreferenceRepository;
+import com.sams.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationCounterService counterService;
+
+    @Mock
+    private NotificationPushService pushService;
+
+    @Mock
+    private NotificationRetentionService retentionService;
+
+    private NotificationService notificationService;
+
+    private final NotificationService.Template template = new NotificationService.Template(
+        "ASSIGNMENT", "New Assignment Posted", "New assignment for CS101: Lab 1", "/assignments/7", "Assignment", 7L);
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(notificationRepository, preferenceRepository, jdbcTemplate, counterService,
+            pushService, retentionService, 500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNotifyAll_ThousandRecipientsInTwoBatches() {
+        // arrange - 1000 students, one turned assignment alerts off
+        List<Long> recipients = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            recipients.add(id);
+        }
+        when(preferenceRepository.findByUserIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return ids.contains(42L) ? List.of(preferences(42L, false)) : List.of();
+        });
+
+        // act
+        int written = notificationService.notifyAll(recipients, template);
+
+        // assert - 2 preference queries + 2 batch inserts instead of 1000 lookups and 1000 saves
+        assertEquals(999, written);
+        verify(preferenceRepository, times(2)).findByUserIdIn(anyCollection());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNotifyAll_SkipsDuplicatesAndOptedOut() {
+        // arrange
+        when(preferenceRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(preferences(2L, false)));
+
+        // act
+        int written = notificationService.notifyAll(List.of(1L, 2L, 3L, 1L), template);
+
+        // assert
+        ArgumentCaptor<Collection<Long>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, written);
+        assertEquals(List.of(1L, 3L), new ArrayList<>(rows.getValue()));
+    }
+
+    @Test
+    void testNotifyAll_NobodyLeftNoInsert() {
+        // arrange
+        when(preferenceRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(preferences(5L, false)));
+
+        // act
+        int written = notificationService.notifyAll(List.of(5L), template);
+
+        // assert
+        assertEquals(0, written);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testMarkAllAsRead_OneUpdateAndCounterReset() {
+        // arrange
+        when(notificationRepository.markAllAsRead(eq(4L), any())).thenReturn(12);
+
+        // act
+        int updated = notificationService.markAllAsRead(4L);
+
+        // assert - no loading of the rows, badge goes to 0
+        assertEquals(12, updated);
+        verify(notificationRepository, never()).findByUserIdAndReadFalseOrderByCreatedAtDesc(anyLong());
+        verify(counterService).allRead(4L);
+    }
+
+    @Test
+    void testDeleteNotifications_CountsOnlyUnreadOnes() {
+        // arrange
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(notificationRepository.countByUserIdAndIdInAndReadFalse(4L, ids)).thenReturn(2L);
+        when(notificationRepository.deleteByUserIdAndIds(4L, ids)).thenReturn(3);
+
+        // act
+        int deleted = notificationService.deleteNotifications(4L, ids);
+
+        // assert
+        assertEquals(3, deleted);
+        verify(counterService).read(4L, 2);
+    }
+
+    @Test
+    void testNotifyGradePosted_CountedAndPushed() {
+        // arrange
+        User student = new User();
+        student.setId(8L);
+        Course course = new Course();
+        course.setCourseCode("CS101");
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // act
+        notificationService.notifyGradePosted(student, course, "A");
+
+        // assert
+        verify(counterService).created(8L, 1);
+        verify(pushService).pushAfterCommit(argThat(notification -> "GRADE".equals(notification.getType())));
+    }
+
+    private static NotificationPreference preferences(Long userId, boolean assignmentAlerts) {
+        User user = new User();
+        user.setId(userId);
+        NotificationPreference prefs = new NotificationPreference(user);
+        prefs.setAssignmentAlerts(assignmentAlerts);
+        return prefs;
+    }
+}
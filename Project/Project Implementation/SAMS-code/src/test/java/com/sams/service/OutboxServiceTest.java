@@ -0,0 +1,135 @@
+package com.sams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sams.entity.Notification;
+import com.sams.entity.OutboxEvent;
+import com.sams.entity.User;
+import com.sams.repository.OutboxEventRepository;
+import com.sams.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OutboxService outboxService;
+
+    private User testStudent;
+
+    @BeforeEach
+    void setUp() {
+        testStudent = new User();
+        testStudent.setId(7L);
+        testStudent.setUsername("student1");
+        testStudent.setRole("STUDENT");
+    }
+
+    @Test
+    void testNotify_OnlyWritesOutboxRow() {
+        // act
+        outboxService.notify(testStudent, "ENROLLMENT", "Title", "Message", "/student/payments", "Course", 1L);
+
+        // assert
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertEquals(OutboxService.NOTIFICATION, captor.getValue().getEventType());
+        assertTrue(captor.getValue().isPending());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void testDispatchBatch_CreatesNotification() throws Exception {
+        // arrange
+        OutboxEvent event = notificationEvent();
+        when(outboxEventRepository.claimDue(any(), anyInt())).thenReturn(List.of(event));
+        when(userRepository.getReferenceById(7L)).thenReturn(testStudent);
+        Notification notification = new Notification();
+        notification.setId(99L);
+        notification.setUser(testStudent);
+        when(notificationService.createNotification(eq(testStudent), anyString(), anyString(), anyString(),
+            any(), any(), any())).thenReturn(notification);
+
+        // act
+        int processed = outboxService.dispatchBatch(100);
+
+        // assert
+        assertEquals(1, processed);
+        assertEquals("DONE", event.getStatus());
+        // the push is NotificationService's, the outbox doesnt send its own copy
+        verify(notificationService).createNotification(eq(testStudent), eq("ENROLLMENT"), anyString(), anyString(),
+            any(), any(), any());
+    }
+
+    @Test
+    void testDispatchBatch_GradeActivity_UsesActivityLogHelper() {
+        // arrange - write the event the way GradeService does, then run it
+        outboxService.logGradeAssigned(5L, "student1", "CS101", "A", testStudent);
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        when(outboxEventRepository.claimDue(any(), anyInt())).thenReturn(List.of(event));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testStudent));
+
+        // act
+        outboxService.dispatchBatch(100);
+
+        // assert
+        assertEquals(OutboxService.ACTIVITY_LOG, event.getEventType());
+        assertEquals("DONE", event.getStatus());
+        verify(activityLogService).logGradeAssigned(5L, "student1", "CS101", "A", testStudent);
+    }
+
+    @Test
+    void testDispatchOne_AlreadyDone_Skipped() throws Exception {
+        // arrange - a retry picks up an event another run already finished
+        OutboxEvent event = notificationEvent();
+        event.markDone();
+        when(outboxEventRepository.claimById(1L)).thenReturn(Optional.of(event));
+
+        // act
+        outboxService.dispatchOne(1L);
+
+        // assert
+        verifyNoInteractions(notificationService);
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    private OutboxEvent notificationEvent() throws Exception {
+        OutboxEvent event = new OutboxEvent(OutboxService.NOTIFICATION, objectMapper.writeValueAsString(java.util.Map.of(
+            "userId", 7, "type", "ENROLLMENT", "title", "Title", "message", "Message")));
+        event.setId(1L);
+        return event;
+    }
+}
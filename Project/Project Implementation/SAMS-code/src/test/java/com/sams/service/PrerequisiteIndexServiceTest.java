@@ -0,0 +1,91 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrerequisiteIndexServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @InjectMocks
+    private PrerequisiteIndexService prerequisiteIndexService;
+
+    private Course cs101;
+    private Course cs201;
+    private Course cs301;
+
+    private Course course(long id, String code) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCourseCode(code);
+        return course;
+    }
+
+    @BeforeEach
+    void setUp() {
+        // CS301 -> CS201 -> CS101
+        cs101 = course(1L, "CS101");
+        cs201 = course(2L, "CS201");
+        cs301 = course(3L, "CS301");
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[]{3L, "CS301", 2L, "CS201"});
+        edges.add(new Object[]{2L, "CS201", 1L, "CS101"});
+        when(courseRepository.findAllPrerequisiteEdges()).thenReturn(edges);
+    }
+
+    @Test
+    void testMissingPrerequisites_DirectAndChain() {
+        // arrange - student has nothing completed
+        when(enrollmentRepository.findCourseIdsAndCodesByStudentIdAndStatus(5L, "COMPLETED")).thenReturn(List.of());
+
+        // act & assert
+        assertEquals(List.of("CS201"), prerequisiteIndexService.getMissingPrerequisites(5L, cs301));
+        List<String> chain = prerequisiteIndexService.getMissingPrerequisiteChain(5L, cs301);
+        assertEquals(2, chain.size());
+        assertTrue(chain.containsAll(List.of("CS101", "CS201")));
+    }
+
+    @Test
+    void testMissingPrerequisites_CompletedCoursesAreCached() {
+        // arrange
+        List<Object[]> completed = new ArrayList<>();
+        completed.add(new Object[]{1L, "CS101"});
+        when(enrollmentRepository.findCourseIdsAndCodesByStudentIdAndStatus(5L, "COMPLETED")).thenReturn(completed);
+
+        // act
+        List<String> first = prerequisiteIndexService.getMissingPrerequisites(5L, cs201);
+        List<String> second = prerequisiteIndexService.getMissingPrerequisites(5L, cs201);
+
+        // assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(enrollmentRepository, times(1)).findCourseIdsAndCodesByStudentIdAndStatus(5L, "COMPLETED");
+        verify(courseRepository, times(1)).findAllPrerequisiteEdges();
+    }
+
+    @Test
+    void testWouldCreateCycle() {
+        // CS101 needing CS301 would close the loop, CS301 needing CS101 is fine
+        assertTrue(prerequisiteIndexService.wouldCreateCycle(cs101, cs301));
+        assertFalse(prerequisiteIndexService.wouldCreateCycle(cs301, cs101));
+        assertTrue(prerequisiteIndexService.wouldCreateCycle(cs101, cs101));
+    }
+}
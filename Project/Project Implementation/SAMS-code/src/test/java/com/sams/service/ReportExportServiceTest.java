@@ -0,0 +1,99 @@
+package com.sams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sams.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportExportServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @Mock
+    private GradeRepository gradeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReportExportService reportExportService;
+
+    @BeforeEach
+    void setUp() {
+        reportExportService = new ReportExportService(enrollmentRepository, paymentRepository, attendanceRepository,
+            gradeRepository, userRepository, courseRepository, new ObjectMapper().registerModule(new JavaTimeModule()),
+            transactionManager);
+    }
+
+    @Test
+    void testExport_Csv_QuotesAndDateRange() throws Exception {
+        // arrange
+        when(enrollmentRepository.streamForExport(LocalDateTime.of(2024, 9, 1, 0, 0), LocalDateTime.of(2024, 10, 1, 0, 0), 3L))
+            .thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, "Jane", "Doe", "Intro to CS, Part 1", "ACTIVE", null},
+                new Object[]{2L, "John", "Smith", "Say \"hi\"", "WAITLISTED", null}));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        reportExportService.export("enrollments", "csv", false, LocalDate.of(2024, 9, 1), LocalDate.of(2024, 9, 30),
+            3L, null, out);
+
+        // assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,studentName,courseName,status,enrollmentDate", lines[0]);
+        assertEquals("1,Jane Doe,\"Intro to CS, Part 1\",ACTIVE,", lines[1]);
+        assertEquals("2,John Smith,\"Say \"\"hi\"\"\",WAITLISTED,", lines[2]);
+    }
+
+    @Test
+    void testExport_NdjsonGzip() throws Exception {
+        // arrange
+        when(courseRepository.streamForExport(null, null, null)).thenReturn(Stream.<Object[]>of(
+            new Object[]{5L, "CS101", "Intro", 3, 30}));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        reportExportService.export("courses", "ndjson", true, null, null, null, null, out);
+
+        // assert
+        String text = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+            StandardCharsets.UTF_8);
+        assertEquals("{\"id\":5,\"courseCode\":\"CS101\",\"courseName\":\"Intro\",\"credits\":3,\"capacity\":30}\n", text);
+    }
+
+    @Test
+    void testValidate_UnknownReport_Rejected() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class,
+            () -> reportExportService.validate("salaries", "csv", null, null));
+    }
+}
@@ -0,0 +1,154 @@
+package com.sams.service;
+
+import com.sams.dto.ReportJobRequest;
+import com.sams.exception.ReportJobException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private ReportExportService reportExportService;
+    private ReportJobService reportJobService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportExportService = mock(ReportExportService.class);
+        // pretend export - waits until the test lets it finish, then writes 3 rows
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            OutputStream out = invocation.getArgument(7);
+            AtomicLong rowsWritten = invocation.getArgument(8);
+            out.write("id\r\n1\r\n2\r\n3\r\n".getBytes(StandardCharsets.UTF_8));
+            rowsWritten.addAndGet(3);
+            return null;
+        }).when(reportExportService).export(anyString(), anyString(), anyBoolean(), any(), any(), any(), any(),
+            any(OutputStream.class), any(AtomicLong.class));
+
+        reportJobService = new ReportJobService(reportExportService, uploadDirectory.toString(), 1, 1, 60000);
+        reportJobService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        // let running jobs finish writing before the temp dir is deleted - every job handed to
+        // a worker is in getJobs() since submit registers it before execute
+        for (ReportJobService.Job job : reportJobService.getJobs()) {
+            waitFor(job);
+        }
+        reportJobService.stop();
+    }
+
+    @Test
+    void testSubmit_SameSpecWhileRunning_AttachesToExistingJob() throws Exception {
+        // arrange
+        ReportJobRequest request = new ReportJobRequest("attendance", "csv", LocalDate.of(2024, 9, 1), null, 3L, null);
+
+        // act
+        ReportJobService.Job first = reportJobService.submit(request, "admin");
+        ReportJobService.Job second = reportJobService.submit(
+            new ReportJobRequest("ATTENDANCE", "CSV", LocalDate.of(2024, 9, 1), null, 3L, ""), "other-admin");
+
+        // assert
+        assertSame(first, second);
+        release.countDown();
+        waitFor(first);
+        verify(reportExportService, times(1)).export(anyString(), anyString(), anyBoolean(), any(), any(), any(), any(),
+            any(OutputStream.class), any(AtomicLong.class));
+    }
+
+    @Test
+    void testSubmit_Completed_ResultFileWrittenUnderUploadDirectory() throws Exception {
+        // arrange
+        ReportJobRequest request = new ReportJobRequest("users", "csv", null, null, null, "STUDENT");
+
+        // act
+        ReportJobService.Job job = reportJobService.submit(request, "admin");
+        assertThrows(IllegalStateException.class, () -> reportJobService.getResultFile(job.getId()));
+        release.countDown();
+        waitFor(job);
+
+        // assert
+        assertEquals("COMPLETED", job.getState());
+        assertEquals(3, job.getRowsWritten());
+        Path file = reportJobService.getResultFile(job.getId());
+        assertEquals(uploadDirectory.resolve("reports").resolve(job.getId() + ".csv.gz"), file);
+        assertTrue(Files.exists(file));
+        assertEquals(Files.size(file), job.getSizeBytes());
+        // no leftover partial file
+        try (var files = Files.list(uploadDirectory.resolve("reports"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testSubmit_QueueFull_ThrowsReportJobException() throws Exception {
+        // arrange - 1 worker busy, 1 waiting
+        reportJobService.submit(new ReportJobRequest("users", "csv", null, null, null, null), "admin");
+        reportJobService.submit(new ReportJobRequest("courses", "csv", null, null, null, null), "admin");
+
+        // act + assert
+        assertThrows(ReportJobException.class, () ->
+            reportJobService.submit(new ReportJobRequest("grades", "csv", null, null, null, null), "admin"));
+
+        // the rejected job isnt left behind - once there is room the same spec starts a real job
+        assertEquals(2, reportJobService.getJobs().size());
+        release.countDown();
+        for (ReportJobService.Job job : reportJobService.getJobs()) {
+            waitFor(job);
+        }
+        ReportJobService.Job retried = reportJobService.submit(new ReportJobRequest("grades", "csv", null, null, null, null), "admin");
+        waitFor(retried);
+        assertEquals("COMPLETED", retried.getState());
+    }
+
+    @Test
+    void testSubmit_FastJobFinished_SameSpecStartsNewJob() throws Exception {
+        // arrange - exports finish straight away
+        release.countDown();
+        ReportJobRequest request = new ReportJobRequest("courses", "csv", null, null, null, null);
+        ReportJobService.Job first = reportJobService.submit(request, "admin");
+        waitFor(first);
+
+        // act
+        ReportJobService.Job second = reportJobService.submit(request, "admin");
+        waitFor(second);
+
+        // assert - the finished job was taken out of the active ones, so this is a new export
+        assertNotSame(first, second);
+        assertEquals("COMPLETED", second.getState());
+        verify(reportExportService, times(2)).export(anyString(), anyString(), anyBoolean(), any(), any(), any(), any(),
+            any(OutputStream.class), any(AtomicLong.class));
+    }
+
+    @Test
+    void testGetJob_Unknown_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.getJob("nope"));
+    }
+
+    private static void waitFor(ReportJobService.Job job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sams.service;
+
+import com.sams.dto.dashboard.TrendPoint;
+import com.sams.entity.ActivityRollup;
+import com.sams.repository.ActivityRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RollupServiceTest {
+
+    @Mock
+    private ActivityRollupRepository rollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RollupService rollupService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecord_BufferedUntilFlush() {
+        // act
+        rollupService.record(RollupService.ENROLLMENTS, LocalDateTime.of(2024, 3, 14, 10, 30), 1);
+        rollupService.record(RollupService.ENROLLMENTS, LocalDateTime.of(2024, 3, 14, 16, 0), 1);
+        rollupService.record(RollupService.ENROLLMENTS, LocalDateTime.of(2024, 3, 2, 9, 0), 1);
+
+        // assert - nothing written until the flush, then one upsert per row with the summed delta
+        verify(rollupRepository, never()).addCount(anyString(), anyString(), any(), anyLong());
+
+        int rows = rollupService.flush();
+
+        assertEquals(3, rows);
+        verify(rollupRepository).addCount("ENROLLMENTS", "DAY", LocalDate.of(2024, 3, 14), 2);
+        verify(rollupRepository).addCount("ENROLLMENTS", "DAY", LocalDate.of(2024, 3, 2), 1);
+        verify(rollupRepository).addCount("ENROLLMENTS", "MONTH", LocalDate.of(2024, 3, 1), 3);
+        assertEquals(0, rollupService.flush());
+    }
+
+    @Test
+    void testRecord_RolledBackNeverBuffered() {
+        // arrange - a transaction that never commits
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        rollupService.record(RollupService.ENROLLMENTS, LocalDateTime.of(2024, 3, 14, 10, 30), 1);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // assert
+        assertEquals(0, rollupService.flush());
+        verify(rollupRepository, never()).addCount(anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void testFlush_FailureKeepsDeltasForNextTry() {
+        // arrange
+        rollupService.record("USERS_STUDENT", LocalDateTime.of(2024, 3, 14, 10, 30), 1);
+        when(rollupRepository.addCount(anyString(), anyString(), any(), anyLong()))
+            .thenThrow(new RuntimeException("connection reset"))
+            .thenReturn(1);
+
+        // act
+        int failed = rollupService.flush();
+        int retried = rollupService.flush();
+
+        // assert
+        assertEquals(0, failed);
+        assertEquals(2, retried);
+        verify(rollupRepository, times(3)).addCount(anyString(), anyString(), any(), anyLong());
+        verify(rollupRepository, atLeastOnce()).addCount("USERS_STUDENT", "DAY", LocalDate.of(2024, 3, 14), 1);
+        verify(rollupRepository, atLeastOnce()).addCount("USERS_STUDENT", "MONTH", LocalDate.of(2024, 3, 1), 1);
+    }
+
+    @Test
+    void testRebuild_UpsertsAndDropsBuffer() {
+        // arrange - the buffered change is already committed so the recount has it
+        rollupService.record(RollupService.ENROLLMENTS, LocalDateTime.of(2024, 3, 14, 10, 30), 1);
+        when(rollupRepository.upsertEnrollmentRollups(anyString())).thenReturn(2);
+        when(rollupRepository.upsertUserRollups(anyString())).thenReturn(3);
+
+        // act
+        int rows = rollupService.rebuild();
+
+        // assert - upsert for both granularities then stale rows removed, the buffer isnt written on top
+        assertEquals(10, rows);
+        verify(rollupRepository).upsertEnrollmentRollups("DAY");
+        verify(rollupRepository).upsertEnrollmentRollups("MONTH");
+        verify(rollupRepository).deleteStaleRollups();
+        assertEquals(0, rollupService.flush());
+        verify(rollupRepository, never()).addCount(anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void testGetSeries_Quarter_FoldsMonthsAndFillsGaps() {
+        // arrange - only january and march have rows
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 6, 30);
+        when(rollupRepository.findRange("ENROLLMENTS", "MONTH", from, LocalDate.of(2024, 6, 1))).thenReturn(List.of(
+            new ActivityRollup("ENROLLMENTS", "MONTH", LocalDate.of(2024, 1, 1), 5L),
+            new ActivityRollup("ENROLLMENTS", "MONTH", LocalDate.of(2024, 3, 1), 7L)));
+
+        // act
+        List<TrendPoint> series = rollupService.getSeries("ENROLLMENTS", "QUARTER", from, to);
+
+        // assert
+        assertEquals(2, series.size());
+        assertEquals("Q1 2024", series.get(0).getPeriod());
+        assertEquals(12L, series.get(0).getCount());
+        assertEquals("Q2 2024", series.get(1).getPeriod());
+        assertEquals(0L, series.get(1).getCount());
+    }
+
+    @Test
+    void testGetSeries_Week_ReadsDailyRows() {
+        // arrange - wednesday to the next tuesday spans two weeks
+        LocalDate from = LocalDate.of(2024, 3, 13);
+        LocalDate to = LocalDate.of(2024, 3, 19);
+        when(rollupRepository.findRange("USERS_STUDENT", "DAY", LocalDate.of(2024, 3, 11), to)).thenReturn(List.of(
+            new ActivityRollup("USERS_STUDENT", "DAY", LocalDate.of(2024, 3, 13), 2L),
+            new ActivityRollup("USERS_STUDENT", "DAY", LocalDate.of(2024, 3, 15), 3L),
+            new ActivityRollup("USERS_STUDENT", "DAY", LocalDate.of(2024, 3, 18), 4L)));
+
+        // act
+        List<TrendPoint> series = rollupService.getSeries("USERS_STUDENT", "week", from, to);
+
+        // assert
+        assertEquals(2, series.size());
+        assertEquals(LocalDate.of(2024, 3, 11), series.get(0).getPeriodStart());
+        assertEquals(5L, series.get(0).getCount());
+        assertEquals(4L, series.get(1).getCount());
+    }
+
+    @Test
+    void testGetSeries_TooManyPoints_Rejected() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> rollupService.getSeries("ENROLLMENTS", "DAY",
+            LocalDate.of(2000, 1, 1), LocalDate.of(2024, 1, 1)));
+        verify(rollupRepository, never()).findRange(anyString(), anyString(), any(), any());
+    }
+}
@@ -0,0 +1,131 @@
+package com.sams.service;
+
+import com.sams.entity.User;
+import com.sams.repository.AssignmentRepository;
+import com.sams.repository.CourseRepository;
+import com.sams.repository.StudyGroupRepository;
+import com.sams.repository.TeacherProfileRepository;
+import com.sams.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private TeacherProfileRepository teacherProfileRepository;
+
+    @Mock
+    private StudyGroupRepository studyGroupRepository;
+
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    @InjectMocks
+    private SearchIndexService searchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        // arrange
+        List<Object[]> users = new ArrayList<>();
+        users.add(new Object[]{1L, "jsmith", "john.smith@uni.edu", "John", "Smith", "STUDENT"});
+        users.add(new Object[]{2L, "sjohnson", "sam.johnson@uni.edu", "Sam", "Johnson", "STUDENT"});
+        users.add(new Object[]{3L, "jperez", "jose@uni.edu", "José", "Pérez", "FACULTY"});
+        when(userRepository.findSearchIndexFields()).thenReturn(users);
+        when(courseRepository.findSearchIndexFields()).thenReturn(List.<Object[]>of(
+            new Object[]{10L, "CS101", "Intro to Programming", 3},
+            new Object[]{11L, "MATH201", "Linear Algebra", 4}));
+        when(teacherProfileRepository.findSearchIndexFields()).thenReturn(List.<Object[]>of(
+            new Object[]{20L, 3L, "Computer Science", "Professor", "Machine Learning"}));
+        when(studyGroupRepository.findSearchIndexFields()).thenReturn(List.of());
+        when(assignmentRepository.findSearchIndexFields()).thenReturn(List.of());
+
+        searchIndexService.rebuild();
+    }
+
+    @Test
+    void testSearch_SubstringAndRanking() {
+        // act - "john" is a whole word for user 1 and only part of a word for user 2
+        List<Map<String, Object>> users = searchIndexService.search("john", null, 10).get("users");
+
+        // assert
+        assertEquals(List.of(1L, 2L), ids(users));
+    }
+
+    @Test
+    void testSearch_MultiWordAndAccents() {
+        // act
+        Map<String, List<Map<String, Object>>> results = searchIndexService.search("jose perez", null, 10);
+
+        // assert - teacher name comes from the user
+        assertEquals(List.of(3L), ids(results.get("users")));
+        assertEquals(List.of(20L), ids(results.get("teachers")));
+        assertEquals("José Pérez", results.get("teachers").get(0).get("name"));
+        assertTrue(results.get("courses").isEmpty());
+    }
+
+    @Test
+    void testSearch_ShortQuery_OnlyMatchesWordStart() {
+        // act
+        List<Map<String, Object>> courses = searchIndexService.search("cs", Set.of(SearchIndexService.COURSE), 10)
+            .get("courses");
+
+        // assert
+        assertEquals(List.of(10L), ids(courses));
+        assertEquals(1, searchIndexService.search("lgebra", null, 10).get("courses").size());
+        assertTrue(searchIndexService.search("lg", null, 10).get("courses").isEmpty());
+    }
+
+    @Test
+    void testEntitySaved_UpdatesAndRemovesDocuments() {
+        // arrange - renamed, outside a transaction so it applies right away
+        User user = new User("jsmith", "john.smith@uni.edu", "secret", "STUDENT");
+        user.setId(1L);
+        user.setFirstName("Johnny");
+
+        // act
+        searchIndexService.entitySaved(user);
+
+        // assert
+        assertEquals(List.of(1L), ids(searchIndexService.search("johnny", null, 10).get("users")));
+
+        // act - deactivated users drop out
+        user.setActive(false);
+        searchIndexService.entitySaved(user);
+
+        // assert
+        assertEquals(List.of(2L), ids(searchIndexService.search("john", null, 10).get("users")));
+    }
+
+    @Test
+    void testSearch_LimitKeepsBestResults() {
+        // act
+        List<Map<String, Object>> users = searchIndexService.search("j", null, 1).get("users");
+
+        // assert
+        assertEquals(1, users.size());
+    }
+
+    private static List<Long> ids(List<Map<String, Object>> results) {
+        return results.stream().map(result -> (Long) result.get("id")).collect(Collectors.toList());
+    }
+}
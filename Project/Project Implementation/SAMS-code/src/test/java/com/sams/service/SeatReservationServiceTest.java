@@ -0,0 +1,139 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatReservationServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @InjectMocks
+    private SeatReservationService seatReservationService;
+
+    private Course testCourse;
+
+    @BeforeEach
+    void setUp() {
+        testCourse = new Course();
+        testCourse.setId(1L);
+        testCourse.setCourseCode("CS101");
+        testCourse.setCourseName("Introduction to Computer Science");
+        testCourse.setCapacity(30);
+    }
+
+    @Test
+    void testTryReserve_TenThousandParallelRequests_NeverOversells() throws Exception {
+        // arrange
+        when(enrollmentRepository.countByCourseIdAndStatusIn(eq(1L), anyCollection())).thenReturn(0L);
+        int requests = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // act - every thread waits on the latch so they all hit the counter at once
+        for (int i = 0; i < requests; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (seatReservationService.tryReserve(testCourse)) {
+                    granted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // assert
+        assertEquals(30, granted.get());
+        assertEquals(30, seatReservationService.getHeldSeats(testCourse));
+        assertEquals(0, seatReservationService.getAvailableSeats(testCourse));
+        // counter was seeded once, not once per request
+        verify(enrollmentRepository, times(1)).countByCourseIdAndStatusIn(eq(1L), anyCollection());
+    }
+
+    @Test
+    void testTryReserve_SeededFromExistingEnrollments() {
+        // arrange
+        when(enrollmentRepository.countByCourseIdAndStatusIn(eq(1L), anyCollection())).thenReturn(29L);
+
+        // act & assert
+        assertTrue(seatReservationService.tryReserve(testCourse));
+        assertFalse(seatReservationService.tryReserve(testCourse));
+    }
+
+    @Test
+    void testRelease_FreesSeatForNextStudent() {
+        // arrange
+        when(enrollmentRepository.countByCourseIdAndStatusIn(eq(1L), anyCollection())).thenReturn(30L);
+        assertFalse(seatReservationService.tryReserve(testCourse));
+
+        // act
+        seatReservationService.release(testCourse);
+
+        // assert
+        assertTrue(seatReservationService.tryReserve(testCourse));
+    }
+
+    @Test
+    void testReconcile_CorrectsDrift() {
+        // arrange
+        when(enrollmentRepository.countByCourseIdAndStatusIn(eq(1L), anyCollection())).thenReturn(30L);
+        assertEquals(0, seatReservationService.getAvailableSeats(testCourse));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 25L});
+        when(enrollmentRepository.countByStatusInGroupByCourse(any())).thenReturn(rows);
+
+        // act
+        seatReservationService.reconcile();
+
+        // assert
+        assertEquals(25, seatReservationService.getHeldSeats(testCourse));
+        assertEquals(5, seatReservationService.getAvailableSeats(testCourse));
+    }
+
+    @Test
+    void testReconcile_SkipsCourseWhenReservationFinishesDuringCount() {
+        // arrange - 10 held, another reservation commits while the count query runs and the count misses it
+        when(enrollmentRepository.countByCourseIdAndStatusIn(eq(1L), anyCollection())).thenReturn(10L);
+        assertEquals(10, seatReservationService.getHeldSeats(testCourse));
+        when(enrollmentRepository.countByStatusInGroupByCourse(any())).thenAnswer(invocation -> {
+            assertTrue(seatReservationService.tryReserve(testCourse));
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{1L, 10L});
+            return rows;
+        });
+
+        // act
+        seatReservationService.reconcile();
+
+        // assert - left alone instead of being set one too low
+        assertEquals(11, seatReservationService.getHeldSeats(testCourse));
+    }
+}
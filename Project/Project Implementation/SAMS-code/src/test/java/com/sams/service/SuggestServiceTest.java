@@ -0,0 +1,81 @@
+package com.sams.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SuggestServiceTest {
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @InjectMocks
+    private SuggestService suggestService;
+
+    @BeforeEach
+    void setUp() {
+        // arrange
+        when(searchIndexService.getVersion()).thenReturn(1L);
+        when(searchIndexService.getDocuments(SearchIndexService.COURSE)).thenReturn(List.of(
+            Map.of("id", 10L, "code", "CS101", "name", "Intro to Programming"),
+            Map.of("id", 11L, "code", "MATH201", "name", "Linear Algebra"),
+            Map.of("id", 12L, "code", "CS102", "name", "Algorithms")));
+        when(searchIndexService.getDocuments(SearchIndexService.TEACHER)).thenReturn(List.of(
+            Map.of("id", 20L, "name", "Alan Turing")));
+        when(searchIndexService.getDocuments(SearchIndexService.USER)).thenReturn(List.of(
+            Map.of("id", 1L, "username", "alg_fan")));
+    }
+
+    @Test
+    void testSuggest_RanksWordStartAboveLaterWord() {
+        // act
+        suggestService.refreshIfChanged();
+        List<String> texts = texts(suggestService.suggest("alg", 10));
+
+        // assert - course names first, then the username, "Linear Algebra" matched on its second word comes after
+        assertEquals(List.of("Algorithms", "alg_fan", "Linear Algebra"), texts);
+    }
+
+    @Test
+    void testSuggest_ExactMatchFirstAndLimit() {
+        // act
+        suggestService.rebuild();
+        List<String> texts = texts(suggestService.suggest("cs101", 10));
+        List<String> limited = texts(suggestService.suggest("CS", 1));
+
+        // assert
+        assertEquals(List.of("CS101"), texts);
+        assertEquals(List.of("CS101"), limited);
+        assertTrue(suggestService.suggest("   ", 10).isEmpty());
+    }
+
+    @Test
+    void testRefreshIfChanged_OnlyRebuildsWhenTheSearchIndexMoved() {
+        // act
+        suggestService.refreshIfChanged();
+        suggestService.refreshIfChanged();
+        when(searchIndexService.getVersion()).thenReturn(2L);
+        suggestService.refreshIfChanged();
+
+        // assert
+        verify(searchIndexService, times(2)).getDocuments(SearchIndexService.USER);
+    }
+
+    private static List<String> texts(List<Map<String, Object>> results) {
+        return results.stream().map(result -> (String) result.get("text")).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,108 @@
+package com.sams.service;
+
+import com.sams.dto.TeacherProfileResponse;
+import com.sams.entity.TeacherProfile;
+import com.sams.entity.User;
+import com.sams.repository.TeacherProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeacherDirectoryServiceTest {
+
+    @Mock
+    private TeacherProfileRepository teacherProfileRepository;
+
+    @InjectMocks
+    private TeacherDirectoryService teacherDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        // arrange
+        when(teacherProfileRepository.findAllForDirectory()).thenReturn(List.of(
+            profile(1L, "Ada", "Lovelace", "Computer Science", "Professor", "Algorithms", 4.6, true, true),
+            profile(2L, "Alan", "Turing", "Computer Science", "Lecturer", "Computability", 3.2, false, true),
+            profile(3L, "Marie", "Curie", "Physics", "Professor", "Radioactivity", null, true, true),
+            profile(4L, "Old", "Account", "Physics", "Lecturer", "Optics", 2.0, true, false)));
+        teacherDirectoryService.rebuild();
+    }
+
+    @Test
+    void testSearch_FacetsIgnoreTheirOwnFilter() {
+        // act
+        Map<String, Object> result = teacherDirectoryService.search(null, "Computer Science", null, null, null, false, 20);
+
+        // assert - inactive profile left out, department facet still shows physics
+        assertEquals(2, result.get("total"));
+        Map<?, ?> facets = (Map<?, ?>) result.get("facets");
+        assertEquals(Map.of("Computer Science", 2, "Physics", 1), facets.get("department"));
+        assertEquals(Map.of("Professor", 1, "Lecturer", 1), facets.get("designation"));
+        assertEquals(Map.of("true", 1, "false", 1), facets.get("availableForConsultation"));
+        Map<?, ?> ratings = (Map<?, ?>) facets.get("rating");
+        assertEquals(1, ratings.get(TeacherDirectoryService.RATING_4_PLUS));
+        assertEquals(1, ratings.get(TeacherDirectoryService.RATING_3_TO_4));
+        assertEquals(0, ratings.get(TeacherDirectoryService.RATING_UNRATED));
+    }
+
+    @Test
+    void testSearch_NameMatchRanksFirst() {
+        // act
+        Map<String, Object> result = teacherDirectoryService.search("algo", null, null, null, null, false, 20);
+        List<String> names = names(teacherDirectoryService.searchAll("tur"));
+
+        // assert - "tur" is also inside "lecturer", the name match comes first, searchAll keeps inactive ones
+        assertEquals(1, result.get("total"));
+        assertEquals(List.of("Alan Turing", "Old Account"), names);
+    }
+
+    @Test
+    void testProfileChanged_UpdatesWithoutReload() {
+        // act
+        teacherDirectoryService.profileChanged(profile(3L, "Marie", "Curie", "Chemistry", "Professor", "Radium", 4.9, true, true));
+        teacherDirectoryService.profileRemoved(1L);
+        Map<String, Object> result = teacherDirectoryService.search(null, null, null, null,
+            TeacherDirectoryService.RATING_4_PLUS, false, 20);
+
+        // assert
+        assertEquals(List.of("Marie Curie"), names(result.get("teachers")));
+        verify(teacherProfileRepository, times(1)).findAllForDirectory();
+        assertThrows(IllegalArgumentException.class,
+            () -> teacherDirectoryService.search(null, null, null, null, "5", false, 20));
+    }
+
+    private static List<String> names(Object teachers) {
+        return ((List<?>) teachers).stream()
+            .map(teacher -> ((TeacherProfileResponse) teacher).getUserName())
+            .collect(Collectors.toList());
+    }
+
+    private static TeacherProfile profile(Long id, String firstName, String lastName, String department,
+                                          String designation, String specialization, Double rating,
+                                          boolean available, boolean active) {
+        User user = new User();
+        user.setId(id + 100);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        TeacherProfile profile = new TeacherProfile();
+        profile.setId(id);
+        profile.setUser(user);
+        profile.setDepartment(department);
+        profile.setDesignation(designation);
+        profile.setSpecialization(specialization);
+        profile.setAverageRating(rating);
+        profile.setAvailableForConsultation(available);
+        profile.setActive(active);
+        return profile;
+    }
+}
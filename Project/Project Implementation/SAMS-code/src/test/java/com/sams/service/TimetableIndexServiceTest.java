@@ -0,0 +1,112 @@
+package com.sams.service;
+
+import com.sams.entity.Course;
+import com.sams.repository.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimetableIndexServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @InjectMocks
+    private TimetableIndexService timetableIndexService;
+
+    private Course course(long id, String code, String days, String start, String end) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCourseCode(code);
+        course.setDaysOfWeek(days);
+        course.setStartTime(LocalTime.parse(start));
+        course.setEndTime(LocalTime.parse(end));
+        return course;
+    }
+
+    @Test
+    void testFindConflicts_ReportsEveryConflictingCourse() {
+        // arrange
+        Course math = course(1L, "MATH101", "MON,WED", "09:00", "10:30");
+        Course physics = course(2L, "PHYS101", "WED,FRI", "10:00", "11:00");
+        Course history = course(3L, "HIST101", "TUE", "09:00", "10:30");
+        when(enrollmentRepository.findCoursesByStudentIdAndStatus(7L, "ACTIVE"))
+            .thenReturn(List.of(math, physics, history));
+        Course newCourse = course(4L, "CS101", "WED", "10:15", "11:30");
+
+        // act
+        List<String> conflicts = timetableIndexService.findConflicts(7L, newCourse);
+
+        // assert
+        assertEquals(2, conflicts.size());
+        assertTrue(conflicts.containsAll(List.of("MATH101", "PHYS101")));
+    }
+
+    @Test
+    void testFindConflicts_BackToBackClassesDontConflict() {
+        // arrange - 09:52 end rounds up to the same slot the next class starts in
+        Course early = course(1L, "MATH101", "MON", "09:00", "09:52");
+        when(enrollmentRepository.findCoursesByStudentIdAndStatus(7L, "ACTIVE")).thenReturn(List.of(early));
+        Course late = course(2L, "CS101", "mon", "09:53", "11:00");
+
+        // act & assert
+        assertTrue(timetableIndexService.findConflicts(7L, late).isEmpty());
+    }
+
+    @Test
+    void testRemoveCourse_UpdatesCachedTimetable() {
+        // arrange
+        Course math = course(1L, "MATH101", "MON", "09:00", "10:00");
+        when(enrollmentRepository.findCoursesByStudentIdAndStatus(7L, "ACTIVE")).thenReturn(List.of(math));
+        Course newCourse = course(2L, "CS101", "MON", "09:30", "10:30");
+        assertEquals(List.of("MATH101"), timetableIndexService.findConflicts(7L, newCourse));
+
+        // act
+        timetableIndexService.removeCourse(7L, 1L);
+
+        // assert - no second db load, the cached timetable was updated in place
+        assertTrue(timetableIndexService.findConflicts(7L, newCourse).isEmpty());
+        verify(enrollmentRepository, times(1)).findCoursesByStudentIdAndStatus(7L, "ACTIVE");
+    }
+
+    @Test
+    void testCourseScheduleChanged_UnscheduledCourseGetsScheduledLater() {
+        // arrange - the student has a course with no schedule yet, timetable gets cached
+        Course lab = new Course();
+        lab.setId(1L);
+        lab.setCourseCode("LAB101");
+        when(enrollmentRepository.findCoursesByStudentIdAndStatus(7L, "ACTIVE")).thenReturn(List.of(lab));
+        Course newCourse = course(2L, "CS101", "TUE", "13:00", "14:00");
+        assertTrue(timetableIndexService.findConflicts(7L, newCourse).isEmpty());
+
+        // act - no transaction in the test, so the after commit part runs right away
+        timetableIndexService.courseScheduleChanged(course(1L, "LAB101", "TUE", "13:30", "15:00"));
+
+        // assert
+        assertEquals(List.of("LAB101"), timetableIndexService.findConflicts(7L, newCourse));
+    }
+
+    @Test
+    void testCourseScheduleChanged_NewCodeInConflicts() {
+        // arrange
+        Course math = course(1L, "MATH101", "MON", "09:00", "10:00");
+        when(enrollmentRepository.findCoursesByStudentIdAndStatus(7L, "ACTIVE")).thenReturn(List.of(math));
+        Course newCourse = course(2L, "CS101", "MON", "09:30", "10:30");
+        assertEquals(List.of("MATH101"), timetableIndexService.findConflicts(7L, newCourse));
+
+        // act - course code renamed
+        timetableIndexService.courseScheduleChanged(course(1L, "MATH110", "MON", "09:00", "10:00"));
+
+        // assert
+        assertEquals(List.of("MATH110"), timetableIndexService.findConflicts(7L, newCourse));
+    }
+}
@@ -24,6 +24,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
     @InjectMocks
     private UserService userService;
 
@@ -127,6 +133,7 @@ class UserServiceTest {
 
         // assert
         verify(userRepository, times(1)).delete(testUser);
+        verify(searchIndexService).entityRemoved(testUser);
     }
 
     @Test